@@ -141,10 +141,12 @@ public class DefaultPublisher extends Thread implements EventPublisher {
         checkIsStart();
         boolean success = this.queue.offer(event);
         if (!success) {
+            NotifyCenter.getPublisherMonitor().onInlineExecuted(event.getClass());
             LOGGER.warn("Unable to plug in due to interruption, synchronize sending time, event : {}", event);
             receiveEvent(event);
             return true;
         }
+        NotifyCenter.getPublisherMonitor().onPublished(event.getClass());
         return true;
     }
     
@@ -195,7 +197,13 @@ public class DefaultPublisher extends Thread implements EventPublisher {
         final Runnable job = new Runnable() {
             @Override
             public void run() {
-                subscriber.onEvent(event);
+                final long start = System.nanoTime();
+                try {
+                    subscriber.onEvent(event);
+                } finally {
+                    NotifyCenter.getPublisherMonitor()
+                            .onSubscriberFinished(event.getClass(), subscriber, System.nanoTime() - start);
+                }
             }
         };
         
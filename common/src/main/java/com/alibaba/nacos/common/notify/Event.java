@@ -41,5 +41,15 @@ public abstract class Event implements Serializable {
         return sequence;
     }
     
+    /**
+     * Whether the event may be dropped when its publisher can't keep up. Events which are not droppable are executed
+     * on the caller thread instead, so they are never lost.
+     *
+     * @return false by default
+     */
+    public boolean isDroppable() {
+        return false;
+    }
+    
 }
 
@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify;
+
+import com.alibaba.nacos.common.notify.listener.Subscriber;
+
+/**
+ * Monitor of event publishers, used to collect the running statistics of {@link NotifyCenter}.
+ *
+ * <p>Implementations are called on the publish path and on the subscriber callback path, so they must be cheap and
+ * must not throw exceptions.
+ *
+ * @author nacos
+ */
+public interface EventPublisherMonitor {
+    
+    /**
+     * Called when a publisher is created or when the monitor is installed for existing publishers.
+     *
+     * @param topic     canonical name of the event type the publisher is responsible for
+     * @param publisher {@link EventPublisher}
+     */
+    void onPublisherRegistered(String topic, EventPublisher publisher);
+    
+    /**
+     * Called when an event is staged into the publisher queue.
+     *
+     * @param eventType event type
+     */
+    void onPublished(Class<? extends Event> eventType);
+    
+    /**
+     * Called when an event is executed on the caller thread because the publisher queue was full.
+     *
+     * @param eventType event type
+     */
+    void onInlineExecuted(Class<? extends Event> eventType);
+    
+    /**
+     * Called when an event is dropped because there is no publisher for it, or because it is droppable and the
+     * publisher queue stayed full.
+     *
+     * @param eventType event type
+     */
+    void onDropped(Class<? extends Event> eventType);
+    
+    /**
+     * Called after {@link Subscriber#onEvent(Event)} finished.
+     *
+     * @param eventType  event type
+     * @param subscriber {@link Subscriber}
+     * @param costNanos  cost of {@link Subscriber#onEvent(Event)} in nanoseconds
+     */
+    void onSubscriberFinished(Class<? extends Event> eventType, Subscriber subscriber, long costNanos);
+    
+}
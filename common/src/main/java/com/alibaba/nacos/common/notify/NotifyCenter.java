@@ -60,6 +60,31 @@ public class NotifyCenter {
     
     private static Class<? extends EventPublisher> clazz = null;
     
+    private static final EventPublisherMonitor NOOP_MONITOR = new EventPublisherMonitor() {
+        
+        @Override
+        public void onPublisherRegistered(String topic, EventPublisher publisher) {
+        }
+        
+        @Override
+        public void onPublished(Class<? extends Event> eventType) {
+        }
+        
+        @Override
+        public void onInlineExecuted(Class<? extends Event> eventType) {
+        }
+        
+        @Override
+        public void onDropped(Class<? extends Event> eventType) {
+        }
+        
+        @Override
+        public void onSubscriberFinished(Class<? extends Event> eventType, Subscriber subscriber, long costNanos) {
+        }
+    };
+    
+    private static volatile EventPublisherMonitor publisherMonitor = NOOP_MONITOR;
+    
     /**
      * Publisher management container.
      */
@@ -91,6 +116,7 @@ public class NotifyCenter {
                 try {
                     EventPublisher publisher = clazz.newInstance();
                     publisher.init(cls, buffer);
+                    publisherMonitor.onPublisherRegistered(ClassUtils.getCanonicalName(cls), publisher);
                     return publisher;
                 } catch (Throwable ex) {
                     LOGGER.error("Service class newInstance has error : {}", ex);
@@ -135,6 +161,27 @@ public class NotifyCenter {
         return INSTANCE.sharePublisher;
     }
     
+    public static EventPublisherMonitor getPublisherMonitor() {
+        return publisherMonitor;
+    }
+    
+    /**
+     * Install the monitor of publishers, all existing publishers will be reported to the new monitor.
+     *
+     * @param monitor {@link EventPublisherMonitor}, {@code null} means uninstall
+     */
+    public static void setPublisherMonitor(EventPublisherMonitor monitor) {
+        synchronized (NotifyCenter.class) {
+            publisherMonitor = monitor == null ? NOOP_MONITOR : monitor;
+            if (INSTANCE.sharePublisher != null) {
+                publisherMonitor.onPublisherRegistered(ClassUtils.getCanonicalName(SlowEvent.class), INSTANCE.sharePublisher);
+            }
+            for (Map.Entry<String, EventPublisher> entry : INSTANCE.publisherMap.entrySet()) {
+                publisherMonitor.onPublisherRegistered(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
     /**
      * Shutdown the serveral publisher instance which notifycenter has.
      */
@@ -290,6 +337,7 @@ public class NotifyCenter {
         if (publisher != null) {
             return publisher.publish(event);
         }
+        publisherMonitor.onDropped(eventType);
         LOGGER.warn("There are no [{}] publishers for this event, please register", topic);
         return false;
     }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify;
+
+import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.common.notify.ringbuffer.MultiProducerRingBuffer;
+import com.alibaba.nacos.common.notify.ringbuffer.WaitStrategies;
+import com.alibaba.nacos.common.notify.ringbuffer.WaitStrategy;
+import com.alibaba.nacos.common.utils.CollectionUtils;
+import com.alibaba.nacos.common.utils.ConcurrentHashSet;
+import com.alibaba.nacos.common.utils.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Event publisher implementation based on a preallocated multi-producer ring buffer.
+ *
+ * <p>Compared with {@link DefaultPublisher}, publishing never takes a lock and the consumer thread drains all
+ * available events in one batch. The way the consumer waits for events is decided by {@link WaitStrategy}, which can
+ * be configured by {@code nacos.core.notify.wait-strategy}.
+ *
+ * <p>When the ring buffer is full, the producer waits for free slots up to
+ * {@code nacos.core.notify.publish-timeout-ms} milliseconds. If it is still full then, a {@link Event#isDroppable()
+ * droppable} event is dropped and counted, any other event is executed on the caller thread.
+ *
+ * <p>It can be enabled by declaring it in {@code META-INF/services/com.alibaba.nacos.common.notify.EventPublisher}.
+ *
+ * @author nacos
+ */
+public class RingBufferPublisher extends Thread implements EventPublisher {
+    
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotifyCenter.class);
+    
+    private static final String WAIT_STRATEGY_PROPERTY = "nacos.core.notify.wait-strategy";
+    
+    private static final String PUBLISH_TIMEOUT_PROPERTY = "nacos.core.notify.publish-timeout-ms";
+    
+    private static final long DEFAULT_PUBLISH_TIMEOUT_MILLIS = 100L;
+    
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100L);
+    
+    private volatile boolean initialized = false;
+    
+    private volatile boolean shutdown = false;
+    
+    private Class<? extends Event> eventType;
+    
+    private final ConcurrentHashSet<Subscriber> subscribers = new ConcurrentHashSet<Subscriber>();
+    
+    private MultiProducerRingBuffer<Event> ringBuffer;
+    
+    private WaitStrategy waitStrategy;
+    
+    private long publishTimeoutNanos;
+    
+    private volatile long lastEventSequence = -1L;
+    
+    /**
+     * Count of events published into the ring buffer.
+     */
+    private final AtomicLong publishedCount = new AtomicLong();
+    
+    /**
+     * Count of events executed on the caller thread because the ring buffer was full.
+     */
+    private final AtomicLong inlineExecutedCount = new AtomicLong();
+    
+    /**
+     * Count of droppable events dropped because the ring buffer stayed full.
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+    
+    /**
+     * Count of batches drained by the consumer thread.
+     */
+    private final AtomicLong drainedBatchCount = new AtomicLong();
+    
+    @Override
+    public void init(Class<? extends Event> type, int bufferSize) {
+        setDaemon(true);
+        setName("nacos.publisher-" + type.getName());
+        this.eventType = type;
+        this.ringBuffer = new MultiProducerRingBuffer<Event>(bufferSize);
+        this.waitStrategy = WaitStrategies.newWaitStrategy(System.getProperty(WAIT_STRATEGY_PROPERTY));
+        this.publishTimeoutNanos = TimeUnit.MILLISECONDS
+                .toNanos(Long.getLong(PUBLISH_TIMEOUT_PROPERTY, DEFAULT_PUBLISH_TIMEOUT_MILLIS));
+        start();
+    }
+    
+    @Override
+    public synchronized void start() {
+        if (!initialized) {
+            // start just called once
+            super.start();
+            initialized = true;
+        }
+    }
+    
+    @Override
+    public long currentEventSize() {
+        return ringBuffer.size();
+    }
+    
+    @Override
+    public void run() {
+        openEventHandler();
+    }
+    
+    void openEventHandler() {
+        try {
+            // To ensure that messages are not lost, enable EventHandler when
+            // waiting for the first Subscriber to register
+            int waitTimes = 60;
+            for (; ; ) {
+                if (shutdown || hasSubscriber() || waitTimes <= 0) {
+                    break;
+                }
+                ThreadUtils.sleep(1000L);
+                waitTimes--;
+            }
+            
+            long nextSequence = ringBuffer.getConsumed() + 1;
+            for (; ; ) {
+                if (shutdown) {
+                    break;
+                }
+                final long availableSequence = ringBuffer.getHighestPublished(nextSequence);
+                if (availableSequence < nextSequence) {
+                    waitStrategy.waitFor(nextSequence, ringBuffer);
+                    continue;
+                }
+                for (long sequence = nextSequence; sequence <= availableSequence; sequence++) {
+                    final Event event = ringBuffer.take(sequence);
+                    receiveEvent(event);
+                    lastEventSequence = Math.max(lastEventSequence, event.sequence());
+                }
+                ringBuffer.release(availableSequence);
+                drainedBatchCount.incrementAndGet();
+                nextSequence = availableSequence + 1;
+            }
+        } catch (Throwable ex) {
+            LOGGER.error("Event listener exception : {}", ex);
+        }
+    }
+    
+    private boolean hasSubscriber() {
+        return CollectionUtils.isNotEmpty(subscribers);
+    }
+    
+    @Override
+    public void addSubscriber(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+    
+    @Override
+    public void removeSubscriber(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+    
+    @Override
+    public boolean publish(Event event) {
+        checkIsStart();
+        if (tryPublish(event)) {
+            publishedCount.incrementAndGet();
+            waitStrategy.signalAllWhenBlocking();
+            NotifyCenter.getPublisherMonitor().onPublished(event.getClass());
+            return true;
+        }
+        if (event.isDroppable()) {
+            droppedCount.incrementAndGet();
+            NotifyCenter.getPublisherMonitor().onDropped(event.getClass());
+            LOGGER.warn("Ring buffer of {} is full, drop event : {}", eventType.getName(), event);
+            return false;
+        }
+        inlineExecutedCount.incrementAndGet();
+        NotifyCenter.getPublisherMonitor().onInlineExecuted(event.getClass());
+        LOGGER.warn("Ring buffer of {} is full, synchronize sending time, event : {}", eventType.getName(), event);
+        receiveEvent(event);
+        return true;
+    }
+    
+    private boolean tryPublish(Event event) {
+        if (ringBuffer.tryPublish(event)) {
+            return true;
+        }
+        // The consumer can't make room while it is publishing itself.
+        if (Thread.currentThread() == this) {
+            return false;
+        }
+        // Wake up the consumer in case it is blocked, then wait for it to release some slots.
+        waitStrategy.signalAllWhenBlocking();
+        final long deadline = System.nanoTime() + publishTimeoutNanos;
+        while (!shutdown && deadline - System.nanoTime() > 0) {
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+            if (ringBuffer.tryPublish(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    void checkIsStart() {
+        if (!initialized) {
+            throw new IllegalStateException("Publisher does not start");
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        this.shutdown = true;
+        waitStrategy.signalAllWhenBlocking();
+    }
+    
+    public boolean isInitialized() {
+        return initialized;
+    }
+    
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+    
+    public long getInlineExecutedCount() {
+        return inlineExecutedCount.get();
+    }
+    
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    
+    public long getDrainedBatchCount() {
+        return drainedBatchCount.get();
+    }
+    
+    /**
+     * Receive and notifySubscriber to process the event.
+     *
+     * @param event {@link Event}.
+     */
+    void receiveEvent(Event event) {
+        final long currentEventSequence = event.sequence();
+        
+        for (Subscriber subscriber : subscribers) {
+            // Whether to ignore expiration events
+            if (subscriber.ignoreExpireEvent() && lastEventSequence > currentEventSequence) {
+                LOGGER.debug("[NotifyCenter] the {} is unacceptable to this subscriber, because had expire",
+                        event.getClass());
+                continue;
+            }
+            notifySubscriber(subscriber, event);
+        }
+    }
+    
+    @Override
+    public void notifySubscriber(final Subscriber subscriber, final Event event) {
+        
+        LOGGER.debug("[NotifyCenter] the {} will received by {}", event, subscriber);
+        
+        final Runnable job = new Runnable() {
+            @Override
+            public void run() {
+                final long start = System.nanoTime();
+                try {
+                    subscriber.onEvent(event);
+                } finally {
+                    NotifyCenter.getPublisherMonitor()
+                            .onSubscriberFinished(event.getClass(), subscriber, System.nanoTime() - start);
+                }
+            }
+        };
+        
+        final Executor executor = subscriber.executor();
+        
+        if (executor != null) {
+            executor.execute(job);
+        } else {
+            try {
+                job.run();
+            } catch (Throwable e) {
+                LOGGER.error("Event callback exception : {}", e);
+            }
+        }
+    }
+}
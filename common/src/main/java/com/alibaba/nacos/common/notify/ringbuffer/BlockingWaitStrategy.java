@@ -0,0 +1,70 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify.ringbuffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking wait strategy, the consumer parks on a condition until producers signal it.
+ *
+ * <p>Producers only take the lock when the consumer is really waiting, so the publish path stays lock-free while the
+ * consumer is busy. Lowest CPU usage, highest latency.
+ *
+ * @author nacos
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+    
+    private static final long MAX_WAIT_MILLIS = 1000L;
+    
+    private final Lock lock = new ReentrantLock();
+    
+    private final Condition notEmpty = lock.newCondition();
+    
+    private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+    
+    @Override
+    public void waitFor(long sequence, MultiProducerRingBuffer<?> ringBuffer) throws InterruptedException {
+        if (ringBuffer.getCursor() >= sequence) {
+            return;
+        }
+        lock.lock();
+        try {
+            signalNeeded.set(true);
+            if (ringBuffer.getCursor() < sequence) {
+                notEmpty.await(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded.getAndSet(false)) {
+            lock.lock();
+            try {
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
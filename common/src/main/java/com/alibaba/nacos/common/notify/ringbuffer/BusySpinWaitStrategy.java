@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify.ringbuffer;
+
+/**
+ * Busy spin wait strategy, lowest latency but occupies a whole core, only for dedicated deployments.
+ *
+ * @author nacos
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+    
+    private static final int MAX_SPINS = 1 << 20;
+    
+    @Override
+    public void waitFor(long sequence, MultiProducerRingBuffer<?> ringBuffer) throws InterruptedException {
+        int spins = MAX_SPINS;
+        while (ringBuffer.getCursor() < sequence && spins-- > 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+    
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify.ringbuffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A preallocated, bounded ring buffer which supports multi producers and a single consumer.
+ *
+ * <p>Producers claim a sequence by CAS on the cursor and then mark the slot as published, so no lock is needed on the
+ * publish path. The consumer drains every contiguously published sequence in one batch and releases the whole batch
+ * at once.
+ *
+ * @author nacos
+ */
+public class MultiProducerRingBuffer<E> {
+    
+    private static final long INITIAL_SEQUENCE = -1L;
+    
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    
+    private final int capacity;
+    
+    private final int mask;
+    
+    private final AtomicReferenceArray<E> entries;
+    
+    /**
+     * The sequence which has been published into each slot, used to detect the gap between claimed and published.
+     */
+    private final AtomicLongArray published;
+    
+    /**
+     * The highest sequence claimed by producers.
+     */
+    private final AtomicLong cursor = new AtomicLong(INITIAL_SEQUENCE);
+    
+    /**
+     * The highest sequence released by the consumer.
+     */
+    private final AtomicLong gatingSequence = new AtomicLong(INITIAL_SEQUENCE);
+    
+    public MultiProducerRingBuffer(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive, but was " + bufferSize);
+        }
+        this.capacity = ceilingPowerOfTwo(bufferSize);
+        this.mask = capacity - 1;
+        this.entries = new AtomicReferenceArray<E>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, INITIAL_SEQUENCE);
+        }
+    }
+    
+    /**
+     * Try to publish an element, never blocks.
+     *
+     * @param element element
+     * @return {@code false} if the ring buffer is full
+     */
+    public boolean tryPublish(E element) {
+        long current;
+        long next;
+        do {
+            current = cursor.get();
+            next = current + 1;
+            if (next - capacity > gatingSequence.get()) {
+                return false;
+            }
+        } while (!cursor.compareAndSet(current, next));
+        
+        final int index = indexOf(next);
+        entries.lazySet(index, element);
+        published.set(index, next);
+        return true;
+    }
+    
+    /**
+     * Find the highest sequence which is published contiguously from the given sequence.
+     *
+     * @param lowerBound the first sequence to check
+     * @return the highest contiguously published sequence, or {@code lowerBound - 1} if nothing is available
+     */
+    public long getHighestPublished(long lowerBound) {
+        final long available = cursor.get();
+        for (long sequence = lowerBound; sequence <= available; sequence++) {
+            if (published.get(indexOf(sequence)) != sequence) {
+                return sequence - 1;
+            }
+        }
+        return available;
+    }
+    
+    /**
+     * Take the element of a published sequence and clear the slot. Only called by the consumer.
+     *
+     * @param sequence published sequence
+     * @return element
+     */
+    public E take(long sequence) {
+        final int index = indexOf(sequence);
+        E element = entries.get(index);
+        entries.lazySet(index, null);
+        return element;
+    }
+    
+    /**
+     * Release all slots up to the given sequence so that producers can reuse them. Only called by the consumer.
+     *
+     * @param sequence the highest consumed sequence
+     */
+    public void release(long sequence) {
+        gatingSequence.lazySet(sequence);
+    }
+    
+    public long getCursor() {
+        return cursor.get();
+    }
+    
+    public long getConsumed() {
+        return gatingSequence.get();
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public long size() {
+        return Math.max(0L, cursor.get() - gatingSequence.get());
+    }
+    
+    private int indexOf(long sequence) {
+        return (int) sequence & mask;
+    }
+    
+    private static int ceilingPowerOfTwo(int value) {
+        if (value > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("bufferSize is too large : " + value);
+        }
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+}
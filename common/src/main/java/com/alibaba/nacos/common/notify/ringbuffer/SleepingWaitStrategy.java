@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify.ringbuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sleeping wait strategy, spin first, then yield, then park for a short while.
+ *
+ * <p>Producers never need to signal the consumer. A good trade off between latency and CPU usage.
+ *
+ * @author nacos
+ */
+public class SleepingWaitStrategy implements WaitStrategy {
+    
+    private static final int SPIN_TRIES = 100;
+    
+    private static final int YIELD_TRIES = 100;
+    
+    private static final long PARK_NANOS = 100000L;
+    
+    @Override
+    public void waitFor(long sequence, MultiProducerRingBuffer<?> ringBuffer) throws InterruptedException {
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        while (ringBuffer.getCursor() < sequence) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (counter > YIELD_TRIES) {
+                counter--;
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                // Return periodically to let the consumer check its state.
+                LockSupport.parkNanos(PARK_NANOS);
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
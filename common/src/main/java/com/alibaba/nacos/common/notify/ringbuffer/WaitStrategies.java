@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify.ringbuffer;
+
+/**
+ * Factory of {@link WaitStrategy}.
+ *
+ * @author nacos
+ */
+public final class WaitStrategies {
+    
+    public static final String BLOCKING = "blocking";
+    
+    public static final String SLEEPING = "sleeping";
+    
+    public static final String BUSY_SPIN = "busy-spin";
+    
+    private WaitStrategies() {
+    }
+    
+    /**
+     * Create wait strategy by name, unknown name falls back to {@link BlockingWaitStrategy}.
+     *
+     * @param name strategy name, one of {@code blocking}, {@code sleeping} and {@code busy-spin}
+     * @return new wait strategy instance
+     */
+    public static WaitStrategy newWaitStrategy(String name) {
+        if (SLEEPING.equalsIgnoreCase(name)) {
+            return new SleepingWaitStrategy();
+        }
+        if (BUSY_SPIN.equalsIgnoreCase(name)) {
+            return new BusySpinWaitStrategy();
+        }
+        return new BlockingWaitStrategy();
+    }
+}
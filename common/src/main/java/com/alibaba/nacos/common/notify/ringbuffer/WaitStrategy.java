@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify.ringbuffer;
+
+/**
+ * Strategy used by the consumer of {@link MultiProducerRingBuffer} to wait for new elements.
+ *
+ * @author nacos
+ */
+public interface WaitStrategy {
+    
+    /**
+     * Wait until the cursor of ring buffer reaches the given sequence. Implementations may return earlier, callers
+     * should always check the available sequence again.
+     *
+     * @param sequence   sequence to wait for
+     * @param ringBuffer ring buffer
+     * @throws InterruptedException if the consumer thread is interrupted
+     */
+    void waitFor(long sequence, MultiProducerRingBuffer<?> ringBuffer) throws InterruptedException;
+    
+    /**
+     * Wake up the consumer if it is blocked, called by producers after publishing.
+     */
+    void signalAllWhenBlocking();
+
+}
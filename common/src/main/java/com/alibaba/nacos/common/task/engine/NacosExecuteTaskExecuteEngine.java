@@ -71,14 +71,27 @@ public class NacosExecuteTaskExecuteEngine extends AbstractNacosTaskExecuteEngin
     }
     
     private TaskExecuteWorker getWorker(Object tag) {
-        int idx = (tag.hashCode() & Integer.MAX_VALUE) % workersCount();
-        return executeWorkers[idx];
+        return executeWorkers[getWorkerIndex(tag)];
     }
     
-    private int workersCount() {
+    /**
+     * Get index of the worker which the tasks of tag are dispatched to.
+     *
+     * @param tag task tag
+     * @return worker index
+     */
+    public int getWorkerIndex(Object tag) {
+        return (tag.hashCode() & Integer.MAX_VALUE) % workersCount();
+    }
+    
+    public int workersCount() {
         return executeWorkers.length;
     }
     
+    public int pendingTaskCount(int workerIndex) {
+        return executeWorkers[workerIndex].pendingTaskCount();
+    }
+    
     @Override
     public AbstractExecuteTask removeTask(Object key) {
         throw new UnsupportedOperationException("ExecuteTaskEngine do not support remove task");
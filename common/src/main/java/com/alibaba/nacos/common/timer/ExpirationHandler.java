@@ -0,0 +1,36 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.timer;
+
+import java.util.List;
+
+/**
+ * Handler of expired items of {@link HashedTimingWheel}.
+ *
+ * @param <T> type of item
+ * @author nacos
+ */
+public interface ExpirationHandler<T> {
+    
+    /**
+     * Handle all items expired in one tick, called by the worker thread of timing wheel.
+     *
+     * @param expiredItems expired items, never empty
+     */
+    void onExpired(List<T> expiredItems);
+    
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.timer;
+
+import com.alibaba.nacos.common.lifecycle.Closeable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hashed timing wheel which keeps huge number of timeouts with one thread.
+ *
+ * <p>Adding and cancelling a timeout are O(1) and never take a lock. All items expired in one tick are handed to
+ * {@link ExpirationHandler} in one batch, so the cost of expiration is paid only by the items which are really due,
+ * instead of one scheduled task for each item.
+ *
+ * <p>The accuracy of expiration is one tick, it is suitable for timeouts like heartbeat, ack and long polling hold.
+ *
+ * @param <T> type of item
+ * @author nacos
+ */
+public class HashedTimingWheel<T> implements Closeable {
+    
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedTimingWheel.class);
+    
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+    
+    private static final int MAX_TICKS_PER_WHEEL = 1 << 30;
+    
+    private static final long NANOS_PER_MILLI = 1000000L;
+    
+    private final long tickNanos;
+    
+    private final Bucket<T>[] wheel;
+    
+    private final int mask;
+    
+    private final ExpirationHandler<T> handler;
+    
+    private final Queue<WheelTimeout<T>> pendingTimeouts = new ConcurrentLinkedQueue<WheelTimeout<T>>();
+    
+    private final Queue<WheelTimeout<T>> cancelledTimeouts = new ConcurrentLinkedQueue<WheelTimeout<T>>();
+    
+    private final AtomicLong pendingCount = new AtomicLong();
+    
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+    
+    private final long startTime;
+    
+    private final Thread workerThread;
+    
+    private long tick;
+    
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel,
+            ExpirationHandler<T> handler) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0 || ticksPerWheel > MAX_TICKS_PER_WHEEL) {
+            throw new IllegalArgumentException(
+                    "illegal tickDuration " + tickDuration + " or ticksPerWheel " + ticksPerWheel);
+        }
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket<T>();
+        }
+        this.mask = wheelSize - 1;
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), NANOS_PER_MILLI);
+        this.handler = handler;
+        this.startTime = System.nanoTime();
+        this.workerThread = new Worker(name);
+        this.workerThread.start();
+    }
+    
+    /**
+     * Schedule an item which expires after the given delay.
+     *
+     * @param item  item
+     * @param delay delay
+     * @param unit  unit of delay
+     * @return handle of the timeout
+     */
+    public Timeout<T> newTimeout(T item, long delay, TimeUnit unit) {
+        if (shutdown.get()) {
+            throw new IllegalStateException("timing wheel has been shutdown");
+        }
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0L)) - startTime;
+        WheelTimeout<T> timeout = new WheelTimeout<T>(this, item, deadline);
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * The number of timeouts which are neither expired nor cancelled.
+     *
+     * @return pending timeouts count
+     */
+    public long pendingTimeouts() {
+        return pendingCount.get();
+    }
+    
+    @Override
+    public void shutdown() {
+        if (shutdown.compareAndSet(false, true)) {
+            workerThread.interrupt();
+        }
+    }
+    
+    private final class Worker extends Thread {
+        
+        Worker(String name) {
+            setName(name);
+            setDaemon(true);
+        }
+        
+        @Override
+        public void run() {
+            while (!shutdown.get()) {
+                final long deadline = waitForNextTick();
+                if (deadline < 0) {
+                    continue;
+                }
+                processCancelledTimeouts();
+                transferTimeoutsToBuckets();
+                List<T> expired = wheel[(int) (tick & mask)].expireTimeouts(deadline);
+                tick++;
+                if (!expired.isEmpty()) {
+                    pendingCount.addAndGet(-expired.size());
+                    try {
+                        handler.onExpired(expired);
+                    } catch (Throwable e) {
+                        LOGGER.error("[TimingWheel] handle expired items failed : {}", e);
+                    }
+                }
+            }
+        }
+        
+        private long waitForNextTick() {
+            final long deadline = tickNanos * (tick + 1);
+            for (; ; ) {
+                final long currentTime = System.nanoTime() - startTime;
+                long sleepTimeMs = (deadline - currentTime + NANOS_PER_MILLI - 1) / NANOS_PER_MILLI;
+                if (sleepTimeMs <= 0) {
+                    return currentTime;
+                }
+                try {
+                    Thread.sleep(sleepTimeMs);
+                } catch (InterruptedException ignored) {
+                    if (shutdown.get()) {
+                        return -1L;
+                    }
+                }
+            }
+        }
+        
+        private void processCancelledTimeouts() {
+            for (; ; ) {
+                WheelTimeout<T> timeout = cancelledTimeouts.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+                pendingCount.decrementAndGet();
+            }
+        }
+        
+        private void transferTimeoutsToBuckets() {
+            for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+                WheelTimeout<T> timeout = pendingTimeouts.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.isCancelled()) {
+                    continue;
+                }
+                long calculated = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+                // Ensure we don't schedule for past.
+                final long ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+    }
+    
+    private static final class WheelTimeout<T> implements Timeout<T> {
+        
+        private static final int ST_INIT = 0;
+        
+        private static final int ST_CANCELLED = 1;
+        
+        private static final int ST_EXPIRED = 2;
+        
+        private final HashedTimingWheel<T> timingWheel;
+        
+        private final T item;
+        
+        private final long deadline;
+        
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        
+        private long remainingRounds;
+        
+        private WheelTimeout<T> next;
+        
+        private WheelTimeout<T> prev;
+        
+        private Bucket<T> bucket;
+        
+        WheelTimeout(HashedTimingWheel<T> timingWheel, T item, long deadline) {
+            this.timingWheel = timingWheel;
+            this.item = item;
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public T item() {
+            return item;
+        }
+        
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timingWheel.cancelledTimeouts.add(this);
+            return true;
+        }
+        
+        boolean expire() {
+            return state.compareAndSet(ST_INIT, ST_EXPIRED);
+        }
+        
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+    }
+    
+    /**
+     * Doubly linked list of timeouts in one slot, only accessed by the worker thread.
+     */
+    private static final class Bucket<T> {
+        
+        private WheelTimeout<T> head;
+        
+        private WheelTimeout<T> tail;
+        
+        void add(WheelTimeout<T> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+        
+        List<T> expireTimeouts(long deadline) {
+            List<T> expired = null;
+            WheelTimeout<T> timeout = head;
+            while (timeout != null) {
+                WheelTimeout<T> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    if (timeout.deadline <= deadline && timeout.expire()) {
+                        remove(timeout);
+                        if (expired == null) {
+                            expired = new ArrayList<T>();
+                        }
+                        expired.add(timeout.item);
+                    }
+                } else if (!timeout.isCancelled()) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            return expired == null ? Collections.<T>emptyList() : expired;
+        }
+        
+        void remove(WheelTimeout<T> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            WheelTimeout<T> next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                if (timeout == tail) {
+                    tail = null;
+                    head = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.timer;
+
+/**
+ * Handle of an item scheduled in {@link HashedTimingWheel}.
+ *
+ * @param <T> type of item
+ * @author nacos
+ */
+public interface Timeout<T> {
+    
+    /**
+     * Get the scheduled item.
+     *
+     * @return item
+     */
+    T item();
+    
+    /**
+     * Cancel the timeout, O(1). The item is removed from the wheel in the next tick.
+     *
+     * @return {@code false} if the timeout has already expired or been cancelled
+     */
+    boolean cancel();
+    
+    /**
+     * Whether the timeout has expired.
+     *
+     * @return {@code true} if expired
+     */
+    boolean isExpired();
+    
+    /**
+     * Whether the timeout has been cancelled.
+     *
+     * @return {@code true} if cancelled
+     */
+    boolean isCancelled();
+    
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify;
+
+import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.common.utils.ThreadUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RingBufferPublisherTest {
+    
+    private static class TestEvent extends Event {
+    
+    }
+    
+    private static class DroppableEvent extends TestEvent {
+        
+        @Override
+        public boolean isDroppable() {
+            return true;
+        }
+    }
+    
+    /**
+     * Create a publisher whose consumer blocks on the first event until the blocker is counted down.
+     */
+    private static RingBufferPublisher blockedPublisher(final CountDownLatch started, final CountDownLatch blocker,
+            final AtomicInteger received) {
+        final RingBufferPublisher publisher = new RingBufferPublisher();
+        publisher.addSubscriber(new Subscriber<TestEvent>() {
+            @Override
+            public void onEvent(TestEvent event) {
+                if (Thread.currentThread() == publisher && started.getCount() > 0) {
+                    started.countDown();
+                    try {
+                        blocker.await();
+                    } catch (InterruptedException ignore) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                received.incrementAndGet();
+            }
+            
+            @Override
+            public Class<? extends Event> subscribeType() {
+                return TestEvent.class;
+            }
+        });
+        return publisher;
+    }
+    
+    @Test
+    public void testMultiProducerPublish() throws Exception {
+        final int producers = 4;
+        final int eventsPerProducer = 2000;
+        final CountDownLatch latch = new CountDownLatch(producers * eventsPerProducer);
+        final AtomicInteger received = new AtomicInteger();
+        
+        final RingBufferPublisher publisher = new RingBufferPublisher();
+        publisher.addSubscriber(new Subscriber<TestEvent>() {
+            @Override
+            public void onEvent(TestEvent event) {
+                received.incrementAndGet();
+                latch.countDown();
+            }
+            
+            @Override
+            public Class<? extends Event> subscribeType() {
+                return TestEvent.class;
+            }
+        });
+        publisher.init(TestEvent.class, 128);
+        
+        for (int i = 0; i < producers; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < eventsPerProducer; j++) {
+                        publisher.publish(new TestEvent());
+                    }
+                }
+            }).start();
+        }
+        
+        Assert.assertTrue(latch.await(10L, TimeUnit.SECONDS));
+        Assert.assertEquals(producers * eventsPerProducer, received.get());
+        Assert.assertEquals(producers * eventsPerProducer,
+                publisher.getPublishedCount() + publisher.getInlineExecutedCount());
+        publisher.shutdown();
+    }
+    
+    @Test
+    public void testInlineExecuteWhenFull() throws Exception {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger received = new AtomicInteger();
+        
+        final RingBufferPublisher publisher = new RingBufferPublisher();
+        publisher.addSubscriber(new Subscriber<TestEvent>() {
+            @Override
+            public void onEvent(TestEvent event) {
+                if (Thread.currentThread() == publisher) {
+                    started.countDown();
+                    try {
+                        blocker.await();
+                    } catch (InterruptedException ignore) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                received.incrementAndGet();
+            }
+            
+            @Override
+            public Class<? extends Event> subscribeType() {
+                return TestEvent.class;
+            }
+        });
+        publisher.init(TestEvent.class, 2);
+        
+        publisher.publish(new TestEvent());
+        Assert.assertTrue(started.await(5L, TimeUnit.SECONDS));
+        // The consumer holds the first slot, so only one more event can be buffered.
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(publisher.publish(new TestEvent()));
+        }
+        Assert.assertEquals(2, publisher.getInlineExecutedCount());
+        blocker.countDown();
+        publisher.shutdown();
+    }
+    
+    @Test
+    public void testWaitForFreeSlotsWhenFull() throws Exception {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger received = new AtomicInteger();
+        final RingBufferPublisher publisher = blockedPublisher(started, blocker, received);
+        System.setProperty("nacos.core.notify.publish-timeout-ms", "10000");
+        try {
+            publisher.init(TestEvent.class, 2);
+        } finally {
+            System.clearProperty("nacos.core.notify.publish-timeout-ms");
+        }
+        
+        publisher.publish(new TestEvent());
+        Assert.assertTrue(started.await(5L, TimeUnit.SECONDS));
+        Assert.assertTrue(publisher.publish(new TestEvent()));
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ThreadUtils.sleep(50L);
+                blocker.countDown();
+            }
+        }).start();
+        // Full until the consumer goes on, the producer waits instead of executing inline.
+        Assert.assertTrue(publisher.publish(new TestEvent()));
+        Assert.assertEquals(0, publisher.getInlineExecutedCount());
+        Assert.assertEquals(3, publisher.getPublishedCount());
+        publisher.shutdown();
+    }
+    
+    @Test
+    public void testDropDroppableEventWhenFull() throws Exception {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger received = new AtomicInteger();
+        final RingBufferPublisher publisher = blockedPublisher(started, blocker, received);
+        System.setProperty("nacos.core.notify.publish-timeout-ms", "10");
+        try {
+            publisher.init(TestEvent.class, 2);
+        } finally {
+            System.clearProperty("nacos.core.notify.publish-timeout-ms");
+        }
+        
+        publisher.publish(new TestEvent());
+        Assert.assertTrue(started.await(5L, TimeUnit.SECONDS));
+        Assert.assertTrue(publisher.publish(new TestEvent()));
+        Assert.assertFalse(publisher.publish(new DroppableEvent()));
+        Assert.assertEquals(1, publisher.getDroppedCount());
+        Assert.assertEquals(0, publisher.getInlineExecutedCount());
+        Assert.assertEquals(0, received.get());
+        blocker.countDown();
+        publisher.shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.notify.ringbuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MultiProducerRingBufferTest {
+    
+    @Test
+    public void testCapacityRoundUp() {
+        Assert.assertEquals(16, new MultiProducerRingBuffer<String>(10).getCapacity());
+        Assert.assertEquals(1, new MultiProducerRingBuffer<String>(1).getCapacity());
+    }
+    
+    @Test
+    public void testPublishAndDrain() {
+        MultiProducerRingBuffer<String> ringBuffer = new MultiProducerRingBuffer<String>(4);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(ringBuffer.tryPublish("e" + i));
+        }
+        Assert.assertFalse(ringBuffer.tryPublish("full"));
+        Assert.assertEquals(4, ringBuffer.size());
+        
+        long available = ringBuffer.getHighestPublished(0);
+        Assert.assertEquals(3, available);
+        for (long sequence = 0; sequence <= available; sequence++) {
+            Assert.assertEquals("e" + sequence, ringBuffer.take(sequence));
+        }
+        ringBuffer.release(available);
+        Assert.assertEquals(0, ringBuffer.size());
+        Assert.assertTrue(ringBuffer.tryPublish("e4"));
+        Assert.assertEquals(4, ringBuffer.getHighestPublished(4));
+        Assert.assertEquals("e4", ringBuffer.take(4));
+    }
+    
+    @Test
+    public void testNothingAvailable() {
+        MultiProducerRingBuffer<String> ringBuffer = new MultiProducerRingBuffer<String>(4);
+        Assert.assertEquals(-1, ringBuffer.getHighestPublished(0));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.timer;
+
+import com.alibaba.nacos.common.utils.ThreadUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HashedTimingWheelTest {
+    
+    private final Set<String> expiredItems = new CopyOnWriteArraySet<String>();
+    
+    private final AtomicInteger batches = new AtomicInteger();
+    
+    private HashedTimingWheel<String> timingWheel;
+    
+    @Before
+    public void setUp() {
+        timingWheel = new HashedTimingWheel<String>("test-timing-wheel", 10, TimeUnit.MILLISECONDS, 8,
+                new ExpirationHandler<String>() {
+                    @Override
+                    public void onExpired(List<String> items) {
+                        batches.incrementAndGet();
+                        expiredItems.addAll(items);
+                    }
+                });
+    }
+    
+    @After
+    public void tearDown() {
+        timingWheel.shutdown();
+    }
+    
+    @Test
+    public void testExpire() {
+        Timeout<String> timeout = timingWheel.newTimeout("a", 50, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(1, timingWheel.pendingTimeouts());
+        ThreadUtils.sleep(20L);
+        Assert.assertFalse(timeout.isExpired());
+        ThreadUtils.sleep(100L);
+        Assert.assertTrue(timeout.isExpired());
+        Assert.assertTrue(expiredItems.contains("a"));
+        Assert.assertEquals(0, timingWheel.pendingTimeouts());
+    }
+    
+    @Test
+    public void testExpireAfterMultiRounds() {
+        // 8 ticks of 10ms per round, so 250ms needs more than 3 rounds.
+        Timeout<String> timeout = timingWheel.newTimeout("a", 250, TimeUnit.MILLISECONDS);
+        ThreadUtils.sleep(200L);
+        Assert.assertFalse(timeout.isExpired());
+        ThreadUtils.sleep(150L);
+        Assert.assertTrue(timeout.isExpired());
+    }
+    
+    @Test
+    public void testCancel() {
+        Timeout<String> timeout = timingWheel.newTimeout("a", 50, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(timeout.cancel());
+        Assert.assertFalse(timeout.cancel());
+        ThreadUtils.sleep(150L);
+        Assert.assertFalse(timeout.isExpired());
+        Assert.assertTrue(expiredItems.isEmpty());
+        Assert.assertEquals(0, timingWheel.pendingTimeouts());
+    }
+    
+    @Test
+    public void testExpireInBatch() {
+        for (int i = 0; i < 1000; i++) {
+            timingWheel.newTimeout(String.valueOf(i), 30, TimeUnit.MILLISECONDS);
+        }
+        ThreadUtils.sleep(200L);
+        Assert.assertEquals(1000, expiredItems.size());
+        Assert.assertTrue(batches.get() < 1000);
+    }
+}
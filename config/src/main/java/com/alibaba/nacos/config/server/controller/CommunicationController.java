@@ -17,6 +17,7 @@
 package com.alibaba.nacos.config.server.controller;
 
 import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.ConfigChangeItem;
 import com.alibaba.nacos.config.server.model.SampleResult;
 import com.alibaba.nacos.config.server.service.LongPollingService;
 import com.alibaba.nacos.config.server.service.dump.DumpService;
@@ -25,12 +26,15 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.List;
 
 /**
  * Controller for other node notification.
@@ -77,6 +81,26 @@ public class CommunicationController {
         return true;
     }
     
+    /**
+     * Notify a batch of config changes, sent by members that coalesce their notifications.
+     *
+     */
+    @PostMapping("/dataChange")
+    public Boolean notifyConfigInfoBatch(HttpServletRequest request, @RequestBody List<ConfigChangeItem> changes) {
+        String handleIp = request.getHeader(NotifyService.NOTIFY_HEADER_OP_HANDLE_IP);
+        for (ConfigChangeItem change : changes) {
+            String dataId = change.getDataId().trim();
+            String group = change.getGroup().trim();
+            String tenant = StringUtils.defaultString(change.getTenant());
+            if (change.isBeta()) {
+                dumpService.dump(dataId, group, tenant, change.getLastModified(), handleIp, true);
+            } else {
+                dumpService.dump(dataId, group, tenant, change.getTag(), change.getLastModified(), handleIp);
+            }
+        }
+        return true;
+    }
+    
     /**
      * Get client config information of subscriber in local machine.
      *
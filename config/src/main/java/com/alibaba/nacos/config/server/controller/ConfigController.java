@@ -26,6 +26,7 @@ import com.alibaba.nacos.common.utils.MapUtils;
 import com.alibaba.nacos.config.server.auth.ConfigResourceParser;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.controller.parameters.SameNamespaceCloneConfigBean;
+import com.alibaba.nacos.config.server.model.ClientMd5Map;
 import com.alibaba.nacos.config.server.model.ConfigAdvanceInfo;
 import com.alibaba.nacos.config.server.model.ConfigAllInfo;
 import com.alibaba.nacos.config.server.model.ConfigInfo;
@@ -46,6 +47,7 @@ import com.alibaba.nacos.config.server.utils.ParamUtils;
 import com.alibaba.nacos.config.server.utils.RequestUtil;
 import com.alibaba.nacos.common.utils.NamespaceUtil;
 import com.alibaba.nacos.config.server.utils.TimeUtils;
+import com.alibaba.nacos.core.control.TpsControl;
 import com.alibaba.nacos.config.server.utils.ZipUtils;
 import com.alibaba.nacos.sys.utils.InetUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -118,6 +120,7 @@ public class ConfigController {
      * @throws NacosException NacosException.
      */
     @PostMapping
+    @TpsControl(pointName = "ConfigPublish")
     @Secured(action = ActionTypes.WRITE, parser = ConfigResourceParser.class)
     public Boolean publishConfig(HttpServletRequest request, HttpServletResponse response,
             @RequestParam(value = "dataId") String dataId, @RequestParam(value = "group") String group,
@@ -192,6 +195,7 @@ public class ConfigController {
      * @throws NacosException   NacosException.
      */
     @GetMapping
+    @TpsControl(pointName = "ConfigQuery")
     @Secured(action = ActionTypes.READ, parser = ConfigResourceParser.class)
     public void getConfig(HttpServletRequest request, HttpServletResponse response,
             @RequestParam("dataId") String dataId, @RequestParam("group") String group,
@@ -303,6 +307,7 @@ public class ConfigController {
      * The client listens for configuration changes.
      */
     @PostMapping("/listener")
+    @TpsControl(pointName = "ConfigListen")
     @Secured(action = ActionTypes.READ, parser = ConfigResourceParser.class)
     public void listener(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -314,7 +319,7 @@ public class ConfigController {
         
         probeModify = URLDecoder.decode(probeModify, Constants.ENCODE);
         
-        Map<String, String> clientMd5Map;
+        ClientMd5Map clientMd5Map;
         try {
             clientMd5Map = MD5Util.getClientMd5Map(probeModify);
         } catch (Throwable e) {
@@ -20,8 +20,11 @@ import com.alibaba.nacos.common.constant.HttpHeaderConsts;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.enums.FileTypeEnum;
 import com.alibaba.nacos.config.server.model.CacheItem;
+import com.alibaba.nacos.config.server.model.ClientMd5Map;
 import com.alibaba.nacos.config.server.model.ConfigInfoBase;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.config.server.service.ConfigContentCache;
 import com.alibaba.nacos.config.server.utils.DiskUtil;
 import com.alibaba.nacos.config.server.service.LongPollingService;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
@@ -41,17 +44,15 @@ import org.springframework.stereotype.Service;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
-
-import static com.alibaba.nacos.config.server.utils.LogUtil.PULL_LOG;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * ConfigServlet inner for aop.
@@ -67,7 +68,7 @@ public class ConfigServletInner {
     @Autowired
     private PersistService persistService;
     
-    private static final int TRY_GET_LOCK_TIMES = 9;
+    private static final int TRY_OPTIMISTIC_READ_TIMES = 10;
     
     private static final int START_LONG_POLLING_VERSION_NUM = 204;
     
@@ -75,7 +76,7 @@ public class ConfigServletInner {
      * 轮询接口.
      */
     public String doPollingConfig(HttpServletRequest request, HttpServletResponse response,
-            Map<String, String> clientMd5Map, int probeRequestSize) throws IOException {
+            ClientMd5Map clientMd5Map, int probeRequestSize) throws IOException {
         
         // Long polling.
         if (LongPollingService.isSupportLongPolling(request)) {
@@ -122,222 +123,191 @@ public class ConfigServletInner {
         final String groupKey = GroupKey2.getKey(dataId, group, tenant);
         String autoTag = request.getHeader("Vipserver-Tag");
         String requestIpApp = RequestUtil.getAppName(request);
-        int lockResult = tryConfigReadLock(groupKey);
-        
         final String requestIp = RequestUtil.getRemoteIp(request);
-        boolean isBeta = false;
-        if (lockResult > 0) {
-            FileInputStream fis = null;
+        
+        CacheItem cacheItem = ConfigCacheService.getContentCache(groupKey);
+        ConfigReadResult result = null;
+        if (cacheItem != null) {
+            result = guardedReadConfig(cacheItem, dataId, group, tenant, tag, autoTag, clientIp);
+            
+            final String configType =
+                    (null != cacheItem.getType()) ? cacheItem.getType() : FileTypeEnum.TEXT.getFileType();
+            response.setHeader("Config-Type", configType);
+            
+            String contentTypeHeader;
             try {
-                String md5 = Constants.NULL;
-                long lastModified = 0L;
-                CacheItem cacheItem = ConfigCacheService.getContentCache(groupKey);
-                if (cacheItem != null) {
-                    if (cacheItem.isBeta()) {
-                        if (cacheItem.getIps4Beta().contains(clientIp)) {
-                            isBeta = true;
-                        }
-                    }
-                    
-                    final String configType =
-                            (null != cacheItem.getType()) ? cacheItem.getType() : FileTypeEnum.TEXT.getFileType();
-                    response.setHeader("Config-Type", configType);
-                    
-                    String contentTypeHeader;
-                    try {
-                        contentTypeHeader = FileTypeEnum.valueOf(configType.toUpperCase()).getContentType();
-                    } catch (IllegalArgumentException ex) {
-                        contentTypeHeader = FileTypeEnum.TEXT.getContentType();
-                    }
-                    response.setHeader(HttpHeaderConsts.CONTENT_TYPE, contentTypeHeader);
-                }
-                File file = null;
-                ConfigInfoBase configInfoBase = null;
-                PrintWriter out = null;
-                if (isBeta) {
-                    md5 = cacheItem.getMd54Beta();
-                    lastModified = cacheItem.getLastModifiedTs4Beta();
-                    if (PropertyUtil.isDirectRead()) {
-                        configInfoBase = persistService.findConfigInfo4Beta(dataId, group, tenant);
-                    } else {
-                        file = DiskUtil.targetBetaFile(dataId, group, tenant);
-                    }
-                    response.setHeader("isBeta", "true");
-                } else {
-                    if (StringUtils.isBlank(tag)) {
-                        if (isUseTag(cacheItem, autoTag)) {
-                            if (cacheItem != null) {
-                                if (cacheItem.tagMd5 != null) {
-                                    md5 = cacheItem.tagMd5.get(autoTag);
-                                }
-                                if (cacheItem.tagLastModifiedTs != null) {
-                                    lastModified = cacheItem.tagLastModifiedTs.get(autoTag);
-                                }
-                            }
-                            if (PropertyUtil.isDirectRead()) {
-                                configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, autoTag);
-                            } else {
-                                file = DiskUtil.targetTagFile(dataId, group, tenant, autoTag);
-                            }
-                            
-                            response.setHeader("Vipserver-Tag",
-                                    URLEncoder.encode(autoTag, StandardCharsets.UTF_8.displayName()));
-                        } else {
-                            md5 = cacheItem.getMd5();
-                            lastModified = cacheItem.getLastModifiedTs();
-                            if (PropertyUtil.isDirectRead()) {
-                                configInfoBase = persistService.findConfigInfo(dataId, group, tenant);
-                            } else {
-                                file = DiskUtil.targetFile(dataId, group, tenant);
-                            }
-                            if (configInfoBase == null && fileNotExist(file)) {
-                                // FIXME CacheItem
-                                // No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
-                                ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
-                                        ConfigTraceService.PULL_EVENT_NOTFOUND, -1, requestIp);
-                                
-                                // pullLog.info("[client-get] clientIp={}, {},
-                                // no data",
-                                // new Object[]{clientIp, groupKey});
-                                
-                                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                                response.getWriter().println("config data not exist");
-                                return HttpServletResponse.SC_NOT_FOUND + "";
-                            }
-                        }
-                    } else {
-                        if (cacheItem != null) {
-                            if (cacheItem.tagMd5 != null) {
-                                md5 = cacheItem.tagMd5.get(tag);
-                            }
-                            if (cacheItem.tagLastModifiedTs != null) {
-                                Long lm = cacheItem.tagLastModifiedTs.get(tag);
-                                if (lm != null) {
-                                    lastModified = lm;
-                                }
-                            }
-                        }
-                        if (PropertyUtil.isDirectRead()) {
-                            configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, tag);
-                        } else {
-                            file = DiskUtil.targetTagFile(dataId, group, tenant, tag);
-                        }
-                        if (configInfoBase == null && fileNotExist(file)) {
-                            // FIXME CacheItem
-                            // No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
-                            ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
-                                    ConfigTraceService.PULL_EVENT_NOTFOUND, -1, requestIp);
-                            
-                            // pullLog.info("[client-get] clientIp={}, {},
-                            // no data",
-                            // new Object[]{clientIp, groupKey});
-                            
-                            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                            response.getWriter().println("config data not exist");
-                            return HttpServletResponse.SC_NOT_FOUND + "";
-                        }
-                    }
-                }
-                
-                response.setHeader(Constants.CONTENT_MD5, md5);
-                
-                // Disable cache.
-                response.setHeader("Pragma", "no-cache");
-                response.setDateHeader("Expires", 0);
-                response.setHeader("Cache-Control", "no-cache,no-store");
-                if (PropertyUtil.isDirectRead()) {
-                    response.setDateHeader("Last-Modified", lastModified);
-                } else {
-                    fis = new FileInputStream(file);
-                    response.setDateHeader("Last-Modified", file.lastModified());
-                }
-                
-                if (PropertyUtil.isDirectRead()) {
-                    out = response.getWriter();
-                    out.print(configInfoBase.getContent());
-                    out.flush();
-                    out.close();
-                } else {
-                    fis.getChannel()
-                            .transferTo(0L, fis.getChannel().size(), Channels.newChannel(response.getOutputStream()));
-                }
-                
-                LogUtil.PULL_CHECK_LOG.warn("{}|{}|{}|{}", groupKey, requestIp, md5, TimeUtils.getCurrentTimeStr());
-                
-                final long delayed = System.currentTimeMillis() - lastModified;
-                
-                // TODO distinguish pull-get && push-get
-                /*
-                 Otherwise, delayed cannot be used as the basis of push delay directly,
-                 because the delayed value of active get requests is very large.
-                 */
-                ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, lastModified,
-                        ConfigTraceService.PULL_EVENT_OK, delayed, requestIp);
-                
-            } finally {
-                releaseConfigReadLock(groupKey);
-                if (null != fis) {
-                    fis.close();
-                }
+                contentTypeHeader = FileTypeEnum.valueOf(configType.toUpperCase()).getContentType();
+            } catch (IllegalArgumentException ex) {
+                contentTypeHeader = FileTypeEnum.TEXT.getContentType();
             }
-        } else if (lockResult == 0) {
+            response.setHeader(HttpHeaderConsts.CONTENT_TYPE, contentTypeHeader);
             
-            // FIXME CacheItem No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
-            ConfigTraceService
-                    .logPullEvent(dataId, group, tenant, requestIpApp, -1, ConfigTraceService.PULL_EVENT_NOTFOUND, -1,
-                            requestIp);
+            if (result.isBeta) {
+                response.setHeader("isBeta", "true");
+            } else if (result.useAutoTag) {
+                response.setHeader("Vipserver-Tag", URLEncoder.encode(autoTag, StandardCharsets.UTF_8.displayName()));
+            }
+        }
+        
+        boolean notFound = result == null || (result.configInfoBase == null && result.content == null);
+        if (notFound) {
+            // FIXME CacheItem
+            // No longer exists. It is impossible to simply calculate the push delayed. Here, simply record it as - 1.
+            ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, -1,
+                    ConfigTraceService.PULL_EVENT_NOTFOUND, -1, requestIp);
             
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             response.getWriter().println("config data not exist");
             return HttpServletResponse.SC_NOT_FOUND + "";
-            
+        }
+        
+        final String md5 = result.md5;
+        final long lastModified = result.lastModified;
+        response.setHeader(Constants.CONTENT_MD5, md5);
+        
+        // Disable cache.
+        response.setHeader("Pragma", "no-cache");
+        response.setDateHeader("Expires", 0);
+        response.setHeader("Cache-Control", "no-cache,no-store");
+        response.setDateHeader("Last-Modified", lastModified);
+        
+        if (PropertyUtil.isDirectRead()) {
+            PrintWriter out = response.getWriter();
+            out.print(result.configInfoBase.getContent());
+            out.flush();
+            out.close();
         } else {
-            
-            PULL_LOG.info("[client-get] clientIp={}, {}, get data during dump", clientIp, groupKey);
-            
-            response.setStatus(HttpServletResponse.SC_CONFLICT);
-            response.getWriter().println("requested file is being modified, please try later.");
-            return HttpServletResponse.SC_CONFLICT + "";
-            
+            writeContent(result.content, response.getOutputStream());
         }
         
+        LogUtil.PULL_CHECK_LOG.warn("{}|{}|{}|{}", groupKey, requestIp, md5, TimeUtils.getCurrentTimeStr());
+        
+        final long delayed = System.currentTimeMillis() - lastModified;
+        
+        // TODO distinguish pull-get && push-get
+        /*
+         Otherwise, delayed cannot be used as the basis of push delay directly,
+         because the delayed value of active get requests is very large.
+         */
+        ConfigTraceService.logPullEvent(dataId, group, tenant, requestIpApp, lastModified,
+                ConfigTraceService.PULL_EVENT_OK, delayed, requestIp);
+        
         return HttpServletResponse.SC_OK + "";
     }
     
-    private static void releaseConfigReadLock(String groupKey) {
-        ConfigCacheService.releaseReadLock(groupKey);
+    /**
+     * Read the md5 and content of the item without blocking the dump. The read is optimistic: it is repeated while a
+     * writer got in between, and only after {@link #TRY_OPTIMISTIC_READ_TIMES} failed attempts the read lock is
+     * taken, waiting for the current writer instead of failing the request. Reading the content from the database
+     * directly is too costly to repeat, so it is done once under the read lock.
+     */
+    private ConfigReadResult guardedReadConfig(CacheItem cacheItem, String dataId, String group, String tenant,
+            String tag, String autoTag, String clientIp) throws IOException {
+        final StampedLock lock = cacheItem.getRwLock();
+        final int optimisticTimes = PropertyUtil.isDirectRead() ? 0 : TRY_OPTIMISTIC_READ_TIMES;
+        ConfigReadResult result = null;
+        for (int i = 0; i < optimisticTimes && result == null; i++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                try {
+                    ConfigReadResult attempt = readConfig(cacheItem, dataId, group, tenant, tag, autoTag, clientIp);
+                    if (lock.validate(stamp)) {
+                        result = attempt;
+                        continue;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Fields torn by a concurrent writer may fail the read, only a consistent failure is real.
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+            MetricsMonitor.getConfigReadRetryCounter().increment();
+            Thread.yield();
+        }
+        if (result == null) {
+            if (optimisticTimes > 0) {
+                MetricsMonitor.getConfigReadContentionCounter().increment();
+            }
+            long stamp = lock.readLock();
+            try {
+                result = readConfig(cacheItem, dataId, group, tenant, tag, autoTag, clientIp);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (result.contentCacheRead) {
+            ConfigContentCache.recordLookup(!result.loadedFromDisk && result.content != null);
+        }
+        if (result.loadedFromDisk) {
+            ConfigContentCache.load(cacheItem, result.content, result.md5);
+        }
+        return result;
     }
     
-    private static int tryConfigReadLock(String groupKey) {
-        
-        // Lock failed by default.
-        int lockResult = -1;
-        
-        // Try to get lock times, max value: 10;
-        for (int i = TRY_GET_LOCK_TIMES; i >= 0; --i) {
-            lockResult = ConfigCacheService.tryReadLock(groupKey);
-            
-            // The data is non-existent.
-            if (0 == lockResult) {
-                break;
+    private ConfigReadResult readConfig(CacheItem cacheItem, String dataId, String group, String tenant, String tag,
+            String autoTag, String clientIp) throws IOException {
+        ConfigReadResult result = new ConfigReadResult();
+        if (cacheItem.isBeta()) {
+            if (cacheItem.getIps4Beta().contains(clientIp)) {
+                result.isBeta = true;
             }
-            
-            // Success
-            if (lockResult > 0) {
-                break;
+        }
+        if (result.isBeta) {
+            result.md5 = cacheItem.getMd54Beta();
+            result.lastModified = cacheItem.getLastModifiedTs4Beta();
+            if (PropertyUtil.isDirectRead()) {
+                result.configInfoBase = persistService.findConfigInfo4Beta(dataId, group, tenant);
+            } else {
+                result.content = DiskUtil.readBetaConfig(dataId, group, tenant);
             }
-            
-            // Retry.
-            if (i > 0) {
-                try {
-                    Thread.sleep(1);
-                } catch (Exception e) {
-                    LogUtil.PULL_CHECK_LOG.error("An Exception occurred while thread sleep", e);
+        } else {
+            if (StringUtils.isBlank(tag)) {
+                if (isUseTag(cacheItem, autoTag)) {
+                    result.useAutoTag = true;
+                    if (cacheItem.tagMd5 != null) {
+                        result.md5 = cacheItem.tagMd5.get(autoTag);
+                    }
+                    if (cacheItem.tagLastModifiedTs != null) {
+                        result.lastModified = cacheItem.tagLastModifiedTs.get(autoTag);
+                    }
+                    if (PropertyUtil.isDirectRead()) {
+                        result.configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, autoTag);
+                    } else {
+                        result.content = DiskUtil.readTagConfig(dataId, group, tenant, autoTag);
+                    }
+                } else {
+                    result.md5 = cacheItem.getMd5();
+                    result.lastModified = cacheItem.getLastModifiedTs();
+                    if (PropertyUtil.isDirectRead()) {
+                        result.configInfoBase = persistService.findConfigInfo(dataId, group, tenant);
+                    } else {
+                        result.content = ConfigContentCache.get(cacheItem);
+                        result.contentCacheRead = true;
+                        if (result.content == null) {
+                            result.content = DiskUtil.readConfig(dataId, group, tenant);
+                            result.loadedFromDisk = result.content != null;
+                        }
+                    }
+                }
+            } else {
+                if (cacheItem.tagMd5 != null) {
+                    result.md5 = cacheItem.tagMd5.get(tag);
+                }
+                if (cacheItem.tagLastModifiedTs != null) {
+                    Long lm = cacheItem.tagLastModifiedTs.get(tag);
+                    if (lm != null) {
+                        result.lastModified = lm;
+                    }
+                }
+                if (PropertyUtil.isDirectRead()) {
+                    result.configInfoBase = persistService.findConfigInfo4Tag(dataId, group, tenant, tag);
+                } else {
+                    result.content = DiskUtil.readTagConfig(dataId, group, tenant, tag);
                 }
             }
         }
-        
-        return lockResult;
+        return result;
     }
     
     private static boolean isUseTag(CacheItem cacheItem, String tag) {
@@ -347,8 +317,34 @@ public class ConfigServletInner {
         return false;
     }
     
-    private static boolean fileNotExist(File file) {
-        return file == null || !file.exists();
+    private static void writeContent(ByteBuffer content, OutputStream out) throws IOException {
+        if (content.hasArray()) {
+            out.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+        } else {
+            Channels.newChannel(out).write(content);
+        }
+    }
+    
+    /**
+     * What one read of a cache item saw: the md5 and the content belonging to it.
+     */
+    private static class ConfigReadResult {
+        
+        private boolean isBeta;
+        
+        private boolean useAutoTag;
+        
+        private boolean contentCacheRead;
+        
+        private boolean loadedFromDisk;
+        
+        private String md5 = Constants.NULL;
+        
+        private long lastModified;
+        
+        private ByteBuffer content;
+        
+        private ConfigInfoBase configInfoBase;
     }
     
 }
@@ -17,11 +17,11 @@
 package com.alibaba.nacos.config.server.model;
 
 import com.alibaba.nacos.config.server.constant.Constants;
-import com.alibaba.nacos.config.server.utils.SimpleReadWriteLock;
 import com.alibaba.nacos.config.server.utils.SingletonRepository.DataIdGroupIdCache;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Cache item.
@@ -82,14 +82,10 @@ public class CacheItem {
         this.lastModifiedTs4Beta = lastModifiedTs4Beta;
     }
     
-    public SimpleReadWriteLock getRwLock() {
+    public StampedLock getRwLock() {
         return rwLock;
     }
     
-    public void setRwLock(SimpleReadWriteLock rwLock) {
-        this.rwLock = rwLock;
-    }
-    
     public String getGroupKey() {
         return groupKey;
     }
@@ -118,6 +114,14 @@ public class CacheItem {
         this.type = type;
     }
     
+    public CachedContent getCachedContent() {
+        return cachedContent;
+    }
+    
+    public void setCachedContent(CachedContent cachedContent) {
+        this.cachedContent = cachedContent;
+    }
+    
     final String groupKey;
     
     public volatile String md5 = Constants.NULL;
@@ -139,7 +143,32 @@ public class CacheItem {
     
     public volatile Map<String, Long> tagLastModifiedTs;
     
-    public SimpleReadWriteLock rwLock = new SimpleReadWriteLock();
+    /**
+     * Writers (dump and remove) take the write lock, readers validate an optimistic stamp and never block them.
+     */
+    public final StampedLock rwLock = new StampedLock();
     
     public String type;
+    
+    /**
+     * Formal content kept in memory by ConfigContentCache, null when not cached.
+     */
+    public volatile CachedContent cachedContent;
+    
+    /**
+     * Second-chance bit of the content cache, set on every hit.
+     */
+    public volatile boolean contentAccessed;
+    
+    /**
+     * Whether this item is in the eviction queue of the content cache, guarded by the cache lock.
+     */
+    public boolean contentQueued;
+    
+    /**
+     * Neighbours in the eviction queue of the content cache, guarded by the cache lock.
+     */
+    public CacheItem contentPrev;
+    
+    public CacheItem contentNext;
 }
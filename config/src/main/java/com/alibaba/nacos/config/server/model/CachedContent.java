@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.model;
+
+/**
+ * Encoded config content held in memory, together with the md5 it was computed for.
+ *
+ * @author nacos
+ */
+public class CachedContent {
+    
+    private final byte[] bytes;
+    
+    private final String md5;
+    
+    public CachedContent(byte[] bytes, String md5) {
+        this.bytes = bytes;
+        this.md5 = md5;
+    }
+    
+    public byte[] getBytes() {
+        return bytes;
+    }
+    
+    public String getMd5() {
+        return md5;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.model;
+
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import com.alibaba.nacos.config.server.utils.SingletonRepository;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only groupKey to md5 view of a Listening-Configs payload. The payload is walked once, only the group keys are
+ * materialized (and interned), md5 values stay as offsets into the payload and are compared in place, so a client
+ * listening on thousands of configs costs a few arrays instead of a HashMap node and several substrings per entry.
+ *
+ * @author nacos
+ */
+public class ClientMd5Map extends AbstractMap<String, String> {
+    
+    private static final char WORD_SEPARATOR_CHAR = (char) 2;
+    
+    private static final char LINE_SEPARATOR_CHAR = (char) 1;
+    
+    private static final int MAX_FIELDS = 3;
+    
+    private static final int MAX_LISTENERS = 10000;
+    
+    private static final ClientMd5Map EMPTY = new ClientMd5Map("", 0);
+    
+    private static final ThreadLocal<StringBuilder> KEY_BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+    
+    private final String source;
+    
+    private final String[] groupKeys;
+    
+    /**
+     * Start and end offsets of the md5 of entry i in the source, at 2 * i and 2 * i + 1.
+     */
+    private final int[] md5Ranges;
+    
+    /**
+     * Open addressing table of entry index + 1, 0 for an empty slot.
+     */
+    private final int[] table;
+    
+    private int size;
+    
+    private ClientMd5Map(String source, int capacity) {
+        this.source = source;
+        this.groupKeys = new String[capacity];
+        this.md5Ranges = new int[capacity * 2];
+        this.table = new int[tableSize(capacity)];
+    }
+    
+    /**
+     * Parse the transport protocol, which has two formats (W for field delimiter, L for each data delimiter) old: D w G
+     * w MD5 l new: D w G w MD5 w T l.
+     *
+     * @param configKeysString protocol
+     * @return groupKey to md5 view of the protocol message
+     */
+    public static ClientMd5Map parse(String configKeysString) {
+        if (null == configKeysString || configKeysString.isEmpty()) {
+            return EMPTY;
+        }
+        int lines = 0;
+        for (int i = 0; i < configKeysString.length(); i++) {
+            if (configKeysString.charAt(i) == LINE_SEPARATOR_CHAR) {
+                lines++;
+            }
+        }
+        if (lines > MAX_LISTENERS) {
+            // Protect malformed messages
+            throw new IllegalArgumentException("invalid protocol, too much listener");
+        }
+        
+        ClientMd5Map map = new ClientMd5Map(configKeysString, lines);
+        final StringBuilder sb = KEY_BUILDER.get();
+        int[] fieldEnds = new int[MAX_FIELDS];
+        int fields = 0;
+        int lineStart = 0;
+        for (int i = 0; i < configKeysString.length(); i++) {
+            char c = configKeysString.charAt(i);
+            if (c == WORD_SEPARATOR_CHAR) {
+                if (fields == MAX_FIELDS) {
+                    // Malformed message and return parameter error.
+                    throw new IllegalArgumentException("invalid protocol,too much key");
+                }
+                fieldEnds[fields++] = i;
+            } else if (c == LINE_SEPARATOR_CHAR) {
+                if (fields < 2) {
+                    throw new IllegalArgumentException("invalid protocol,too few key");
+                }
+                sb.setLength(0);
+                GroupKey2.urlEncode(configKeysString, lineStart, fieldEnds[0], sb);
+                sb.append('+');
+                GroupKey2.urlEncode(configKeysString, fieldEnds[0] + 1, fieldEnds[1], sb);
+                
+                // If it is the old message, the last digit is MD5. The post-multi-tenant message is tenant
+                if (fields == 2) {
+                    map.put(sb, fieldEnds[1] + 1, i);
+                } else {
+                    if (fieldEnds[2] + 1 < i) {
+                        sb.append('+');
+                        GroupKey2.urlEncode(configKeysString, fieldEnds[2] + 1, i, sb);
+                    }
+                    map.put(sb, fieldEnds[1] + 1, fieldEnds[2]);
+                }
+                fields = 0;
+                lineStart = i + 1;
+            }
+        }
+        return map;
+    }
+    
+    private void put(CharSequence groupKey, int md5Start, int md5End) {
+        String key = SingletonRepository.DataIdGroupIdCache.getSingleton(groupKey.toString());
+        int index = indexOf(key);
+        if (index < 0) {
+            index = size++;
+            groupKeys[index] = key;
+            int slot = slot(key);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = index + 1;
+        }
+        md5Ranges[2 * index] = md5Start;
+        md5Ranges[2 * index + 1] = md5End;
+    }
+    
+    private int indexOf(Object key) {
+        if (!(key instanceof String) || size == 0) {
+            return -1;
+        }
+        for (int slot = slot(key); table[slot] != 0; slot = (slot + 1) & (table.length - 1)) {
+            int index = table[slot] - 1;
+            if (groupKeys[index].equals(key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+    
+    private int slot(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (table.length - 1);
+    }
+    
+    private static int tableSize(int capacity) {
+        int n = 1;
+        while (n < capacity << 1) {
+            n <<= 1;
+        }
+        return n;
+    }
+    
+    /**
+     * Get the group key of the entry.
+     *
+     * @param index entry index, from 0 to {@link #size()} - 1
+     * @return group key
+     */
+    public String groupKeyAt(int index) {
+        return groupKeys[index];
+    }
+    
+    /**
+     * Get the md5 sent by the client for the entry.
+     *
+     * @param index entry index, from 0 to {@link #size()} - 1
+     * @return md5 of the client
+     */
+    public String md5At(int index) {
+        return source.substring(md5Ranges[2 * index], md5Ranges[2 * index + 1]);
+    }
+    
+    /**
+     * Whether the md5 sent by the client for the entry equals the given one, without copying it out of the payload.
+     *
+     * @param index entry index, from 0 to {@link #size()} - 1
+     * @param md5   md5 to compare with, may be null
+     * @return true if equal
+     */
+    public boolean md5Equals(int index, String md5) {
+        int start = md5Ranges[2 * index];
+        int length = md5Ranges[2 * index + 1] - start;
+        return md5 != null && md5.length() == length && source.regionMatches(start, md5, 0, length);
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+    
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : md5At(index);
+    }
+    
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            
+            @Override
+            public Iterator<String> iterator() {
+                return new AbstractIndexIterator<String>() {
+                    
+                    @Override
+                    String valueAt(int index) {
+                        return groupKeys[index];
+                    }
+                };
+            }
+            
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+            
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+    
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new AbstractIndexIterator<Entry<String, String>>() {
+                    
+                    @Override
+                    Entry<String, String> valueAt(int index) {
+                        return new SimpleImmutableEntry<String, String>(groupKeys[index], md5At(index));
+                    }
+                };
+            }
+            
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+    
+    private abstract class AbstractIndexIterator<T> implements Iterator<T> {
+        
+        private int next;
+        
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+        
+        @Override
+        public T next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            return valueAt(next++);
+        }
+        
+        /**
+         * Value of the iteration at the entry.
+         *
+         * @param index entry index
+         * @return value
+         */
+        abstract T valueAt(int index);
+    }
+}
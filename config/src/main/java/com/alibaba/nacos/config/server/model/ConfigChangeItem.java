@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.model;
+
+import java.io.Serializable;
+
+/**
+ * One config change of a batched notification between cluster members.
+ *
+ * @author nacos
+ */
+public class ConfigChangeItem implements Serializable {
+    
+    private static final long serialVersionUID = 6283120455170584531L;
+    
+    private String dataId;
+    
+    private String group;
+    
+    private String tenant;
+    
+    private String tag;
+    
+    private long lastModified;
+    
+    private boolean beta;
+    
+    public ConfigChangeItem() {
+    }
+    
+    public ConfigChangeItem(String dataId, String group, String tenant, String tag, long lastModified, boolean beta) {
+        this.dataId = dataId;
+        this.group = group;
+        this.tenant = tenant;
+        this.tag = tag;
+        this.lastModified = lastModified;
+        this.beta = beta;
+    }
+    
+    public String getDataId() {
+        return dataId;
+    }
+    
+    public void setDataId(String dataId) {
+        this.dataId = dataId;
+    }
+    
+    public String getGroup() {
+        return group;
+    }
+    
+    public void setGroup(String group) {
+        this.group = group;
+    }
+    
+    public String getTenant() {
+        return tenant;
+    }
+    
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+    
+    public String getTag() {
+        return tag;
+    }
+    
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+    
+    public long getLastModified() {
+        return lastModified;
+    }
+    
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+    
+    public boolean isBeta() {
+        return beta;
+    }
+    
+    public void setBeta(boolean beta) {
+        this.beta = beta;
+    }
+    
+    @Override
+    public String toString() {
+        return "ConfigChangeItem{" + "dataId='" + dataId + '\'' + ", group='" + group + '\'' + ", tenant='" + tenant
+                + '\'' + ", tag='" + tag + '\'' + ", lastModified=" + lastModified + ", beta=" + beta + '}';
+    }
+}
@@ -25,6 +25,7 @@ import io.micrometer.core.instrument.Counter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Metrics Monitor.
@@ -45,6 +46,12 @@ public class MetricsMonitor {
     
     private static AtomicInteger dumpTask = new AtomicInteger();
     
+    private static AtomicLong contentCacheBytes = new AtomicLong();
+    
+    private static AtomicLong dumpAllCount = new AtomicLong();
+    
+    private static AtomicLong dumpAllThroughput = new AtomicLong();
+    
     static {
         List<Tag> tags = new ArrayList<Tag>();
         tags.add(new ImmutableTag("module", "config"));
@@ -76,6 +83,21 @@ public class MetricsMonitor {
         tags.add(new ImmutableTag("name", "dumpTask"));
         
         Metrics.gauge("nacos_monitor", tags, dumpTask);
+        
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "config"));
+        tags.add(new ImmutableTag("name", "contentCacheBytes"));
+        Metrics.gauge("nacos_monitor", tags, contentCacheBytes);
+        
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "config"));
+        tags.add(new ImmutableTag("name", "dumpAllCount"));
+        Metrics.gauge("nacos_monitor", tags, dumpAllCount);
+        
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "config"));
+        tags.add(new ImmutableTag("name", "dumpAllThroughput"));
+        Metrics.gauge("nacos_monitor", tags, dumpAllThroughput);
     }
     
     public static AtomicInteger getConfigMonitor() {
@@ -102,6 +124,50 @@ public class MetricsMonitor {
         return dumpTask;
     }
     
+    public static AtomicLong getContentCacheBytesMonitor() {
+        return contentCacheBytes;
+    }
+    
+    public static AtomicLong getDumpAllCountMonitor() {
+        return dumpAllCount;
+    }
+    
+    public static AtomicLong getDumpAllThroughputMonitor() {
+        return dumpAllThroughput;
+    }
+    
+    public static Counter getContentCacheHitCounter() {
+        return Metrics.counter("nacos_config_content_cache_hit", "module", "config");
+    }
+    
+    public static Counter getContentCacheMissCounter() {
+        return Metrics.counter("nacos_config_content_cache_miss", "module", "config");
+    }
+    
+    public static Counter getEmbeddedReadCacheHitCounter() {
+        return Metrics.counter("nacos_config_embedded_read_cache_hit", "module", "config");
+    }
+    
+    public static Counter getEmbeddedReadCacheMissCounter() {
+        return Metrics.counter("nacos_config_embedded_read_cache_miss", "module", "config");
+    }
+    
+    public static Counter getEmbeddedReadCacheInvalidationCounter() {
+        return Metrics.counter("nacos_config_embedded_read_cache_invalidation", "module", "config");
+    }
+    
+    public static Counter getConfigReadRetryCounter() {
+        return Metrics.counter("nacos_config_read_retry", "module", "config");
+    }
+    
+    public static Counter getConfigReadContentionCounter() {
+        return Metrics.counter("nacos_config_read_contention", "module", "config");
+    }
+    
+    public static Counter getConfigWriteContentionCounter() {
+        return Metrics.counter("nacos_config_write_contention", "module", "config");
+    }
+    
     public static Timer getNotifyRtTimer() {
         return Metrics.timer("nacos_timer", "module", "config", "name", "notifyRt");
     }
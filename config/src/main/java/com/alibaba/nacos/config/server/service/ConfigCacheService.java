@@ -22,6 +22,7 @@ import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.model.CacheItem;
 import com.alibaba.nacos.config.server.model.ConfigInfoBase;
 import com.alibaba.nacos.config.server.model.event.LocalDataChangeEvent;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.utils.DiskUtil;
 import com.alibaba.nacos.config.server.utils.GroupKey;
@@ -41,6 +42,7 @@ import java.util.Map.Entry;
 import java.util.Map;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
 
 import static com.alibaba.nacos.config.server.utils.LogUtil.DUMP_LOG;
 import static com.alibaba.nacos.config.server.utils.LogUtil.FATAL_LOG;
@@ -98,6 +100,9 @@ public class ConfigCacheService {
             } else if (!PropertyUtil.isDirectRead()) {
                 DiskUtil.saveToDisk(dataId, group, tenant, content);
             }
+            if (!PropertyUtil.isDirectRead()) {
+                ConfigContentCache.put(ci, content, md5);
+            }
             updateMd5(groupKey, md5, lastModifiedTs);
             return true;
         } catch (IOException ioe) {
@@ -219,7 +224,7 @@ public class ConfigCacheService {
     public static boolean dumpChange(String dataId, String group, String tenant, String content, long lastModifiedTs) {
         final String groupKey = GroupKey2.getKey(dataId, group, tenant);
         
-        makeSure(groupKey);
+        CacheItem ci = makeSure(groupKey);
         final int lockResult = tryWriteLock(groupKey);
         assert (lockResult != 0);
         
@@ -239,6 +244,7 @@ public class ConfigCacheService {
                 } else {
                     DiskUtil.saveToDisk(dataId, group, tenant, content);
                 }
+                ConfigContentCache.put(ci, content, md5);
             }
             updateMd5(groupKey, md5, lastModifiedTs);
             return true;
@@ -350,7 +356,9 @@ public class ConfigCacheService {
      */
     public static boolean remove(String dataId, String group, String tenant) {
         final String groupKey = GroupKey2.getKey(dataId, group, tenant);
-        final int lockResult = tryWriteLock(groupKey);
+        // The item leaves the cache below, so lock and release it through the item itself.
+        final CacheItem ci = CACHE.get(groupKey);
+        final int lockResult = tryWriteLock(groupKey, ci);
         
         // If data is non-existent.
         if (0 == lockResult) {
@@ -368,12 +376,13 @@ public class ConfigCacheService {
             if (!PropertyUtil.isDirectRead()) {
                 DiskUtil.removeConfigInfo(dataId, group, tenant);
             }
-            CACHE.remove(groupKey);
+            CACHE.remove(groupKey, ci);
+            ConfigContentCache.invalidate(ci);
             NotifyCenter.publishEvent(new LocalDataChangeEvent(groupKey));
             
             return true;
         } finally {
-            releaseWriteLock(groupKey);
+            releaseWriteLock(ci);
         }
     }
     
@@ -607,53 +616,43 @@ public class ConfigCacheService {
     }
     
     /**
-     * Try to add read lock. If it successed, then it can call {@link #releaseWriteLock(String)}.And it won't call if
-     * failed.
+     * Add write lock, waiting for the writer holding it. If it successed, then it must call {@link
+     * #releaseWriteLock(CacheItem)}. Readers never take part here, they read optimistically against {@link
+     * CacheItem#rwLock} and retry when a writer got in between.
      *
      * @param groupKey groupKey string value.
-     * @return 0 - No data and failed. Positive number 0 - Success. Negative number - lock failed。
+     * @return 0 - No data and failed. Positive number - Success. Negative number - interrupted while waiting.
      */
-    public static int tryReadLock(String groupKey) {
-        CacheItem groupItem = CACHE.get(groupKey);
-        int result = (null == groupItem) ? 0 : (groupItem.rwLock.tryReadLock() ? 1 : -1);
-        if (result < 0) {
-            DEFAULT_LOG.warn("[read-lock] failed, {}, {}", result, groupKey);
-        }
-        return result;
+    static int tryWriteLock(String groupKey) {
+        return tryWriteLock(groupKey, CACHE.get(groupKey));
     }
     
-    /**
-     * Release readLock.
-     *
-     * @param groupKey groupKey string value.
-     */
-    public static void releaseReadLock(String groupKey) {
-        CacheItem item = CACHE.get(groupKey);
-        if (null != item) {
-            item.rwLock.releaseReadLock();
+    private static int tryWriteLock(String groupKey, CacheItem groupItem) {
+        if (null == groupItem) {
+            return 0;
         }
-    }
-    
-    /**
-     * Try to add write lock. If it successed, then it can call {@link #releaseWriteLock(String)}.And it won't call if
-     * failed.
-     *
-     * @param groupKey groupKey string value.
-     * @return 0 - No data and failed. Positive number 0 - Success. Negative number - lock failed。
-     */
-    static int tryWriteLock(String groupKey) {
-        CacheItem groupItem = CACHE.get(groupKey);
-        int result = (null == groupItem) ? 0 : (groupItem.rwLock.tryWriteLock() ? 1 : -1);
-        if (result < 0) {
-            DEFAULT_LOG.warn("[write-lock] failed, {}, {}", result, groupKey);
+        final StampedLock lock = groupItem.getRwLock();
+        if (lock.tryWriteLock() != 0L) {
+            return 1;
+        }
+        MetricsMonitor.getConfigWriteContentionCounter().increment();
+        try {
+            lock.writeLockInterruptibly();
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            DEFAULT_LOG.warn("[write-lock] interrupted, {}", groupKey);
+            return -1;
         }
-        return result;
     }
     
     static void releaseWriteLock(String groupKey) {
-        CacheItem groupItem = CACHE.get(groupKey);
+        releaseWriteLock(CACHE.get(groupKey));
+    }
+    
+    static void releaseWriteLock(CacheItem groupItem) {
         if (null != groupItem) {
-            groupItem.rwLock.releaseWriteLock();
+            groupItem.getRwLock().tryUnlockWrite();
         }
     }
     
@@ -0,0 +1,210 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service;
+
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.CacheItem;
+import com.alibaba.nacos.config.server.model.CachedContent;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded in-memory store of formal config content, so that reads in cluster mode don't have to go to the snapshot
+ * store for every request.
+ *
+ * <p>The content is held by the {@link CacheItem} itself and is only served while its md5 matches the md5 of the
+ * item. Eviction uses the CLOCK approximation of LRU: hits only set a flag, and when the total bytes exceed
+ * {@link PropertyUtil#getContentCacheMaxSize()} the queue is swept, giving recently read items a second chance. The
+ * queue is linked through the items themselves, so an invalidated item leaves it at once.
+ *
+ * @author nacos
+ */
+public class ConfigContentCache {
+    
+    private static final Charset ENCODE = Charset.forName(Constants.ENCODE);
+    
+    private static final Object LOCK = new Object();
+    
+    private static CacheItem head;
+    
+    private static CacheItem tail;
+    
+    private static final AtomicLong BYTES = MetricsMonitor.getContentCacheBytesMonitor();
+    
+    public static boolean isEnabled() {
+        return PropertyUtil.getContentCacheMaxSize() > 0;
+    }
+    
+    /**
+     * Get the cached content of the item, if it is up to date. Lookups are not counted here since a read may repeat
+     * them, see {@link #recordLookup(boolean)}.
+     *
+     * @param item cache item
+     * @return cached content, or null on a miss
+     */
+    public static ByteBuffer get(CacheItem item) {
+        if (!isEnabled()) {
+            return null;
+        }
+        CachedContent content = item.getCachedContent();
+        if (content == null || !content.getMd5().equals(item.getMd5())) {
+            return null;
+        }
+        if (!item.contentAccessed) {
+            item.contentAccessed = true;
+        }
+        return ByteBuffer.wrap(content.getBytes());
+    }
+    
+    /**
+     * Count the outcome of a read that looked up the cache, once per read.
+     *
+     * @param hit whether the content was served from the cache
+     */
+    public static void recordLookup(boolean hit) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (hit) {
+            MetricsMonitor.getContentCacheHitCounter().increment();
+        } else {
+            MetricsMonitor.getContentCacheMissCounter().increment();
+        }
+    }
+    
+    /**
+     * Keep the content read from the snapshot store after a miss. The md5 must be the one read together with the
+     * content under a validated stamp of the item, a later dump only makes the entry stale.
+     *
+     * @param item    cache item
+     * @param content content read from the snapshot store, may be null
+     * @param md5     md5 of the content
+     */
+    public static void load(CacheItem item, ByteBuffer content, String md5) {
+        if (!isEnabled() || content == null) {
+            return;
+        }
+        byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+        put(item, new CachedContent(bytes, md5));
+    }
+    
+    /**
+     * Keep the content just dumped for the item.
+     *
+     * @param item    cache item
+     * @param content content
+     * @param md5     md5 of the content
+     */
+    public static void put(CacheItem item, String content, String md5) {
+        if (isEnabled()) {
+            put(item, new CachedContent(content.getBytes(ENCODE), md5));
+        }
+    }
+    
+    private static void put(CacheItem item, CachedContent content) {
+        final long maxSize = PropertyUtil.getContentCacheMaxSize();
+        if (content.getBytes().length > maxSize) {
+            invalidate(item);
+            return;
+        }
+        synchronized (LOCK) {
+            CachedContent old = item.cachedContent;
+            item.cachedContent = content;
+            BYTES.addAndGet(content.getBytes().length - (old == null ? 0 : old.getBytes().length));
+            if (!item.contentQueued) {
+                link(item);
+            }
+            evict(maxSize);
+        }
+    }
+    
+    /**
+     * Drop the content of the item, e.g. when the config is removed.
+     *
+     * @param item cache item
+     */
+    public static void invalidate(CacheItem item) {
+        synchronized (LOCK) {
+            CachedContent old = item.cachedContent;
+            if (old != null) {
+                item.cachedContent = null;
+                BYTES.addAndGet(-old.getBytes().length);
+            }
+            if (item.contentQueued) {
+                unlink(item);
+            }
+        }
+    }
+    
+    public static long cachedBytes() {
+        return BYTES.get();
+    }
+    
+    private static void evict(long maxSize) {
+        while (BYTES.get() > maxSize && head != null) {
+            CacheItem item = head;
+            unlink(item);
+            CachedContent content = item.cachedContent;
+            if (content == null) {
+                continue;
+            }
+            if (item.contentAccessed) {
+                item.contentAccessed = false;
+                link(item);
+                continue;
+            }
+            item.cachedContent = null;
+            BYTES.addAndGet(-content.getBytes().length);
+        }
+    }
+    
+    private static void link(CacheItem item) {
+        item.contentQueued = true;
+        item.contentPrev = tail;
+        item.contentNext = null;
+        if (tail == null) {
+            head = item;
+        } else {
+            tail.contentNext = item;
+        }
+        tail = item;
+    }
+    
+    private static void unlink(CacheItem item) {
+        CacheItem prev = item.contentPrev;
+        CacheItem next = item.contentNext;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.contentNext = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.contentPrev = prev;
+        }
+        item.contentPrev = null;
+        item.contentNext = null;
+        item.contentQueued = false;
+    }
+
+}
@@ -19,8 +19,11 @@ package com.alibaba.nacos.config.server.service;
 import com.alibaba.nacos.common.notify.Event;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.common.timer.HashedTimingWheel;
+import com.alibaba.nacos.common.timer.Timeout;
 import com.alibaba.nacos.common.utils.CollectionUtils;
 import com.alibaba.nacos.common.utils.ExceptionUtil;
+import com.alibaba.nacos.config.server.model.ClientMd5Map;
 import com.alibaba.nacos.config.server.model.SampleResult;
 import com.alibaba.nacos.config.server.model.event.LocalDataChangeEvent;
 import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
@@ -41,14 +44,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static com.alibaba.nacos.config.server.utils.LogUtil.MEMORY_LOG;
@@ -70,6 +69,22 @@ public class LongPollingService {
     
     private static final String TRUE_STR = "true";
     
+    private static final long HOLD_TICK_MILLIS = 100L;
+    
+    private static final int HOLD_TICKS = 512;
+    
+    /**
+     * Holding timeouts of all long polling clients. Expired clients of one tick are answered by one task of the long
+     * polling thread.
+     */
+    private static final HashedTimingWheel<ClientLongPolling> HOLD_TIMING_WHEEL = new HashedTimingWheel<>(
+            "com.alibaba.nacos.config.LongPolling.timer", HOLD_TICK_MILLIS, TimeUnit.MILLISECONDS, HOLD_TICKS,
+            expired -> ConfigExecutor.executeLongPolling(() -> {
+                for (ClientLongPolling clientLongPolling : expired) {
+                    clientLongPolling.onTimeout();
+                }
+            }));
+    
     private Map<String, Long> retainIps = new ConcurrentHashMap<String, Long>();
     
     private static boolean isFixedPolling() {
@@ -99,9 +114,13 @@ public class LongPollingService {
         SampleResult sampleResult = new SampleResult();
         Map<String, String> lisentersGroupkeyStatus = new HashMap<String, String>(50);
         
-        for (ClientLongPolling clientLongPolling : allSubs) {
-            if (clientLongPolling.clientMd5Map.containsKey(groupKey)) {
-                lisentersGroupkeyStatus.put(clientLongPolling.ip, clientLongPolling.clientMd5Map.get(groupKey));
+        Set<ClientLongPolling> groupKeySubs = subsByGroupKey.get(groupKey);
+        if (groupKeySubs != null) {
+            for (ClientLongPolling clientLongPolling : groupKeySubs) {
+                String md5 = clientLongPolling.clientMd5Map.get(groupKey);
+                if (md5 != null) {
+                    lisentersGroupkeyStatus.put(clientLongPolling.ip, md5);
+                }
             }
         }
         sampleResult.setLisentersGroupkeyStatus(lisentersGroupkeyStatus);
@@ -237,7 +256,7 @@ public class LongPollingService {
      * @param clientMd5Map     clientMd5Map.
      * @param probeRequestSize probeRequestSize.
      */
-    public void addLongPollingClient(HttpServletRequest req, HttpServletResponse rsp, Map<String, String> clientMd5Map,
+    public void addLongPollingClient(HttpServletRequest req, HttpServletResponse rsp, ClientMd5Map clientMd5Map,
             int probeRequestSize) {
         
         String str = req.getHeader(LongPollingService.LONG_POLLING_HEADER);
@@ -285,7 +304,7 @@ public class LongPollingService {
     
     @SuppressWarnings("PMD.ThreadPoolCreationRule")
     public LongPollingService() {
-        allSubs = new ConcurrentLinkedQueue<ClientLongPolling>();
+        allSubs = ConcurrentHashMap.newKeySet();
         
         ConfigExecutor.scheduleLongPolling(new StatTask(), 0L, 10L, TimeUnit.SECONDS);
         
@@ -322,7 +341,38 @@ public class LongPollingService {
     /**
      * ClientLongPolling subscibers.
      */
-    final Queue<ClientLongPolling> allSubs;
+    final Set<ClientLongPolling> allSubs;
+    
+    /**
+     * Inverted index of groupKey -> subscribers which listen the groupKey, so that a data change only visits its own
+     * subscribers. It is only changed by the long polling thread, together with {@link #allSubs}.
+     */
+    final Map<String, Set<ClientLongPolling>> subsByGroupKey = new ConcurrentHashMap<String, Set<ClientLongPolling>>();
+    
+    private void addSubscriber(ClientLongPolling clientSub) {
+        allSubs.add(clientSub);
+        for (String groupKey : clientSub.clientMd5Map.keySet()) {
+            Set<ClientLongPolling> groupKeySubs = subsByGroupKey.get(groupKey);
+            if (groupKeySubs == null) {
+                groupKeySubs = ConcurrentHashMap.newKeySet();
+                subsByGroupKey.put(groupKey, groupKeySubs);
+            }
+            groupKeySubs.add(clientSub);
+        }
+    }
+    
+    private boolean removeSubscriber(ClientLongPolling clientSub) {
+        if (!allSubs.remove(clientSub)) {
+            return false;
+        }
+        for (String groupKey : clientSub.clientMd5Map.keySet()) {
+            Set<ClientLongPolling> groupKeySubs = subsByGroupKey.get(groupKey);
+            if (groupKeySubs != null && groupKeySubs.remove(clientSub) && groupKeySubs.isEmpty()) {
+                subsByGroupKey.remove(groupKey);
+            }
+        }
+        return true;
+    }
     
     class DataChangeTask implements Runnable {
         
@@ -330,28 +380,29 @@ public class LongPollingService {
         public void run() {
             try {
                 ConfigCacheService.getContentBetaMd5(groupKey);
-                for (Iterator<ClientLongPolling> iter = allSubs.iterator(); iter.hasNext(); ) {
-                    ClientLongPolling clientSub = iter.next();
-                    if (clientSub.clientMd5Map.containsKey(groupKey)) {
-                        // If published tag is not in the beta list, then it skipped.
-                        if (isBeta && !CollectionUtils.contains(betaIps, clientSub.ip)) {
-                            continue;
-                        }
-                        
-                        // If published tag is not in the tag list, then it skipped.
-                        if (StringUtils.isNotBlank(tag) && !tag.equals(clientSub.tag)) {
-                            continue;
-                        }
-                        
-                        getRetainIps().put(clientSub.ip, System.currentTimeMillis());
-                        iter.remove(); // Delete subscribers' relationships.
-                        LogUtil.CLIENT_LOG
-                                .info("{}|{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - changeTime), "in-advance",
-                                        RequestUtil
-                                                .getRemoteIp((HttpServletRequest) clientSub.asyncContext.getRequest()),
-                                        "polling", clientSub.clientMd5Map.size(), clientSub.probeRequestSize, groupKey);
-                        clientSub.sendResponse(Arrays.asList(groupKey));
+                Set<ClientLongPolling> groupKeySubs = subsByGroupKey.get(groupKey);
+                if (groupKeySubs == null) {
+                    return;
+                }
+                for (ClientLongPolling clientSub : new ArrayList<ClientLongPolling>(groupKeySubs)) {
+                    // If published tag is not in the beta list, then it skipped.
+                    if (isBeta && !CollectionUtils.contains(betaIps, clientSub.ip)) {
+                        continue;
+                    }
+                    
+                    // If published tag is not in the tag list, then it skipped.
+                    if (StringUtils.isNotBlank(tag) && !tag.equals(clientSub.tag)) {
+                        continue;
                     }
+                    
+                    getRetainIps().put(clientSub.ip, System.currentTimeMillis());
+                    // Delete subscribers' relationships.
+                    removeSubscriber(clientSub);
+                    LogUtil.CLIENT_LOG
+                            .info("{}|{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - changeTime), "in-advance",
+                                    RequestUtil.getRemoteIp((HttpServletRequest) clientSub.asyncContext.getRequest()),
+                                    "polling", clientSub.clientMd5Map.size(), clientSub.probeRequestSize, groupKey);
+                    clientSub.sendResponse(Arrays.asList(groupKey));
                 }
             } catch (Throwable t) {
                 LogUtil.DEFAULT_LOG.error("data change error: {}", ExceptionUtil.getStackTrace(t));
@@ -393,51 +444,45 @@ public class LongPollingService {
         
         @Override
         public void run() {
-            asyncTimeoutFuture = ConfigExecutor.scheduleLongPolling(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        getRetainIps().put(ClientLongPolling.this.ip, System.currentTimeMillis());
-                        
-                        // Delete subsciber's relations.
-                        allSubs.remove(ClientLongPolling.this);
-                        
-                        if (isFixedPolling()) {
-                            LogUtil.CLIENT_LOG
-                                    .info("{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - createTime), "fix",
-                                            RequestUtil.getRemoteIp((HttpServletRequest) asyncContext.getRequest()),
-                                            "polling", clientMd5Map.size(), probeRequestSize);
-                            List<String> changedGroups = MD5Util
-                                    .compareMd5((HttpServletRequest) asyncContext.getRequest(),
-                                            (HttpServletResponse) asyncContext.getResponse(), clientMd5Map);
-                            if (changedGroups.size() > 0) {
-                                sendResponse(changedGroups);
-                            } else {
-                                sendResponse(null);
-                            }
-                        } else {
-                            LogUtil.CLIENT_LOG
-                                    .info("{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - createTime), "timeout",
-                                            RequestUtil.getRemoteIp((HttpServletRequest) asyncContext.getRequest()),
-                                            "polling", clientMd5Map.size(), probeRequestSize);
-                            sendResponse(null);
-                        }
-                    } catch (Throwable t) {
-                        LogUtil.DEFAULT_LOG.error("long polling error:" + t.getMessage(), t.getCause());
-                    }
-                    
+            timeout = HOLD_TIMING_WHEEL.newTimeout(this, timeoutTime, TimeUnit.MILLISECONDS);
+            addSubscriber(this);
+        }
+        
+        void onTimeout() {
+            try {
+                // Delete subsciber's relations, skip if it has been answered by data change.
+                if (!removeSubscriber(this)) {
+                    return;
                 }
+                getRetainIps().put(ip, System.currentTimeMillis());
                 
-            }, timeoutTime, TimeUnit.MILLISECONDS);
-            
-            allSubs.add(this);
+                if (isFixedPolling()) {
+                    LogUtil.CLIENT_LOG.info("{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - createTime), "fix",
+                            RequestUtil.getRemoteIp((HttpServletRequest) asyncContext.getRequest()), "polling",
+                            clientMd5Map.size(), probeRequestSize);
+                    List<String> changedGroups = MD5Util.compareMd5((HttpServletRequest) asyncContext.getRequest(),
+                            (HttpServletResponse) asyncContext.getResponse(), clientMd5Map);
+                    if (changedGroups.size() > 0) {
+                        sendResponse(changedGroups);
+                    } else {
+                        sendResponse(null);
+                    }
+                } else {
+                    LogUtil.CLIENT_LOG.info("{}|{}|{}|{}|{}|{}", (System.currentTimeMillis() - createTime), "timeout",
+                            RequestUtil.getRemoteIp((HttpServletRequest) asyncContext.getRequest()), "polling",
+                            clientMd5Map.size(), probeRequestSize);
+                    sendResponse(null);
+                }
+            } catch (Throwable t) {
+                LogUtil.DEFAULT_LOG.error("long polling error:" + t.getMessage(), t.getCause());
+            }
         }
         
         void sendResponse(List<String> changedGroups) {
             
             // Cancel time out task.
-            if (null != asyncTimeoutFuture) {
-                asyncTimeoutFuture.cancel(false);
+            if (null != timeout) {
+                timeout.cancel();
             }
             generateResponse(changedGroups);
         }
@@ -468,7 +513,7 @@ public class LongPollingService {
             }
         }
         
-        ClientLongPolling(AsyncContext ac, Map<String, String> clientMd5Map, String ip, int probeRequestSize,
+        ClientLongPolling(AsyncContext ac, ClientMd5Map clientMd5Map, String ip, int probeRequestSize,
                 long timeoutTime, String appName, String tag) {
             this.asyncContext = ac;
             this.clientMd5Map = clientMd5Map;
@@ -482,7 +527,7 @@ public class LongPollingService {
         
         final AsyncContext asyncContext;
         
-        final Map<String, String> clientMd5Map;
+        final ClientMd5Map clientMd5Map;
         
         final long createTime;
         
@@ -496,7 +541,7 @@ public class LongPollingService {
         
         final long timeoutTime;
         
-        Future<?> asyncTimeoutFuture;
+        Timeout<ClientLongPolling> timeout;
         
         @Override
         public String toString() {
@@ -33,11 +33,13 @@ import com.alibaba.nacos.config.server.service.dump.processor.DumpAllBetaProcess
 import com.alibaba.nacos.config.server.service.dump.processor.DumpAllProcessor;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpAllTagProcessor;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpChangeProcessor;
+import com.alibaba.nacos.config.server.service.dump.processor.DumpIncrementalProcessor;
 import com.alibaba.nacos.config.server.service.dump.processor.DumpProcessor;
 import com.alibaba.nacos.config.server.service.dump.task.DumpAllBetaTask;
 import com.alibaba.nacos.config.server.service.dump.task.DumpAllTagTask;
 import com.alibaba.nacos.config.server.service.dump.task.DumpAllTask;
 import com.alibaba.nacos.config.server.service.dump.task.DumpChangeTask;
+import com.alibaba.nacos.config.server.service.dump.task.DumpIncrementalTask;
 import com.alibaba.nacos.config.server.service.dump.task.DumpTask;
 import com.alibaba.nacos.config.server.service.merge.MergeTaskProcessor;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
@@ -47,11 +49,13 @@ import com.alibaba.nacos.config.server.utils.DiskUtil;
 import com.alibaba.nacos.config.server.utils.GroupKey;
 import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.alibaba.nacos.config.server.utils.TimeUtils;
 import com.alibaba.nacos.core.cluster.ServerMemberManager;
 import com.alibaba.nacos.sys.env.EnvUtil;
 import com.alibaba.nacos.sys.utils.InetUtils;
 import com.alibaba.nacos.core.utils.TimerContext;
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -85,6 +89,8 @@ public abstract class DumpService {
     
     protected DumpAllTagProcessor dumpAllTagProcessor;
     
+    protected DumpIncrementalProcessor dumpIncrementalProcessor;
+    
     protected final PersistService persistService;
     
     protected final ServerMemberManager memberManager;
@@ -103,6 +109,7 @@ public abstract class DumpService {
         this.dumpAllProcessor = new DumpAllProcessor(this);
         this.dumpAllBetaProcessor = new DumpAllBetaProcessor(this);
         this.dumpAllTagProcessor = new DumpAllTagProcessor(this);
+        this.dumpIncrementalProcessor = new DumpIncrementalProcessor(this, dumpAllProcessor);
         this.dumpTaskMgr = new TaskManager("com.alibaba.nacos.server.DumpTaskManager");
         this.dumpTaskMgr.setDefaultTaskProcessor(processor);
         
@@ -112,6 +119,7 @@ public abstract class DumpService {
         this.dumpAllTaskMgr.addProcessor(DumpAllTask.TASK_ID, dumpAllProcessor);
         this.dumpAllTaskMgr.addProcessor(DumpAllBetaTask.TASK_ID, dumpAllBetaProcessor);
         this.dumpAllTaskMgr.addProcessor(DumpAllTagTask.TASK_ID, dumpAllTagProcessor);
+        this.dumpAllTaskMgr.addProcessor(DumpIncrementalTask.TASK_ID, dumpIncrementalProcessor);
         
         DynamicDataSource.getInstance().getDataSource();
     }
@@ -144,6 +152,9 @@ public abstract class DumpService {
             
             Runnable dumpAllTag = () -> dumpAllTaskMgr.addTask(DumpAllTagTask.TASK_ID, new DumpAllTagTask());
             
+            Runnable dumpIncremental = () -> dumpAllTaskMgr
+                    .addTask(DumpIncrementalTask.TASK_ID, new DumpIncrementalTask());
+            
             Runnable clearConfigHistory = () -> {
                 LOGGER.warn("clearConfigHistory start");
                 if (canExecute()) {
@@ -219,7 +230,13 @@ public abstract class DumpService {
                 long initialDelay = new Random().nextInt(INITIAL_DELAY_IN_MINUTE) + 10;
                 LogUtil.DEFAULT_LOG.warn("initialDelay:{}", initialDelay);
                 
-                ConfigExecutor.scheduleConfigTask(dumpAll, initialDelay, DUMP_ALL_INTERVAL_IN_MINUTE, TimeUnit.MINUTES);
+                if (PropertyUtil.isIncrementalDump()) {
+                    ConfigExecutor.scheduleConfigTask(dumpIncremental, DUMP_INCREMENTAL_INTERVAL_IN_MINUTE,
+                            DUMP_INCREMENTAL_INTERVAL_IN_MINUTE, TimeUnit.MINUTES);
+                } else {
+                    ConfigExecutor
+                            .scheduleConfigTask(dumpAll, initialDelay, DUMP_ALL_INTERVAL_IN_MINUTE, TimeUnit.MINUTES);
+                }
                 
                 ConfigExecutor
                         .scheduleConfigTask(dumpAllBeta, initialDelay, DUMP_ALL_INTERVAL_IN_MINUTE, TimeUnit.MINUTES);
@@ -241,8 +258,12 @@ public abstract class DumpService {
         // initial dump all
         FileInputStream fis = null;
         Timestamp heartheatLastStamp = null;
+        final Timestamp dumpStartTime = TimeUtils.getCurrentTime();
+        final Timestamp dumpCursor = loadDumpCursor();
         try {
-            if (isQuickStart()) {
+            if (dumpCursor != null) {
+                isAllDump = false;
+            } else if (isQuickStart()) {
                 File heartbeatFile = DiskUtil.heartBeatFile();
                 if (heartbeatFile.exists()) {
                     fis = new FileInputStream(heartbeatFile);
@@ -259,7 +280,9 @@ public abstract class DumpService {
                 DiskUtil.clearAll();
                 dumpAllProcessor.process(new DumpAllTask());
             } else {
-                Timestamp beforeTimeStamp = getBeforeStamp(heartheatLastStamp, timeStep);
+                Timestamp beforeTimeStamp = dumpCursor != null ? new Timestamp(
+                        dumpCursor.getTime() - DumpIncrementalProcessor.CURSOR_OVERLAP_MILLIS)
+                        : getBeforeStamp(heartheatLastStamp, timeStep);
                 DumpChangeProcessor dumpChangeProcessor = new DumpChangeProcessor(this, beforeTimeStamp,
                         TimeUtils.getCurrentTime());
                 dumpChangeProcessor.process(new DumpChangeTask());
@@ -277,8 +300,11 @@ public abstract class DumpService {
                     }
                     LogUtil.DEFAULT_LOG.error("end checkMd5Task");
                 };
-                ConfigExecutor.scheduleConfigTask(checkMd5Task, 0, 12, TimeUnit.HOURS);
+                if (dumpCursor == null) {
+                    ConfigExecutor.scheduleConfigTask(checkMd5Task, 0, 12, TimeUnit.HOURS);
+                }
             }
+            saveDumpCursor(dumpStartTime);
         } catch (IOException e) {
             LogUtil.FATAL_LOG.error("dump config fail" + e.getMessage());
             throw e;
@@ -293,6 +319,50 @@ public abstract class DumpService {
         }
     }
     
+    /**
+     * Load the persisted dump cursor, the time before which all config changes have been dumped.
+     *
+     * @return dump cursor, or null if incremental dump is disabled, or the cursor is missing, broken or older than the
+     *     config history retention
+     */
+    public Timestamp loadDumpCursor() {
+        if (!PropertyUtil.isIncrementalDump()) {
+            return null;
+        }
+        File cursorFile = DiskUtil.dumpCursorFile();
+        if (!cursorFile.exists()) {
+            return null;
+        }
+        try {
+            Timestamp cursor = Timestamp.valueOf(FileUtils.readFileToString(cursorFile, Constants.ENCODE).trim());
+            long retentionMillis = TimeUnit.DAYS.toMillis(getRetentionDays());
+            if (TimeUtils.getCurrentTime().getTime() - cursor.getTime() >= retentionMillis) {
+                LogUtil.DEFAULT_LOG.warn("[dump-cursor] {} is older than the config history retention.", cursor);
+                return null;
+            }
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            LogUtil.DEFAULT_LOG.warn("[dump-cursor] read {} failed.", cursorFile, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Persist the dump cursor, if incremental dump is enabled.
+     *
+     * @param cursor time before which all config changes have been dumped
+     */
+    public void saveDumpCursor(Timestamp cursor) {
+        if (!PropertyUtil.isIncrementalDump()) {
+            return;
+        }
+        try {
+            DiskUtil.saveDumpCursorToDisk(cursor.toString());
+        } catch (IOException e) {
+            LogUtil.FATAL_LOG.error("[dump-cursor] save {} failed.", cursor, e);
+        }
+    }
+    
     private Timestamp getBeforeStamp(Timestamp date, int step) {
         Calendar cal = Calendar.getInstance();
         cal.setTime(date);
@@ -455,6 +525,11 @@ public abstract class DumpService {
      */
     static final int INITIAL_DELAY_IN_MINUTE = 6 * 60;
     
+    /**
+     * incremental dump interval.
+     */
+    static final int DUMP_INCREMENTAL_INTERVAL_IN_MINUTE = 5;
+    
     private TaskManager dumpTaskMgr;
     
     private TaskManager dumpAllTaskMgr;
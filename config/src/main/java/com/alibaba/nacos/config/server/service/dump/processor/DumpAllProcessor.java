@@ -17,25 +17,40 @@
 package com.alibaba.nacos.config.server.service.dump.processor;
 
 import com.alibaba.nacos.common.task.NacosTask;
-import com.alibaba.nacos.common.utils.MD5Utils;
-import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.common.task.NacosTaskProcessor;
 import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
 import com.alibaba.nacos.config.server.model.Page;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
 import com.alibaba.nacos.config.server.service.AggrWhitelist;
 import com.alibaba.nacos.config.server.service.ClientIpWhiteList;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
 import com.alibaba.nacos.config.server.service.SwitchService;
 import com.alibaba.nacos.config.server.service.dump.DumpService;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.utils.ConfigExecutor;
 import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.LogUtil;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.alibaba.nacos.config.server.utils.LogUtil.DEFAULT_LOG;
 
 /**
  * Dump all processor.
  *
+ * <p>The dump is pipelined: the next page is prefetched from the database while the rows of the current page are
+ * dumped by a pool of workers. Rows are assigned to workers by groupKey through bounded queues, so the dumps of one
+ * groupKey keep their order and a slow disk holds back the reader. A worker which exits before the end of the dump
+ * fails the whole dump, so it is retried instead of waiting for a queue nobody drains.
+ *
  * @author Nacos
  * @date 2020/7/5 12:19 PM
  */
@@ -48,46 +63,205 @@ public class DumpAllProcessor implements NacosTaskProcessor {
     
     @Override
     public boolean process(NacosTask task) {
-        long currentMaxId = persistService.findConfigMaxId();
+        final long currentMaxId = persistService.findConfigMaxId();
+        final int workerCount = ConfigExecutor.getDumpAllThreadCount();
+        final List<DumpWorker> workers = new ArrayList<DumpWorker>(workerCount);
+        final CountDownLatch finished = new CountDownLatch(workerCount);
+        final AtomicLong dumpedCount = MetricsMonitor.getDumpAllCountMonitor();
+        dumpedCount.set(0L);
+        for (int i = 0; i < workerCount; i++) {
+            DumpWorker worker = new DumpWorker(dumpedCount, finished);
+            workers.add(worker);
+            ConfigExecutor.executeDumpAll(worker);
+        }
+        
+        final long startTime = System.currentTimeMillis();
         long lastMaxId = 0;
-        while (lastMaxId < currentMaxId) {
+        try {
             Page<ConfigInfoWrapper> page = persistService.findAllConfigInfoFragment(lastMaxId, PAGE_SIZE);
-            if (page != null && page.getPageItems() != null && !page.getPageItems().isEmpty()) {
-                for (ConfigInfoWrapper cf : page.getPageItems()) {
-                    long id = cf.getId();
-                    lastMaxId = id > lastMaxId ? id : lastMaxId;
-                    if (cf.getDataId().equals(AggrWhitelist.AGGRIDS_METADATA)) {
-                        AggrWhitelist.load(cf.getContent());
+            while (lastMaxId < currentMaxId) {
+                boolean hasItems = page != null && page.getPageItems() != null && !page.getPageItems().isEmpty();
+                if (hasItems) {
+                    for (ConfigInfoWrapper cf : page.getPageItems()) {
+                        lastMaxId = Math.max(cf.getId(), lastMaxId);
                     }
-                    
-                    if (cf.getDataId().equals(ClientIpWhiteList.CLIENT_IP_WHITELIST_METADATA)) {
-                        ClientIpWhiteList.load(cf.getContent());
-                    }
-                    
-                    if (cf.getDataId().equals(SwitchService.SWITCH_META_DATAID)) {
-                        SwitchService.load(cf.getContent());
+                } else {
+                    lastMaxId += PAGE_SIZE;
+                }
+                Future<Page<ConfigInfoWrapper>> nextPage = null;
+                if (lastMaxId < currentMaxId) {
+                    final long nextMaxId = lastMaxId;
+                    nextPage = ConfigExecutor
+                            .submitDumpAllPrefetch(() -> persistService.findAllConfigInfoFragment(nextMaxId, PAGE_SIZE));
+                }
+                if (hasItems) {
+                    if (!dispatch(page, workers)) {
+                        DEFAULT_LOG.error("[all-dump] dump worker exited at {} / {}", lastMaxId, currentMaxId);
+                        return false;
                     }
-                    
-                    boolean result = ConfigCacheService
-                            .dump(cf.getDataId(), cf.getGroup(), cf.getTenant(), cf.getContent(), cf.getLastModified(),
-                                    cf.getType());
-                    
-                    final String content = cf.getContent();
-                    final String md5 = MD5Utils.md5Hex(content, Constants.ENCODE);
-                    LogUtil.DUMP_LOG.info("[dump-all-ok] {}, {}, length={}, md5={}",
-                            GroupKey2.getKey(cf.getDataId(), cf.getGroup()), cf.getLastModified(), content.length(),
-                            md5);
+                    MetricsMonitor.getDumpAllThroughputMonitor().set(throughput(dumpedCount.get(), startTime));
+                    DEFAULT_LOG.info("[all-dump] {} / {}, dumped {}, {}/s", lastMaxId, currentMaxId, dumpedCount.get(),
+                            MetricsMonitor.getDumpAllThroughputMonitor().get());
                 }
-                DEFAULT_LOG.info("[all-dump] {} / {}", lastMaxId, currentMaxId);
-            } else {
-                lastMaxId += PAGE_SIZE;
+                page = nextPage == null ? null : nextPage.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            DEFAULT_LOG.warn("[all-dump] interrupted at {} / {}", lastMaxId, currentMaxId);
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            finish(workers, finished);
+        }
+        if (!isCompleted(workers)) {
+            DEFAULT_LOG.error("[all-dump] dump worker exited before the end of dump, dumped {}", dumpedCount.get());
+            return false;
+        }
+        MetricsMonitor.getDumpAllThroughputMonitor().set(throughput(dumpedCount.get(), startTime));
+        DEFAULT_LOG.info("[all-dump] finished, dumped {} in {} ms", dumpedCount.get(),
+                System.currentTimeMillis() - startTime);
+        return true;
+    }
+    
+    private static long throughput(long count, long startTime) {
+        return count * MILLIS_PER_SECOND / Math.max(System.currentTimeMillis() - startTime, 1L);
+    }
+    
+    private boolean dispatch(Page<ConfigInfoWrapper> page, List<DumpWorker> workers) throws InterruptedException {
+        for (ConfigInfoWrapper cf : page.getPageItems()) {
+            if (cf.getDataId().equals(AggrWhitelist.AGGRIDS_METADATA)) {
+                AggrWhitelist.load(cf.getContent());
+            }
+            
+            if (cf.getDataId().equals(ClientIpWhiteList.CLIENT_IP_WHITELIST_METADATA)) {
+                ClientIpWhiteList.load(cf.getContent());
+            }
+            
+            if (cf.getDataId().equals(SwitchService.SWITCH_META_DATAID)) {
+                SwitchService.load(cf.getContent());
+            }
+            
+            String groupKey = GroupKey2.getKey(cf.getDataId(), cf.getGroup(), cf.getTenant());
+            if (!offer(workers.get((groupKey.hashCode() & Integer.MAX_VALUE) % workers.size()), cf)) {
+                return false;
             }
         }
         return true;
     }
     
+    /**
+     * Wait for free space in the queue of the worker as long as the worker is running.
+     *
+     * @return false if the worker has exited
+     */
+    private static boolean offer(DumpWorker worker, ConfigInfoWrapper cf) throws InterruptedException {
+        while (!worker.queue.offer(cf, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (worker.exited) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void finish(List<DumpWorker> workers, CountDownLatch finished) {
+        boolean interrupted = false;
+        for (DumpWorker worker : workers) {
+            while (true) {
+                try {
+                    offer(worker, END_OF_DUMP);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static boolean isCompleted(List<DumpWorker> workers) {
+        for (DumpWorker worker : workers) {
+            if (!worker.completed) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static class DumpWorker implements Runnable {
+        
+        private final BlockingQueue<ConfigInfoWrapper> queue = new ArrayBlockingQueue<ConfigInfoWrapper>(
+                QUEUE_CAPACITY);
+        
+        private final AtomicLong dumpedCount;
+        
+        private final CountDownLatch finished;
+        
+        /**
+         * Set when the worker has taken the end of dump.
+         */
+        private volatile boolean completed;
+        
+        /**
+         * Set when the worker stops taking from its queue, whether it is completed or not.
+         */
+        private volatile boolean exited;
+        
+        DumpWorker(AtomicLong dumpedCount, CountDownLatch finished) {
+            this.dumpedCount = dumpedCount;
+            this.finished = finished;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                for (ConfigInfoWrapper cf = queue.take(); cf != END_OF_DUMP; cf = queue.take()) {
+                    dump(cf);
+                }
+                completed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exited = true;
+                finished.countDown();
+            }
+        }
+        
+        private void dump(ConfigInfoWrapper cf) {
+            try {
+                ConfigCacheService.dump(cf.getDataId(), cf.getGroup(), cf.getTenant(), cf.getContent(),
+                        cf.getLastModified(), cf.getType());
+                dumpedCount.incrementAndGet();
+                LogUtil.DUMP_LOG.info("[dump-all-ok] {}, {}, length={}, md5={}",
+                        GroupKey2.getKey(cf.getDataId(), cf.getGroup()), cf.getLastModified(),
+                        cf.getContent().length(),
+                        ConfigCacheService.getContentMd5(GroupKey2.getKey(cf.getDataId(), cf.getGroup(), cf.getTenant())));
+            } catch (Throwable e) {
+                LogUtil.DUMP_LOG.error("[dump-all-error] {}", GroupKey2.getKey(cf.getDataId(), cf.getGroup()), e);
+            }
+        }
+    }
+    
     static final int PAGE_SIZE = 1000;
     
+    private static final int QUEUE_CAPACITY = 256;
+    
+    private static final long MILLIS_PER_SECOND = 1000L;
+    
+    private static final long OFFER_TIMEOUT_MILLIS = 100L;
+    
+    private static final ConfigInfoWrapper END_OF_DUMP = new ConfigInfoWrapper();
+    
     final DumpService dumpService;
     
     final PersistService persistService;
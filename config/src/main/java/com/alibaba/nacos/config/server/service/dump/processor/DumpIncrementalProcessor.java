@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.processor;
+
+import com.alibaba.nacos.common.task.NacosTask;
+import com.alibaba.nacos.common.task.NacosTaskProcessor;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
+import com.alibaba.nacos.config.server.model.event.ConfigDumpEvent;
+import com.alibaba.nacos.config.server.service.dump.DumpConfigHandler;
+import com.alibaba.nacos.config.server.service.dump.DumpService;
+import com.alibaba.nacos.config.server.service.dump.task.DumpAllTask;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.TimeUtils;
+import com.alibaba.nacos.sys.utils.InetUtils;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Dump the configs changed since the dump cursor, found by the config history, and move the cursor forward. Falls
+ * back to a full dump when the cursor is lost.
+ *
+ * @author nacos
+ */
+public class DumpIncrementalProcessor implements NacosTaskProcessor {
+    
+    /**
+     * Changes are re-read from a little before the cursor, to cover clock skew between the nodes writing
+     * gmt_modified and transactions committed after the previous run.
+     */
+    public static final long CURSOR_OVERLAP_MILLIS = 60 * 1000L;
+    
+    public DumpIncrementalProcessor(DumpService dumpService, DumpAllProcessor dumpAllProcessor) {
+        this.dumpService = dumpService;
+        this.persistService = dumpService.getPersistService();
+        this.dumpAllProcessor = dumpAllProcessor;
+    }
+    
+    @Override
+    public boolean process(NacosTask task) {
+        final Timestamp endTime = TimeUtils.getCurrentTime();
+        Timestamp cursor = dumpService.loadDumpCursor();
+        if (cursor == null) {
+            LogUtil.DEFAULT_LOG.warn("[dump-incremental] no usable cursor, dump all.");
+            boolean result = dumpAllProcessor.process(new DumpAllTask());
+            if (result) {
+                dumpService.saveDumpCursor(endTime);
+            }
+            return result;
+        }
+        
+        Timestamp startTime = new Timestamp(cursor.getTime() - CURSOR_OVERLAP_MILLIS);
+        List<ConfigInfo> changedConfigs = persistService.findChangedConfigKeys(startTime, endTime);
+        for (ConfigInfo changed : changedConfigs) {
+            ConfigInfoWrapper cf = persistService
+                    .queryConfigInfo(changed.getDataId(), changed.getGroup(), changed.getTenant());
+            ConfigDumpEvent event = ConfigDumpEvent.builder().namespaceId(changed.getTenant())
+                    .dataId(changed.getDataId()).group(changed.getGroup()).remove(Objects.isNull(cf))
+                    .content(Objects.isNull(cf) ? null : cf.getContent()).type(Objects.isNull(cf) ? null : cf.getType())
+                    .lastModifiedTs(Objects.isNull(cf) ? endTime.getTime() : cf.getLastModified())
+                    .handleIp(InetUtils.getSelfIP()).build();
+            DumpConfigHandler.configDump(event);
+        }
+        dumpService.saveDumpCursor(endTime);
+        LogUtil.DEFAULT_LOG.info("[dump-incremental] {} changed configs from {} to {}", changedConfigs.size(), startTime,
+                endTime);
+        return true;
+    }
+    
+    final DumpService dumpService;
+    
+    final PersistService persistService;
+    
+    final DumpAllProcessor dumpAllProcessor;
+}
@@ -24,12 +24,16 @@ import com.alibaba.nacos.common.model.RestResult;
 import com.alibaba.nacos.common.notify.Event;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.ConfigChangeItem;
 import com.alibaba.nacos.config.server.model.event.ConfigDataChangeEvent;
 import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
 import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
 import com.alibaba.nacos.config.server.utils.ConfigExecutor;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.alibaba.nacos.core.cluster.Member;
 import com.alibaba.nacos.core.cluster.ServerMemberManager;
 import com.alibaba.nacos.sys.env.EnvUtil;
@@ -40,12 +44,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -78,6 +90,15 @@ public class AsyncNotifyService {
                     String tag = evt.tag;
                     Collection<Member> ipList = memberManager.allMembers();
                     
+                    if (isBatchEnabled()) {
+                        for (Member member : ipList) {
+                            getMemberQueue(member.getAddress()).offer(
+                                    new NotifySingleTask(dataId, group, tenant, tag, dumpTs, member.getAddress(),
+                                            evt.isBeta));
+                        }
+                        return;
+                    }
+                    
                     // In fact, any type of queue here can be
                     Queue<NotifySingleTask> queue = new LinkedList<NotifySingleTask>();
                     for (Member member : ipList) {
@@ -101,6 +122,117 @@ public class AsyncNotifyService {
     
     private ServerMemberManager memberManager;
     
+    private final ConcurrentMap<String, MemberNotifyQueue> memberQueues = new ConcurrentHashMap<>();
+    
+    private static boolean isBatchEnabled() {
+        return PropertyUtil.getNotifyBatchSize() > 1;
+    }
+    
+    private MemberNotifyQueue getMemberQueue(String target) {
+        MemberNotifyQueue queue = memberQueues.get(target);
+        if (queue == null) {
+            queue = memberQueues.computeIfAbsent(target, MemberNotifyQueue::new);
+        }
+        return queue;
+    }
+    
+    /**
+     * Changes waiting to be notified to one member. A newer change of a key replaces the pending one, and the pending
+     * changes are sent together at most {@link PropertyUtil#getNotifyBatchDelay()} after the first of them arrived.
+     */
+    class MemberNotifyQueue {
+        
+        private final String target;
+        
+        final Map<String, NotifySingleTask> pending = new LinkedHashMap<>();
+        
+        private boolean scheduled;
+        
+        /**
+         * Set when the member doesn't know the batch request yet, its changes are then notified one by one.
+         */
+        private volatile boolean batchUnsupported;
+        
+        MemberNotifyQueue(String target) {
+            this.target = target;
+        }
+        
+        void offer(NotifySingleTask task) {
+            synchronized (this) {
+                // Last write wins, the key moves to the tail with its newest change.
+                pending.remove(task.getCoalesceKey());
+                pending.put(task.getCoalesceKey(), task);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            ConfigExecutor.scheduleAsyncNotify(this::flush, PropertyUtil.getNotifyBatchDelay(), TimeUnit.MILLISECONDS);
+        }
+        
+        synchronized boolean isSuperseded(NotifySingleTask task) {
+            return pending.containsKey(task.getCoalesceKey());
+        }
+        
+        void flush() {
+            final int batchSize = PropertyUtil.getNotifyBatchSize();
+            final List<NotifySingleTask> tasks = new ArrayList<>();
+            boolean more;
+            synchronized (this) {
+                Iterator<NotifySingleTask> iterator = pending.values().iterator();
+                while (iterator.hasNext() && tasks.size() < batchSize) {
+                    tasks.add(iterator.next());
+                    iterator.remove();
+                }
+                more = !pending.isEmpty();
+                scheduled = more;
+            }
+            if (more) {
+                ConfigExecutor.executeAsyncNotify(this::flush);
+            }
+            if (!tasks.isEmpty()) {
+                executeBatch(new NotifyBatchTask(target, tasks));
+            }
+        }
+    }
+    
+    private void executeBatch(NotifyBatchTask batch) {
+        final String target = batch.target;
+        if (!memberManager.hasMember(target)) {
+            memberQueues.remove(target);
+            return;
+        }
+        MemberNotifyQueue queue = getMemberQueue(target);
+        // A key changed again while this batch waited for a retry is sent with the queue, so the newest change wins.
+        batch.tasks.removeIf(queue::isSuperseded);
+        if (batch.tasks.isEmpty()) {
+            return;
+        }
+        if (memberManager.isUnHealth(target)) {
+            for (NotifySingleTask task : batch.tasks) {
+                ConfigTraceService.logNotifyEvent(task.getDataId(), task.getGroup(), task.getTenant(), null,
+                        task.getLastModified(), InetUtils.getSelfIP(), ConfigTraceService.NOTIFY_EVENT_UNHEALTH, 0,
+                        target);
+            }
+            retryBatch(batch);
+            return;
+        }
+        if (queue.batchUnsupported) {
+            ConfigExecutor
+                    .executeAsyncNotify(new AsyncTask(nacosAsyncRestTemplate, new LinkedList<>(batch.tasks)));
+            return;
+        }
+        Header header = Header.newInstance();
+        header.addParam(NotifyService.NOTIFY_HEADER_OP_HANDLE_IP, InetUtils.getSelfIP());
+        nacosAsyncRestTemplate
+                .postJson(batch.url, header, batch.toBody(), String.class, new AsyncNotifyBatchCallBack(batch));
+    }
+    
+    private void retryBatch(NotifyBatchTask batch) {
+        int delay = getDelayTime(batch);
+        ConfigExecutor.scheduleAsyncNotify(() -> executeBatch(batch), delay, TimeUnit.MILLISECONDS);
+    }
+    
     class AsyncTask implements Runnable {
         
         private Queue<NotifySingleTask> queue;
@@ -221,6 +353,107 @@ public class AsyncNotifyService {
         }
     }
     
+    class AsyncNotifyBatchCallBack implements Callback<String> {
+        
+        private final NotifyBatchTask batch;
+        
+        AsyncNotifyBatchCallBack(NotifyBatchTask batch) {
+            this.batch = batch;
+        }
+        
+        @Override
+        public void onReceive(RestResult<String> result) {
+            if (result.ok()) {
+                for (NotifySingleTask task : batch.tasks) {
+                    long delayed = System.currentTimeMillis() - task.getLastModified();
+                    ConfigTraceService.logNotifyEvent(task.getDataId(), task.getGroup(), task.getTenant(), null,
+                            task.getLastModified(), InetUtils.getSelfIP(), ConfigTraceService.NOTIFY_EVENT_OK, delayed,
+                            batch.target);
+                }
+                return;
+            }
+            boolean unsupported = result.getCode() == HttpServletResponse.SC_NOT_FOUND
+                    || result.getCode() == HttpServletResponse.SC_METHOD_NOT_ALLOWED;
+            if (unsupported) {
+                // An older member without the batch request, fall back to notify the changes one by one.
+                LOGGER.warn("[notify-batch-unsupported] target:{}, notify changes one by one", batch.target);
+                getMemberQueue(batch.target).batchUnsupported = true;
+                executeBatch(batch);
+                return;
+            }
+            LOGGER.error("[notify-error] target:{} batch:{} code:{}", batch.target, batch.tasks.size(),
+                    result.getCode());
+            onFailed(ConfigTraceService.NOTIFY_EVENT_ERROR);
+        }
+        
+        @Override
+        public void onError(Throwable ex) {
+            LOGGER.error("[notify-exception] target:{} batch:{} ex:{}", batch.target, batch.tasks.size(),
+                    ex.toString());
+            onFailed(ConfigTraceService.NOTIFY_EVENT_EXCEPTION);
+        }
+        
+        @Override
+        public void onCancel() {
+            LogUtil.NOTIFY_LOG.error("[notify-exception] target:{} batch:{} method:{}", batch.target,
+                    batch.tasks.size(), "CANCELED");
+            onFailed(ConfigTraceService.NOTIFY_EVENT_EXCEPTION);
+        }
+        
+        private void onFailed(String event) {
+            for (NotifySingleTask task : batch.tasks) {
+                long delayed = System.currentTimeMillis() - task.getLastModified();
+                ConfigTraceService.logNotifyEvent(task.getDataId(), task.getGroup(), task.getTenant(), null,
+                        task.getLastModified(), InetUtils.getSelfIP(), event, delayed, batch.target);
+            }
+            
+            //get delay time and set fail count to the batch
+            retryBatch(batch);
+            LogUtil.NOTIFY_LOG.error("[notify-retry] target:{} batch:{}", batch.target, batch.tasks.size());
+            
+            MetricsMonitor.getConfigNotifyException().increment();
+        }
+    }
+    
+    /**
+     * Changes notified to one member in a single request, retried as a whole.
+     */
+    static class NotifyBatchTask {
+        
+        private static final String URL_PATTERN = "http://{0}{1}" + Constants.COMMUNICATION_CONTROLLER_PATH + "/dataChange";
+        
+        private final String target;
+        
+        private final String url;
+        
+        private final List<NotifySingleTask> tasks;
+        
+        private int failCount;
+        
+        NotifyBatchTask(String target, List<NotifySingleTask> tasks) {
+            this.target = target;
+            this.tasks = tasks;
+            this.url = MessageFormat.format(URL_PATTERN, target, EnvUtil.getContextPath());
+        }
+        
+        String toBody() {
+            List<ConfigChangeItem> items = new ArrayList<>(tasks.size());
+            for (NotifySingleTask task : tasks) {
+                items.add(new ConfigChangeItem(task.getDataId(), task.getGroup(), task.getTenant(), task.tag,
+                        task.getLastModified(), task.isBeta));
+            }
+            return JacksonUtils.toJson(items);
+        }
+        
+        int getFailCount() {
+            return failCount;
+        }
+        
+        void setFailCount(int failCount) {
+            this.failCount = failCount;
+        }
+    }
+    
     static class NotifySingleTask extends NotifyTask {
         
         private String target;
@@ -229,6 +462,8 @@ public class AsyncNotifyService {
         
         private boolean isBeta;
         
+        private String tag;
+        
         private static final String URL_PATTERN =
                 "http://{0}{1}" + Constants.COMMUNICATION_CONTROLLER_PATH + "/dataChange" + "?dataId={2}&group={3}";
         
@@ -252,6 +487,7 @@ public class AsyncNotifyService {
             super(dataId, group, tenant, lastModified);
             this.target = target;
             this.isBeta = isBeta;
+            this.tag = tag;
             try {
                 dataId = URLEncoder.encode(dataId, Constants.ENCODE);
                 group = URLEncoder.encode(group, Constants.ENCODE);
@@ -285,6 +521,17 @@ public class AsyncNotifyService {
             return target;
         }
         
+        /**
+         * Changes with the same key replace each other while waiting to be notified.
+         */
+        String getCoalesceKey() {
+            String groupKey = GroupKey2.getKey(getDataId(), getGroup(), getTenant());
+            if (isBeta) {
+                return groupKey + "+beta";
+            }
+            return StringUtils.isEmpty(tag) ? groupKey : groupKey + "+tag+" + tag;
+        }
+        
     }
     
     /**
@@ -303,6 +550,15 @@ public class AsyncNotifyService {
         return delay;
     }
     
+    private static int getDelayTime(NotifyBatchTask batch) {
+        int failCount = batch.getFailCount();
+        int delay = MIN_RETRY_INTERVAL + failCount * failCount * INCREASE_STEPS;
+        if (failCount <= MAX_COUNT) {
+            batch.setFailCount(failCount + 1);
+        }
+        return delay;
+    }
+    
     private static final int MIN_RETRY_INTERVAL = 500;
     
     private static final int INCREASE_STEPS = 1000;
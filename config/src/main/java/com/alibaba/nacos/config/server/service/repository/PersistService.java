@@ -888,6 +888,15 @@ public interface PersistService {
      */
     List<ConfigInfo> findDeletedConfig(final Timestamp startTime, final Timestamp endTime);
     
+    /**
+     * Query the configs added, updated or deleted in the time range from the config history.
+     *
+     * @param startTime start time
+     * @param endTime   end time
+     * @return {@link ConfigInfo} list, only dataId, group and tenant are set
+     */
+    List<ConfigInfo> findChangedConfigKeys(final Timestamp startTime, final Timestamp endTime);
+    
     /**
      * Add configuration; database atomic operation, minimum sql action, no business encapsulation.
      *
@@ -69,8 +69,22 @@ public class DerbySnapshotOperation implements SnapshotOperation {
     
     private final ReentrantReadWriteLock.WriteLock writeLock;
     
+    private final Runnable onLoaded;
+    
     public DerbySnapshotOperation(ReentrantReadWriteLock.WriteLock writeLock) {
+        this(writeLock, () -> {
+        });
+    }
+    
+    /**
+     * Create the snapshot operation.
+     *
+     * @param writeLock lock held while the database is saved or replaced
+     * @param onLoaded  called under the lock after a snapshot load replaced the database, even if it failed
+     */
+    public DerbySnapshotOperation(ReentrantReadWriteLock.WriteLock writeLock, Runnable onLoaded) {
         this.writeLock = writeLock;
+        this.onLoaded = onLoaded;
     }
     
     @Override
@@ -146,6 +160,7 @@ public class DerbySnapshotOperation implements SnapshotOperation {
                     .error("Fail to load snapshot, path={}, file list={}, {}.", readerPath, reader.listFiles(), t);
             return false;
         } finally {
+            onLoaded.run();
             lock.unlock();
             TimerContext.end(DERBY_SNAPSHOT_LOAD, LogUtil.FATAL_LOG);
         }
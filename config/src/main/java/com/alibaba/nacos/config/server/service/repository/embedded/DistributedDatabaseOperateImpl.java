@@ -167,6 +167,8 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
     
     private ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
     
+    private final EmbeddedReadCache readCache = new EmbeddedReadCache();
+    
     public DistributedDatabaseOperateImpl(ServerMemberManager memberManager, ProtocolManager protocolManager)
             throws Exception {
         this.memberManager = memberManager;
@@ -457,12 +459,17 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
     
     @Override
     public List<SnapshotOperation> loadSnapshotOperate() {
-        return Collections.singletonList(new DerbySnapshotOperation(writeLock));
+        return Collections.singletonList(new DerbySnapshotOperation(writeLock, readCache::clear));
     }
     
     @SuppressWarnings("all")
     @Override
     public Response onRequest(final ReadRequest request) {
+        // The read index has been reached, so a cached result that is still valid is up to date
+        final ByteString cached = readCache.get(request.getData());
+        if (null != cached) {
+            return Response.newBuilder().setSuccess(true).setData(cached).build();
+        }
         final SelectRequest selectRequest = serializer
                 .deserialize(request.getData().toByteArray(), SelectRequest.class);
         
@@ -470,6 +477,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
         
         final RowMapper<Object> mapper = RowMapperManager.getRowMapper(selectRequest.getClassName());
         final byte type = selectRequest.getQueryType();
+        final EmbeddedReadCache.Stamp stamp = readCache.stamp(selectRequest.getSql());
         readLock.lock();
         Object data;
         try {
@@ -499,6 +507,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
                     throw new IllegalArgumentException("Unsupported data query categories");
             }
             ByteString bytes = data == null ? ByteString.EMPTY : ByteString.copyFrom(serializer.serialize(data));
+            readCache.put(request.getData(), stamp, bytes);
             return Response.newBuilder().setSuccess(true).setData(bytes).build();
         } catch (Exception e) {
             LogUtil.FATAL_LOG.error("There was an error querying the data, request : {}, error : {}", selectRequest,
@@ -542,6 +551,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
         } catch (Throwable t) {
             throw t;
         } finally {
+            readCache.invalidate(sqlContext.stream().map(ModifyRequest::getSql).collect(Collectors.toList()));
             lock.unlock();
         }
     }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository.embedded;
+
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
+import com.alibaba.nacos.config.server.service.sql.SelectRequest;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import com.google.protobuf.ByteString;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Size-bounded cache of the serialized query results of the embedded storage, keyed by the serialized {@link
+ * SelectRequest}, that is by its query type, sql, args and mapper.
+ *
+ * <p>Every table has a version, bumped by {@link #invalidate(Collection)} once the statements touching it were
+ * applied. An entry keeps the versions of the tables its query reads as they were before the query ran, and is only
+ * served while they are unchanged, so a result raced by a write is never served. {@link #clear()} drops every entry,
+ * for example when a snapshot replaced the database. Queries whose tables can't be told from the sql are not cached,
+ * statements whose tables can't be told clear the cache. Once the entries exceed {@link
+ * PropertyUtil#getEmbeddedReadCacheMaxSize()} bytes the least recently used ones are evicted.
+ *
+ * @author nacos
+ */
+final class EmbeddedReadCache {
+    
+    private static final Pattern TABLE = Pattern
+            .compile("\\b(?:FROM|JOIN|INTO|UPDATE)\\s+([A-Z_][A-Z0-9_]*)", Pattern.CASE_INSENSITIVE);
+    
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    
+    private final AtomicLong epoch = new AtomicLong();
+    
+    private final LinkedHashMap<ByteString, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    
+    private long bytes;
+    
+    static boolean isEnabled() {
+        return PropertyUtil.getEmbeddedReadCacheMaxSize() > 0;
+    }
+    
+    /**
+     * The tables referenced by the sql, in lower case.
+     *
+     * @param sql sql
+     * @return table names, empty if none can be found
+     */
+    static Set<String> tables(String sql) {
+        Set<String> tables = new TreeSet<>();
+        if (null == sql) {
+            return tables;
+        }
+        Matcher matcher = TABLE.matcher(sql);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase(Locale.ENGLISH));
+        }
+        return tables;
+    }
+    
+    /**
+     * Get the cached result of the query, if it is up to date.
+     *
+     * @param key serialized select request
+     * @return serialized result, or null on a miss
+     */
+    ByteString get(ByteString key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (null != entry && !isValid(entry.stamp)) {
+                remove(key);
+                entry = null;
+            }
+        }
+        if (null == entry) {
+            MetricsMonitor.getEmbeddedReadCacheMissCounter().increment();
+            return null;
+        }
+        MetricsMonitor.getEmbeddedReadCacheHitCounter().increment();
+        return entry.result;
+    }
+    
+    /**
+     * Take the versions of the tables read by the sql, must be called before the query runs.
+     *
+     * @param sql select sql
+     * @return stamp to put the result with, null if the query can't be cached
+     */
+    Stamp stamp(String sql) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Set<String> tables = tables(sql);
+        if (tables.isEmpty()) {
+            return null;
+        }
+        final long currentEpoch = epoch.get();
+        String[] names = tables.toArray(new String[0]);
+        long[] tableVersions = new long[names.length];
+        for (int i = 0; i < names.length; i++) {
+            tableVersions[i] = version(names[i]).get();
+        }
+        return new Stamp(currentEpoch, names, tableVersions);
+    }
+    
+    /**
+     * Keep the result of a query.
+     *
+     * @param key    serialized select request
+     * @param stamp  stamp taken before the query, nothing is kept if null
+     * @param result serialized result
+     */
+    void put(ByteString key, Stamp stamp, ByteString result) {
+        if (null == stamp) {
+            return;
+        }
+        final long maxSize = PropertyUtil.getEmbeddedReadCacheMaxSize();
+        final Entry entry = new Entry(stamp, result, key.size() + result.size());
+        if (entry.size > maxSize || !isValid(stamp)) {
+            return;
+        }
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, entry);
+            bytes += entry.size;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxSize && eldest.hasNext()) {
+                bytes -= eldest.next().size;
+                eldest.remove();
+            }
+        }
+    }
+    
+    /**
+     * Invalidate the results read from the tables touched by the applied statements.
+     *
+     * @param sqls applied statements
+     */
+    void invalidate(Collection<String> sqls) {
+        Set<String> touched = new TreeSet<>();
+        for (String sql : sqls) {
+            Set<String> tables = tables(sql);
+            if (tables.isEmpty()) {
+                clear();
+                return;
+            }
+            touched.addAll(tables);
+        }
+        for (String table : touched) {
+            version(table).incrementAndGet();
+            MetricsMonitor.getEmbeddedReadCacheInvalidationCounter().increment();
+        }
+    }
+    
+    /**
+     * Drop every cached result.
+     */
+    void clear() {
+        epoch.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+        MetricsMonitor.getEmbeddedReadCacheInvalidationCounter().increment();
+    }
+    
+    long cachedBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+    
+    private AtomicLong version(String table) {
+        return versions.computeIfAbsent(table, key -> new AtomicLong());
+    }
+    
+    private boolean isValid(Stamp stamp) {
+        if (stamp.epoch != epoch.get()) {
+            return false;
+        }
+        for (int i = 0; i < stamp.tables.length; i++) {
+            if (version(stamp.tables[i]).get() != stamp.versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void remove(ByteString key) {
+        Entry old = entries.remove(key);
+        if (null != old) {
+            bytes -= old.size;
+        }
+    }
+    
+    /**
+     * Versions of the tables read by a query, taken before it ran.
+     */
+    static final class Stamp {
+        
+        private final long epoch;
+        
+        private final String[] tables;
+        
+        private final long[] versions;
+        
+        private Stamp(long epoch, String[] tables, long[] versions) {
+            this.epoch = epoch;
+            this.tables = tables;
+            this.versions = versions;
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final Stamp stamp;
+        
+        private final ByteString result;
+        
+        private final long size;
+        
+        private Entry(Stamp stamp, ByteString result, long size) {
+            this.stamp = stamp;
+            this.result = result;
+            this.size = size;
+        }
+    }
+}
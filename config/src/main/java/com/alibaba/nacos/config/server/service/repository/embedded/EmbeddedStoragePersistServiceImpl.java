@@ -1807,6 +1807,14 @@ public class EmbeddedStoragePersistServiceImpl implements PersistService {
         
     }
     
+    @Override
+    public List<ConfigInfo> findChangedConfigKeys(final Timestamp startTime, final Timestamp endTime) {
+        List<Map<String, Object>> list = databaseOperate.queryMany(
+                "SELECT DISTINCT data_id, group_id, tenant_id FROM his_config_info WHERE gmt_modified >=? AND "
+                        + "gmt_modified <= ?", new Object[] {startTime, endTime});
+        return convertDeletedConfig(list);
+    }
+    
     @Override
     public long addConfigInfoAtomic(final long id, final String srcIp, final String srcUser,
             final ConfigInfo configInfo, final Timestamp time, Map<String, Object> configAdvanceInfo) {
@@ -1937,6 +1937,19 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
         }
     }
     
+    @Override
+    public List<ConfigInfo> findChangedConfigKeys(final Timestamp startTime, final Timestamp endTime) {
+        try {
+            List<Map<String, Object>> list = jt.queryForList(
+                    "SELECT DISTINCT data_id, group_id, tenant_id FROM his_config_info WHERE gmt_modified >=? AND gmt_modified <= ?",
+                    new Object[] {startTime, endTime});
+            return convertDeletedConfig(list);
+        } catch (DataAccessException e) {
+            LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
+            throw e;
+        }
+    }
+    
     @Override
     public long addConfigInfoAtomic(final long configId, final String srcIp, final String srcUser,
             final ConfigInfo configInfo, final Timestamp time, Map<String, Object> configAdvanceInfo) {
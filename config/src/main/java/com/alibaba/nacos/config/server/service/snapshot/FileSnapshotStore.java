@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.snapshot;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Snapshot store keeping one file per key under the base directory, the layout Nacos has always used.
+ *
+ * @author nacos
+ */
+public class FileSnapshotStore implements SnapshotStore {
+    
+    private final String baseDir;
+    
+    public FileSnapshotStore(String baseDir) {
+        this.baseDir = baseDir;
+    }
+    
+    @Override
+    public void save(String key, byte[] content) throws IOException {
+        FileUtils.writeByteArrayToFile(targetFile(key), content);
+    }
+    
+    @Override
+    public ByteBuffer read(String key) throws IOException {
+        File file = targetFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+    
+    @Override
+    public void remove(String key) {
+        FileUtils.deleteQuietly(targetFile(key));
+    }
+    
+    @Override
+    public boolean removeByPrefix(String prefix) {
+        return FileUtils.deleteQuietly(targetFile(prefix));
+    }
+    
+    public File targetFile(String key) {
+        return new File(baseDir, key);
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.snapshot;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import static com.alibaba.nacos.config.server.utils.LogUtil.DUMP_LOG;
+
+/**
+ * Snapshot store appending all contents into a few memory-mapped segment files instead of one file per key.
+ *
+ * <p>Each record is {@code crc | keyLength | valueLength | key | value}, a value length of -1 marks a removal. The
+ * index from key to record position is rebuilt by replaying the segments in order on startup, a torn record at the
+ * tail ends the replay of its segment. Reads copy the value out of the mapped segment under a shared lock, so that
+ * segments can be unmapped right away once they are dropped. Once more than half of the bytes in the sealed segments
+ * are dead, the live records are copied to the active segment and the sealed segments are unmapped and deleted.
+ *
+ * @author nacos
+ */
+public class SegmentSnapshotStore implements SnapshotStore {
+    
+    private static final String SEGMENT_PREFIX = "segment-";
+    
+    private static final int HEADER_SIZE = 12;
+    
+    private static final int REMOVED = -1;
+    
+    private static final int COMPACT_GARBAGE_PERCENT = 50;
+    
+    private static final int PERCENT = 100;
+    
+    private static final Unmapper UNMAPPER = findUnmapper();
+    
+    private final File dir;
+    
+    private final int segmentSize;
+    
+    private final Map<String, Location> index = new ConcurrentHashMap<String, Location>();
+    
+    /**
+     * Full segments, guarded by this.
+     */
+    private final List<Segment> sealed = new ArrayList<Segment>();
+    
+    private Segment active;
+    
+    /**
+     * Shared by reads while they copy from a mapping, exclusive while dropped segments are unmapped.
+     */
+    private final ReadWriteLock mappingLock = new ReentrantReadWriteLock();
+    
+    private long nextSegmentId;
+    
+    public SegmentSnapshotStore(File dir, int segmentSize) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        FileUtils.forceMkdir(dir);
+        load();
+    }
+    
+    @Override
+    public synchronized void save(String key, byte[] content) throws IOException {
+        release(index.put(key, append(key.getBytes(StandardCharsets.UTF_8), ByteBuffer.wrap(content))));
+        compactIfNecessary();
+    }
+    
+    @Override
+    public ByteBuffer read(String key) {
+        final Lock lock = mappingLock.readLock();
+        lock.lock();
+        try {
+            Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            byte[] value = new byte[location.length];
+            location.slice().get(value);
+            return ByteBuffer.wrap(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public synchronized void remove(String key) {
+        if (!index.containsKey(key)) {
+            return;
+        }
+        try {
+            Location tombstone = append(key.getBytes(StandardCharsets.UTF_8), null);
+            release(tombstone);
+            release(index.remove(key));
+            compactIfNecessary();
+        } catch (IOException e) {
+            DUMP_LOG.error("[snapshot] remove {} failed.", key, e);
+        }
+    }
+    
+    @Override
+    public synchronized boolean removeByPrefix(String prefix) {
+        String dirPrefix = prefix.endsWith(File.separator) ? prefix : prefix + File.separator;
+        List<String> keys = new ArrayList<String>();
+        for (String key : index.keySet()) {
+            if (key.startsWith(dirPrefix)) {
+                keys.add(key);
+            }
+        }
+        if (keys.size() == index.size()) {
+            try {
+                reset();
+                return true;
+            } catch (IOException e) {
+                DUMP_LOG.error("[snapshot] reset segments failed.", e);
+                return false;
+            }
+        }
+        for (String key : keys) {
+            remove(key);
+        }
+        return true;
+    }
+    
+    /**
+     * Copy the live records of all sealed segments to the active segment and delete the sealed segment files.
+     *
+     * @throws IOException if the live records can't be copied
+     */
+    public synchronized void compact() throws IOException {
+        if (sealed.isEmpty()) {
+            return;
+        }
+        List<Segment> compacting = new ArrayList<Segment>(sealed);
+        sealed.clear();
+        for (Segment segment : compacting) {
+            segment.compacting = true;
+        }
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            Location location = entry.getValue();
+            if (location.segment.compacting) {
+                entry.setValue(append(entry.getKey().getBytes(StandardCharsets.UTF_8), location.slice()));
+            }
+        }
+        dropSegments(compacting);
+        DUMP_LOG.info("[snapshot] compacted {} segments, {} keys.", compacting.size(), index.size());
+    }
+    
+    public int size() {
+        return index.size();
+    }
+    
+    synchronized int segmentCount() {
+        return sealed.size() + 1;
+    }
+    
+    private void compactIfNecessary() throws IOException {
+        long sealedBytes = 0L;
+        long garbage = 0L;
+        for (Segment segment : sealed) {
+            sealedBytes += segment.writePosition;
+            garbage += segment.garbage;
+        }
+        if (sealedBytes > 0 && garbage * PERCENT >= sealedBytes * COMPACT_GARBAGE_PERCENT) {
+            compact();
+        }
+    }
+    
+    private Location append(byte[] key, ByteBuffer value) throws IOException {
+        final int valueLength = value == null ? REMOVED : value.remaining();
+        final int recordSize = HEADER_SIZE + key.length + Math.max(valueLength, 0);
+        if (active.capacity - active.writePosition < recordSize) {
+            sealed.add(active);
+            active = createSegment(Math.max(segmentSize, recordSize));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        if (value != null) {
+            crc.update(value.duplicate());
+        }
+        ByteBuffer writer = active.buffer.duplicate();
+        writer.position(active.writePosition);
+        writer.putInt((int) crc.getValue());
+        writer.putInt(key.length);
+        writer.putInt(valueLength);
+        writer.put(key);
+        if (value != null) {
+            writer.put(value.duplicate());
+        }
+        Location location = new Location(active, active.writePosition + HEADER_SIZE + key.length, valueLength,
+                recordSize);
+        active.writePosition += recordSize;
+        return location;
+    }
+    
+    private void release(Location location) {
+        if (location != null) {
+            location.segment.garbage += location.recordSize;
+        }
+    }
+    
+    private void load() throws IOException {
+        File[] files = dir.listFiles((parent, name) -> name.startsWith(SEGMENT_PREFIX));
+        if (files == null || files.length == 0) {
+            active = createSegment(segmentSize);
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(SegmentSnapshotStore::segmentId));
+        for (File file : files) {
+            Segment segment = new Segment(segmentId(file), file, map(file, file.length()));
+            replay(segment);
+            sealed.add(segment);
+        }
+        active = sealed.remove(sealed.size() - 1);
+        nextSegmentId = active.id + 1;
+        DUMP_LOG.info("[snapshot] loaded {} keys from {} segments.", index.size(), files.length);
+    }
+    
+    private void replay(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        while (segment.capacity - position >= HEADER_SIZE) {
+            final int crc = buffer.getInt(position);
+            final int keyLength = buffer.getInt(position + 4);
+            final int valueLength = buffer.getInt(position + 8);
+            final long recordSize = (long) HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+            boolean valid = keyLength > 0 && valueLength >= REMOVED && recordSize <= segment.capacity - position;
+            if (!valid) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            buffer.position(position + HEADER_SIZE);
+            buffer.get(key);
+            Location location = new Location(segment, position + HEADER_SIZE + keyLength, valueLength,
+                    (int) recordSize);
+            CRC32 checksum = new CRC32();
+            checksum.update(key);
+            if (valueLength != REMOVED) {
+                checksum.update(location.slice());
+            }
+            if ((int) checksum.getValue() != crc) {
+                DUMP_LOG.warn("[snapshot] torn record at {} of {}, ignore the rest.", position, segment.file);
+                break;
+            }
+            String keyString = new String(key, StandardCharsets.UTF_8);
+            if (valueLength == REMOVED) {
+                release(location);
+                release(index.remove(keyString));
+            } else {
+                release(index.put(keyString, location));
+            }
+            position += recordSize;
+        }
+        segment.writePosition = position;
+    }
+    
+    private void reset() throws IOException {
+        List<Segment> dropping = new ArrayList<Segment>(sealed);
+        dropping.add(active);
+        sealed.clear();
+        index.clear();
+        active = createSegment(segmentSize);
+        dropSegments(dropping);
+    }
+    
+    private Segment createSegment(int capacity) throws IOException {
+        long id = nextSegmentId++;
+        File file = new File(dir, String.format("%s%020d", SEGMENT_PREFIX, id));
+        return new Segment(id, file, map(file, capacity));
+    }
+    
+    /**
+     * Unmap and delete segments no longer referenced by the index. Waits for the reads still copying from them.
+     */
+    private void dropSegments(List<Segment> segments) {
+        final Lock lock = mappingLock.writeLock();
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                unmap(segment);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Segment segment : segments) {
+            if (!segment.file.delete()) {
+                DUMP_LOG.warn("[snapshot] delete {} failed, exists : {}.", segment.file, segment.file.exists());
+            }
+        }
+    }
+    
+    private static void unmap(Segment segment) {
+        if (UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.unmap(segment.buffer);
+        } catch (Throwable e) {
+            DUMP_LOG.warn("[snapshot] unmap {} failed, leave it to gc.", segment.file, e);
+        }
+    }
+    
+    /**
+     * Find the way to release a mapping eagerly, {@code Unsafe.invokeCleaner} since Java 9 and the cleaner of the
+     * buffer before.
+     */
+    private static Unmapper findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                final Object unsafe = theUnsafe.get(null);
+                return buffer -> invokeCleaner.invoke(unsafe, buffer);
+            } catch (NoSuchMethodException e) {
+                final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return buffer -> clean.invoke(cleaner.invoke(buffer));
+            }
+        } catch (Throwable e) {
+            DUMP_LOG.warn("[snapshot] segments can't be unmapped eagerly, leave them to gc.", e);
+            return null;
+        }
+    }
+    
+    private static MappedByteBuffer map(File file, long capacity) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(capacity);
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+    
+    private static long segmentId(File file) {
+        return Long.parseLong(file.getName().substring(SEGMENT_PREFIX.length()));
+    }
+    
+    private static class Segment {
+        
+        private final long id;
+        
+        private final File file;
+        
+        private final MappedByteBuffer buffer;
+        
+        private final int capacity;
+        
+        private int writePosition;
+        
+        private long garbage;
+        
+        private boolean compacting;
+        
+        Segment(long id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+    }
+    
+    private interface Unmapper {
+        
+        /**
+         * Release the mapping of the buffer, it must not be accessed afterwards.
+         *
+         * @param buffer mapped buffer
+         * @throws Exception if the mapping can't be released
+         */
+        void unmap(ByteBuffer buffer) throws Exception;
+    }
+    
+    private static class Location {
+        
+        private final Segment segment;
+        
+        private final int offset;
+        
+        private final int length;
+        
+        private final int recordSize;
+        
+        Location(Segment segment, int offset, int length, int recordSize) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.recordSize = recordSize;
+        }
+        
+        ByteBuffer slice() {
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(offset);
+            buffer.limit(offset + length);
+            return buffer.slice().asReadOnlyBuffer();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Store of the config contents dumped from the database, addressed by a path-like key such as
+ * {@code /data/config-data/group/dataId}.
+ *
+ * @author nacos
+ */
+public interface SnapshotStore {
+    
+    /**
+     * Save the content of the key, replacing the previous one.
+     *
+     * @param key     key
+     * @param content encoded content
+     * @throws IOException if the content can't be written
+     */
+    void save(String key, byte[] content) throws IOException;
+    
+    /**
+     * Read the content of the key. The returned buffer may be a view of the store and must not be modified.
+     *
+     * @param key key
+     * @return content, or null if the key doesn't exist
+     * @throws IOException if the content can't be read
+     */
+    ByteBuffer read(String key) throws IOException;
+    
+    /**
+     * Remove the content of the key, if any.
+     *
+     * @param key key
+     */
+    void remove(String key);
+    
+    /**
+     * Remove all the keys under the directory-like prefix.
+     *
+     * @param prefix key prefix, e.g. {@code /data/config-data}
+     * @return true if the keys are removed
+     */
+    boolean removeByPrefix(String prefix);
+}
@@ -22,9 +22,11 @@ import com.alibaba.nacos.common.utils.ThreadUtils;
 import com.alibaba.nacos.config.server.Config;
 import com.alibaba.nacos.core.utils.ClassUtils;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -39,6 +41,16 @@ public final class ConfigExecutor {
             .newSingleExecutorService(ClassUtils.getCanonicalName(Config.class),
                     new NameThreadFactory("com.alibaba.nacos.config.embedded.dump"));
     
+    private static final int DUMP_ALL_THREAD_COUNT = ThreadUtils.getSuitableThreadCount(1);
+    
+    private static final ExecutorService DUMP_ALL_EXECUTOR = ExecutorFactory.Managed
+            .newFixedExecutorService(ClassUtils.getCanonicalName(Config.class), DUMP_ALL_THREAD_COUNT,
+                    new NameThreadFactory("com.alibaba.nacos.config.dump.all"));
+    
+    private static final ExecutorService DUMP_ALL_PREFETCH_EXECUTOR = ExecutorFactory.Managed
+            .newSingleExecutorService(ClassUtils.getCanonicalName(Config.class),
+                    new NameThreadFactory("com.alibaba.nacos.config.dump.all.prefetch"));
+    
     private static final ScheduledExecutorService TIMER_EXECUTOR = ExecutorFactory.Managed
             .newScheduledExecutorService(ClassUtils.getCanonicalName(Config.class), 10,
                     new NameThreadFactory("com.alibaba.nacos.config.server.timer"));
@@ -68,6 +80,18 @@ public final class ConfigExecutor {
         DUMP_EXECUTOR.execute(runnable);
     }
     
+    public static int getDumpAllThreadCount() {
+        return DUMP_ALL_THREAD_COUNT;
+    }
+    
+    public static void executeDumpAll(Runnable runnable) {
+        DUMP_ALL_EXECUTOR.execute(runnable);
+    }
+    
+    public static <T> Future<T> submitDumpAllPrefetch(Callable<T> callable) {
+        return DUMP_ALL_PREFETCH_EXECUTOR.submit(callable);
+    }
+    
     public static void scheduleCorrectUsageTask(Runnable runnable, long initialDelay, long delay, TimeUnit unit) {
         CAPACITY_MANAGEMENT_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, delay, unit);
     }
@@ -92,10 +116,6 @@ public final class ConfigExecutor {
         LONG_POLLING_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, period, unit);
     }
     
-    public static ScheduledFuture<?> scheduleLongPolling(Runnable runnable, long period, TimeUnit unit) {
-        return LONG_POLLING_EXECUTOR.schedule(runnable, period, unit);
-    }
-    
     public static void executeLongPolling(Runnable runnable) {
         LONG_POLLING_EXECUTOR.execute(runnable);
     }
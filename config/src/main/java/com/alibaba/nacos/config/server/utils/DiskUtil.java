@@ -16,17 +16,19 @@
 
 package com.alibaba.nacos.config.server.utils;
 
-import com.alibaba.nacos.common.utils.IoUtils;
 import com.alibaba.nacos.common.utils.MD5Utils;
 import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.service.snapshot.FileSnapshotStore;
+import com.alibaba.nacos.config.server.service.snapshot.SegmentSnapshotStore;
+import com.alibaba.nacos.config.server.service.snapshot.SnapshotStore;
 import com.alibaba.nacos.sys.env.EnvUtil;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 /**
  * Disk util.
@@ -47,6 +49,12 @@ public class DiskUtil {
     
     static final String TENANT_TAG_DIR = File.separator + "data" + File.separator + "tag-beta-data";
     
+    static final String SEGMENT_DIR = File.separator + "data" + File.separator + "config-snapshot";
+    
+    static final String SEGMENT_STORE = "segment";
+    
+    private static volatile SnapshotStore snapshotStore;
+    
     public static void saveHeartBeatToDisk(String heartBeatTime) throws IOException {
         FileUtils.writeStringToFile(heartBeatFile(), heartBeatTime, Constants.ENCODE);
     }
@@ -55,16 +63,14 @@ public class DiskUtil {
      * Save configuration information to disk.
      */
     public static void saveToDisk(String dataId, String group, String tenant, String content) throws IOException {
-        File targetFile = targetFile(dataId, group, tenant);
-        FileUtils.writeStringToFile(targetFile, content, Constants.ENCODE);
+        snapshotStore().save(configKey(dataId, group, tenant), content.getBytes(Constants.ENCODE));
     }
     
     /**
      * Save beta information to disk.
      */
     public static void saveBetaToDisk(String dataId, String group, String tenant, String content) throws IOException {
-        File targetFile = targetBetaFile(dataId, group, tenant);
-        FileUtils.writeStringToFile(targetFile, content, Constants.ENCODE);
+        snapshotStore().save(betaKey(dataId, group, tenant), content.getBytes(Constants.ENCODE));
     }
     
     /**
@@ -72,29 +78,28 @@ public class DiskUtil {
      */
     public static void saveTagToDisk(String dataId, String group, String tenant, String tag, String content)
             throws IOException {
-        File targetFile = targetTagFile(dataId, group, tenant, tag);
-        FileUtils.writeStringToFile(targetFile, content, Constants.ENCODE);
+        snapshotStore().save(tagKey(dataId, group, tenant, tag), content.getBytes(Constants.ENCODE));
     }
     
     /**
      * Deletes configuration files on disk.
      */
     public static void removeConfigInfo(String dataId, String group, String tenant) {
-        FileUtils.deleteQuietly(targetFile(dataId, group, tenant));
+        snapshotStore().remove(configKey(dataId, group, tenant));
     }
     
     /**
      * Deletes beta configuration files on disk.
      */
     public static void removeConfigInfo4Beta(String dataId, String group, String tenant) {
-        FileUtils.deleteQuietly(targetBetaFile(dataId, group, tenant));
+        snapshotStore().remove(betaKey(dataId, group, tenant));
     }
     
     /**
      * Deletes tag configuration files on disk.
      */
     public static void removeConfigInfo4Tag(String dataId, String group, String tenant, String tag) {
-        FileUtils.deleteQuietly(targetTagFile(dataId, group, tenant, tag));
+        snapshotStore().remove(tagKey(dataId, group, tenant, tag));
     }
     
     public static void removeHeartHeat() {
@@ -105,69 +110,71 @@ public class DiskUtil {
      * Returns the path of the server cache file.
      */
     public static File targetFile(String dataId, String group, String tenant) {
-        File file = null;
-        if (StringUtils.isBlank(tenant)) {
-            file = new File(EnvUtil.getNacosHome(), BASE_DIR);
-        } else {
-            file = new File(EnvUtil.getNacosHome(), TENANT_BASE_DIR);
-            file = new File(file, tenant);
-        }
-        file = new File(file, group);
-        file = new File(file, dataId);
-        return file;
+        return new File(EnvUtil.getNacosHome(), configKey(dataId, group, tenant));
     }
     
     /**
      * Returns the path of cache file in server.
      */
     public static File targetBetaFile(String dataId, String group, String tenant) {
-        File file = null;
-        if (StringUtils.isBlank(tenant)) {
-            file = new File(EnvUtil.getNacosHome(), BETA_DIR);
-        } else {
-            file = new File(EnvUtil.getNacosHome(), TENANT_BETA_DIR);
-            file = new File(file, tenant);
-        }
-        file = new File(file, group);
-        file = new File(file, dataId);
-        return file;
+        return new File(EnvUtil.getNacosHome(), betaKey(dataId, group, tenant));
     }
     
     /**
      * Returns the path of the tag cache file in server.
      */
     public static File targetTagFile(String dataId, String group, String tenant, String tag) {
-        File file = null;
-        if (StringUtils.isBlank(tenant)) {
-            file = new File(EnvUtil.getNacosHome(), TAG_DIR);
-        } else {
-            file = new File(EnvUtil.getNacosHome(), TENANT_TAG_DIR);
-            file = new File(file, tenant);
-        }
-        file = new File(file, group);
-        file = new File(file, dataId);
-        file = new File(file, tag);
-        return file;
+        return new File(EnvUtil.getNacosHome(), tagKey(dataId, group, tenant, tag));
+    }
+    
+    /**
+     * Read the dumped content of the config.
+     *
+     * @return encoded content, or null if it doesn't exist
+     */
+    public static ByteBuffer readConfig(String dataId, String group, String tenant) throws IOException {
+        return snapshotStore().read(configKey(dataId, group, tenant));
+    }
+    
+    /**
+     * Read the dumped beta content of the config.
+     *
+     * @return encoded content, or null if it doesn't exist
+     */
+    public static ByteBuffer readBetaConfig(String dataId, String group, String tenant) throws IOException {
+        return snapshotStore().read(betaKey(dataId, group, tenant));
+    }
+    
+    /**
+     * Read the dumped tag content of the config.
+     *
+     * @return encoded content, or null if it doesn't exist
+     */
+    public static ByteBuffer readTagConfig(String dataId, String group, String tenant, String tag)
+            throws IOException {
+        return snapshotStore().read(tagKey(dataId, group, tenant, tag));
     }
     
     public static String getConfig(String dataId, String group, String tenant) throws IOException {
-        File file = targetFile(dataId, group, tenant);
-        if (file.exists()) {
-            
-            try (FileInputStream fis = new FileInputStream(file);) {
-                return IoUtils.toString(fis, Constants.ENCODE);
-            } catch (FileNotFoundException e) {
-                return StringUtils.EMPTY;
-            }
-        } else {
+        ByteBuffer content = readConfig(dataId, group, tenant);
+        if (content == null) {
             return StringUtils.EMPTY;
         }
+        return Charset.forName(Constants.ENCODE).decode(content).toString();
     }
     
     public static String getLocalConfigMd5(String dataId, String group, String tenant) throws IOException {
         return MD5Utils.md5Hex(getConfig(dataId, group, tenant), Constants.ENCODE);
     }
     
+    public static void saveDumpCursorToDisk(String dumpCursor) throws IOException {
+        FileUtils.writeStringToFile(dumpCursorFile(), dumpCursor, Constants.ENCODE);
+    }
+    
+    public static File dumpCursorFile() {
+        return new File(EnvUtil.getNacosHome(), "status" + File.separator + "dumpCursor.txt");
+    }
+    
     public static File heartBeatFile() {
         return new File(EnvUtil.getNacosHome(), "status" + File.separator + "heartBeat.txt");
     }
@@ -180,14 +187,12 @@ public class DiskUtil {
      * Clear all config file.
      */
     public static void clearAll() {
-        File file = new File(EnvUtil.getNacosHome(), BASE_DIR);
-        if (FileUtils.deleteQuietly(file)) {
+        if (snapshotStore().removeByPrefix(BASE_DIR)) {
             LogUtil.DEFAULT_LOG.info("clear all config-info success.");
         } else {
             LogUtil.DEFAULT_LOG.warn("clear all config-info failed.");
         }
-        File fileTenant = new File(EnvUtil.getNacosHome(), TENANT_BASE_DIR);
-        if (FileUtils.deleteQuietly(fileTenant)) {
+        if (snapshotStore().removeByPrefix(TENANT_BASE_DIR)) {
             LogUtil.DEFAULT_LOG.info("clear all config-info-tenant success.");
         } else {
             LogUtil.DEFAULT_LOG.warn("clear all config-info-tenant failed.");
@@ -198,14 +203,12 @@ public class DiskUtil {
      * Clear all beta config file.
      */
     public static void clearAllBeta() {
-        File file = new File(EnvUtil.getNacosHome(), BETA_DIR);
-        if (FileUtils.deleteQuietly(file)) {
+        if (snapshotStore().removeByPrefix(BETA_DIR)) {
             LogUtil.DEFAULT_LOG.info("clear all config-info-beta success.");
         } else {
             LogUtil.DEFAULT_LOG.warn("clear all config-info-beta failed.");
         }
-        File fileTenant = new File(EnvUtil.getNacosHome(), TENANT_BETA_DIR);
-        if (FileUtils.deleteQuietly(fileTenant)) {
+        if (snapshotStore().removeByPrefix(TENANT_BETA_DIR)) {
             LogUtil.DEFAULT_LOG.info("clear all config-info-beta-tenant success.");
         } else {
             LogUtil.DEFAULT_LOG.warn("clear all config-info-beta-tenant failed.");
@@ -216,17 +219,58 @@ public class DiskUtil {
      * Clear all tag config file.
      */
     public static void clearAllTag() {
-        File file = new File(EnvUtil.getNacosHome(), TAG_DIR);
-        if (FileUtils.deleteQuietly(file)) {
+        if (snapshotStore().removeByPrefix(TAG_DIR)) {
             LogUtil.DEFAULT_LOG.info("clear all config-info-tag success.");
         } else {
             LogUtil.DEFAULT_LOG.warn("clear all config-info-tag failed.");
         }
-        File fileTenant = new File(EnvUtil.getNacosHome(), TENANT_TAG_DIR);
-        if (FileUtils.deleteQuietly(fileTenant)) {
+        if (snapshotStore().removeByPrefix(TENANT_TAG_DIR)) {
             LogUtil.DEFAULT_LOG.info("clear all config-info-tag-tenant success.");
         } else {
             LogUtil.DEFAULT_LOG.warn("clear all config-info-tag-tenant failed.");
         }
     }
+    
+    private static String configKey(String dataId, String group, String tenant) {
+        String base = StringUtils.isBlank(tenant) ? BASE_DIR : TENANT_BASE_DIR + File.separator + tenant;
+        return base + File.separator + group + File.separator + dataId;
+    }
+    
+    private static String betaKey(String dataId, String group, String tenant) {
+        String base = StringUtils.isBlank(tenant) ? BETA_DIR : TENANT_BETA_DIR + File.separator + tenant;
+        return base + File.separator + group + File.separator + dataId;
+    }
+    
+    private static String tagKey(String dataId, String group, String tenant, String tag) {
+        String base = StringUtils.isBlank(tenant) ? TAG_DIR : TENANT_TAG_DIR + File.separator + tenant;
+        return base + File.separator + group + File.separator + dataId + File.separator + tag;
+    }
+    
+    /**
+     * Returns the store of the dumped config contents, chosen by {@link PropertyUtil#getSnapshotStore()}.
+     */
+    static SnapshotStore snapshotStore() {
+        SnapshotStore store = snapshotStore;
+        if (store == null) {
+            synchronized (DiskUtil.class) {
+                if (snapshotStore == null) {
+                    snapshotStore = createSnapshotStore();
+                }
+                store = snapshotStore;
+            }
+        }
+        return store;
+    }
+    
+    private static SnapshotStore createSnapshotStore() {
+        if (SEGMENT_STORE.equalsIgnoreCase(PropertyUtil.getSnapshotStore())) {
+            try {
+                return new SegmentSnapshotStore(new File(EnvUtil.getNacosHome(), SEGMENT_DIR),
+                        PropertyUtil.getSnapshotSegmentSize());
+            } catch (IOException e) {
+                throw new IllegalStateException("open config snapshot segments failed", e);
+            }
+        }
+        return new FileSnapshotStore(EnvUtil.getNacosHome());
+    }
 }
@@ -100,7 +100,14 @@ public class GroupKey2 {
      * + -> %2B % -> %25.
      */
     static void urlEncode(String str, StringBuilder sb) {
-        for (int idx = 0; idx < str.length(); ++idx) {
+        urlEncode(str, 0, str.length(), sb);
+    }
+    
+    /**
+     * Encode the chars of str from start (inclusive) to end (exclusive), + -> %2B % -> %25.
+     */
+    public static void urlEncode(String str, int start, int end, StringBuilder sb) {
+        for (int idx = start; idx < end; ++idx) {
             char c = str.charAt(idx);
             if ('+' == c) {
                 sb.append("%2B");
@@ -17,6 +17,7 @@
 package com.alibaba.nacos.config.server.utils;
 
 import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.ClientMd5Map;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
 import org.apache.commons.lang3.StringUtils;
 
@@ -30,7 +31,7 @@ import java.io.Reader;
 import java.io.Writer;
 import java.net.URLEncoder;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -52,10 +53,10 @@ public class MD5Util {
             Map<String, String> clientMd5Map) {
         List<String> changedGroupKeys = new ArrayList<String>();
         String tag = request.getHeader("Vipserver-Tag");
+        String ip = RequestUtil.getRemoteIp(request);
         for (Map.Entry<String, String> entry : clientMd5Map.entrySet()) {
             String groupKey = entry.getKey();
             String clientMd5 = entry.getValue();
-            String ip = RequestUtil.getRemoteIp(request);
             boolean isUptodate = ConfigCacheService.isUptodate(groupKey, clientMd5, ip, tag);
             if (!isUptodate) {
                 changedGroupKeys.add(groupKey);
@@ -64,6 +65,26 @@ public class MD5Util {
         return changedGroupKeys;
     }
     
+    /**
+     * Compare Md5 of a parsed Listening-Configs payload in place, allocating only when something changed.
+     */
+    public static List<String> compareMd5(HttpServletRequest request, HttpServletResponse response,
+            ClientMd5Map clientMd5Map) {
+        List<String> changedGroupKeys = null;
+        String tag = request.getHeader("Vipserver-Tag");
+        String ip = RequestUtil.getRemoteIp(request);
+        for (int i = 0; i < clientMd5Map.size(); i++) {
+            String groupKey = clientMd5Map.groupKeyAt(i);
+            if (!clientMd5Map.md5Equals(i, ConfigCacheService.getContentMd5(groupKey, ip, tag))) {
+                if (null == changedGroupKeys) {
+                    changedGroupKeys = new ArrayList<String>();
+                }
+                changedGroupKeys.add(groupKey);
+            }
+        }
+        return (null == changedGroupKeys) ? Collections.<String>emptyList() : changedGroupKeys;
+    }
+    
     /**
      * Compare old Md5.
      */
@@ -115,50 +136,8 @@ public class MD5Util {
      * @param configKeysString protocol
      * @return protocol message
      */
-    public static Map<String, String> getClientMd5Map(String configKeysString) {
-        
-        Map<String, String> md5Map = new HashMap<String, String>(5);
-        
-        if (null == configKeysString || "".equals(configKeysString)) {
-            return md5Map;
-        }
-        int start = 0;
-        List<String> tmpList = new ArrayList<String>(3);
-        for (int i = start; i < configKeysString.length(); i++) {
-            char c = configKeysString.charAt(i);
-            if (c == WORD_SEPARATOR_CHAR) {
-                tmpList.add(configKeysString.substring(start, i));
-                start = i + 1;
-                if (tmpList.size() > 3) {
-                    // Malformed message and return parameter error.
-                    throw new IllegalArgumentException("invalid protocol,too much key");
-                }
-            } else if (c == LINE_SEPARATOR_CHAR) {
-                String endValue = "";
-                if (start + 1 <= i) {
-                    endValue = configKeysString.substring(start, i);
-                }
-                start = i + 1;
-                
-                // If it is the old message, the last digit is MD5. The post-multi-tenant message is tenant
-                if (tmpList.size() == 2) {
-                    String groupKey = GroupKey2.getKey(tmpList.get(0), tmpList.get(1));
-                    groupKey = SingletonRepository.DataIdGroupIdCache.getSingleton(groupKey);
-                    md5Map.put(groupKey, endValue);
-                } else {
-                    String groupKey = GroupKey2.getKey(tmpList.get(0), tmpList.get(1), endValue);
-                    groupKey = SingletonRepository.DataIdGroupIdCache.getSingleton(groupKey);
-                    md5Map.put(groupKey, tmpList.get(2));
-                }
-                tmpList.clear();
-                
-                // Protect malformed messages
-                if (md5Map.size() > 10000) {
-                    throw new IllegalArgumentException("invalid protocol, too much listener");
-                }
-            }
-        }
-        return md5Map;
+    public static ClientMd5Map getClientMd5Map(String configKeysString) {
+        return ClientMd5Map.parse(configKeysString);
     }
     
     public static String toString(InputStream input, String encoding) throws IOException {
@@ -188,9 +167,5 @@ public class MD5Util {
         return count;
     }
     
-    static final char WORD_SEPARATOR_CHAR = (char) 2;
-    
-    static final char LINE_SEPARATOR_CHAR = (char) 1;
-    
 }
 
@@ -91,6 +91,43 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
      */
     private static int correctUsageDelay = 10 * 60;
     
+    /**
+     * The total bytes of config content kept in memory for reads, 0 disables the content cache.
+     */
+    private static int contentCacheMaxSize = 64 * 1024 * 1024;
+    
+    /**
+     * The total bytes of query results of the embedded storage kept in memory, 0 disables the read cache.
+     */
+    private static int embeddedReadCacheMaxSize = 16 * 1024 * 1024;
+    
+    /**
+     * The store of dumped config contents, {@code file} keeps one file per config, {@code segment} appends them into
+     * memory-mapped segment files.
+     */
+    private static String snapshotStore = "file";
+    
+    /**
+     * The size of a segment file of the segment snapshot store, unit for bytes.
+     */
+    private static int snapshotSegmentSize = 64 * 1024 * 1024;
+    
+    /**
+     * Whether to dump the configs changed since a persisted cursor instead of periodically dumping all of them.
+     */
+    private static boolean incrementalDump = false;
+    
+    /**
+     * The longest time a config change waits to be batched with others before it is notified to a member, unit for
+     * milliseconds.
+     */
+    private static int notifyBatchDelay = 50;
+    
+    /**
+     * The most config changes notified to a member in one request, less than 2 notifies every change on its own.
+     */
+    private static int notifyBatchSize = 500;
+    
     /**
      * Standalone mode uses DB.
      */
@@ -221,6 +258,62 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
         PropertyUtil.correctUsageDelay = correctUsageDelay;
     }
     
+    public static int getContentCacheMaxSize() {
+        return contentCacheMaxSize;
+    }
+    
+    public static void setContentCacheMaxSize(int contentCacheMaxSize) {
+        PropertyUtil.contentCacheMaxSize = contentCacheMaxSize;
+    }
+    
+    public static int getEmbeddedReadCacheMaxSize() {
+        return embeddedReadCacheMaxSize;
+    }
+    
+    public static void setEmbeddedReadCacheMaxSize(int embeddedReadCacheMaxSize) {
+        PropertyUtil.embeddedReadCacheMaxSize = embeddedReadCacheMaxSize;
+    }
+    
+    public static String getSnapshotStore() {
+        return snapshotStore;
+    }
+    
+    public static void setSnapshotStore(String snapshotStore) {
+        PropertyUtil.snapshotStore = snapshotStore;
+    }
+    
+    public static int getSnapshotSegmentSize() {
+        return snapshotSegmentSize;
+    }
+    
+    public static void setSnapshotSegmentSize(int snapshotSegmentSize) {
+        PropertyUtil.snapshotSegmentSize = snapshotSegmentSize;
+    }
+    
+    public static boolean isIncrementalDump() {
+        return incrementalDump;
+    }
+    
+    public static void setIncrementalDump(boolean incrementalDump) {
+        PropertyUtil.incrementalDump = incrementalDump;
+    }
+    
+    public static int getNotifyBatchDelay() {
+        return notifyBatchDelay;
+    }
+    
+    public static void setNotifyBatchDelay(int notifyBatchDelay) {
+        PropertyUtil.notifyBatchDelay = notifyBatchDelay;
+    }
+    
+    public static int getNotifyBatchSize() {
+        return notifyBatchSize;
+    }
+    
+    public static void setNotifyBatchSize(int notifyBatchSize) {
+        PropertyUtil.notifyBatchSize = notifyBatchSize;
+    }
+    
     public static boolean isStandaloneMode() {
         return EnvUtil.getStandaloneMode();
     }
@@ -272,6 +365,13 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
             setDefaultMaxAggrSize(getInt("defaultMaxAggrSize", defaultMaxAggrSize));
             setCorrectUsageDelay(getInt("correctUsageDelay", correctUsageDelay));
             setInitialExpansionPercent(getInt("initialExpansionPercent", initialExpansionPercent));
+            setContentCacheMaxSize(getInt("contentCacheMaxSize", contentCacheMaxSize));
+            setEmbeddedReadCacheMaxSize(getInt("embeddedReadCacheMaxSize", embeddedReadCacheMaxSize));
+            setSnapshotStore(getString("snapshotStore", snapshotStore));
+            setSnapshotSegmentSize(getInt("snapshotSegmentSize", snapshotSegmentSize));
+            setIncrementalDump(getBoolean("incrementalDump", incrementalDump));
+            setNotifyBatchDelay(getInt("notifyBatchDelay", notifyBatchDelay));
+            setNotifyBatchSize(getInt("notifyBatchSize", notifyBatchSize));
             
             // External data sources are used by default in cluster mode
             setUseExternalDB("mysql".equalsIgnoreCase(getString("spring.datasource.platform", "")));
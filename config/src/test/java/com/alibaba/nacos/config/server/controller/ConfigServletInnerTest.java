@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.controller;
+
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConfigServletInnerTest {
+    
+    private static final String DATA_ID = "servlet-inner-test";
+    
+    private static final String GROUP = "DEFAULT_GROUP";
+    
+    private final ConfigServletInner inner = new ConfigServletInner();
+    
+    @Before
+    public void setUp() throws Exception {
+        EnvUtil.setEnvironment(new StandardEnvironment());
+        // Read the dumped content from disk, not from the database, whatever -Dnacos.standalone says.
+        EnvUtil.setIsStandalone(false);
+        EnvUtil.setNacosHomePath(Files.createTempDirectory("nacos-servlet-inner").toString());
+    }
+    
+    @After
+    public void tearDown() {
+        ConfigCacheService.remove(DATA_ID, GROUP, "");
+        EnvUtil.setIsStandalone(null);
+    }
+    
+    @Test
+    public void testGetMissingConfig() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String result = inner.doGetConfig(new MockHttpServletRequest(), response, DATA_ID, GROUP, "", null, "1.1.1.1");
+        Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND + "", result);
+        Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+    }
+    
+    @Test
+    public void testReadDuringDumpNeverConflicts() throws Exception {
+        ConfigCacheService.dump(DATA_ID, GROUP, "", "content-0", System.currentTimeMillis(), "text");
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicInteger dumps = new AtomicInteger();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 1; !stop.get(); i++) {
+                    ConfigCacheService.dump(DATA_ID, GROUP, "", "content-" + i, System.currentTimeMillis(), "text");
+                    dumps.incrementAndGet();
+                    Thread.yield();
+                }
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 2000 || dumps.get() < 100; i++) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                String result = inner
+                        .doGetConfig(new MockHttpServletRequest(), response, DATA_ID, GROUP, "", null, "1.1.1.1");
+                Assert.assertEquals(HttpServletResponse.SC_OK + "", result);
+                String body = response.getContentAsString();
+                Assert.assertEquals(MD5Utils.md5Hex(body, Constants.ENCODE), response.getHeader(Constants.CONTENT_MD5));
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        Assert.assertNull(error.get());
+    }
+}
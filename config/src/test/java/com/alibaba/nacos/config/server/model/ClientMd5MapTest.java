@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.model;
+
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ClientMd5MapTest {
+    
+    private static final char W = (char) 2;
+    
+    private static final char L = (char) 1;
+    
+    @Test
+    public void testParseOldAndNewProtocol() {
+        String payload = "d1" + W + "g1" + W + "md5-1" + L + "d2" + W + "g2" + W + "md5-2" + W + "t2" + L + "d3" + W
+                + "g3" + W + "md5-3" + W + L;
+        final ClientMd5Map map = ClientMd5Map.parse(payload);
+        
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put(GroupKey2.getKey("d1", "g1"), "md5-1");
+        expected.put(GroupKey2.getKey("d2", "g2", "t2"), "md5-2");
+        expected.put(GroupKey2.getKey("d3", "g3"), "md5-3");
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.keySet(), map.keySet());
+        Assert.assertEquals("md5-2", map.get(GroupKey2.getKey("d2", "g2", "t2")));
+        Assert.assertNull(map.get(GroupKey2.getKey("d2", "g2")));
+    }
+    
+    @Test
+    public void testEncodeGroupKeyAndKeepLastDuplicate() {
+        String payload = "a+b" + W + "g%" + W + "old" + L + "a+b" + W + "g%" + W + "new" + L;
+        ClientMd5Map map = ClientMd5Map.parse(payload);
+        
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("a%2Bb+g%25", map.groupKeyAt(0));
+        Assert.assertEquals("new", map.md5At(0));
+    }
+    
+    @Test
+    public void testMd5Equals() {
+        ClientMd5Map map = ClientMd5Map.parse("d" + W + "g" + W + "abc" + L);
+        Assert.assertTrue(map.md5Equals(0, "abc"));
+        Assert.assertFalse(map.md5Equals(0, "abcd"));
+        Assert.assertFalse(map.md5Equals(0, "abd"));
+        Assert.assertFalse(map.md5Equals(0, null));
+    }
+    
+    @Test
+    public void testParseEmpty() {
+        Assert.assertTrue(ClientMd5Map.parse(null).isEmpty());
+        Assert.assertTrue(ClientMd5Map.parse("").isEmpty());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyFields() {
+        ClientMd5Map.parse("d" + W + "g" + W + "m" + W + "t" + W + "x" + L);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewFields() {
+        ClientMd5Map.parse("d" + W + "g" + L);
+    }
+}
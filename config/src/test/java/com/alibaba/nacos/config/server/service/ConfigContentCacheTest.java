@@ -0,0 +1,119 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service;
+
+import com.alibaba.nacos.config.server.model.CacheItem;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConfigContentCacheTest {
+    
+    private int originalMaxSize;
+    
+    private CacheItem first;
+    
+    private CacheItem second;
+    
+    private CacheItem third;
+    
+    @Before
+    public void setUp() {
+        originalMaxSize = PropertyUtil.getContentCacheMaxSize();
+        PropertyUtil.setContentCacheMaxSize(10);
+        first = newItem("first", "md5-1");
+        second = newItem("second", "md5-2");
+        third = newItem("third", "md5-3");
+    }
+    
+    @After
+    public void tearDown() {
+        ConfigContentCache.invalidate(first);
+        ConfigContentCache.invalidate(second);
+        ConfigContentCache.invalidate(third);
+        PropertyUtil.setContentCacheMaxSize(originalMaxSize);
+    }
+    
+    @Test
+    public void testHitOnlyWhenMd5Matches() {
+        ConfigContentCache.put(first, "abcd", "md5-1");
+        Assert.assertEquals("abcd", new String(ConfigContentCache.get(first).array()));
+        
+        first.setMd5("md5-changed");
+        Assert.assertNull(ConfigContentCache.get(first));
+    }
+    
+    @Test
+    public void testEvictUnreadContentFirst() {
+        final long before = ConfigContentCache.cachedBytes();
+        ConfigContentCache.put(first, "aaaa", "md5-1");
+        ConfigContentCache.put(second, "bbbb", "md5-2");
+        Assert.assertNotNull(ConfigContentCache.get(first));
+        
+        ConfigContentCache.put(third, "cccc", "md5-3");
+        
+        Assert.assertNotNull(ConfigContentCache.get(first));
+        Assert.assertNull(ConfigContentCache.get(second));
+        Assert.assertNotNull(ConfigContentCache.get(third));
+        Assert.assertEquals(before + 8, ConfigContentCache.cachedBytes());
+    }
+    
+    @Test
+    public void testSkipOversizedContent() {
+        ConfigContentCache.put(first, "abcd", "md5-1");
+        ConfigContentCache.put(first, "0123456789abcdef", "md5-1");
+        Assert.assertNull(ConfigContentCache.get(first));
+    }
+    
+    @Test
+    public void testInvalidate() {
+        final long before = ConfigContentCache.cachedBytes();
+        ConfigContentCache.put(first, "abcd", "md5-1");
+        Assert.assertEquals(before + 4, ConfigContentCache.cachedBytes());
+        
+        ConfigContentCache.invalidate(first);
+        Assert.assertNull(ConfigContentCache.get(first));
+        Assert.assertEquals(before, ConfigContentCache.cachedBytes());
+    }
+    
+    @Test
+    public void testInvalidateLeavesQueue() {
+        ConfigContentCache.put(first, "aaa", "md5-1");
+        ConfigContentCache.put(second, "bbb", "md5-2");
+        ConfigContentCache.put(third, "ccc", "md5-3");
+        
+        ConfigContentCache.invalidate(second);
+        Assert.assertFalse(second.contentQueued);
+        Assert.assertNull(second.contentPrev);
+        Assert.assertNull(second.contentNext);
+        Assert.assertSame(third, first.contentNext);
+        Assert.assertSame(first, third.contentPrev);
+        
+        ConfigContentCache.put(second, "bbb", "md5-2");
+        Assert.assertTrue(second.contentQueued);
+        Assert.assertSame(second, third.contentNext);
+        Assert.assertEquals("bbb", new String(ConfigContentCache.get(second).array()));
+    }
+    
+    private CacheItem newItem(String dataId, String md5) {
+        CacheItem item = new CacheItem(dataId + "+DEFAULT_GROUP");
+        item.setMd5(md5);
+        return item;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service;
+
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.ClientMd5Map;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+public class LongPollingServiceTest {
+    
+    private LongPollingService longPollingService;
+    
+    @Before
+    public void setUp() {
+        longPollingService = new LongPollingService();
+    }
+    
+    @Test
+    public void testDataChangeOnlyNotifiesListeners() throws Exception {
+        AsyncContext asyncContext1 = mockAsyncContext("1.1.1.1");
+        AsyncContext asyncContext2 = mockAsyncContext("2.2.2.2");
+        LongPollingService.ClientLongPolling sub1 = newClientLongPolling(asyncContext1, "1.1.1.1", "a+DEFAULT_GROUP");
+        LongPollingService.ClientLongPolling sub2 = newClientLongPolling(asyncContext2, "2.2.2.2", "b+DEFAULT_GROUP");
+        sub1.run();
+        sub2.run();
+        Assert.assertEquals(2, longPollingService.allSubs.size());
+        Assert.assertEquals(1, longPollingService.subsByGroupKey.get("a+DEFAULT_GROUP").size());
+        
+        longPollingService.new DataChangeTask("a+DEFAULT_GROUP", false, null).run();
+        
+        Mockito.verify(asyncContext1).complete();
+        Mockito.verify(asyncContext2, Mockito.never()).complete();
+        Assert.assertEquals(1, longPollingService.allSubs.size());
+        Assert.assertNull(longPollingService.subsByGroupKey.get("a+DEFAULT_GROUP"));
+        Assert.assertNotNull(longPollingService.subsByGroupKey.get("b+DEFAULT_GROUP"));
+    }
+    
+    @Test
+    public void testHoldTimeout() throws Exception {
+        AsyncContext asyncContext1 = mockAsyncContext("1.1.1.1");
+        AsyncContext asyncContext2 = mockAsyncContext("2.2.2.2");
+        newClientLongPolling(asyncContext1, "1.1.1.1", "a+DEFAULT_GROUP", 200L).run();
+        LongPollingService.ClientLongPolling sub2 = newClientLongPolling(asyncContext2, "2.2.2.2", "b+DEFAULT_GROUP",
+                200L);
+        sub2.run();
+        // sub2 is answered by data change before timeout
+        longPollingService.new DataChangeTask("b+DEFAULT_GROUP", false, null).run();
+        
+        Thread.sleep(1000L);
+        
+        Mockito.verify(asyncContext1).complete();
+        Mockito.verify(asyncContext2, Mockito.times(1)).complete();
+        Assert.assertTrue(longPollingService.allSubs.isEmpty());
+        Assert.assertTrue(longPollingService.subsByGroupKey.isEmpty());
+    }
+    
+    private LongPollingService.ClientLongPolling newClientLongPolling(AsyncContext asyncContext, String ip,
+            String groupKey) {
+        return newClientLongPolling(asyncContext, ip, groupKey, 30000L);
+    }
+    
+    private LongPollingService.ClientLongPolling newClientLongPolling(AsyncContext asyncContext, String ip,
+            String groupKey, long timeoutTime) {
+        String[] dataIdGroup = GroupKey2.parseKey(groupKey);
+        ClientMd5Map clientMd5Map = ClientMd5Map
+                .parse(dataIdGroup[0] + Constants.WORD_SEPARATOR + dataIdGroup[1] + Constants.WORD_SEPARATOR + "md5"
+                        + Constants.LINE_SEPARATOR);
+        return longPollingService.new ClientLongPolling(asyncContext, clientMd5Map, ip, 1, timeoutTime, "app", null);
+    }
+    
+    private AsyncContext mockAsyncContext(String ip) throws Exception {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getRemoteAddr()).thenReturn(ip);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+        AsyncContext asyncContext = Mockito.mock(AsyncContext.class);
+        Mockito.when(asyncContext.getRequest()).thenReturn(request);
+        Mockito.when(asyncContext.getResponse()).thenReturn(response);
+        return asyncContext;
+    }
+}
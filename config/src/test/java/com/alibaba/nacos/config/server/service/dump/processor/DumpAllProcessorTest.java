@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.processor;
+
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
+import com.alibaba.nacos.config.server.model.Page;
+import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.config.server.service.dump.DumpService;
+import com.alibaba.nacos.config.server.service.dump.task.DumpAllTask;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class DumpAllProcessorTest {
+    
+    private static final int CONFIG_COUNT = 2500;
+    
+    private static final Pattern DUMP_WORKER_NAME = Pattern.compile("com\\.alibaba\\.nacos\\.config\\.dump\\.all\\.-?\\d+");
+    
+    @Test
+    public void testDumpAllPages() {
+        PersistService persistService = Mockito.mock(PersistService.class);
+        DumpService dumpService = Mockito.mock(DumpService.class);
+        Mockito.when(dumpService.getPersistService()).thenReturn(persistService);
+        Mockito.when(persistService.findConfigMaxId()).thenReturn((long) CONFIG_COUNT);
+        Mockito.when(persistService.findAllConfigInfoFragment(Mockito.anyLong(), Mockito.anyInt()))
+                .thenAnswer(invocation -> page((Long) invocation.getArgument(0), (Integer) invocation.getArgument(1)));
+        
+        Assert.assertTrue(new DumpAllProcessor(dumpService).process(new DumpAllTask()));
+        
+        for (int id = 1; id <= CONFIG_COUNT; id++) {
+            String groupKey = GroupKey2.getKey("dumpAll" + id, "DEFAULT_GROUP", "");
+            Assert.assertEquals(MD5Utils.md5Hex("content" + id, Constants.ENCODE),
+                    ConfigCacheService.getContentMd5(groupKey));
+        }
+    }
+    
+    @Test(timeout = 30000L)
+    public void testFailWhenDumpWorkerExits() {
+        PersistService persistService = Mockito.mock(PersistService.class);
+        DumpService dumpService = Mockito.mock(DumpService.class);
+        Mockito.when(dumpService.getPersistService()).thenReturn(persistService);
+        Mockito.when(persistService.findConfigMaxId()).thenReturn((long) CONFIG_COUNT);
+        Mockito.when(persistService.findAllConfigInfoFragment(Mockito.anyLong(), Mockito.anyInt()))
+                .thenAnswer(invocation -> {
+                    long lastMaxId = invocation.getArgument(0);
+                    if (lastMaxId > 0) {
+                        interruptDumpWorkers();
+                    }
+                    return page(lastMaxId, (Integer) invocation.getArgument(1));
+                });
+        
+        Assert.assertFalse(new DumpAllProcessor(dumpService).process(new DumpAllTask()));
+    }
+    
+    private static void interruptDumpWorkers() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (DUMP_WORKER_NAME.matcher(thread.getName()).matches()) {
+                thread.interrupt();
+            }
+        }
+    }
+    
+    private static Page<ConfigInfoWrapper> page(long lastMaxId, int pageSize) {
+        List<ConfigInfoWrapper> items = new ArrayList<ConfigInfoWrapper>();
+        for (long id = lastMaxId + 1; id <= Math.min(lastMaxId + pageSize, CONFIG_COUNT); id++) {
+            ConfigInfoWrapper config = new ConfigInfoWrapper();
+            config.setId(id);
+            config.setDataId("dumpAll" + id);
+            config.setGroup("DEFAULT_GROUP");
+            config.setTenant("");
+            config.setContent("content" + id);
+            config.setLastModified(id);
+            items.add(config);
+        }
+        Page<ConfigInfoWrapper> page = new Page<ConfigInfoWrapper>();
+        page.setPageItems(items);
+        return page;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.dump.processor;
+
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.model.ConfigInfoWrapper;
+import com.alibaba.nacos.config.server.service.ConfigCacheService;
+import com.alibaba.nacos.config.server.service.dump.DumpService;
+import com.alibaba.nacos.config.server.service.dump.task.DumpAllTask;
+import com.alibaba.nacos.config.server.service.dump.task.DumpIncrementalTask;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+public class DumpIncrementalProcessorTest {
+    
+    private PersistService persistService;
+    
+    private DumpService dumpService;
+    
+    private DumpAllProcessor dumpAllProcessor;
+    
+    private DumpIncrementalProcessor processor;
+    
+    @Before
+    public void setUp() {
+        EnvUtil.setEnvironment(new StandardEnvironment());
+        persistService = Mockito.mock(PersistService.class);
+        dumpService = Mockito.mock(DumpService.class);
+        dumpAllProcessor = Mockito.mock(DumpAllProcessor.class);
+        Mockito.when(dumpService.getPersistService()).thenReturn(persistService);
+        processor = new DumpIncrementalProcessor(dumpService, dumpAllProcessor);
+    }
+    
+    @Test
+    public void testDumpChangesSinceCursor() {
+        final Timestamp cursor = new Timestamp(System.currentTimeMillis() - 1000L);
+        Mockito.when(dumpService.loadDumpCursor()).thenReturn(cursor);
+        Mockito.when(persistService.findChangedConfigKeys(Mockito.any(), Mockito.any()))
+                .thenReturn(Arrays.asList(key("incrementalUpdated"), key("incrementalRemoved")));
+        ConfigInfoWrapper updated = new ConfigInfoWrapper();
+        updated.setDataId("incrementalUpdated");
+        updated.setGroup("DEFAULT_GROUP");
+        updated.setContent("updated");
+        updated.setLastModified(System.currentTimeMillis());
+        Mockito.when(persistService.queryConfigInfo("incrementalUpdated", "DEFAULT_GROUP", "")).thenReturn(updated);
+        ConfigCacheService.dump("incrementalRemoved", "DEFAULT_GROUP", "", "removed", 1L, null);
+        
+        Assert.assertTrue(processor.process(new DumpIncrementalTask()));
+        
+        Assert.assertEquals(MD5Utils.md5Hex("updated", Constants.ENCODE),
+                ConfigCacheService.getContentMd5(GroupKey2.getKey("incrementalUpdated", "DEFAULT_GROUP", "")));
+        Assert.assertFalse(ConfigCacheService.hasGroupKey(GroupKey2.getKey("incrementalRemoved", "DEFAULT_GROUP", "")));
+        Mockito.verify(persistService).findChangedConfigKeys(
+                Mockito.eq(new Timestamp(cursor.getTime() - DumpIncrementalProcessor.CURSOR_OVERLAP_MILLIS)),
+                Mockito.any());
+        Mockito.verify(dumpService).saveDumpCursor(Mockito.any());
+        Mockito.verify(dumpAllProcessor, Mockito.never()).process(Mockito.any());
+    }
+    
+    @Test
+    public void testDumpAllWhenCursorLost() {
+        Mockito.when(dumpService.loadDumpCursor()).thenReturn(null);
+        Mockito.when(dumpAllProcessor.process(Mockito.any(DumpAllTask.class))).thenReturn(true);
+        
+        Assert.assertTrue(processor.process(new DumpIncrementalTask()));
+        
+        Mockito.verify(dumpAllProcessor).process(Mockito.any(DumpAllTask.class));
+        Mockito.verify(dumpService).saveDumpCursor(Mockito.any());
+        Mockito.verify(persistService, Mockito.never()).findChangedConfigKeys(Mockito.any(), Mockito.any());
+    }
+    
+    private static ConfigInfo key(String dataId) {
+        ConfigInfo config = new ConfigInfo();
+        config.setDataId(dataId);
+        config.setGroup("DEFAULT_GROUP");
+        config.setTenant("");
+        return config;
+    }
+}
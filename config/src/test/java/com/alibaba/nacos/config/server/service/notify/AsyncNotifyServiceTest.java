@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.notify;
+
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.config.server.model.ConfigChangeItem;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import com.alibaba.nacos.core.cluster.ServerMemberManager;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AsyncNotifyServiceTest {
+    
+    private static final String TARGET = "1.1.1.1:8848";
+    
+    private int originalDelay;
+    
+    private AsyncNotifyService asyncNotifyService;
+    
+    @Before
+    public void setUp() {
+        EnvUtil.setEnvironment(new StandardEnvironment());
+        originalDelay = PropertyUtil.getNotifyBatchDelay();
+        // Keep the changes pending during the test.
+        PropertyUtil.setNotifyBatchDelay(60000);
+        asyncNotifyService = new AsyncNotifyService(Mockito.mock(ServerMemberManager.class));
+    }
+    
+    @After
+    public void tearDown() {
+        PropertyUtil.setNotifyBatchDelay(originalDelay);
+    }
+    
+    @Test
+    public void testCoalescePendingChanges() {
+        AsyncNotifyService.MemberNotifyQueue queue = asyncNotifyService.new MemberNotifyQueue(TARGET);
+        AsyncNotifyService.NotifySingleTask first = newTask("a", 1L, null, false);
+        queue.offer(first);
+        queue.offer(newTask("b", 2L, null, false));
+        AsyncNotifyService.NotifySingleTask newer = newTask("a", 3L, null, false);
+        queue.offer(newer);
+        queue.offer(newTask("a", 4L, "gray", false));
+        queue.offer(newTask("a", 5L, null, true));
+        
+        List<Long> lastModified = new ArrayList<>();
+        for (AsyncNotifyService.NotifySingleTask task : queue.pending.values()) {
+            lastModified.add(task.getLastModified());
+        }
+        Assert.assertEquals(Arrays.asList(2L, 3L, 4L, 5L), lastModified);
+        Assert.assertTrue(queue.isSuperseded(first));
+        Assert.assertFalse(queue.isSuperseded(newTask("c", 6L, null, false)));
+    }
+    
+    @Test
+    public void testBatchBody() throws Exception {
+        AsyncNotifyService.NotifyBatchTask batch = new AsyncNotifyService.NotifyBatchTask(TARGET,
+                Arrays.asList(newTask("a", 1L, "gray", false), newTask("b", 2L, null, true)));
+        
+        List<ConfigChangeItem> items = JacksonUtils
+                .toObj(batch.toBody(), new TypeReference<List<ConfigChangeItem>>() { });
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals("a", items.get(0).getDataId());
+        Assert.assertEquals("gray", items.get(0).getTag());
+        Assert.assertEquals(1L, items.get(0).getLastModified());
+        Assert.assertFalse(items.get(0).isBeta());
+        Assert.assertEquals("b", items.get(1).getDataId());
+        Assert.assertTrue(items.get(1).isBeta());
+    }
+    
+    private static AsyncNotifyService.NotifySingleTask newTask(String dataId, long lastModified, String tag,
+            boolean isBeta) {
+        return new AsyncNotifyService.NotifySingleTask(dataId, "DEFAULT_GROUP", "", tag, lastModified, TARGET, isBeta);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository.embedded;
+
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import com.google.protobuf.ByteString;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class EmbeddedReadCacheTest {
+    
+    private static final String SELECT_CONFIG = "SELECT id,content FROM config_info WHERE data_id=? AND group_id=?";
+    
+    private static final String SELECT_JOIN = "SELECT a.id FROM config_info a LEFT JOIN config_tags_relation b ON "
+            + "a.id=b.id WHERE b.tag_name=?";
+    
+    private int originalMaxSize;
+    
+    private EmbeddedReadCache cache;
+    
+    @Before
+    public void setUp() {
+        originalMaxSize = PropertyUtil.getEmbeddedReadCacheMaxSize();
+        PropertyUtil.setEmbeddedReadCacheMaxSize(1024);
+        cache = new EmbeddedReadCache();
+    }
+    
+    @After
+    public void tearDown() {
+        PropertyUtil.setEmbeddedReadCacheMaxSize(originalMaxSize);
+    }
+    
+    private static ByteString bytes(String value) {
+        return ByteString.copyFromUtf8(value);
+    }
+    
+    @Test
+    public void testTables() {
+        Assert.assertEquals(Arrays.asList("config_info", "config_tags_relation"),
+                Arrays.asList(EmbeddedReadCache.tables(SELECT_JOIN).toArray()));
+        Assert.assertEquals(Collections.singleton("his_config_info"),
+                EmbeddedReadCache.tables("INSERT INTO his_config_info (id,data_id) VALUES(?,?)"));
+        Assert.assertEquals(Collections.singleton("config_info_beta"),
+                EmbeddedReadCache.tables("update CONFIG_INFO_BETA set content=? where id=?"));
+        Assert.assertTrue(EmbeddedReadCache.tables("VALUES 1").isEmpty());
+    }
+    
+    @Test
+    public void testHitUntilTableIsInvalidated() {
+        ByteString key = bytes("config");
+        Assert.assertNull(cache.get(key));
+        cache.put(key, cache.stamp(SELECT_CONFIG), bytes("result"));
+        Assert.assertEquals(bytes("result"), cache.get(key));
+        
+        cache.invalidate(Collections.singletonList("UPDATE tenant_info SET tenant_name=? WHERE id=?"));
+        Assert.assertEquals(bytes("result"), cache.get(key));
+        
+        cache.invalidate(Collections.singletonList("DELETE FROM config_info WHERE id=?"));
+        Assert.assertNull(cache.get(key));
+    }
+    
+    @Test
+    public void testResultRacedByWriteIsNotServed() {
+        ByteString key = bytes("join");
+        EmbeddedReadCache.Stamp stamp = cache.stamp(SELECT_JOIN);
+        cache.invalidate(Collections.singletonList("INSERT INTO config_tags_relation (id,tag_name) VALUES(?,?)"));
+        cache.put(key, stamp, bytes("stale"));
+        Assert.assertNull(cache.get(key));
+    }
+    
+    @Test
+    public void testUnknownStatementClearsCache() {
+        ByteString key = bytes("config");
+        cache.put(key, cache.stamp(SELECT_CONFIG), bytes("result"));
+        final EmbeddedReadCache.Stamp stamp = cache.stamp(SELECT_CONFIG);
+        cache.invalidate(Collections.singletonList("CALL SYSCS_UTIL.SYSCS_COMPRESS_TABLE(?, ?, ?)"));
+        Assert.assertNull(cache.get(key));
+        Assert.assertEquals(0L, cache.cachedBytes());
+        cache.put(key, stamp, bytes("stale"));
+        Assert.assertNull(cache.get(key));
+    }
+    
+    @Test
+    public void testQueryWithoutTableIsNotCached() {
+        Assert.assertNull(cache.stamp("VALUES 1"));
+        cache.put(bytes("values"), null, bytes("1"));
+        Assert.assertNull(cache.get(bytes("values")));
+    }
+    
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        PropertyUtil.setEmbeddedReadCacheMaxSize(25);
+        cache.put(bytes("k1"), cache.stamp(SELECT_CONFIG), bytes("aaaaaaaa"));
+        cache.put(bytes("k2"), cache.stamp(SELECT_CONFIG), bytes("bbbbbbbb"));
+        Assert.assertNotNull(cache.get(bytes("k1")));
+        cache.put(bytes("k3"), cache.stamp(SELECT_CONFIG), bytes("cccccccc"));
+        Assert.assertNotNull(cache.get(bytes("k1")));
+        Assert.assertNull(cache.get(bytes("k2")));
+        Assert.assertNotNull(cache.get(bytes("k3")));
+        Assert.assertEquals(20L, cache.cachedBytes());
+        
+        cache.put(bytes("k4"), cache.stamp(SELECT_CONFIG), ByteString.copyFrom(new byte[64]));
+        Assert.assertNull(cache.get(bytes("k4")));
+    }
+    
+    @Test
+    public void testDisabled() {
+        PropertyUtil.setEmbeddedReadCacheMaxSize(0);
+        Assert.assertNull(cache.stamp(SELECT_CONFIG));
+        Assert.assertNull(cache.get(bytes("config")));
+    }
+}
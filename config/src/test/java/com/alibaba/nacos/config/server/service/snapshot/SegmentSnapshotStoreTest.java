@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.snapshot;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class SegmentSnapshotStoreTest {
+    
+    private static final int SEGMENT_SIZE = 256;
+    
+    private File dir;
+    
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("segmentSnapshotStoreTest").toFile();
+    }
+    
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(dir);
+    }
+    
+    @Test
+    public void testSaveReadRemove() throws IOException {
+        SegmentSnapshotStore store = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        store.save("/data/config-data/group/a", bytes("content-a"));
+        store.save("/data/config-data/group/a", bytes("content-a2"));
+        store.save("/data/config-data/group/b", bytes(""));
+        
+        Assert.assertEquals("content-a2", string(store.read("/data/config-data/group/a")));
+        Assert.assertEquals("", string(store.read("/data/config-data/group/b")));
+        ByteBuffer copy = store.read("/data/config-data/group/a");
+        copy.put(0, (byte) 'x');
+        Assert.assertEquals("content-a2", string(store.read("/data/config-data/group/a")));
+        
+        store.remove("/data/config-data/group/a");
+        Assert.assertNull(store.read("/data/config-data/group/a"));
+        Assert.assertNull(store.read("/data/config-data/group/c"));
+    }
+    
+    @Test
+    public void testReloadFromSegments() throws IOException {
+        SegmentSnapshotStore store = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        for (int i = 0; i < 20; i++) {
+            store.save("/data/config-data/group/" + i, bytes("content-" + i));
+        }
+        store.save("/data/config-data/group/0", bytes("changed"));
+        store.remove("/data/config-data/group/1");
+        
+        SegmentSnapshotStore reloaded = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        Assert.assertEquals(19, reloaded.size());
+        Assert.assertEquals("changed", string(reloaded.read("/data/config-data/group/0")));
+        Assert.assertNull(reloaded.read("/data/config-data/group/1"));
+        Assert.assertEquals("content-19", string(reloaded.read("/data/config-data/group/19")));
+        
+        reloaded.save("/data/config-data/group/20", bytes("content-20"));
+        Assert.assertEquals("content-20", string(reloaded.read("/data/config-data/group/20")));
+    }
+    
+    @Test
+    public void testCompactDeadSegments() throws IOException {
+        SegmentSnapshotStore store = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        ByteBuffer before = null;
+        for (int round = 0; round < 50; round++) {
+            store.save("/data/config-data/group/hot", bytes("round-" + round));
+            if (round == 0) {
+                before = store.read("/data/config-data/group/hot");
+            }
+        }
+        store.save("/data/config-data/group/cold", bytes("cold"));
+        
+        Assert.assertTrue(store.segmentCount() <= 3);
+        Assert.assertEquals(store.segmentCount(), dir.list().length);
+        Assert.assertEquals("round-49", string(store.read("/data/config-data/group/hot")));
+        Assert.assertEquals("round-0", string(before));
+        
+        SegmentSnapshotStore reloaded = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        Assert.assertEquals("round-49", string(reloaded.read("/data/config-data/group/hot")));
+        Assert.assertEquals("cold", string(reloaded.read("/data/config-data/group/cold")));
+    }
+    
+    @Test
+    public void testRemoveByPrefix() throws IOException {
+        SegmentSnapshotStore store = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        store.save("/data/config-data/group/a", bytes("a"));
+        store.save("/data/beta-data/group/a", bytes("beta"));
+        
+        Assert.assertTrue(store.removeByPrefix("/data/config-data"));
+        Assert.assertNull(store.read("/data/config-data/group/a"));
+        Assert.assertEquals("beta", string(store.read("/data/beta-data/group/a")));
+        
+        Assert.assertTrue(store.removeByPrefix("/data/beta-data"));
+        Assert.assertEquals(0, new SegmentSnapshotStore(dir, SEGMENT_SIZE).size());
+    }
+    
+    @Test
+    public void testRecordLargerThanSegment() throws IOException {
+        SegmentSnapshotStore store = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        String large = StringUtils.repeat("x", SEGMENT_SIZE * 2);
+        store.save("/data/config-data/group/large", bytes(large));
+        SegmentSnapshotStore reloaded = new SegmentSnapshotStore(dir, SEGMENT_SIZE);
+        Assert.assertEquals(large, string(reloaded.read("/data/config-data/group/large")));
+    }
+    
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static String string(ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.consistency.cp;
+
+import com.alibaba.nacos.consistency.entity.ReadRequest;
+
+/**
+ * Consistency of a read served by the CP protocol, a {@link ReadRequest} chooses it with the extend info {@link
+ * #READ_CONSISTENCY}, otherwise the default of its group is used.
+ *
+ * @author nacos
+ */
+public enum ReadConsistency {
+    
+    /**
+     * Confirm the leadership with a ReadIndex round trip before reading.
+     */
+    LINEARIZABLE,
+    
+    /**
+     * Read on the leader without a round trip while its lease is valid. The lease is renewed by ReadIndex round trips
+     * and lasts a fraction of the election timeout, so it relies on the clock drift between members being bounded.
+     */
+    LEASE,
+    
+    /**
+     * Read on the local member, leader or follower, as long as its state was confirmed up to date within the staleness
+     * budget {@link #MAX_STALENESS_MS}.
+     */
+    FOLLOWER;
+    
+    public static final String READ_CONSISTENCY = "readConsistency";
+    
+    public static final String MAX_STALENESS_MS = "maxStalenessMs";
+    
+    /**
+     * Parse the read consistency, ignoring case.
+     *
+     * @param value        read consistency name
+     * @param defaultValue returned when value is blank or unknown
+     * @return read consistency
+     */
+    public static ReadConsistency parse(String value, ReadConsistency defaultValue) {
+        if (null == value) {
+            return defaultValue;
+        }
+        for (ReadConsistency each : values()) {
+            if (each.name().equalsIgnoreCase(value.trim())) {
+                return each;
+            }
+        }
+        return defaultValue;
+    }
+    
+    /**
+     * The read consistency chosen by the request.
+     *
+     * @param request      read request
+     * @param defaultValue returned when the request does not choose one
+     * @return read consistency
+     */
+    public static ReadConsistency of(ReadRequest request, ReadConsistency defaultValue) {
+        return parse(request.getExtendInfoMap().get(READ_CONSISTENCY), defaultValue);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * One {@link RateLimiter} per key, such as a client ip or a namespace, with bounded memory. When the number of keys
+ * reaches {@code maxKeys}, the keys idle for longer than {@code idleMillis} are evicted first, then arbitrary ones; an
+ * evicted key starts over with a fresh limiter.
+ *
+ * @author nacos
+ */
+public class KeyedRateLimiter {
+    
+    private final Map<String, Entry> limiters = new ConcurrentHashMap<>();
+    
+    private final Supplier<RateLimiter> factory;
+    
+    private final int maxKeys;
+    
+    private final long idleMillis;
+    
+    public KeyedRateLimiter(Supplier<RateLimiter> factory, int maxKeys, long idleMillis) {
+        this.factory = factory;
+        this.maxKeys = maxKeys;
+        this.idleMillis = idleMillis;
+    }
+    
+    /**
+     * Acquire one permit of the key.
+     *
+     * @param key key
+     * @return true if acquired, false if the rate of the key is over the limit
+     */
+    public boolean tryAcquire(String key) {
+        final long now = System.currentTimeMillis();
+        Entry entry = limiters.get(key);
+        if (entry == null) {
+            if (limiters.size() >= maxKeys) {
+                evict(now);
+            }
+            entry = limiters.computeIfAbsent(key, k -> new Entry(factory.get()));
+        }
+        entry.lastAccess = now;
+        return entry.limiter.tryAcquire();
+    }
+    
+    /**
+     * Give back one permit acquired by {@link #tryAcquire(String)}.
+     *
+     * @param key key
+     */
+    public void release(String key) {
+        Entry entry = limiters.get(key);
+        if (entry != null) {
+            entry.limiter.release();
+        }
+    }
+    
+    public int size() {
+        return limiters.size();
+    }
+    
+    private synchronized void evict(long now) {
+        if (limiters.size() < maxKeys) {
+            return;
+        }
+        limiters.values().removeIf(entry -> now - entry.lastAccess > idleMillis);
+        Iterator<Entry> iterator = limiters.values().iterator();
+        while (limiters.size() >= maxKeys && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+    
+    private static class Entry {
+        
+        private final RateLimiter limiter;
+        
+        private volatile long lastAccess;
+        
+        Entry(RateLimiter limiter) {
+            this.limiter = limiter;
+        }
+    }
+}
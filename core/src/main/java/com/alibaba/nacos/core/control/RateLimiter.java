@@ -0,0 +1,37 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+/**
+ * Limit the rate of acquisitions of one key.
+ *
+ * @author nacos
+ */
+public interface RateLimiter {
+    
+    /**
+     * Acquire one permit if there is one now, never wait.
+     *
+     * @return true if acquired, false if the rate is over the limit
+     */
+    boolean tryAcquire();
+    
+    /**
+     * Give back one permit acquired by {@link #tryAcquire()}, when the request is rejected by another limit after all.
+     */
+    void release();
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allow at most {@code limit} acquisitions in any {@code period}, approximated by a ring of buckets. Every bucket
+ * counts with a {@link LongAdder}, so concurrent acquisitions of a hot key don't contend on one counter; the price is
+ * that racing acquisitions may pass the limit by a few.
+ *
+ * @author nacos
+ */
+public class SlidingWindowRateLimiter implements RateLimiter {
+    
+    private static final int DEFAULT_BUCKETS = 10;
+    
+    private final int limit;
+    
+    private final long bucketMillis;
+    
+    private final Bucket[] buckets;
+    
+    public SlidingWindowRateLimiter(int limit, long periodMillis) {
+        this(limit, periodMillis, DEFAULT_BUCKETS);
+    }
+    
+    public SlidingWindowRateLimiter(int limit, long periodMillis, int bucketCount) {
+        this.limit = limit;
+        this.bucketMillis = Math.max(1L, periodMillis / bucketCount);
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+    
+    @Override
+    public boolean tryAcquire() {
+        return tryAcquire(System.currentTimeMillis());
+    }
+    
+    boolean tryAcquire(long now) {
+        final long index = now / bucketMillis;
+        final long start = index * bucketMillis;
+        Bucket current = buckets[(int) (index % buckets.length)];
+        if (current.start != start) {
+            synchronized (current) {
+                if (current.start != start) {
+                    current.count.reset();
+                    current.start = start;
+                }
+            }
+        }
+        final long windowStart = start - (buckets.length - 1) * bucketMillis;
+        long count = 0;
+        for (Bucket bucket : buckets) {
+            if (bucket.start >= windowStart) {
+                count += bucket.count.sum();
+            }
+        }
+        if (count >= limit) {
+            return false;
+        }
+        current.count.increment();
+        return true;
+    }
+    
+    @Override
+    public void release() {
+        release(System.currentTimeMillis());
+    }
+    
+    void release(long now) {
+        final long index = now / bucketMillis;
+        Bucket current = buckets[(int) (index % buckets.length)];
+        // A permit acquired in a bucket which has rolled over already is out of the window anyway.
+        if (current.start == index * bucketMillis) {
+            current.count.decrement();
+        }
+    }
+    
+    private static class Bucket {
+        
+        private volatile long start = Long.MIN_VALUE;
+        
+        private final LongAdder count = new LongAdder();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code permits} tokens refilled over {@code period}, so up to {@code permits} acquisitions may burst.
+ * Implemented as the generic cell rate algorithm: the state is the single theoretical arrival time, updated by CAS.
+ *
+ * @author nacos
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+    
+    private final long intervalNanos;
+    
+    private final long toleranceNanos;
+    
+    private final AtomicLong theoreticalArrival;
+    
+    public TokenBucketRateLimiter(int permits, long periodMillis) {
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.intervalNanos = Math.max(1L, periodNanos / permits);
+        this.toleranceNanos = periodNanos - intervalNanos;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+    
+    @Override
+    public boolean tryAcquire() {
+        final long now = System.nanoTime();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival - now > 0 ? arrival : now;
+            if (base - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+    
+    @Override
+    public void release() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+}
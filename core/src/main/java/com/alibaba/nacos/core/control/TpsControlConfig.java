@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tps control filter config.
+ *
+ * @author nacos
+ */
+@Configuration
+public class TpsControlConfig {
+    
+    @Bean
+    public FilterRegistrationBean tpsControlFilterRegistration() {
+        FilterRegistrationBean<TpsControlFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(tpsControlFilter());
+        registration.addUrlPatterns("/*");
+        registration.setName("tpsControlFilter");
+        registration.setOrder(5);
+        
+        return registration;
+    }
+    
+    @Bean
+    public TpsControlFilter tpsControlFilter() {
+        return new TpsControlFilter();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import com.alibaba.nacos.core.cluster.Member;
+import com.alibaba.nacos.core.cluster.ServerMemberManager;
+import com.alibaba.nacos.core.code.ControllerMethodsCache;
+import com.alibaba.nacos.core.utils.WebUtils;
+import com.alibaba.nacos.sys.env.Constants;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reject the requests to {@link TpsControl} apis which are over the limits of their point. The ip dimension is keyed
+ * on the remote address, the forwarded headers are only trusted from the proxies listed in
+ * {@code nacos.core.tps.trustedProxies}.
+ *
+ * @author nacos
+ */
+public class TpsControlFilter implements Filter {
+    
+    @Autowired
+    private TpsControlManager tpsControlManager;
+    
+    @Autowired
+    private ControllerMethodsCache methodsCache;
+    
+    @Autowired
+    private ServerMemberManager memberManager;
+    
+    private volatile Set<String> trustedProxies;
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+        
+        // Requests between servers are not limited, the limit applies where the client request came in.
+        if (isFromClusterMember(req)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        Method method = methodsCache.getMethod(req);
+        if (method == null || !method.isAnnotationPresent(TpsControl.class)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        String pointName = method.getAnnotation(TpsControl.class).pointName();
+        String namespace = req.getParameter("tenant");
+        if (StringUtils.isBlank(namespace)) {
+            namespace = req.getParameter("namespaceId");
+        }
+        if (!tpsControlManager.applyFor(pointName, getClientIp(req), namespace)) {
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Over the tps limit of " + pointName);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    /**
+     * The user agent alone can be forged by any client, so the remote address must be one of the members too.
+     */
+    private boolean isFromClusterMember(HttpServletRequest req) {
+        if (!StringUtils.startsWith(WebUtils.getUserAgent(req), Constants.NACOS_SERVER_HEADER)) {
+            return false;
+        }
+        String remoteAddr = req.getRemoteAddr();
+        for (Member member : memberManager.allMembers()) {
+            if (StringUtils.equals(member.getIp(), remoteAddr)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private String getClientIp(HttpServletRequest req) {
+        String remoteAddr = req.getRemoteAddr();
+        return getTrustedProxies().contains(remoteAddr) ? WebUtils.getRemoteIp(req) : remoteAddr;
+    }
+    
+    private Set<String> getTrustedProxies() {
+        Set<String> proxies = trustedProxies;
+        if (proxies == null) {
+            String value = EnvUtil.getProperty("nacos.core.tps.trustedProxies", "");
+            proxies = StringUtils.isBlank(value) ? Collections.emptySet()
+                    : new HashSet<>(Arrays.asList(StringUtils.split(value.replace(" ", ""), ',')));
+            trustedProxies = proxies;
+        }
+        return proxies;
+    }
+}
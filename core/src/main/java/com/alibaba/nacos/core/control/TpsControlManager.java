@@ -0,0 +1,154 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import com.alibaba.nacos.core.monitor.MetricsMonitor;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Rate limits of the control points. A point is limited on any of three dimensions, each configured by
+ * <pre>
+ * nacos.core.tps.&lt;point&gt;.&lt;global|namespace|ip&gt;.limit  permits per period, not limited if absent
+ * nacos.core.tps.&lt;point&gt;.&lt;global|namespace|ip&gt;.period permit period in milliseconds, default 1000
+ * nacos.core.tps.&lt;point&gt;.&lt;global|namespace|ip&gt;.type   token-bucket (default) or sliding-window
+ * </pre>
+ * Keys of the namespace and ip dimensions are bounded by {@code nacos.core.tps.maxKeys} per point and dimension,
+ * evicting the ones idle for {@code nacos.core.tps.idleMillis}.
+ *
+ * @author nacos
+ */
+@Component
+public class TpsControlManager {
+    
+    public static final String DIMENSION_GLOBAL = "global";
+    
+    public static final String DIMENSION_NAMESPACE = "namespace";
+    
+    public static final String DIMENSION_IP = "ip";
+    
+    public static final String TYPE_TOKEN_BUCKET = "token-bucket";
+    
+    public static final String TYPE_SLIDING_WINDOW = "sliding-window";
+    
+    private static final String PREFIX = "nacos.core.tps.";
+    
+    private static final long DEFAULT_PERIOD_MILLIS = 1000L;
+    
+    private static final int DEFAULT_MAX_KEYS = 10000;
+    
+    private static final long DEFAULT_IDLE_MILLIS = 60000L;
+    
+    private final Map<String, List<DimensionControl>> points = new ConcurrentHashMap<>();
+    
+    /**
+     * Acquire one permit of the point for the request.
+     *
+     * @param pointName point name
+     * @param ip        client ip
+     * @param namespace namespace of the request, may be blank
+     * @return true if the request may go on, false if it is over a limit
+     */
+    public boolean applyFor(String pointName, String ip, String namespace) {
+        List<DimensionControl> controls = points.computeIfAbsent(pointName, this::loadControls);
+        for (int i = 0; i < controls.size(); i++) {
+            DimensionControl control = controls.get(i);
+            if (!control.tryAcquire(ip, namespace)) {
+                MetricsMonitor.getTpsRejectedCounter(pointName, control.dimension).increment();
+                // A rejected request must not use up the permits of the dimensions it passed.
+                for (int j = i - 1; j >= 0; j--) {
+                    controls.get(j).release(ip, namespace);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private List<DimensionControl> loadControls(String pointName) {
+        List<DimensionControl> controls = new ArrayList<>(3);
+        for (String dimension : new String[] {DIMENSION_GLOBAL, DIMENSION_NAMESPACE, DIMENSION_IP}) {
+            String prefix = PREFIX + pointName + "." + dimension + ".";
+            int limit = EnvUtil.getProperty(prefix + "limit", Integer.class, 0);
+            if (limit <= 0) {
+                continue;
+            }
+            long period = EnvUtil.getProperty(prefix + "period", Long.class, DEFAULT_PERIOD_MILLIS);
+            String type = EnvUtil.getProperty(prefix + "type", TYPE_TOKEN_BUCKET);
+            Supplier<RateLimiter> factory = createFactory(type, limit, period);
+            if (DIMENSION_GLOBAL.equals(dimension)) {
+                controls.add(new DimensionControl(dimension, factory.get(), null));
+            } else {
+                int maxKeys = EnvUtil.getProperty(PREFIX + "maxKeys", Integer.class, DEFAULT_MAX_KEYS);
+                long idleMillis = EnvUtil.getProperty(PREFIX + "idleMillis", Long.class, DEFAULT_IDLE_MILLIS);
+                controls.add(new DimensionControl(dimension, null, new KeyedRateLimiter(factory, maxKeys, idleMillis)));
+            }
+        }
+        return controls;
+    }
+    
+    static Supplier<RateLimiter> createFactory(String type, int limit, long period) {
+        if (TYPE_SLIDING_WINDOW.equals(type)) {
+            return () -> new SlidingWindowRateLimiter(limit, period);
+        }
+        if (TYPE_TOKEN_BUCKET.equals(type)) {
+            return () -> new TokenBucketRateLimiter(limit, period);
+        }
+        throw new IllegalArgumentException("unknown rate limiter type: " + type);
+    }
+    
+    private static class DimensionControl {
+        
+        private final String dimension;
+        
+        private final RateLimiter global;
+        
+        private final KeyedRateLimiter keyed;
+        
+        DimensionControl(String dimension, RateLimiter global, KeyedRateLimiter keyed) {
+            this.dimension = dimension;
+            this.global = global;
+            this.keyed = keyed;
+        }
+        
+        boolean tryAcquire(String ip, String namespace) {
+            if (global != null) {
+                return global.tryAcquire();
+            }
+            return keyed.tryAcquire(keyOf(ip, namespace));
+        }
+        
+        void release(String ip, String namespace) {
+            if (global != null) {
+                global.release();
+            } else {
+                keyed.release(keyOf(ip, namespace));
+            }
+        }
+        
+        private String keyOf(String ip, String namespace) {
+            return DIMENSION_IP.equals(dimension) ? ip : StringUtils.defaultString(namespace);
+        }
+    }
+}
@@ -34,6 +34,29 @@ public interface DistroDataStorage {
      */
     DistroData getDistroData(DistroKey distroKey);
     
+    /**
+     * Get distro datum to sync to the target server of key.
+     *
+     * <p>Implementations can return the change since the datum synced to the target server last time, instead of the
+     * whole datum.
+     *
+     * @param distroKey key of distro datum, with target server
+     * @return need to sync datum
+     */
+    default DistroData getSyncData(DistroKey distroKey) {
+        return getDistroData(distroKey);
+    }
+    
+    /**
+     * Called with the result of syncing the data got from {@link #getSyncData(DistroKey)} to the target server.
+     *
+     * @param distroKey  key of distro datum, with target server
+     * @param distroData synced data
+     * @param success    whether the target server received the data
+     */
+    default void finishSync(DistroKey distroKey, DistroData distroData, boolean success) {
+    }
+    
     /**
      * Get all distro datum snapshot.
      *
@@ -18,6 +18,7 @@ package com.alibaba.nacos.core.distributed.distro.task.execute;
 
 import com.alibaba.nacos.consistency.DataOperation;
 import com.alibaba.nacos.core.distributed.distro.component.DistroComponentHolder;
+import com.alibaba.nacos.core.distributed.distro.component.DistroDataStorage;
 import com.alibaba.nacos.core.distributed.distro.component.DistroFailedTaskHandler;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
@@ -40,17 +41,23 @@ public class DistroSyncChangeTask extends AbstractDistroExecuteTask {
     @Override
     public void run() {
         Loggers.DISTRO.info("[DISTRO-START] {}", toString());
+        String type = getDistroKey().getResourceType();
+        DistroDataStorage dataStorage = distroComponentHolder.findDataStorage(type);
+        DistroData distroData = null;
         try {
-            String type = getDistroKey().getResourceType();
-            DistroData distroData = distroComponentHolder.findDataStorage(type).getDistroData(getDistroKey());
+            distroData = dataStorage.getSyncData(getDistroKey());
             distroData.setType(DataOperation.CHANGE);
             boolean result = distroComponentHolder.findTransportAgent(type).syncData(distroData, getDistroKey().getTargetServer());
+            dataStorage.finishSync(getDistroKey(), distroData, result);
             if (!result) {
                 handleFailedTask();
             }
             Loggers.DISTRO.info("[DISTRO-END] {} result: {}", toString(), result);
         } catch (Exception e) {
             Loggers.DISTRO.warn("[DISTRO] Sync data change failed.", e);
+            if (null != distroData) {
+                dataStorage.finishSync(getDistroKey(), distroData, false);
+            }
             handleFailedTask();
         }
     }
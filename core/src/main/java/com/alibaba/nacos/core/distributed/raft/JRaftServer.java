@@ -25,6 +25,7 @@ import com.alibaba.nacos.common.utils.ThreadUtils;
 import com.alibaba.nacos.consistency.RequestProcessor;
 import com.alibaba.nacos.consistency.SerializeFactory;
 import com.alibaba.nacos.consistency.Serializer;
+import com.alibaba.nacos.consistency.cp.ReadConsistency;
 import com.alibaba.nacos.consistency.cp.RequestProcessor4CP;
 import com.alibaba.nacos.consistency.entity.ReadRequest;
 import com.alibaba.nacos.consistency.entity.Response;
@@ -48,7 +49,6 @@ import com.alipay.sofa.jraft.RaftGroupService;
 import com.alipay.sofa.jraft.RaftServiceFactory;
 import com.alipay.sofa.jraft.RouteTable;
 import com.alipay.sofa.jraft.Status;
-import com.alipay.sofa.jraft.closure.ReadIndexClosure;
 import com.alipay.sofa.jraft.conf.Configuration;
 import com.alipay.sofa.jraft.core.CliServiceImpl;
 import com.alipay.sofa.jraft.entity.PeerId;
@@ -57,11 +57,11 @@ import com.alipay.sofa.jraft.error.RaftError;
 import com.alipay.sofa.jraft.option.CliOptions;
 import com.alipay.sofa.jraft.option.NodeOptions;
 import com.alipay.sofa.jraft.option.RaftOptions;
+import com.alipay.sofa.jraft.option.ReadOnlyOption;
 import com.alipay.sofa.jraft.rpc.InvokeCallback;
 import com.alipay.sofa.jraft.rpc.RpcProcessor;
 import com.alipay.sofa.jraft.rpc.RpcServer;
 import com.alipay.sofa.jraft.rpc.impl.cli.CliClientServiceImpl;
-import com.alipay.sofa.jraft.util.BytesUtil;
 import com.alipay.sofa.jraft.util.Endpoint;
 import com.google.common.base.Joiner;
 import com.google.protobuf.Message;
@@ -150,6 +150,17 @@ public class JRaftServer {
     
     private int rpcRequestTimeoutMs;
     
+    private ReadConsistency readConsistency;
+    
+    private long followerReadMaxStalenessMs;
+    
+    /**
+     * JRaft answers ReadIndex from its own leader lease, which a LEASE read must not extend again.
+     */
+    private boolean leaseBasedReadIndex;
+    
+    private final Map<String, ReadConsistency> readConsistencies = new ConcurrentHashMap<>();
+    
     public JRaftServer() {
         this.conf = new Configuration();
     }
@@ -178,6 +189,12 @@ public class JRaftServer {
         rpcRequestTimeoutMs = ConvertUtils.toInt(raftConfig.getVal(RaftSysConstants.RAFT_RPC_REQUEST_TIMEOUT_MS),
                 RaftSysConstants.DEFAULT_RAFT_RPC_REQUEST_TIMEOUT_MS);
         
+        readConsistency = ReadConsistency.parse(raftConfig.getVal(RaftSysConstants.READ_CONSISTENCY),
+                ReadConsistency.valueOf(RaftSysConstants.DEFAULT_READ_CONSISTENCY));
+        followerReadMaxStalenessMs = ConvertUtils
+                .toLong(raftConfig.getVal(RaftSysConstants.FOLLOWER_READ_MAX_STALENESS_MS),
+                        RaftSysConstants.DEFAULT_FOLLOWER_READ_MAX_STALENESS_MS);
+        
         nodeOptions.setSharedElectionTimer(true);
         nodeOptions.setSharedVoteTimer(true);
         nodeOptions.setSharedStepDownTimer(true);
@@ -186,6 +203,10 @@ public class JRaftServer {
         nodeOptions.setElectionTimeoutMs(electionTimeout);
         RaftOptions raftOptions = RaftOptionsBuilder.initRaftOptions(raftConfig);
         nodeOptions.setRaftOptions(raftOptions);
+        leaseBasedReadIndex = ReadOnlyOption.ReadOnlyLeaseBased == raftOptions.getReadOnlyOptions();
+        if (leaseBasedReadIndex) {
+            Loggers.RAFT.warn("ReadIndex is already lease based, LEASE reads are served as LINEARIZABLE");
+        }
         // open jraft node metrics record function
         nodeOptions.setEnableMetrics(true);
         
@@ -267,6 +288,8 @@ public class JRaftServer {
             // Because RpcServer has been started before, it is not allowed to start again here
             Node node = raftGroupService.start(false);
             machine.setNode(node);
+            readConsistencies.put(groupName, ReadConsistency
+                    .parse(raftConfig.getVal(RaftSysConstants.READ_CONSISTENCY + "." + groupName), readConsistency));
             RouteTable.getInstance().updateConfiguration(groupName, configuration);
             
             RaftExecutor.executeByCommon(() -> registerSelfToCluster(groupName, localPeerId, configuration));
@@ -288,30 +311,36 @@ public class JRaftServer {
             future.completeExceptionally(new NoSuchRaftGroupException(group));
             return future;
         }
-        final Node node = tuple.node;
+        final ReadConsistency consistency = readConsistencyOf(request);
+        final long startNanos = System.nanoTime();
+        future.whenComplete((response, throwable) -> MetricsMonitor.getRaftReadTimer(consistency)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+        final ReadLease lease = tuple.machine.getReadLease();
         final RequestProcessor processor = tuple.processor;
         try {
-            node.readIndex(BytesUtil.EMPTY_BYTES, new ReadIndexClosure() {
-                @Override
-                public void run(Status status, long index, byte[] reqCtx) {
-                    if (status.isOk()) {
-                        try {
-                            Response response = processor.onRequest(request);
-                            future.complete(response);
-                        } catch (Throwable t) {
-                            MetricsMonitor.raftReadIndexFailed();
-                            future.completeExceptionally(new ConsistencyException(
-                                    "The conformance protocol is temporarily unavailable for reading", t));
-                        }
-                        return;
+            switch (consistency) {
+                case LEASE:
+                    if (lease.isLeaseValid()) {
+                        readLocally(processor, request, future);
+                    } else {
+                        readAfter(lease.readIndex(), processor, request, future);
                     }
-                    MetricsMonitor.raftReadIndexFailed();
-                    Loggers.RAFT.error("ReadIndex has error : {}", status.getErrorMsg());
-                    future.completeExceptionally(new ConsistencyException(
-                            "The conformance protocol is temporarily unavailable for reading, " + status
-                                    .getErrorMsg()));
-                }
-            });
+                    break;
+                case FOLLOWER:
+                    final long maxStalenessMs = ConvertUtils
+                            .toLong(request.getExtendInfoMap().get(ReadConsistency.MAX_STALENESS_MS),
+                                    followerReadMaxStalenessMs);
+                    if (lease.isFresh(TimeUnit.MILLISECONDS.toNanos(maxStalenessMs))) {
+                        readLocally(processor, request, future);
+                    } else {
+                        // Concurrent follower reads share one ReadIndex
+                        readAfter(lease.refresh(), processor, request, future);
+                    }
+                    break;
+                default:
+                    readAfter(lease.readIndex(), processor, request, future);
+                    break;
+            }
             return future;
         } catch (Throwable e) {
             MetricsMonitor.raftReadFromLeader();
@@ -322,6 +351,42 @@ public class JRaftServer {
         }
     }
     
+    private ReadConsistency readConsistencyOf(final ReadRequest request) {
+        final ReadConsistency consistency = ReadConsistency
+                .of(request, readConsistencies.getOrDefault(request.getGroup(), readConsistency));
+        if (ReadConsistency.LEASE == consistency && leaseBasedReadIndex) {
+            return ReadConsistency.LINEARIZABLE;
+        }
+        return consistency;
+    }
+    
+    private void readAfter(CompletableFuture<Status> readIndex, final RequestProcessor processor,
+            final ReadRequest request, final CompletableFuture<Response> future) {
+        readIndex.whenComplete((status, throwable) -> {
+            if (Objects.isNull(throwable) && status.isOk()) {
+                readLocally(processor, request, future);
+                return;
+            }
+            final String errMsg = Objects.nonNull(throwable) ? throwable.toString() : status.getErrorMsg();
+            MetricsMonitor.raftReadIndexFailed();
+            Loggers.RAFT.error("ReadIndex has error : {}", errMsg);
+            future.completeExceptionally(
+                    new ConsistencyException("The conformance protocol is temporarily unavailable for reading, " + errMsg));
+        });
+    }
+    
+    private void readLocally(final RequestProcessor processor, final ReadRequest request,
+            final CompletableFuture<Response> future) {
+        try {
+            Response response = processor.onRequest(request);
+            future.complete(response);
+        } catch (Throwable t) {
+            MetricsMonitor.raftReadIndexFailed();
+            future.completeExceptionally(
+                    new ConsistencyException("The conformance protocol is temporarily unavailable for reading", t));
+        }
+    }
+    
     public void readFromLeader(final ReadRequest request, final CompletableFuture<Response> future) {
         commit(request.getGroup(), request, future).whenComplete(new BiConsumer<Response, Throwable>() {
             @Override
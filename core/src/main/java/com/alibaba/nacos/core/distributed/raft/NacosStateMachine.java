@@ -80,6 +80,8 @@ class NacosStateMachine extends StateMachineAdapter {
     
     private Node node;
     
+    private volatile ReadLease readLease;
+    
     private volatile long term = -1;
     
     private volatile String leaderIp = "unknown";
@@ -143,6 +145,12 @@ class NacosStateMachine extends StateMachineAdapter {
     
     public void setNode(Node node) {
         this.node = node;
+        this.readLease = new ReadLease(node, () -> JRaftUtils.getCurrentTerm(node),
+                node.getOptions().getLeaderLeaseTimeoutMs());
+    }
+    
+    ReadLease getReadLease() {
+        return readLease;
     }
     
     @Override
@@ -126,6 +126,16 @@ public final class RaftSysConstants {
      */
     public static final boolean DEFAULT_ENABLE_LOG_ENTRY_CHECKSUM = false;
     
+    /**
+     * {@link RaftSysConstants#READ_CONSISTENCY}
+     */
+    public static final String DEFAULT_READ_CONSISTENCY = "LINEARIZABLE";
+    
+    /**
+     * {@link RaftSysConstants#FOLLOWER_READ_MAX_STALENESS_MS}
+     */
+    public static final long DEFAULT_FOLLOWER_READ_MAX_STALENESS_MS = 1000L;
+    
     // ========= setting key ========= //
     
     /**
@@ -231,4 +241,15 @@ public final class RaftSysConstants {
      * Whether to enable LogEntry checksum
      */
     public static final String ENABLE_LOG_ENTRY_CHECKSUM = "enable_log_entry_checksum";
+    
+    /**
+     * Default read consistency of the groups: LINEARIZABLE, LEASE or FOLLOWER. A group overrides it with the key
+     * {@code read_consistency.<group>}, a read request with its extend info readConsistency
+     */
+    public static final String READ_CONSISTENCY = "read_consistency";
+    
+    /**
+     * Default staleness budget of FOLLOWER reads, a read request overrides it with its extend info maxStalenessMs
+     */
+    public static final String FOLLOWER_READ_MAX_STALENESS_MS = "follower_read_max_staleness_ms";
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.distributed.raft;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.closure.ReadIndexClosure;
+import com.alipay.sofa.jraft.util.BytesUtil;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks when the local state of a raft group was last confirmed up to date.
+ *
+ * <p>A successful ReadIndex issued at {@code t} proves that the local state machine has applied everything committed
+ * before {@code t}, and on the leader that a majority still followed it at {@code t}. Followers do not vote for
+ * another leader within the election timeout after hearing from the leader, so the leader may serve reads locally
+ * until {@code t} plus its lease timeout. Any member may serve reads tolerating a staleness of {@code now - t}.
+ * The confirmation is keyed to the term the node was in when the ReadIndex was issued, and the lease only holds while
+ * the node is still the leader of that term. The term is read from the node itself rather than from the state machine
+ * callbacks, which run asynchronously and may lag behind a step down and re-election.
+ *
+ * @author nacos
+ */
+final class ReadLease {
+    
+    private final Node node;
+    
+    private final LongSupplier currentTerm;
+    
+    private final long leaseNanos;
+    
+    private volatile Confirmation confirmation;
+    
+    private CompletableFuture<Status> refreshing;
+    
+    ReadLease(Node node, LongSupplier currentTerm, long leaseMs) {
+        this.node = node;
+        this.currentTerm = currentTerm;
+        this.leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMs);
+    }
+    
+    /**
+     * Whether this member is the leader of the confirmed term and may read locally without a round trip.
+     *
+     * @return leader lease is valid
+     */
+    boolean isLeaseValid() {
+        if (!node.isLeader()) {
+            return false;
+        }
+        final Confirmation last = confirmation;
+        return null != last && last.term >= 0 && last.term == currentTerm.getAsLong() && last.isFresh(leaseNanos);
+    }
+    
+    /**
+     * Whether the local state was confirmed up to date within the given staleness.
+     *
+     * @param maxStalenessNanos staleness budget
+     * @return local state is fresh enough
+     */
+    boolean isFresh(long maxStalenessNanos) {
+        final Confirmation last = confirmation;
+        return null != last && last.isFresh(maxStalenessNanos);
+    }
+    
+    private synchronized void confirm(long startTerm, long startNanos) {
+        final Confirmation last = confirmation;
+        if (null == last || last.precedes(startTerm, startNanos)) {
+            confirmation = new Confirmation(startTerm, startNanos);
+        }
+    }
+    
+    /**
+     * Issue a ReadIndex, the returned future completes once the local state machine caught up with it.
+     *
+     * @return status of the ReadIndex
+     */
+    CompletableFuture<Status> readIndex() {
+        final CompletableFuture<Status> future = new CompletableFuture<>();
+        final long startTerm = currentTerm.getAsLong();
+        final long startNanos = System.nanoTime();
+        node.readIndex(BytesUtil.EMPTY_BYTES, new ReadIndexClosure() {
+            @Override
+            public void run(Status status, long index, byte[] reqCtx) {
+                if (status.isOk()) {
+                    confirm(startTerm, startNanos);
+                }
+                future.complete(status);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Refresh the confirmation, concurrent callers share the ReadIndex in flight.
+     *
+     * <p>A caller joining a ReadIndex issued before its arrival reads a state at most one round trip older than its
+     * arrival, which is fine within a staleness budget but not for linearizable reads.
+     *
+     * @return status of the shared ReadIndex
+     */
+    CompletableFuture<Status> refresh() {
+        final CompletableFuture<Status> shared;
+        synchronized (this) {
+            if (null != refreshing) {
+                return refreshing;
+            }
+            shared = new CompletableFuture<>();
+            refreshing = shared;
+        }
+        try {
+            readIndex().whenComplete((status, throwable) -> {
+                clearRefreshing(shared);
+                if (null != throwable) {
+                    shared.completeExceptionally(throwable);
+                } else {
+                    shared.complete(status);
+                }
+            });
+        } catch (Throwable e) {
+            clearRefreshing(shared);
+            shared.completeExceptionally(e);
+        }
+        return shared;
+    }
+    
+    private synchronized void clearRefreshing(CompletableFuture<Status> shared) {
+        if (refreshing == shared) {
+            refreshing = null;
+        }
+    }
+    
+    private static final class Confirmation {
+        
+        private final long term;
+        
+        private final long nanos;
+        
+        Confirmation(long term, long nanos) {
+            this.term = term;
+            this.nanos = nanos;
+        }
+        
+        boolean isFresh(long maxStalenessNanos) {
+            return System.nanoTime() - nanos <= maxStalenessNanos;
+        }
+        
+        boolean precedes(long otherTerm, long otherNanos) {
+            return term < otherTerm || term == otherTerm && otherNanos - nanos > 0;
+        }
+    }
+}
@@ -31,9 +31,11 @@ import com.alibaba.nacos.sys.utils.ApplicationUtils;
 import com.alibaba.nacos.core.utils.Loggers;
 import com.alibaba.nacos.sys.utils.DiskUtils;
 import com.alipay.sofa.jraft.CliService;
+import com.alipay.sofa.jraft.Node;
 import com.alipay.sofa.jraft.RouteTable;
 import com.alipay.sofa.jraft.Status;
 import com.alipay.sofa.jraft.conf.Configuration;
+import com.alipay.sofa.jraft.core.NodeImpl;
 import com.alipay.sofa.jraft.entity.PeerId;
 import com.alipay.sofa.jraft.option.NodeOptions;
 import com.alipay.sofa.jraft.rpc.RaftRpcServerFactory;
@@ -43,6 +45,7 @@ import com.alipay.sofa.jraft.rpc.impl.MarshallerRegistry;
 import com.alipay.sofa.jraft.util.RpcFactoryHelper;
 
 import java.io.File;
+import java.lang.reflect.Method;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.HashSet;
@@ -59,6 +62,8 @@ import java.util.stream.Collectors;
 @SuppressWarnings("all")
 public class JRaftUtils {
     
+    private static final Method CURRENT_TERM = findCurrentTerm();
+    
     public static RpcServer initRpcServer(JRaftServer server, PeerId peerId) {
         GrpcRaftRpcFactory raftRpcFactory = (GrpcRaftRpcFactory) RpcFactoryHelper.rpcFactory();
         raftRpcFactory.registerProtobufSerializer(Log.class.getName(), Log.getDefaultInstance());
@@ -142,4 +147,33 @@ public class JRaftUtils {
         }
     }
     
+    /**
+     * Get the current term of the node, JRaft only exposes it package-privately on {@link NodeImpl}.
+     *
+     * @param node raft node
+     * @return current term, or -1 if it can not be read
+     */
+    public static long getCurrentTerm(Node node) {
+        if (null == CURRENT_TERM || !(node instanceof NodeImpl)) {
+            return -1L;
+        }
+        try {
+            return (long) CURRENT_TERM.invoke(node);
+        } catch (Throwable e) {
+            Loggers.RAFT.warn("Failed to read the current term of {} : {}", node.getGroupId(), e.toString());
+            return -1L;
+        }
+    }
+    
+    private static Method findCurrentTerm() {
+        try {
+            Method method = NodeImpl.class.getDeclaredMethod("getCurrentTerm");
+            method.setAccessible(true);
+            return method;
+        } catch (Throwable e) {
+            Loggers.RAFT.warn("Current term of raft nodes is not readable, lease reads are disabled : {}", e.toString());
+            return null;
+        }
+    }
+    
 }
@@ -16,9 +16,19 @@
 
 package com.alibaba.nacos.core.monitor;
 
+import com.alibaba.nacos.consistency.cp.ReadConsistency;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.ImmutableTag;
+import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * The Metrics center.
  *
@@ -34,12 +44,18 @@ public final class MetricsMonitor {
     
     private static final Timer RAFT_APPLY_READ_TIMER;
     
+    private static final Map<ReadConsistency, Timer> RAFT_READ_TIMERS = new EnumMap<>(ReadConsistency.class);
+    
     static {
         RAFT_READ_INDEX_FAILED = NacosMeterRegistry.summary("protocol", "raft_read_index_failed");
         RAFT_FROM_LEADER = NacosMeterRegistry.summary("protocol", "raft_read_from_leader");
         
         RAFT_APPLY_LOG_TIMER = NacosMeterRegistry.timer("protocol", "raft_apply_log_timer");
         RAFT_APPLY_READ_TIMER = NacosMeterRegistry.timer("protocol", "raft_apply_read_timer");
+        for (ReadConsistency each : ReadConsistency.values()) {
+            RAFT_READ_TIMERS.put(each, NacosMeterRegistry.timer("protocol", "raft_read_latency",
+                    Collections.singletonList(new ImmutableTag("consistency", each.name())), 0.5D, 0.99D));
+        }
     }
     
     public static void raftReadIndexFailed() {
@@ -57,4 +73,21 @@ public final class MetricsMonitor {
     public static Timer getRaftApplyReadTimer() {
         return RAFT_APPLY_READ_TIMER;
     }
+    
+    /**
+     * Latency of raft reads served with the given consistency.
+     *
+     * @param consistency read consistency
+     * @return timer
+     */
+    public static Timer getRaftReadTimer(ReadConsistency consistency) {
+        return RAFT_READ_TIMERS.get(consistency);
+    }
+    
+    public static Counter getTpsRejectedCounter(String pointName, String dimension) {
+        List<Tag> tags = new ArrayList<>(2);
+        tags.add(new ImmutableTag("point", pointName));
+        tags.add(new ImmutableTag("dimension", dimension));
+        return NacosMeterRegistry.counter("core", "tps_rejected", tags);
+    }
 }
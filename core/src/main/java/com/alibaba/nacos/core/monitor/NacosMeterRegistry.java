@@ -16,14 +16,18 @@
 
 package com.alibaba.nacos.core.monitor;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.ImmutableTag;
+import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Metrics unified usage center.
@@ -33,14 +37,25 @@ import java.util.List;
 @SuppressWarnings("all")
 public final class NacosMeterRegistry {
     
+    /**
+     * The untyped {@code nacos_monitor} summaries and timers are kept out of the global registry, they would clash
+     * with the {@code nacos_monitor} gauges of the modules in prometheus.
+     */
+    private static final CompositeMeterRegistry LEGACY_REGISTRY = new CompositeMeterRegistry();
+    
     private static final CompositeMeterRegistry METER_REGISTRY = new CompositeMeterRegistry();
     
+    static {
+        // Bridge to the global registry so that the meters can be exported by the registries spring boot configured.
+        METER_REGISTRY.add(Metrics.globalRegistry);
+    }
+    
     public static DistributionSummary summary(String module, String name) {
         ImmutableTag moduleTag = new ImmutableTag("module", module);
         List<Tag> tags = new ArrayList<>();
         tags.add(moduleTag);
         tags.add(new ImmutableTag("name", name));
-        return METER_REGISTRY.summary("nacos_monitor", tags);
+        return LEGACY_REGISTRY.summary("nacos_monitor", tags);
     }
     
     public static Timer timer(String module, String name) {
@@ -48,7 +63,64 @@ public final class NacosMeterRegistry {
         List<Tag> tags = new ArrayList<>();
         tags.add(moduleTag);
         tags.add(new ImmutableTag("name", name));
-        return METER_REGISTRY.timer("nacos_monitor", tags);
+        return LEGACY_REGISTRY.timer("nacos_monitor", tags);
+    }
+    
+    /**
+     * Create or get a timer named {@code nacos_<name>} with extra tags, which publishes the given percentiles.
+     *
+     * <p>Meters with extra tags are not named {@code nacos_monitor}, because prometheus requires all meters with the
+     * same name to have the same tag keys.
+     *
+     * @param module      module name
+     * @param name        metrics name
+     * @param extraTags   extra tags
+     * @param percentiles percentiles to publish, such as 0.5 and 0.99
+     * @return {@link Timer}
+     */
+    public static Timer timer(String module, String name, List<Tag> extraTags, double... percentiles) {
+        return Timer.builder(meterName(name)).tags(buildTags(module, extraTags)).publishPercentiles(percentiles)
+                .register(METER_REGISTRY);
+    }
+    
+    /**
+     * Create or get a counter named {@code nacos_<name>} with extra tags.
+     *
+     * @param module    module name
+     * @param name      metrics name
+     * @param extraTags extra tags
+     * @return {@link Counter}
+     */
+    public static Counter counter(String module, String name, List<Tag> extraTags) {
+        return METER_REGISTRY.counter(meterName(name), buildTags(module, extraTags));
+    }
+    
+    /**
+     * Register a gauge named {@code nacos_<name>} with extra tags, the object is weak referenced by the gauge.
+     *
+     * @param module    module name
+     * @param name      metrics name
+     * @param extraTags extra tags
+     * @param obj       the object to gauge
+     * @param function  function to get the gauge value
+     * @param <T>       type of the object
+     * @return {@link Gauge}
+     */
+    public static <T> Gauge gauge(String module, String name, List<Tag> extraTags, T obj,
+            ToDoubleFunction<T> function) {
+        return Gauge.builder(meterName(name), obj, function).tags(buildTags(module, extraTags))
+                .register(METER_REGISTRY);
+    }
+    
+    private static String meterName(String name) {
+        return "nacos_" + name;
+    }
+    
+    private static List<Tag> buildTags(String module, List<Tag> extraTags) {
+        List<Tag> tags = new ArrayList<>(extraTags.size() + 1);
+        tags.add(new ImmutableTag("module", module));
+        tags.addAll(extraTags);
+        return tags;
     }
     
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.monitor;
+
+import com.alibaba.nacos.common.notify.Event;
+import com.alibaba.nacos.common.notify.EventPublisher;
+import com.alibaba.nacos.common.notify.EventPublisherMonitor;
+import com.alibaba.nacos.common.notify.NotifyCenter;
+import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.core.utils.GlobalExecutor;
+import com.alibaba.nacos.core.utils.Loggers;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.ImmutableTag;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics of {@link NotifyCenter}, exports queue depth, publish count, inline-executed and dropped events of every
+ * publisher, and the cost of {@link Subscriber#onEvent(Event)} of every subscriber.
+ *
+ * <p>The p99 cost of every subscriber is checked periodically, subscribers slower than
+ * {@code nacos.core.notify.slow-subscriber-threshold-ms} are flagged and logged.
+ *
+ * @author nacos
+ */
+@Component
+public class NotifyCenterMonitor implements EventPublisherMonitor {
+    
+    private static final String MODULE = "core";
+    
+    private static final String SLOW_THRESHOLD_PROPERTY = "nacos.core.notify.slow-subscriber-threshold-ms";
+    
+    private static final long DEFAULT_SLOW_THRESHOLD_MS = 1000L;
+    
+    private static final long CHECK_INTERVAL_MS = 30000L;
+    
+    private final long slowThresholdNanos;
+    
+    private final Map<Class<? extends Event>, EventMeters> eventMeters = new ConcurrentHashMap<>(16);
+    
+    private final Map<Subscriber, Map<Class<? extends Event>, SubscriberMeters>> subscriberMeters = new ConcurrentHashMap<>(
+            16);
+    
+    private final AtomicInteger slowSubscriberCount = new AtomicInteger();
+    
+    public NotifyCenterMonitor() {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS
+                .toNanos(EnvUtil.getProperty(SLOW_THRESHOLD_PROPERTY, Long.class, DEFAULT_SLOW_THRESHOLD_MS));
+        NacosMeterRegistry.gauge(MODULE, "notify_slow_subscriber_count", Collections.emptyList(), slowSubscriberCount,
+                AtomicInteger::get);
+        NotifyCenter.setPublisherMonitor(this);
+        GlobalExecutor.scheduleWithFixDelayByCommon(this::checkSlowSubscribers, CHECK_INTERVAL_MS);
+    }
+    
+    @Override
+    public void onPublisherRegistered(String topic, EventPublisher publisher) {
+        NacosMeterRegistry.gauge(MODULE, "notify_queue_size", topicTags(topic), publisher,
+                EventPublisher::currentEventSize);
+    }
+    
+    @Override
+    public void onPublished(Class<? extends Event> eventType) {
+        getEventMeters(eventType).published.increment();
+    }
+    
+    @Override
+    public void onInlineExecuted(Class<? extends Event> eventType) {
+        getEventMeters(eventType).inlineExecuted.increment();
+    }
+    
+    @Override
+    public void onDropped(Class<? extends Event> eventType) {
+        getEventMeters(eventType).dropped.increment();
+    }
+    
+    @Override
+    public void onSubscriberFinished(Class<? extends Event> eventType, Subscriber subscriber, long costNanos) {
+        Map<Class<? extends Event>, SubscriberMeters> metersOfTypes = subscriberMeters.get(subscriber);
+        if (metersOfTypes == null) {
+            metersOfTypes = subscriberMeters.computeIfAbsent(subscriber, k -> new ConcurrentHashMap<>(4));
+        }
+        SubscriberMeters meters = metersOfTypes.get(eventType);
+        if (meters == null) {
+            meters = metersOfTypes.computeIfAbsent(eventType, k -> new SubscriberMeters(eventType, subscriber));
+        }
+        meters.record(costNanos);
+    }
+    
+    /**
+     * Check the p99 cost of every subscriber since last check, and flag the slow ones.
+     */
+    void checkSlowSubscribers() {
+        int slowCount = 0;
+        for (Map<Class<? extends Event>, SubscriberMeters> metersOfTypes : subscriberMeters.values()) {
+            slowCount += checkSlowSubscribers(metersOfTypes);
+        }
+        slowSubscriberCount.set(slowCount);
+    }
+    
+    private int checkSlowSubscribers(Map<Class<? extends Event>, SubscriberMeters> metersOfTypes) {
+        int slowCount = 0;
+        for (SubscriberMeters meters : metersOfTypes.values()) {
+            final long p99 = meters.p99AndReset();
+            if (p99 < 0) {
+                if (meters.slow) {
+                    slowCount++;
+                }
+                continue;
+            }
+            final boolean slow = p99 > slowThresholdNanos;
+            if (slow && !meters.slow) {
+                Loggers.CORE.warn("[NotifyCenter] subscriber {} of {} is slow, p99 cost {} ms exceeds {} ms",
+                        meters.subscriberName, meters.topic, TimeUnit.NANOSECONDS.toMillis(p99),
+                        TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos));
+            } else if (!slow && meters.slow) {
+                Loggers.CORE.info("[NotifyCenter] subscriber {} of {} recovered, p99 cost {} ms",
+                        meters.subscriberName, meters.topic, TimeUnit.NANOSECONDS.toMillis(p99));
+            }
+            meters.slow = slow;
+            if (slow) {
+                slowCount++;
+            }
+        }
+        return slowCount;
+    }
+    
+    boolean isSlow(Class<? extends Event> eventType, Subscriber subscriber) {
+        Map<Class<? extends Event>, SubscriberMeters> metersOfTypes = subscriberMeters.get(subscriber);
+        if (metersOfTypes == null) {
+            return false;
+        }
+        SubscriberMeters meters = metersOfTypes.get(eventType);
+        return meters != null && meters.slow;
+    }
+    
+    private EventMeters getEventMeters(Class<? extends Event> eventType) {
+        EventMeters meters = eventMeters.get(eventType);
+        if (meters == null) {
+            meters = eventMeters.computeIfAbsent(eventType, EventMeters::new);
+        }
+        return meters;
+    }
+    
+    private static List<Tag> topicTags(String topic) {
+        return Collections.singletonList(new ImmutableTag("topic", topic));
+    }
+    
+    private static class EventMeters {
+        
+        private final Counter published;
+        
+        private final Counter inlineExecuted;
+        
+        private final Counter dropped;
+        
+        EventMeters(Class<? extends Event> eventType) {
+            final List<Tag> tags = topicTags(eventType.getCanonicalName());
+            this.published = NacosMeterRegistry.counter(MODULE, "notify_publish_count", tags);
+            this.inlineExecuted = NacosMeterRegistry.counter(MODULE, "notify_inline_execute_count", tags);
+            this.dropped = NacosMeterRegistry.counter(MODULE, "notify_drop_count", tags);
+        }
+    }
+    
+    private static class SubscriberMeters {
+        
+        private static final int SAMPLE_SIZE = 1024;
+        
+        private static final double PERCENTILE = 0.99D;
+        
+        private final String topic;
+        
+        private final String subscriberName;
+        
+        private final Timer timer;
+        
+        /**
+         * Reservoir of the latest costs since last check, racy writes are acceptable for monitoring.
+         */
+        private final long[] samples = new long[SAMPLE_SIZE];
+        
+        private final AtomicInteger sampleCount = new AtomicInteger();
+        
+        private volatile boolean slow = false;
+        
+        SubscriberMeters(Class<? extends Event> eventType, Subscriber subscriber) {
+            this.topic = eventType.getCanonicalName();
+            this.subscriberName = subscriber.getClass().getName();
+            this.timer = NacosMeterRegistry.timer(MODULE, "notify_subscriber_cost",
+                    Arrays.asList(new ImmutableTag("topic", topic), new ImmutableTag("subscriber", subscriberName)),
+                    0.5D, PERCENTILE);
+        }
+        
+        void record(long costNanos) {
+            timer.record(costNanos, TimeUnit.NANOSECONDS);
+            samples[(sampleCount.getAndIncrement() & Integer.MAX_VALUE) % SAMPLE_SIZE] = costNanos;
+        }
+        
+        long p99AndReset() {
+            final int count = Math.min(sampleCount.getAndSet(0), SAMPLE_SIZE);
+            if (count == 0) {
+                return -1L;
+            }
+            final long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy[(int) Math.ceil(count * PERCENTILE) - 1];
+        }
+    }
+}
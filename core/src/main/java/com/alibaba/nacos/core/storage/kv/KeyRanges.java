@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.storage.kv;
+
+import com.alipay.sofa.jraft.util.BytesUtil;
+
+/**
+ * Key range helpers shared by the {@link KvStorage} implementations.
+ *
+ * @author nacos
+ */
+final class KeyRanges {
+    
+    private static final int UNSIGNED_MASK = 0xFF;
+    
+    private KeyRanges() {
+    }
+    
+    /**
+     * Whether the key falls in {@code [startKey, endKey)}, a {@code null} bound is unbounded.
+     */
+    static boolean contains(byte[] startKey, byte[] endKey, byte[] key) {
+        if (null != startKey && BytesUtil.compare(key, startKey) < 0) {
+            return false;
+        }
+        return null == endKey || BytesUtil.compare(key, endKey) < 0;
+    }
+    
+    /**
+     * The smallest key greater than every key starting with {@code prefix}.
+     *
+     * @return exclusive upper bound, or {@code null} if the prefix is empty or all {@code 0xFF}
+     */
+    static byte[] prefixEnd(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if ((prefix[i] & UNSIGNED_MASK) != UNSIGNED_MASK) {
+                byte[] end = new byte[i + 1];
+                System.arraycopy(prefix, 0, end, 0, i + 1);
+                end[i]++;
+                return end;
+            }
+        }
+        return null;
+    }
+}
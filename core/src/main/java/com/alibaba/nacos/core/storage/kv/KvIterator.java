@@ -0,0 +1,34 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.storage.kv;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Cursor over the entries of a {@link KvStorage} in unsigned lexicographic key order, must be closed after use.
+ *
+ * @author nacos
+ */
+public interface KvIterator extends Iterator<Map.Entry<byte[], byte[]>>, AutoCloseable {
+    
+    /**
+     * Release what the cursor holds, such as the snapshot it reads from.
+     */
+    @Override
+    void close();
+}
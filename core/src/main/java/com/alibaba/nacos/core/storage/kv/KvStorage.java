@@ -17,7 +17,9 @@
 package com.alibaba.nacos.core.storage.kv;
 
 import com.alibaba.nacos.core.exception.KvStorageException;
+import com.alipay.sofa.jraft.util.BytesUtil;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +41,11 @@ public interface KvStorage {
          */
         Memory,
     
+        /**
+         * Local append-only log storage.
+         */
+        Log,
+    
         /**
          * RocksDB storage.
          */
@@ -122,6 +129,39 @@ public interface KvStorage {
      */
     List<byte[]> allKeys() throws KvStorageException;
     
+    /**
+     * Iterate the entries whose keys fall in {@code [startKey, endKey)} in unsigned lexicographic key order.
+     *
+     * <p>The default implementation sorts the matching keys of {@link #allKeys()} and reads values as the cursor
+     * reaches them, so it is neither streaming nor snapshot consistent. Ordered implementations override it.
+     *
+     * @param startKey inclusive lower bound, {@code null} means unbounded
+     * @param endKey   exclusive upper bound, {@code null} means unbounded
+     * @return cursor, must be closed
+     * @throws KvStorageException KVStorageException
+     */
+    default KvIterator rangeScan(byte[] startKey, byte[] endKey) throws KvStorageException {
+        List<byte[]> keys = new ArrayList<>();
+        for (byte[] each : allKeys()) {
+            if (KeyRanges.contains(startKey, endKey, each)) {
+                keys.add(each);
+            }
+        }
+        keys.sort(BytesUtil::compare);
+        return new LazyValueIterator(this, keys.iterator());
+    }
+    
+    /**
+     * Iterate the entries whose keys start with {@code prefix} in unsigned lexicographic key order.
+     *
+     * @param prefix key prefix
+     * @return cursor, must be closed
+     * @throws KvStorageException KVStorageException
+     */
+    default KvIterator prefixScan(byte[] prefix) throws KvStorageException {
+        return rangeScan(prefix, KeyRanges.prefixEnd(prefix));
+    }
+    
     /**
      * shutdown.
      */
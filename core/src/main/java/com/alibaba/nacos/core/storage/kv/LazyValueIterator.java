@@ -0,0 +1,76 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.storage.kv;
+
+import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import com.alibaba.nacos.core.exception.KvStorageException;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor over a precomputed ordered key list which reads each value when it is reached.
+ *
+ * <p>Keys deleted after the list was taken are skipped, so the cursor is not snapshot consistent.
+ *
+ * @author nacos
+ */
+class LazyValueIterator implements KvIterator {
+    
+    private final KvStorage storage;
+    
+    private final Iterator<byte[]> keys;
+    
+    private Map.Entry<byte[], byte[]> next;
+    
+    LazyValueIterator(KvStorage storage, Iterator<byte[]> keys) {
+        this.storage = storage;
+        this.keys = keys;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        while (null == next && keys.hasNext()) {
+            byte[] key = keys.next();
+            try {
+                byte[] value = storage.get(key);
+                if (null != value) {
+                    next = new AbstractMap.SimpleImmutableEntry<>(key, value);
+                }
+            } catch (KvStorageException e) {
+                throw new NacosRuntimeException(e.getErrCode(), e.getErrMsg(), e);
+            }
+        }
+        return null != next;
+    }
+    
+    @Override
+    public Map.Entry<byte[], byte[]> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<byte[], byte[]> result = next;
+        next = null;
+        return result;
+    }
+    
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,772 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.storage.kv;
+
+import com.alibaba.nacos.common.utils.IoUtils;
+import com.alibaba.nacos.core.exception.ErrorCode;
+import com.alibaba.nacos.core.exception.KvStorageException;
+import com.alibaba.nacos.core.utils.GlobalExecutor;
+import com.alibaba.nacos.core.utils.Loggers;
+import com.alibaba.nacos.sys.utils.DiskUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Kv storage based on an append-only log.
+ *
+ * <p>Every write is appended to the active segment file and the in-memory hash index only keeps the location of the
+ * newest record of each key, so a read is one positional read. Writers that arrive while an fsync is running are
+ * covered by the next one (group commit). Segments are immutable once sealed, which lets {@link #doSnapshot(String)}
+ * hard-link them instead of copying, and a background task rewrites the live records of segments that are mostly
+ * garbage.
+ *
+ * <p>Record layout: {@code crc32(4) | type(1) | keyLength(4) | valueLength(4) | key | value}, the crc covers
+ * everything after itself.
+ *
+ * @author nacos
+ */
+public class LogKvStorage implements KvStorage {
+    
+    static final String SEGMENT_SUFFIX = ".log";
+    
+    private static final int HEADER_SIZE = 13;
+    
+    private static final int CRC_SIZE = 4;
+    
+    private static final byte TYPE_PUT = 1;
+    
+    private static final byte TYPE_DELETE = 2;
+    
+    private static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+    
+    private static final double DEFAULT_COMPACT_RATIO = 0.5D;
+    
+    private static final long COMPACT_INTERVAL_MS = 60_000L;
+    
+    private final String baseDir;
+    
+    private final long segmentSize;
+    
+    private final boolean syncOnWrite;
+    
+    private final double compactRatio;
+    
+    private final Map<Key, Location> index = new ConcurrentHashMap<>();
+    
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    
+    /**
+     * Read lock for normal operations, write lock for replacing the whole data set.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+    
+    private final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+    
+    /**
+     * Serializes appends and index updates, so the index always points to the newest record in the log.
+     */
+    private final ReentrantLock appendLock = new ReentrantLock();
+    
+    /**
+     * Keeps compaction and snapshot apart, compaction deletes segments a snapshot may be linking.
+     */
+    private final ReentrantLock maintainLock = new ReentrantLock();
+    
+    private final Object syncMonitor = new Object();
+    
+    private final ScheduledFuture<?> compactFuture;
+    
+    private volatile Segment active;
+    
+    private volatile long appendedSeq;
+    
+    private long syncedSeq;
+    
+    private volatile boolean closed;
+    
+    public LogKvStorage(String baseDir) throws IOException {
+        this(baseDir, DEFAULT_SEGMENT_SIZE, true, DEFAULT_COMPACT_RATIO, COMPACT_INTERVAL_MS);
+    }
+    
+    LogKvStorage(String baseDir, long segmentSize, boolean syncOnWrite, double compactRatio, long compactIntervalMs)
+            throws IOException {
+        this.baseDir = baseDir;
+        this.segmentSize = segmentSize;
+        this.syncOnWrite = syncOnWrite;
+        this.compactRatio = compactRatio;
+        DiskUtils.forceMkdir(baseDir);
+        recover();
+        this.compactFuture =
+                compactIntervalMs > 0 ? GlobalExecutor.scheduleWithFixDelayByCommon(this::compact, compactIntervalMs)
+                        : null;
+    }
+    
+    @Override
+    public byte[] get(byte[] key) throws KvStorageException {
+        readLock.lock();
+        try {
+            return doGet(new Key(key));
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public Map<byte[], byte[]> batchGet(List<byte[]> keys) throws KvStorageException {
+        readLock.lock();
+        try {
+            Map<byte[], byte[]> result = new HashMap<>(keys.size());
+            for (byte[] key : keys) {
+                byte[] val = doGet(new Key(key));
+                if (val != null) {
+                    result.put(key, val);
+                }
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public void put(byte[] key, byte[] value) throws KvStorageException {
+        readLock.lock();
+        try {
+            long seq;
+            appendLock.lock();
+            try {
+                seq = doPut(key, value);
+            } finally {
+                appendLock.unlock();
+            }
+            sync(seq);
+        } catch (IOException e) {
+            throw new KvStorageException(ErrorCode.KVStorageWriteError, e);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public void batchPut(List<byte[]> keys, List<byte[]> values) throws KvStorageException {
+        if (keys.size() != values.size()) {
+            throw new KvStorageException(ErrorCode.KVStorageBatchWriteError, "key's size must be equal to value's size");
+        }
+        readLock.lock();
+        try {
+            long seq = 0L;
+            appendLock.lock();
+            try {
+                int size = keys.size();
+                for (int i = 0; i < size; i++) {
+                    seq = doPut(keys.get(i), values.get(i));
+                }
+            } finally {
+                appendLock.unlock();
+            }
+            sync(seq);
+        } catch (IOException e) {
+            throw new KvStorageException(ErrorCode.KVStorageBatchWriteError, e);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public void delete(byte[] key) throws KvStorageException {
+        batchDelete(Collections.singletonList(key));
+    }
+    
+    @Override
+    public void batchDelete(List<byte[]> keys) throws KvStorageException {
+        readLock.lock();
+        try {
+            long seq = 0L;
+            appendLock.lock();
+            try {
+                for (byte[] key : keys) {
+                    seq = Math.max(seq, doDelete(key));
+                }
+            } finally {
+                appendLock.unlock();
+            }
+            sync(seq);
+        } catch (IOException e) {
+            throw new KvStorageException(ErrorCode.KVStorageDeleteError, e);
+        } finally {
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public void doSnapshot(String backupPath) throws KvStorageException {
+        readLock.lock();
+        maintainLock.lock();
+        try {
+            appendLock.lock();
+            try {
+                if (active.size > 0) {
+                    roll();
+                }
+            } finally {
+                appendLock.unlock();
+            }
+            DiskUtils.forceMkdir(backupPath);
+            for (Segment each : segments.headMap(active.id).values()) {
+                linkOrCopy(each.file.toPath(), Paths.get(backupPath, each.file.getName()));
+            }
+        } catch (IOException e) {
+            throw new KvStorageException(ErrorCode.KVStorageSnapshotSaveError, e);
+        } finally {
+            maintainLock.unlock();
+            readLock.unlock();
+        }
+    }
+    
+    @Override
+    public void snapshotLoad(String path) throws KvStorageException {
+        writeLock.lock();
+        try {
+            File[] files = new File(path).listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+            // If snapshot path is non-exist, means snapshot is empty
+            if (null == files) {
+                return;
+            }
+            closeSegments();
+            DiskUtils.deleteDirThenMkdir(baseDir);
+            for (File each : files) {
+                linkOrCopy(each.toPath(), Paths.get(baseDir, each.getName()));
+            }
+            recover();
+        } catch (IOException e) {
+            throw new KvStorageException(ErrorCode.KVStorageSnapshotLoadError, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @Override
+    public List<byte[]> allKeys() throws KvStorageException {
+        List<byte[]> result = new ArrayList<>(index.size());
+        for (Key each : index.keySet()) {
+            result.add(each.origin);
+        }
+        return result;
+    }
+    
+    @Override
+    public void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (null != compactFuture) {
+            compactFuture.cancel(false);
+        }
+        writeLock.lock();
+        try {
+            active.force();
+        } catch (IOException e) {
+            Loggers.CORE.error("Force segment {} failed when shutdown.", active.file, e);
+        } finally {
+            closeSegments();
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Rewrite the live records of sealed segments whose garbage ratio reaches the threshold, then drop them.
+     */
+    void compact() {
+        if (closed) {
+            return;
+        }
+        readLock.lock();
+        if (!maintainLock.tryLock()) {
+            readLock.unlock();
+            return;
+        }
+        try {
+            List<Segment> candidates = new ArrayList<>();
+            for (Segment each : segments.headMap(active.id).values()) {
+                if (each.deadBytes.get() >= each.size * compactRatio) {
+                    candidates.add(each);
+                }
+            }
+            for (Segment each : candidates) {
+                compactSegment(each);
+            }
+        } catch (Throwable e) {
+            Loggers.CORE.error("Compact kv storage {} failed.", baseDir, e);
+        } finally {
+            maintainLock.unlock();
+            readLock.unlock();
+        }
+    }
+    
+    int segmentCount() {
+        return segments.size();
+    }
+    
+    private void compactSegment(Segment segment) throws IOException {
+        final boolean oldest = segments.firstKey() == segment.id;
+        long seq = 0L;
+        try (DataInputStream in = openStream(segment.file)) {
+            long offset = 0L;
+            while (offset < segment.size) {
+                Record record = readRecord(in, offset, segment.size);
+                if (null == record) {
+                    throw new IOException("Corrupted record in sealed segment " + segment.file + " at " + offset);
+                }
+                seq = Math.max(seq, transfer(segment, record, oldest));
+                offset += record.size();
+            }
+        }
+        sync(seq);
+        segments.remove(segment.id);
+        segment.delete();
+        Loggers.CORE.info("Compacted segment {} of kv storage {}.", segment.file.getName(), baseDir);
+    }
+    
+    /**
+     * Copy one record of a compacting segment to the log tail if it still matters.
+     *
+     * <p>A put is live only while the index points at it. A tombstone has to be kept while an older segment may still
+     * hold a put of that key, and only while the key is still absent, otherwise it would shadow a newer put on replay.
+     */
+    private long transfer(Segment segment, Record record, boolean oldest) throws IOException {
+        Key key = new Key(record.key);
+        appendLock.lock();
+        try {
+            if (TYPE_PUT == record.type) {
+                Location current = index.get(key);
+                if (null != current && current.segment == segment && current.offset == record.offset) {
+                    index.put(key, append(TYPE_PUT, record.key, record.value));
+                    return appendedSeq;
+                }
+            } else if (!oldest && !index.containsKey(key)) {
+                Location tombstone = append(TYPE_DELETE, record.key, record.value);
+                tombstone.segment.deadBytes.addAndGet(tombstone.size);
+                return appendedSeq;
+            }
+            return 0L;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    private byte[] doGet(Key key) throws KvStorageException {
+        for (; ; ) {
+            Location location = index.get(key);
+            if (null == location) {
+                return null;
+            }
+            try {
+                byte[] value = readValue(location);
+                if (null != value) {
+                    return value;
+                }
+            } catch (IOException e) {
+                throw new KvStorageException(ErrorCode.KVStorageReadError, e);
+            }
+        }
+    }
+    
+    /**
+     * Read the value a location points to.
+     *
+     * @return value, or {@code null} if the segment was dropped by compaction and the index must be consulted again
+     */
+    private byte[] readValue(Location location) throws IOException {
+        final Segment segment = location.segment;
+        ByteBuffer buffer = ByteBuffer.allocate(location.size);
+        for (; ; ) {
+            try {
+                segment.read(buffer, location.offset);
+                break;
+            } catch (ClosedByInterruptException e) {
+                // The interrupt closed the channel for every reader, reopen it before giving up.
+                segment.reopen();
+                throw e;
+            } catch (ClosedChannelException e) {
+                if (segment.deleted) {
+                    return null;
+                }
+                segment.reopen();
+                buffer.clear();
+            }
+        }
+        byte[] record = buffer.array();
+        CRC32 crc = new CRC32();
+        crc.update(record, CRC_SIZE, record.length - CRC_SIZE);
+        if ((int) crc.getValue() != buffer.getInt(0)) {
+            throw new IOException("Crc mismatch in segment " + segment.file + " at " + location.offset);
+        }
+        int keyLength = buffer.getInt(CRC_SIZE + 1);
+        return Arrays.copyOfRange(record, HEADER_SIZE + keyLength, record.length);
+    }
+    
+    private long doPut(byte[] key, byte[] value) throws IOException {
+        Location location = append(TYPE_PUT, key, value);
+        Location old = index.put(new Key(key), location);
+        if (null != old) {
+            old.segment.deadBytes.addAndGet(old.size);
+        }
+        return appendedSeq;
+    }
+    
+    private long doDelete(byte[] key) throws IOException {
+        Location old = index.remove(new Key(key));
+        if (null == old) {
+            return 0L;
+        }
+        old.segment.deadBytes.addAndGet(old.size);
+        Location tombstone = append(TYPE_DELETE, key, new byte[0]);
+        tombstone.segment.deadBytes.addAndGet(tombstone.size);
+        return appendedSeq;
+    }
+    
+    /**
+     * Append a record to the active segment, must hold {@link #appendLock}.
+     */
+    private Location append(byte type, byte[] key, byte[] value) throws IOException {
+        final int size = HEADER_SIZE + key.length + value.length;
+        if (active.size > 0 && active.size + size > segmentSize) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(0).put(type).putInt(key.length).putInt(value.length).put(key).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), CRC_SIZE, size - CRC_SIZE);
+        buffer.putInt(0, (int) crc.getValue());
+        buffer.flip();
+        final Segment segment = active;
+        final long offset = segment.size;
+        segment.write(buffer, offset);
+        segment.size = offset + size;
+        appendedSeq++;
+        return new Location(segment, offset, size);
+    }
+    
+    /**
+     * Seal the active segment and start a new one, must hold {@link #appendLock}.
+     */
+    private void roll() throws IOException {
+        Segment sealed = active;
+        sealed.force();
+        Segment next = new Segment(sealed.id + 1, segmentFile(sealed.id + 1));
+        segments.put(next.id, next);
+        active = next;
+    }
+    
+    /**
+     * Make sure every record up to {@code seq} is on disk. Only one thread forces at a time and a single force covers
+     * all records appended before it started, so concurrent writers share the fsync.
+     */
+    private void sync(long seq) throws IOException {
+        if (!syncOnWrite || seq <= 0) {
+            return;
+        }
+        synchronized (syncMonitor) {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            // Read the sequence before the segment: records of a segment rolled in between were forced by the roll.
+            final long target = appendedSeq;
+            active.force();
+            syncedSeq = target;
+        }
+    }
+    
+    private void recover() throws IOException {
+        index.clear();
+        segments.clear();
+        File[] files = new File(baseDir).listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        List<Segment> recovered = new ArrayList<>();
+        if (null != files) {
+            for (File each : files) {
+                String name = each.getName();
+                recovered.add(new Segment(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+                        each));
+            }
+        }
+        recovered.sort((o1, o2) -> Long.compare(o1.id, o2.id));
+        long nextId = 1L;
+        for (int i = 0; i < recovered.size(); i++) {
+            Segment segment = recovered.get(i);
+            replay(segment, i == recovered.size() - 1);
+            nextId = segment.id + 1;
+            if (segment.size == 0) {
+                segment.delete();
+            } else {
+                segments.put(segment.id, segment);
+            }
+        }
+        active = new Segment(nextId, segmentFile(nextId));
+        segments.put(active.id, active);
+    }
+    
+    private void replay(Segment segment, boolean last) throws IOException {
+        final long length = segment.file.length();
+        long offset = 0L;
+        try (DataInputStream in = openStream(segment.file)) {
+            Record record;
+            while (offset < length && null != (record = readRecord(in, offset, length))) {
+                Key key = new Key(record.key);
+                Location old;
+                if (TYPE_PUT == record.type) {
+                    old = index.put(key, new Location(segment, offset, record.size()));
+                } else {
+                    old = index.remove(key);
+                    segment.deadBytes.addAndGet(record.size());
+                }
+                if (null != old) {
+                    old.segment.deadBytes.addAndGet(old.size);
+                }
+                offset += record.size();
+            }
+        }
+        if (offset < length) {
+            if (!last) {
+                throw new IOException("Corrupted record in sealed segment " + segment.file + " at " + offset);
+            }
+            // A torn write at the tail of the newest segment, the records after it were never acknowledged.
+            Loggers.CORE.warn("Truncate segment {} from {} to {}.", segment.file, length, offset);
+            segment.truncate(offset);
+        }
+        segment.size = offset;
+    }
+    
+    /**
+     * Read the record at {@code offset}.
+     *
+     * @return record, or {@code null} if it is torn or corrupted
+     */
+    private static Record readRecord(DataInputStream in, long offset, long limit) throws IOException {
+        try {
+            final int crcValue = in.readInt();
+            byte[] header = new byte[HEADER_SIZE - CRC_SIZE];
+            in.readFully(header);
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            final byte type = headerBuffer.get();
+            final int keyLength = headerBuffer.getInt();
+            final int valueLength = headerBuffer.getInt();
+            boolean illegal = (type != TYPE_PUT && type != TYPE_DELETE) || keyLength < 0 || valueLength < 0
+                    || offset + HEADER_SIZE + keyLength + valueLength > limit;
+            if (illegal) {
+                return null;
+            }
+            Record record = new Record(offset, type, new byte[keyLength], new byte[valueLength]);
+            in.readFully(record.key);
+            in.readFully(record.value);
+            CRC32 crc = new CRC32();
+            crc.update(header);
+            crc.update(record.key);
+            crc.update(record.value);
+            return (int) crc.getValue() == crcValue ? record : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+    
+    private static DataInputStream openStream(File file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())));
+    }
+    
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Different file system, fall back to copy.
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private File segmentFile(long id) {
+        return Paths.get(baseDir, String.format("%020d%s", id, SEGMENT_SUFFIX)).toFile();
+    }
+    
+    private void closeSegments() {
+        for (Segment each : segments.values()) {
+            each.close();
+        }
+        segments.clear();
+        index.clear();
+    }
+    
+    private static final class Segment {
+        
+        private final long id;
+        
+        private final File file;
+        
+        private final AtomicLong deadBytes = new AtomicLong();
+        
+        private volatile FileChannel channel;
+        
+        private volatile long size;
+        
+        private volatile boolean deleted;
+        
+        private Segment(long id, File file) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.channel = open(file);
+        }
+        
+        private static FileChannel open(File file) throws IOException {
+            return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+        
+        private void write(ByteBuffer buffer, long position) throws IOException {
+            long current = position;
+            while (buffer.hasRemaining()) {
+                current += channel.write(buffer, current);
+            }
+        }
+        
+        private void read(ByteBuffer buffer, long position) throws IOException {
+            long current = position;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, current);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of segment " + file + " at " + current);
+                }
+                current += read;
+            }
+        }
+        
+        private void force() throws IOException {
+            channel.force(false);
+        }
+        
+        private void truncate(long length) throws IOException {
+            channel.truncate(length);
+            force();
+        }
+        
+        private synchronized void reopen() throws IOException {
+            if (!deleted && !channel.isOpen()) {
+                channel = open(file);
+            }
+        }
+        
+        private void close() {
+            IoUtils.closeQuietly(channel);
+        }
+        
+        private void delete() {
+            deleted = true;
+            close();
+            DiskUtils.deleteQuietly(file);
+        }
+    }
+    
+    private static final class Location {
+        
+        private final Segment segment;
+        
+        private final long offset;
+        
+        private final int size;
+        
+        private Location(Segment segment, long offset, int size) {
+            this.segment = segment;
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+    
+    private static final class Record {
+        
+        private final long offset;
+        
+        private final byte type;
+        
+        private final byte[] key;
+        
+        private final byte[] value;
+        
+        private Record(long offset, byte type, byte[] key, byte[] value) {
+            this.offset = offset;
+            this.type = type;
+            this.key = key;
+            this.value = value;
+        }
+        
+        private int size() {
+            return HEADER_SIZE + key.length + value.length;
+        }
+    }
+    
+    private static final class Key {
+        
+        private final byte[] origin;
+        
+        private final int hash;
+        
+        private Key(byte[] origin) {
+            this.origin = origin;
+            this.hash = Arrays.hashCode(origin);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(origin, ((Key) o).origin);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
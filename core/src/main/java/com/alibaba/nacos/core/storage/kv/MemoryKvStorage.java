@@ -20,32 +20,58 @@ import com.alibaba.nacos.core.exception.ErrorCode;
 import com.alibaba.nacos.core.exception.KvStorageException;
 import com.alipay.sofa.jraft.util.BytesUtil;
 
+import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Realization of KV storage based on memory.
  *
+ * <p>Entries are kept ordered in a skip list. Each write gets a sequence and keeps the versions an open cursor may
+ * still need, so cursors see the storage as of the moment they were opened: writes completed before are visible,
+ * writes started after are not. Without open cursors only the newest version is kept.
+ *
  * @author <a href="mailto:liaochuntao@live.com">liaochuntao</a>
  */
 public class MemoryKvStorage implements KvStorage {
     
-    private final Map<Key, byte[]> storage = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Key, Version> storage = new ConcurrentSkipListMap<>();
+    
+    /**
+     * Sequence of the latest write.
+     */
+    private final AtomicLong clock = new AtomicLong();
+    
+    /**
+     * Sequences pinned by open cursors and how many cursors pinned each.
+     */
+    private final ConcurrentSkipListMap<Long, Integer> pinned = new ConcurrentSkipListMap<>();
+    
+    /**
+     * Whether versions were kept for cursors and should be dropped once the last cursor is closed.
+     */
+    private volatile boolean retained;
     
     @Override
     public byte[] get(byte[] key) throws KvStorageException {
-        return storage.get(new Key(key));
+        Version version = storage.get(new Key(key));
+        return null == version ? null : version.value;
     }
     
     @Override
     public Map<byte[], byte[]> batchGet(List<byte[]> keys) throws KvStorageException {
         Map<byte[], byte[]> result = new HashMap<>(keys.size());
         for (byte[] key : keys) {
-            byte[] val = storage.get(new Key(key));
+            byte[] val = get(key);
             if (val != null) {
                 result.put(key, val);
             }
@@ -55,7 +81,7 @@ public class MemoryKvStorage implements KvStorage {
     
     @Override
     public void put(byte[] key, byte[] value) throws KvStorageException {
-        storage.put(new Key(key), value);
+        write(new Key(key), value);
     }
     
     @Override
@@ -66,19 +92,19 @@ public class MemoryKvStorage implements KvStorage {
         }
         int size = keys.size();
         for (int i = 0; i < size; i++) {
-            storage.put(new Key(keys.get(i)), values.get(i));
+            write(new Key(keys.get(i)), values.get(i));
         }
     }
     
     @Override
     public void delete(byte[] key) throws KvStorageException {
-        storage.remove(new Key(key));
+        write(new Key(key), null);
     }
     
     @Override
     public void batchDelete(List<byte[]> keys) throws KvStorageException {
         for (byte[] key : keys) {
-            storage.remove(new Key(key));
+            write(new Key(key), null);
         }
     }
     
@@ -95,17 +121,152 @@ public class MemoryKvStorage implements KvStorage {
     @Override
     public List<byte[]> allKeys() throws KvStorageException {
         List<byte[]> result = new LinkedList<>();
-        for (Key each : storage.keySet()) {
-            result.add(each.origin);
+        for (Map.Entry<Key, Version> each : storage.entrySet()) {
+            if (null != each.getValue().value) {
+                result.add(each.getKey().origin);
+            }
         }
         return result;
     }
     
+    @Override
+    public KvIterator rangeScan(byte[] startKey, byte[] endKey) throws KvStorageException {
+        // Pin before reading the sequence to use, a concurrent write either sees the pin or gets a later sequence.
+        final long pin = clock.get();
+        pinned.merge(pin, 1, Integer::sum);
+        final long seq = clock.get();
+        NavigableMap<Key, Version> view = storage;
+        if (null != startKey) {
+            view = view.tailMap(new Key(startKey), true);
+        }
+        if (null != endKey) {
+            view = view.headMap(new Key(endKey), false);
+        }
+        return new SnapshotIterator(view.entrySet().iterator(), seq, pin);
+    }
+    
     @Override
     public void shutdown() {
         storage.clear();
     }
     
+    private void write(Key key, byte[] value) {
+        storage.compute(key, (k, old) -> {
+            if (null == old && null == value) {
+                return null;
+            }
+            return prune(new Version(clock.incrementAndGet(), value, old));
+        });
+    }
+    
+    /**
+     * Drop the versions no cursor can read: below the newest version not after the oldest pinned sequence.
+     *
+     * @return the version to keep in the map, {@code null} if the key can be removed
+     */
+    private Version prune(Version head) {
+        // Read the clock first, a cursor pinned after it pins a sequence not below it.
+        long floor = clock.get();
+        Map.Entry<Long, Integer> oldest = pinned.firstEntry();
+        if (null != oldest) {
+            floor = Math.min(floor, oldest.getKey());
+        }
+        Version each = head;
+        while (each.seq > floor && null != each.prev) {
+            each = each.prev;
+        }
+        each.prev = null;
+        if (null == head.prev && null == head.value) {
+            return null;
+        }
+        if (null != head.prev || null == head.value) {
+            retained = true;
+        }
+        return head;
+    }
+    
+    private void unpin(long pin) {
+        pinned.computeIfPresent(pin, (k, count) -> count > 1 ? count - 1 : null);
+        if (pinned.isEmpty() && retained) {
+            retained = false;
+            for (Map.Entry<Key, Version> each : storage.entrySet()) {
+                Version version = each.getValue();
+                if (null != version.prev || null == version.value) {
+                    storage.computeIfPresent(each.getKey(), (k, v) -> prune(v));
+                }
+            }
+        }
+    }
+    
+    private static final class Version {
+        
+        private final long seq;
+        
+        /**
+         * {@code null} means the key was deleted.
+         */
+        private final byte[] value;
+        
+        private volatile Version prev;
+        
+        private Version(long seq, byte[] value, Version prev) {
+            this.seq = seq;
+            this.value = value;
+            this.prev = prev;
+        }
+    }
+    
+    private final class SnapshotIterator implements KvIterator {
+        
+        private final Iterator<Map.Entry<Key, Version>> entries;
+        
+        private final long seq;
+        
+        private final long pin;
+        
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        private Map.Entry<byte[], byte[]> next;
+        
+        private SnapshotIterator(Iterator<Map.Entry<Key, Version>> entries, long seq, long pin) {
+            this.entries = entries;
+            this.seq = seq;
+            this.pin = pin;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (null == next && entries.hasNext()) {
+                Map.Entry<Key, Version> entry = entries.next();
+                Version version = entry.getValue();
+                while (null != version && version.seq > seq) {
+                    version = version.prev;
+                }
+                if (null != version && null != version.value) {
+                    next = new AbstractMap.SimpleImmutableEntry<>(entry.getKey().origin, version.value);
+                }
+            }
+            return null != next;
+        }
+        
+        @Override
+        public Map.Entry<byte[], byte[]> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<byte[], byte[]> result = next;
+            next = null;
+            return result;
+        }
+        
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                unpin(pin);
+            }
+        }
+    }
+    
     private static class Key implements Comparable<Key> {
         
         private final byte[] origin;
@@ -20,6 +20,7 @@ import com.alibaba.nacos.common.executor.ExecutorFactory;
 import com.alibaba.nacos.common.executor.NameThreadFactory;
 
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -57,6 +58,13 @@ public class GlobalExecutor {
         COMMON_EXECUTOR.schedule(runnable, delayMs, TimeUnit.MILLISECONDS);
     }
     
+    public static ScheduledFuture<?> scheduleWithFixDelayByCommon(Runnable runnable, long delayMs) {
+        if (COMMON_EXECUTOR.isShutdown()) {
+            return null;
+        }
+        return COMMON_EXECUTOR.scheduleWithFixedDelay(runnable, delayMs, delayMs, TimeUnit.MILLISECONDS);
+    }
+    
     public static void submitLoadDataTask(Runnable runnable) {
         DISTRO_EXECUTOR.submit(runnable);
     }
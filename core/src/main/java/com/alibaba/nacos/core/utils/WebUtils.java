@@ -152,6 +152,21 @@ public class WebUtils {
         return userAgent;
     }
     
+    /**
+     * Returns the ip of the client, the first one of "X-Forwarded-For" or "X-Real-IP" if behind a proxy.
+     *
+     * @param request HttpServletRequest
+     * @return client ip
+     */
+    public static String getRemoteIp(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (StringUtils.isNotBlank(xForwardedFor)) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+        String nginxHeader = request.getHeader("X-Real-IP");
+        return StringUtils.isBlank(nginxHeader) ? request.getRemoteAddr() : nginxHeader;
+    }
+    
     /**
      * response data to client.
      *
@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RateLimiterTest {
+    
+    @Test
+    public void testTokenBucketBurstsUpToPermits() {
+        RateLimiter limiter = new TokenBucketRateLimiter(5, 60000L);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+        }
+        Assert.assertFalse(limiter.tryAcquire());
+    }
+    
+    @Test
+    public void testTokenBucketRefills() throws InterruptedException {
+        RateLimiter limiter = new TokenBucketRateLimiter(2, 100L);
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertFalse(limiter.tryAcquire());
+        Thread.sleep(120L);
+        Assert.assertTrue(limiter.tryAcquire());
+    }
+    
+    @Test
+    public void testTokenBucketRelease() {
+        RateLimiter limiter = new TokenBucketRateLimiter(1, 60000L);
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertFalse(limiter.tryAcquire());
+        limiter.release();
+        Assert.assertTrue(limiter.tryAcquire());
+    }
+    
+    @Test
+    public void testSlidingWindowRelease() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, 1000L, 10);
+        Assert.assertTrue(limiter.tryAcquire(10000L));
+        Assert.assertFalse(limiter.tryAcquire(10010L));
+        limiter.release(10020L);
+        Assert.assertTrue(limiter.tryAcquire(10030L));
+    }
+    
+    @Test
+    public void testSlidingWindowLimitsWithinPeriod() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, 1000L, 10);
+        Assert.assertTrue(limiter.tryAcquire(10000L));
+        Assert.assertTrue(limiter.tryAcquire(10500L));
+        Assert.assertTrue(limiter.tryAcquire(10900L));
+        Assert.assertFalse(limiter.tryAcquire(10950L));
+        // The first acquisition left the window.
+        Assert.assertTrue(limiter.tryAcquire(11000L));
+        Assert.assertFalse(limiter.tryAcquire(11050L));
+        // A whole period later everything left the window.
+        Assert.assertTrue(limiter.tryAcquire(13000L));
+    }
+    
+    @Test
+    public void testKeyedLimiterIsPerKey() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(() -> new TokenBucketRateLimiter(1, 60000L), 100, 60000L);
+        Assert.assertTrue(limiter.tryAcquire("1.1.1.1"));
+        Assert.assertFalse(limiter.tryAcquire("1.1.1.1"));
+        Assert.assertTrue(limiter.tryAcquire("2.2.2.2"));
+    }
+    
+    @Test
+    public void testKeyedLimiterBoundsKeys() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(() -> new TokenBucketRateLimiter(1, 60000L), 10, 60000L);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(limiter.tryAcquire("ip-" + i));
+            Assert.assertTrue(limiter.size() <= 10);
+        }
+    }
+}
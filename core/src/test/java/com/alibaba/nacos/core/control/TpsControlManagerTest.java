@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.control;
+
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class TpsControlManagerTest {
+    
+    private TpsControlManager tpsControlManager;
+    
+    @Before
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("nacos.core.tps.Test.ip.limit", "2");
+        properties.put("nacos.core.tps.Test.ip.period", "60000");
+        properties.put("nacos.core.tps.Test.namespace.limit", "3");
+        properties.put("nacos.core.tps.Test.namespace.period", "60000");
+        properties.put("nacos.core.tps.Test.namespace.type", TpsControlManager.TYPE_SLIDING_WINDOW);
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("tps", properties));
+        EnvUtil.setEnvironment(environment);
+        tpsControlManager = new TpsControlManager();
+    }
+    
+    @Test
+    public void testApplyForEveryDimension() {
+        Assert.assertTrue(tpsControlManager.applyFor("Test", "1.1.1.1", "ns"));
+        Assert.assertTrue(tpsControlManager.applyFor("Test", "1.1.1.1", "ns"));
+        // Over the ip limit.
+        Assert.assertFalse(tpsControlManager.applyFor("Test", "1.1.1.1", "ns"));
+        // The rejected request above gave its namespace permit back.
+        Assert.assertTrue(tpsControlManager.applyFor("Test", "2.2.2.2", "ns"));
+        // Over the namespace limit.
+        Assert.assertFalse(tpsControlManager.applyFor("Test", "3.3.3.3", "ns"));
+        Assert.assertTrue(tpsControlManager.applyFor("Test", "3.3.3.3", "other"));
+    }
+    
+    @Test
+    public void testNotLimitedWithoutRules() {
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(tpsControlManager.applyFor("Unknown", "1.1.1.1", null));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() {
+        TpsControlManager.createFactory("leaky", 1, 1000L);
+    }
+}
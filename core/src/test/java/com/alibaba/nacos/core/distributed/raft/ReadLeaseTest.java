@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.distributed.raft;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.closure.ReadIndexClosure;
+import com.alipay.sofa.jraft.error.RaftError;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReadLeaseTest {
+    
+    private static final long LEASE_MS = 60_000L;
+    
+    private Node node;
+    
+    private AtomicLong term;
+    
+    private ReadLease lease;
+    
+    @Before
+    public void setUp() {
+        node = Mockito.mock(Node.class);
+        Mockito.when(node.isLeader()).thenReturn(true);
+        term = new AtomicLong(1L);
+        lease = new ReadLease(node, term::get, LEASE_MS);
+    }
+    
+    private ReadIndexClosure lastReadIndex(int times) {
+        ArgumentCaptor<ReadIndexClosure> closure = ArgumentCaptor.forClass(ReadIndexClosure.class);
+        Mockito.verify(node, Mockito.times(times)).readIndex(Mockito.any(byte[].class), closure.capture());
+        return closure.getValue();
+    }
+    
+    @Test
+    public void testReadIndexRenewsLease() {
+        Assert.assertFalse(lease.isLeaseValid());
+        CompletableFuture<Status> future = lease.readIndex();
+        Assert.assertFalse(lease.isLeaseValid());
+        lastReadIndex(1).run(Status.OK(), 1L, null);
+        Assert.assertTrue(future.join().isOk());
+        Assert.assertTrue(lease.isLeaseValid());
+        Mockito.when(node.isLeader()).thenReturn(false);
+        Assert.assertFalse(lease.isLeaseValid());
+        Assert.assertTrue(lease.isFresh(TimeUnit.MILLISECONDS.toNanos(LEASE_MS)));
+    }
+    
+    @Test
+    public void testFailedReadIndexDoesNotRenewLease() {
+        CompletableFuture<Status> future = lease.readIndex();
+        lastReadIndex(1).run(new Status(RaftError.EPERM, "Is not leader."), -1L, null);
+        Assert.assertFalse(future.join().isOk());
+        Assert.assertFalse(lease.isLeaseValid());
+    }
+    
+    @Test
+    public void testTermChangeDropsLease() {
+        lease.readIndex();
+        lastReadIndex(1).run(Status.OK(), 1L, null);
+        Assert.assertTrue(lease.isLeaseValid());
+        // stepped down and re-elected before the state machine callbacks ran
+        term.set(2L);
+        Assert.assertFalse(lease.isLeaseValid());
+        Assert.assertTrue(lease.isFresh(TimeUnit.MILLISECONDS.toNanos(LEASE_MS)));
+        lease.readIndex();
+        lastReadIndex(2).run(Status.OK(), 2L, null);
+        Assert.assertTrue(lease.isLeaseValid());
+    }
+    
+    @Test
+    public void testReadIndexIssuedInOldTermDoesNotRenewLease() {
+        lease.readIndex();
+        final ReadIndexClosure inflight = lastReadIndex(1);
+        term.set(2L);
+        inflight.run(Status.OK(), 1L, null);
+        Assert.assertFalse(lease.isLeaseValid());
+    }
+    
+    @Test
+    public void testUnknownTermDisablesLease() {
+        term.set(-1L);
+        lease.readIndex();
+        lastReadIndex(1).run(Status.OK(), 1L, null);
+        Assert.assertFalse(lease.isLeaseValid());
+        Assert.assertTrue(lease.isFresh(TimeUnit.MILLISECONDS.toNanos(LEASE_MS)));
+    }
+    
+    @Test
+    public void testStalenessBudget() throws Exception {
+        lease.readIndex();
+        lastReadIndex(1).run(Status.OK(), 1L, null);
+        TimeUnit.MILLISECONDS.sleep(20L);
+        Assert.assertTrue(lease.isFresh(TimeUnit.SECONDS.toNanos(10L)));
+        Assert.assertFalse(lease.isFresh(TimeUnit.MILLISECONDS.toNanos(10L)));
+    }
+    
+    @Test
+    public void testConcurrentRefreshesShareReadIndex() {
+        CompletableFuture<Status> first = lease.refresh();
+        CompletableFuture<Status> second = lease.refresh();
+        Assert.assertSame(first, second);
+        lastReadIndex(1).run(Status.OK(), 1L, null);
+        Assert.assertTrue(first.join().isOk());
+        Assert.assertTrue(lease.isLeaseValid());
+        CompletableFuture<Status> third = lease.refresh();
+        Assert.assertNotSame(first, third);
+        lastReadIndex(2);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.monitor;
+
+import com.alibaba.nacos.common.notify.Event;
+import com.alibaba.nacos.common.notify.NotifyCenter;
+import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+public class NotifyCenterMonitorTest {
+    
+    private NotifyCenterMonitor monitor;
+    
+    private final Subscriber<TestEvent> subscriber = new Subscriber<TestEvent>() {
+        @Override
+        public void onEvent(TestEvent event) {
+        }
+        
+        @Override
+        public Class<? extends Event> subscribeType() {
+            return TestEvent.class;
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setProperty("nacos.core.notify.slow-subscriber-threshold-ms", "10");
+        EnvUtil.setEnvironment(environment);
+        monitor = new NotifyCenterMonitor();
+    }
+    
+    @After
+    public void tearDown() {
+        NotifyCenter.setPublisherMonitor(null);
+    }
+    
+    @Test
+    public void testInstalledToNotifyCenter() {
+        Assert.assertSame(monitor, NotifyCenter.getPublisherMonitor());
+    }
+    
+    @Test
+    public void testSlowSubscriberDetection() {
+        for (int i = 0; i < 100; i++) {
+            monitor.onSubscriberFinished(TestEvent.class, subscriber, TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        monitor.checkSlowSubscribers();
+        Assert.assertTrue(monitor.isSlow(TestEvent.class, subscriber));
+        
+        for (int i = 0; i < 100; i++) {
+            monitor.onSubscriberFinished(TestEvent.class, subscriber, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        monitor.checkSlowSubscribers();
+        Assert.assertFalse(monitor.isSlow(TestEvent.class, subscriber));
+    }
+    
+    @Test
+    public void testFewSlowSamplesNotFlagged() {
+        for (int i = 0; i < 1000; i++) {
+            monitor.onSubscriberFinished(TestEvent.class, subscriber, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        monitor.onSubscriberFinished(TestEvent.class, subscriber, TimeUnit.MILLISECONDS.toNanos(500));
+        monitor.checkSlowSubscribers();
+        Assert.assertFalse(monitor.isSlow(TestEvent.class, subscriber));
+    }
+    
+    private static class TestEvent extends Event {
+    
+    }
+}
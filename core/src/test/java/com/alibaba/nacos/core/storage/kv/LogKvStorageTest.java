@@ -0,0 +1,238 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.storage.kv;
+
+import com.alibaba.nacos.common.utils.ByteUtils;
+import com.alibaba.nacos.core.exception.KvStorageException;
+import com.alibaba.nacos.sys.utils.DiskUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LogKvStorageTest {
+    
+    private String baseDir;
+    
+    private LogKvStorage storage;
+    
+    @Before
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("log-kv").toString();
+        storage = open(Paths.get(baseDir, "data").toString());
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        storage.shutdown();
+        DiskUtils.deleteDirectory(baseDir);
+    }
+    
+    private static LogKvStorage open(String dir) throws IOException {
+        return new LogKvStorage(dir, 1024, true, 0.5D, 0L);
+    }
+    
+    private static byte[] bytes(String value) {
+        return ByteUtils.toBytes(value);
+    }
+    
+    @Test
+    public void testPutGetDelete() throws KvStorageException {
+        Assert.assertNull(storage.get(bytes("k")));
+        storage.put(bytes("k"), bytes("v1"));
+        Assert.assertArrayEquals(bytes("v1"), storage.get(bytes("k")));
+        storage.put(bytes("k"), bytes("v2"));
+        Assert.assertArrayEquals(bytes("v2"), storage.get(bytes("k")));
+        storage.delete(bytes("k"));
+        Assert.assertNull(storage.get(bytes("k")));
+        // Delete a missing key is a no-op.
+        storage.delete(bytes("k"));
+        Assert.assertTrue(storage.allKeys().isEmpty());
+    }
+    
+    @Test
+    public void testBatchOperations() throws KvStorageException {
+        List<byte[]> keys = Arrays.asList(bytes("a"), bytes("b"), bytes("c"));
+        storage.batchPut(keys, Arrays.asList(bytes("1"), bytes("2"), bytes("3")));
+        Map<byte[], byte[]> result = storage.batchGet(Arrays.asList(bytes("a"), bytes("c"), bytes("d")));
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(3, storage.allKeys().size());
+        storage.batchDelete(Arrays.asList(bytes("a"), bytes("b")));
+        Assert.assertEquals(1, storage.allKeys().size());
+        Assert.assertArrayEquals(bytes("3"), storage.get(bytes("c")));
+    }
+    
+    @Test
+    public void testPrefixScanIsOrdered() throws KvStorageException {
+        storage.batchPut(Arrays.asList(bytes("b/2"), bytes("a/1"), bytes("b/1")),
+                Arrays.asList(bytes("2"), bytes("1"), bytes("1")));
+        List<String> keys = new ArrayList<>();
+        try (KvIterator iterator = storage.prefixScan(bytes("b/"))) {
+            while (iterator.hasNext()) {
+                keys.add(ByteUtils.toString(iterator.next().getKey()));
+            }
+        }
+        Assert.assertEquals(Arrays.asList("b/1", "b/2"), keys);
+    }
+    
+    @Test(expected = KvStorageException.class)
+    public void testBatchPutSizeMismatch() throws KvStorageException {
+        storage.batchPut(Arrays.asList(bytes("a"), bytes("b")), Arrays.asList(bytes("1")));
+    }
+    
+    @Test
+    public void testRecoverAfterRestart() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            storage.put(bytes("key-" + i), bytes("value-" + i));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            storage.delete(bytes("key-" + i));
+        }
+        storage.put(bytes("key-1"), bytes("updated"));
+        storage.shutdown();
+        
+        storage = open(Paths.get(baseDir, "data").toString());
+        Assert.assertEquals(50, storage.allKeys().size());
+        Assert.assertNull(storage.get(bytes("key-0")));
+        Assert.assertArrayEquals(bytes("updated"), storage.get(bytes("key-1")));
+        Assert.assertArrayEquals(bytes("value-99"), storage.get(bytes("key-99")));
+    }
+    
+    @Test
+    public void testRecoverTruncatesTornTail() throws Exception {
+        storage.put(bytes("a"), bytes("1"));
+        storage.put(bytes("b"), bytes("2"));
+        storage.shutdown();
+        File[] files = Paths.get(baseDir, "data").toFile().listFiles();
+        Assert.assertNotNull(files);
+        Arrays.sort(files);
+        File last = files[files.length - 1];
+        try (RandomAccessFile raf = new RandomAccessFile(last, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        
+        storage = open(Paths.get(baseDir, "data").toString());
+        Assert.assertArrayEquals(bytes("1"), storage.get(bytes("a")));
+        Assert.assertNull(storage.get(bytes("b")));
+        storage.put(bytes("b"), bytes("3"));
+        Assert.assertArrayEquals(bytes("3"), storage.get(bytes("b")));
+    }
+    
+    @Test
+    public void testCompactDropsGarbageSegments() throws Exception {
+        byte[] value = new byte[100];
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5; i++) {
+                storage.put(bytes("key-" + i), value);
+            }
+        }
+        storage.put(bytes("deleted"), value);
+        storage.delete(bytes("deleted"));
+        int before = storage.segmentCount();
+        storage.compact();
+        Assert.assertTrue(storage.segmentCount() < before);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertArrayEquals(value, storage.get(bytes("key-" + i)));
+        }
+        Assert.assertNull(storage.get(bytes("deleted")));
+        storage.shutdown();
+        
+        storage = open(Paths.get(baseDir, "data").toString());
+        Assert.assertEquals(5, storage.allKeys().size());
+        Assert.assertNull(storage.get(bytes("deleted")));
+    }
+    
+    @Test
+    public void testSnapshotAndLoad() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            storage.put(bytes("key-" + i), bytes("value-" + i));
+        }
+        String snapshotDir = Paths.get(baseDir, "snapshot").toString();
+        storage.doSnapshot(snapshotDir);
+        // Writes and compaction after the snapshot must not leak into it.
+        for (int i = 0; i < 50; i++) {
+            storage.put(bytes("key-" + i), bytes("changed"));
+        }
+        storage.put(bytes("late"), bytes("late"));
+        storage.compact();
+        
+        LogKvStorage other = open(Paths.get(baseDir, "other").toString());
+        try {
+            other.put(bytes("stale"), bytes("stale"));
+            other.snapshotLoad(snapshotDir);
+            Assert.assertEquals(50, other.allKeys().size());
+            Assert.assertNull(other.get(bytes("stale")));
+            Assert.assertNull(other.get(bytes("late")));
+            Assert.assertArrayEquals(bytes("value-7"), other.get(bytes("key-7")));
+            other.put(bytes("late"), bytes("late"));
+            Assert.assertArrayEquals(bytes("late"), other.get(bytes("late")));
+        } finally {
+            other.shutdown();
+        }
+    }
+    
+    @Test
+    public void testSnapshotLoadFromMissingPath() throws Exception {
+        storage.put(bytes("a"), bytes("1"));
+        storage.snapshotLoad(Paths.get(baseDir, "missing").toString());
+        Assert.assertArrayEquals(bytes("1"), storage.get(bytes("a")));
+    }
+    
+    @Test
+    public void testConcurrentWritesWithCompaction() throws Exception {
+        final int threads = 4;
+        final int perThread = 200;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            writers.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        storage.put(bytes("key-" + id + "-" + (i % 10)), bytes("value-" + i));
+                        Assert.assertArrayEquals(bytes("value-" + i), storage.get(bytes("key-" + id + "-" + (i % 10))));
+                    }
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    latch.countDown();
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        while (latch.getCount() > 0) {
+            storage.compact();
+        }
+        latch.await();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(threads * 10, storage.allKeys().size());
+        Assert.assertArrayEquals(bytes("value-199"), storage.get(bytes("key-0-9")));
+    }
+}
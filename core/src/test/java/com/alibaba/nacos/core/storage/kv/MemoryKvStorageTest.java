@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.storage.kv;
+
+import com.alibaba.nacos.common.utils.ByteUtils;
+import com.alibaba.nacos.core.exception.KvStorageException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class MemoryKvStorageTest {
+    
+    private MemoryKvStorage storage;
+    
+    @Before
+    public void setUp() throws KvStorageException {
+        storage = new MemoryKvStorage();
+        for (String each : Arrays.asList("b/2", "a/1", "b/1", "c/1", "b/3")) {
+            storage.put(bytes(each), bytes("v-" + each));
+        }
+    }
+    
+    private static byte[] bytes(String value) {
+        return ByteUtils.toBytes(value);
+    }
+    
+    private static List<String> drain(KvIterator iterator) {
+        List<String> result = new ArrayList<>();
+        try (KvIterator each = iterator) {
+            while (each.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = each.next();
+                result.add(ByteUtils.toString(entry.getKey()) + "=" + ByteUtils.toString(entry.getValue()));
+            }
+        }
+        return result;
+    }
+    
+    @Test
+    public void testRangeScanIsOrdered() throws KvStorageException {
+        Assert.assertEquals(Arrays.asList("a/1=v-a/1", "b/1=v-b/1", "b/2=v-b/2", "b/3=v-b/3", "c/1=v-c/1"),
+                drain(storage.rangeScan(null, null)));
+        Assert.assertEquals(Arrays.asList("b/1=v-b/1", "b/2=v-b/2"), drain(storage.rangeScan(bytes("b/1"), bytes("b/3"))));
+        Assert.assertEquals(Arrays.asList("b/3=v-b/3", "c/1=v-c/1"), drain(storage.rangeScan(bytes("b/3"), null)));
+    }
+    
+    @Test
+    public void testPrefixScan() throws KvStorageException {
+        Assert.assertEquals(Arrays.asList("b/1=v-b/1", "b/2=v-b/2", "b/3=v-b/3"), drain(storage.prefixScan(bytes("b/"))));
+        Assert.assertTrue(drain(storage.prefixScan(bytes("d"))).isEmpty());
+        Assert.assertEquals(5, drain(storage.prefixScan(new byte[0])).size());
+    }
+    
+    @Test
+    public void testPrefixEnd() {
+        Assert.assertArrayEquals(new byte[] {1, 3}, KeyRanges.prefixEnd(new byte[] {1, 2}));
+        Assert.assertArrayEquals(new byte[] {2}, KeyRanges.prefixEnd(new byte[] {1, (byte) 0xFF}));
+        Assert.assertNull(KeyRanges.prefixEnd(new byte[] {(byte) 0xFF, (byte) 0xFF}));
+    }
+    
+    @Test
+    public void testCursorIsSnapshotConsistent() throws KvStorageException {
+        KvIterator cursor = storage.prefixScan(bytes("b/"));
+        Assert.assertTrue(cursor.hasNext());
+        storage.put(bytes("b/2"), bytes("changed"));
+        storage.delete(bytes("b/3"));
+        storage.put(bytes("b/4"), bytes("added"));
+        Assert.assertEquals(Arrays.asList("b/1=v-b/1", "b/2=v-b/2", "b/3=v-b/3"), drain(cursor));
+        // Current readers see the writes at once.
+        Assert.assertArrayEquals(bytes("changed"), storage.get(bytes("b/2")));
+        Assert.assertNull(storage.get(bytes("b/3")));
+        Assert.assertEquals(Arrays.asList("b/1=v-b/1", "b/2=changed", "b/4=added"), drain(storage.prefixScan(bytes("b/"))));
+        Assert.assertEquals(5, storage.allKeys().size());
+    }
+    
+    @Test
+    public void testDeleteThenPutDuringCursor() throws KvStorageException {
+        final KvIterator cursor = storage.rangeScan(null, null);
+        storage.delete(bytes("a/1"));
+        storage.put(bytes("a/1"), bytes("again"));
+        storage.delete(bytes("c/1"));
+        Assert.assertEquals(5, drain(cursor).size());
+        Assert.assertNull(storage.get(bytes("c/1")));
+        Assert.assertArrayEquals(bytes("again"), storage.get(bytes("a/1")));
+        Assert.assertEquals(4, drain(storage.rangeScan(null, null)).size());
+    }
+}
@@ -20,15 +20,20 @@ import com.alibaba.nacos.naming.consistency.Datum;
 import com.alibaba.nacos.naming.core.Instances;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Store of data.
  *
+ * <p>The {@link com.alibaba.nacos.naming.core.Instance} objects of a datum are shared with the clusters of the service,
+ * so the store itself only adds the keys and the datum wrappers, which are a small part of the heap of instances.
+ *
  * @author nkorange
  * @since 1.0.0
  */
@@ -37,16 +42,30 @@ public class DataStore {
     
     private Map<String, Datum> dataMap = new ConcurrentHashMap<>(1024);
     
+    /**
+     * Running count of instances in all datums, updated by the size delta of every put and remove.
+     */
+    private final AtomicInteger instanceCount = new AtomicInteger();
+    
     public void put(String key, Datum value) {
-        dataMap.put(key, value);
+        Datum old = dataMap.put(key, value);
+        instanceCount.addAndGet(instanceSize(value) - instanceSize(old));
     }
     
+    /**
+     * Remove datum of key.
+     *
+     * @param key key of datum
+     * @return removed datum, null if not exist
+     */
     public Datum remove(String key) {
-        return dataMap.remove(key);
+        Datum old = dataMap.remove(key);
+        instanceCount.addAndGet(-instanceSize(old));
+        return old;
     }
     
     public Set<String> keys() {
-        return dataMap.keySet();
+        return Collections.unmodifiableSet(dataMap.keySet());
     }
     
     public Datum get(String key) {
@@ -76,20 +95,23 @@ public class DataStore {
     }
     
     public int getInstanceCount() {
-        int count = 0;
-        for (Map.Entry<String, Datum> entry : dataMap.entrySet()) {
-            try {
-                Datum instancesDatum = entry.getValue();
-                if (instancesDatum.value instanceof Instances) {
-                    count += ((Instances) instancesDatum.value).getInstanceList().size();
-                }
-            } catch (Exception ignore) {
-            }
-        }
-        return count;
+        return instanceCount.get();
     }
     
+    /**
+     * Get all datums. Changes must go through {@link #put} and {@link #remove} to keep the instance count in sync.
+     *
+     * @return unmodifiable view of key to datum
+     */
     public Map<String, Datum> getDataMap() {
-        return dataMap;
+        return Collections.unmodifiableMap(dataMap);
+    }
+    
+    private int instanceSize(Datum datum) {
+        if (datum == null || !(datum.value instanceof Instances)) {
+            return 0;
+        }
+        List<?> instances = ((Instances) datum.value).getInstanceList();
+        return instances == null ? 0 : instances.size();
     }
 }
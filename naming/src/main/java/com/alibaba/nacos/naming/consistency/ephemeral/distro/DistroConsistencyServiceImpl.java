@@ -132,7 +132,9 @@ public class DistroConsistencyServiceImpl implements EphemeralConsistencyService
             Datum<Instances> datum = new Datum<>();
             datum.value = (Instances) value;
             datum.key = key;
-            datum.timestamp.incrementAndGet();
+            // The version of datum, which is the base of the deltas synced to other servers.
+            Datum oldDatum = dataStore.get(key);
+            datum.timestamp.set(null == oldDatum ? 1L : oldDatum.timestamp.get() + 1);
             dataStore.put(key, datum);
         }
         
@@ -187,8 +189,7 @@ public class DistroConsistencyServiceImpl implements EphemeralConsistencyService
                     return;
                 }
                 
-                if (!dataStore.contains(entry.getKey()) || dataStore.get(entry.getKey()).value == null || !dataStore
-                        .get(entry.getKey()).value.getChecksum().equals(entry.getValue())) {
+                if (!isChecksumEqual(dataStore.get(entry.getKey()), entry.getValue())) {
                     toUpdateKeys.add(entry.getKey());
                 }
             }
@@ -232,6 +233,69 @@ public class DistroConsistencyServiceImpl implements EphemeralConsistencyService
         }
     }
     
+    private boolean isChecksumEqual(Datum datum, String checksum) {
+        if (datum == null || datum.value == null) {
+            return false;
+        }
+        if (datum.value instanceof Instances) {
+            return ((Instances) datum.value).checksumEquals(checksum);
+        }
+        return datum.value.getChecksum().equals(checksum);
+    }
+    
+    /**
+     * Apply deltas of datum received from the responsible server.
+     *
+     * <p>If the local datum is not the base version of a delta, some change is missed, so the whole datum is queried
+     * from the source server instead.
+     *
+     * @param deltaMap map of key to delta
+     * @param server   source server
+     */
+    public void onReceiveDeltas(Map<String, InstancesDelta> deltaMap, String server) {
+        List<String> gapKeys = new ArrayList<>();
+        for (Map.Entry<String, InstancesDelta> entry : deltaMap.entrySet()) {
+            InstancesDelta delta = entry.getValue();
+            Datum<Instances> localDatum = dataStore.get(entry.getKey());
+            boolean applicable = delta.isFull() || (null != localDatum
+                    && localDatum.timestamp.get() == delta.getBaseVersion());
+            if (!applicable) {
+                gapKeys.add(entry.getKey());
+                continue;
+            }
+            onReceiveDatum(delta.applyTo(entry.getKey(), localDatum));
+        }
+        
+        if (gapKeys.isEmpty()) {
+            return;
+        }
+        
+        Loggers.DISTRO.info("[DISTRO] version gap of keys: {}, query whole datum from {}", gapKeys, server);
+        try {
+            DistroHttpCombinedKey distroKey = new DistroHttpCombinedKey(KeyBuilder.INSTANCE_LIST_KEY_PREFIX, server);
+            distroKey.getActualResourceTypes().addAll(gapKeys);
+            DistroData remoteData = distroProtocol.queryFromRemote(distroKey);
+            if (null != remoteData) {
+                processData(remoteData.getContent());
+            }
+        } catch (Exception e) {
+            Loggers.DISTRO.error("get data from " + server + " failed!", e);
+        }
+    }
+    
+    /**
+     * Put datum synced from the responsible server, the version of datum is kept.
+     */
+    private void onReceiveDatum(Datum<Instances> datum) {
+        dataStore.put(datum.key, datum);
+        
+        if (!listeners.containsKey(datum.key)) {
+            return;
+        }
+        
+        notifier.addTask(datum.key, DataOperation.CHANGE);
+    }
+    
     private boolean processData(byte[] data) throws Exception {
         if (data.length > 0) {
             Map<String, Datum<Instances>> datumMap = serializer.deserializeMap(data, Instances.class);
@@ -291,8 +355,13 @@ public class DistroConsistencyServiceImpl implements EphemeralConsistencyService
     @Override
     public boolean processData(DistroData distroData) {
         DistroHttpData distroHttpData = (DistroHttpData) distroData;
-        Datum<Instances> datum = (Datum<Instances>) distroHttpData.getDeserializedContent();
-        onPut(datum.key, datum.value);
+        Object content = distroHttpData.getDeserializedContent();
+        if (content instanceof Map) {
+            onReceiveDeltas((Map<String, InstancesDelta>) content, distroData.getDistroKey().getResourceKey());
+            return true;
+        }
+        Datum<Instances> datum = (Datum<Instances>) content;
+        onReceiveDatum(datum);
         return true;
     }
     
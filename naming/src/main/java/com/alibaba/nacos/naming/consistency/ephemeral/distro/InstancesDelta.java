@@ -0,0 +1,119 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro;
+
+import com.alibaba.nacos.naming.consistency.Datum;
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Instances;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Change of the ephemeral instances of one service between two versions of its datum.
+ *
+ * <p>The version is {@link Datum#timestamp}, which is increased by the responsible server on every change. A delta
+ * can only be applied to the datum of {@link #baseVersion}, unless it is {@link #full}.
+ *
+ * @author nacos
+ */
+public class InstancesDelta implements Serializable {
+    
+    private static final long serialVersionUID = -3514816186315378519L;
+    
+    private long baseVersion;
+    
+    private long version;
+    
+    private boolean full;
+    
+    private List<Instance> updated = new ArrayList<>();
+    
+    private List<String> removed = new ArrayList<>();
+    
+    /**
+     * Apply this delta to base datum.
+     *
+     * @param key  key of datum
+     * @param base datum of base version, ignored if this delta is full
+     * @return new datum of {@link #version}
+     */
+    public Datum<Instances> applyTo(String key, Datum<Instances> base) {
+        Map<String, Instance> instanceMap = new LinkedHashMap<>();
+        if (!full && base != null && base.value != null) {
+            for (Instance instance : base.value.getInstanceList()) {
+                instanceMap.put(instance.getDatumKey(), instance);
+            }
+        }
+        for (String datumKey : removed) {
+            instanceMap.remove(datumKey);
+        }
+        for (Instance instance : updated) {
+            instanceMap.put(instance.getDatumKey(), instance);
+        }
+        Instances instances = new Instances();
+        instances.setInstanceList(new ArrayList<>(instanceMap.values()));
+        Datum<Instances> datum = new Datum<>();
+        datum.key = key;
+        datum.value = instances;
+        datum.timestamp.set(version);
+        return datum;
+    }
+    
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+    
+    public void setBaseVersion(long baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public boolean isFull() {
+        return full;
+    }
+    
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+    
+    public List<Instance> getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(List<Instance> updated) {
+        this.updated = updated;
+    }
+    
+    public List<String> getRemoved() {
+        return removed;
+    }
+    
+    public void setRemoved(List<String> removed) {
+        this.removed = removed;
+    }
+}
@@ -16,19 +16,29 @@
 
 package com.alibaba.nacos.naming.consistency.ephemeral.distro.component;
 
+import com.alibaba.nacos.core.cluster.ServerMemberManager;
 import com.alibaba.nacos.sys.utils.ApplicationUtils;
 import com.alibaba.nacos.naming.cluster.transport.Serializer;
 import com.alibaba.nacos.naming.consistency.Datum;
 import com.alibaba.nacos.naming.consistency.KeyBuilder;
 import com.alibaba.nacos.naming.consistency.ephemeral.distro.DataStore;
+import com.alibaba.nacos.naming.consistency.ephemeral.distro.InstancesDelta;
 import com.alibaba.nacos.naming.consistency.ephemeral.distro.combined.DistroHttpCombinedKey;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
 import com.alibaba.nacos.core.distributed.distro.component.DistroDataStorage;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
 import com.alibaba.nacos.naming.core.DistroMapper;
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Instances;
+import com.alibaba.nacos.naming.misc.GlobalConfig;
+import com.alibaba.nacos.naming.misc.NamingChecksums;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Distro data storage impl.
@@ -41,9 +51,26 @@ public class DistroDataStorageImpl implements DistroDataStorage {
     
     private final DistroMapper distroMapper;
     
-    public DistroDataStorageImpl(DataStore dataStore, DistroMapper distroMapper) {
+    private final GlobalConfig globalConfig;
+    
+    /**
+     * Target server -> datum key -> state of the datum synced to the target server last time.
+     */
+    private final Map<String, Map<String, SyncedState>> syncedStates = new ConcurrentHashMap<>(16);
+    
+    /**
+     * Target servers answering delta sync requests with 404 or 405, such as older servers during a rolling upgrade.
+     */
+    private final Set<String> deltaUnsupportedServers = ConcurrentHashMap.newKeySet();
+    
+    private final ServerMemberManager memberManager;
+    
+    public DistroDataStorageImpl(DataStore dataStore, DistroMapper distroMapper, GlobalConfig globalConfig,
+            ServerMemberManager memberManager) {
         this.dataStore = dataStore;
         this.distroMapper = distroMapper;
+        this.globalConfig = globalConfig;
+        this.memberManager = memberManager;
     }
     
     @Override
@@ -59,6 +86,89 @@ public class DistroDataStorageImpl implements DistroDataStorage {
         return new DistroData(distroKey, dataContent);
     }
     
+    @Override
+    public DistroData getSyncData(DistroKey distroKey) {
+        final String targetServer = distroKey.getTargetServer();
+        if (!globalConfig.isDistroDeltaSync() || deltaUnsupportedServers.contains(targetServer)) {
+            return getDistroData(distroKey);
+        }
+        List<String> keys = distroKey instanceof DistroHttpCombinedKey ? ((DistroHttpCombinedKey) distroKey)
+                .getActualResourceTypes() : Collections.singletonList(distroKey.getResourceKey());
+        Map<String, SyncedState> targetStates = syncedStates
+                .computeIfAbsent(targetServer, server -> new ConcurrentHashMap<>(64));
+        Map<String, InstancesDelta> result = new HashMap<>(keys.size());
+        Map<String, SyncedState> pendingStates = new HashMap<>(keys.size());
+        for (String key : keys) {
+            Datum datum = dataStore.get(key);
+            if (datum == null || !(datum.value instanceof Instances)) {
+                targetStates.remove(key);
+                continue;
+            }
+            SyncedState current = new SyncedState(datum.timestamp.get(), ((Instances) datum.value).getInstanceList());
+            result.put(key, buildDelta(targetStates.get(key), current, datum));
+            pendingStates.put(key, current);
+        }
+        byte[] dataContent = ApplicationUtils.getBean(Serializer.class).serialize(result);
+        return new DistroDeltaData(distroKey, dataContent, pendingStates);
+    }
+    
+    /**
+     * The states of the deltas become the base of the next deltas only once the target server received them. After a
+     * failure the target server may or may not have applied them, so the next sync sends the whole datum.
+     */
+    @Override
+    public void finishSync(DistroKey distroKey, DistroData distroData, boolean success) {
+        if (!(distroData instanceof DistroDeltaData)) {
+            return;
+        }
+        final String targetServer = distroKey.getTargetServer();
+        Map<String, SyncedState> targetStates = syncedStates.get(targetServer);
+        if (null == targetStates) {
+            return;
+        }
+        Map<String, SyncedState> pendingStates = ((DistroDeltaData) distroData).getSyncedStates();
+        if (success && !deltaUnsupportedServers.contains(targetServer)) {
+            targetStates.putAll(pendingStates);
+        } else {
+            targetStates.keySet().removeAll(pendingStates.keySet());
+        }
+    }
+    
+    /**
+     * Sync the whole datum to the target server from now on, as it doesn't support deltas.
+     *
+     * @param targetServer target server
+     */
+    public void markDeltaUnsupported(String targetServer) {
+        deltaUnsupportedServers.add(targetServer);
+        syncedStates.remove(targetServer);
+    }
+    
+    private InstancesDelta buildDelta(SyncedState last, SyncedState current, Datum datum) {
+        InstancesDelta delta = new InstancesDelta();
+        delta.setVersion(current.version);
+        List<Instance> instances = ((Instances) datum.value).getInstanceList();
+        if (last == null || last.version > current.version) {
+            delta.setFull(true);
+            delta.getUpdated().addAll(instances);
+            return delta;
+        }
+        delta.setBaseVersion(last.version);
+        for (Instance instance : instances) {
+            String datumKey = instance.getDatumKey();
+            Long lastHash = last.instanceHashes.get(datumKey);
+            if (lastHash == null || !lastHash.equals(current.instanceHashes.get(datumKey))) {
+                delta.getUpdated().add(instance);
+            }
+        }
+        for (String datumKey : last.instanceHashes.keySet()) {
+            if (!current.instanceHashes.containsKey(datumKey)) {
+                delta.getRemoved().add(datumKey);
+            }
+        }
+        return delta;
+    }
+    
     @Override
     public DistroData getDatumSnapshot() {
         Map<String, Datum> result = dataStore.getDataMap();
@@ -70,6 +180,7 @@ public class DistroDataStorageImpl implements DistroDataStorage {
     @Override
     public DistroData getVerifyData() {
         Map<String, String> keyChecksums = new HashMap<>(64);
+        final boolean hashChecksum = NamingChecksums.isHashChecksumSupported(memberManager.allMembers());
         for (String key : dataStore.keys()) {
             if (!distroMapper.responsible(KeyBuilder.getServiceName(key))) {
                 continue;
@@ -78,7 +189,11 @@ public class DistroDataStorageImpl implements DistroDataStorage {
             if (datum == null) {
                 continue;
             }
-            keyChecksums.put(key, datum.value.getChecksum());
+            if (!hashChecksum && datum.value instanceof Instances) {
+                keyChecksums.put(key, ((Instances) datum.value).getLegacyChecksum());
+            } else {
+                keyChecksums.put(key, datum.value.getChecksum());
+            }
         }
         if (keyChecksums.isEmpty()) {
             return null;
@@ -86,4 +201,23 @@ public class DistroDataStorageImpl implements DistroDataStorage {
         DistroKey distroKey = new DistroKey("checksum", KeyBuilder.INSTANCE_LIST_KEY_PREFIX);
         return new DistroData(distroKey, ApplicationUtils.getBean(Serializer.class).serialize(keyChecksums));
     }
+    
+    /**
+     * Version and hash of every instance of a datum at the time it is synced.
+     */
+    static class SyncedState {
+        
+        private final long version;
+        
+        private final Map<String, Long> instanceHashes;
+        
+        SyncedState(long version, List<Instance> instances) {
+            this.version = version;
+            this.instanceHashes = new HashMap<>(instances.size() * 2);
+            for (Instance instance : instances) {
+                long hash = 31 * instance.fullChecksumHash() + (instance.isMarked() ? 1 : 0);
+                instanceHashes.put(instance.getDatumKey(), hash);
+            }
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro.component;
+
+import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
+import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
+
+import java.util.Map;
+
+/**
+ * Deltas of datum to sync to a target server, with the states they bring the target server to.
+ *
+ * @author nacos
+ */
+class DistroDeltaData extends DistroData {
+    
+    private final Map<String, DistroDataStorageImpl.SyncedState> syncedStates;
+    
+    DistroDeltaData(DistroKey distroKey, byte[] content, Map<String, DistroDataStorageImpl.SyncedState> syncedStates) {
+        super(distroKey, content);
+        this.syncedStates = syncedStates;
+    }
+    
+    Map<String, DistroDataStorageImpl.SyncedState> getSyncedStates() {
+        return syncedStates;
+    }
+}
@@ -23,8 +23,11 @@ import com.alibaba.nacos.core.distributed.distro.component.DistroTransportAgent;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
 import com.alibaba.nacos.core.distributed.distro.exception.DistroException;
+import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.misc.NamingProxy;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
 
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,10 +38,30 @@ import java.util.List;
  */
 public class DistroHttpAgent implements DistroTransportAgent {
     
+    private final DistroDataStorageImpl dataStorage;
+    
+    public DistroHttpAgent(DistroDataStorageImpl dataStorage) {
+        this.dataStorage = dataStorage;
+    }
+    
     @Override
     public boolean syncData(DistroData data, String targetServer) {
         byte[] dataContent = data.getContent();
-        return NamingProxy.syncData(dataContent, data.getDistroKey().getTargetServer());
+        MetricsMonitor.getDistroSyncBytesSummary().record(dataContent.length);
+        final String server = data.getDistroKey().getTargetServer();
+        if (!(data instanceof DistroDeltaData)) {
+            return NamingProxy.syncData(dataContent, server);
+        }
+        int code = NamingProxy.syncDelta(dataContent, server);
+        if (HttpURLConnection.HTTP_NOT_FOUND == code || HttpURLConnection.HTTP_BAD_METHOD == code) {
+            // An older server without delta sync, fall back to sync the whole datum.
+            Loggers.DISTRO.warn("[DISTRO] {} doesn't support delta sync, sync whole datum to it", server);
+            dataStorage.markDeltaUnsupported(server);
+            byte[] wholeContent = dataStorage.getDistroData(data.getDistroKey()).getContent();
+            MetricsMonitor.getDistroSyncBytesSummary().record(wholeContent.length);
+            return NamingProxy.syncData(wholeContent, server);
+        }
+        return NamingProxy.isSynced(code);
     }
     
     @Override
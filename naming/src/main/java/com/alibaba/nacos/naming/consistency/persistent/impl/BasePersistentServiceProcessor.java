@@ -29,6 +29,7 @@ import com.alibaba.nacos.consistency.entity.Response;
 import com.alibaba.nacos.consistency.entity.WriteRequest;
 import com.alibaba.nacos.consistency.snapshot.SnapshotOperation;
 import com.alibaba.nacos.core.exception.KvStorageException;
+import com.alibaba.nacos.core.storage.kv.KvIterator;
 import com.alibaba.nacos.core.storage.kv.KvStorage;
 import com.alibaba.nacos.naming.consistency.Datum;
 import com.alibaba.nacos.naming.consistency.KeyBuilder;
@@ -243,12 +244,19 @@ public abstract class BasePersistentServiceProcessor extends RequestProcessor4CP
      * This notify should only notify once during startup. See {@link com.alibaba.nacos.naming.core.ServiceManager#init()}
      */
     private void notifierAllServiceMeta(RecordListener listener) throws NacosException {
-        for (byte[] each : kvStorage.allKeys()) {
-            String key = new String(each);
-            if (listener.interests(key)) {
-                Datum datum = get(key);
-                if (null != datum) {
-                    notifierDatum(key, datum, listener);
+        notifierByPrefix(KeyBuilder.SERVICE_META_KEY_PREFIX, listener);
+        notifierByPrefix(KeyBuilder.BRIEF_SERVICE_META_KEY_PREFIX, listener);
+    }
+    
+    private void notifierByPrefix(String prefix, RecordListener listener) throws NacosException {
+        try (KvIterator iterator = kvStorage.prefixScan(ByteUtils.toBytes(prefix))) {
+            while (iterator.hasNext()) {
+                String key = new String(iterator.next().getKey());
+                if (listener.interests(key)) {
+                    Datum datum = get(key);
+                    if (null != datum) {
+                        notifierDatum(key, datum, listener);
+                    }
                 }
             }
         }
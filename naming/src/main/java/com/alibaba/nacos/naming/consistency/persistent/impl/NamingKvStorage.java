@@ -22,6 +22,7 @@ import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.core.exception.ErrorCode;
 import com.alibaba.nacos.core.exception.KvStorageException;
 import com.alibaba.nacos.core.storage.StorageFactory;
+import com.alibaba.nacos.core.storage.kv.KvIterator;
 import com.alibaba.nacos.core.storage.kv.KvStorage;
 import com.alibaba.nacos.core.storage.kv.MemoryKvStorage;
 import com.alibaba.nacos.core.utils.TimerContext;
@@ -155,9 +156,11 @@ public class NamingKvStorage extends MemoryKvStorage {
     }
     
     private void loadSnapshotFromActualStorage(KvStorage actualStorage) throws KvStorageException {
-        for (byte[] each : actualStorage.allKeys()) {
-            byte[] datum = actualStorage.get(each);
-            super.put(each, datum);
+        try (KvIterator iterator = actualStorage.rangeScan(null, null)) {
+            while (iterator.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                super.put(entry.getKey(), entry.getValue());
+            }
         }
     }
     
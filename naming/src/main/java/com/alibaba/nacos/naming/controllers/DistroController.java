@@ -21,6 +21,7 @@ import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.naming.consistency.Datum;
 import com.alibaba.nacos.naming.consistency.KeyBuilder;
 import com.alibaba.nacos.naming.consistency.ephemeral.distro.DistroHttpData;
+import com.alibaba.nacos.naming.consistency.ephemeral.distro.InstancesDelta;
 import com.alibaba.nacos.naming.consistency.ephemeral.distro.combined.DistroHttpCombinedKey;
 import com.alibaba.nacos.core.distributed.distro.DistroProtocol;
 import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
@@ -40,6 +41,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -91,6 +93,35 @@ public class DistroController {
         return ResponseEntity.ok("ok");
     }
     
+    /**
+     * Synchronize deltas of datum.
+     *
+     * @param source   source server
+     * @param deltaMap delta map
+     * @return 'ok'
+     * @throws Exception if failed
+     */
+    @PutMapping("/delta")
+    public ResponseEntity onSyncDelta(@RequestParam String source,
+            @RequestBody Map<String, InstancesDelta> deltaMap) throws Exception {
+        Map<String, InstancesDelta> ephemeralDeltaMap = new HashMap<>(deltaMap.size());
+        for (Map.Entry<String, InstancesDelta> entry : deltaMap.entrySet()) {
+            if (KeyBuilder.matchEphemeralInstanceListKey(entry.getKey())) {
+                String namespaceId = KeyBuilder.getNamespace(entry.getKey());
+                String serviceName = KeyBuilder.getServiceName(entry.getKey());
+                if (!serviceManager.containService(namespaceId, serviceName) && switchDomain
+                        .isDefaultInstanceEphemeral()) {
+                    serviceManager.createEmptyService(namespaceId, serviceName, true);
+                }
+                ephemeralDeltaMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!ephemeralDeltaMap.isEmpty()) {
+            distroProtocol.onReceive(new DistroHttpData(createDistroKey(source), ephemeralDeltaMap));
+        }
+        return ResponseEntity.ok("ok");
+    }
+    
     /**
      * Checksum.
      *
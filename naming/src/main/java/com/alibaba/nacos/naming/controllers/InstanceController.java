@@ -25,8 +25,10 @@ import com.alibaba.nacos.api.naming.utils.NamingUtils;
 import com.alibaba.nacos.auth.annotation.Secured;
 import com.alibaba.nacos.auth.common.ActionTypes;
 import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.core.control.TpsControl;
 import com.alibaba.nacos.core.utils.WebUtils;
 import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.InstanceSnapshot;
 import com.alibaba.nacos.naming.core.Service;
 import com.alibaba.nacos.naming.core.ServiceManager;
 import com.alibaba.nacos.naming.healthcheck.RsInfo;
@@ -62,7 +64,7 @@ import javax.servlet.http.HttpServletRequest;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -121,6 +123,7 @@ public class InstanceController {
      */
     @CanDistro
     @PostMapping
+    @TpsControl(pointName = "NamingInstanceRegister")
     @Secured(parser = NamingResourceParser.class, action = ActionTypes.WRITE)
     public String register(HttpServletRequest request) throws Exception {
         
@@ -689,9 +692,9 @@ public class InstanceController {
         
         checkIfDisabled(service);
         
-        List<Instance> srvedIPs;
-        
-        srvedIPs = service.srvIPs(Arrays.asList(StringUtils.split(clusters, ",")));
+        // read from the immutable snapshot, no copy is needed unless the selector filters instances.
+        InstanceSnapshot snapshot = service.getInstanceSnapshot(Arrays.asList(StringUtils.split(clusters, ",")));
+        List<Instance> srvedIPs = snapshot.getInstances();
         
         // filter ips using selector:
         if (service.getSelector() != null && StringUtils.isNotBlank(clientIP)) {
@@ -723,12 +726,14 @@ public class InstanceController {
             return result;
         }
         
-        Map<Boolean, List<Instance>> ipMap = new HashMap<>(2);
-        ipMap.put(Boolean.TRUE, new ArrayList<>());
-        ipMap.put(Boolean.FALSE, new ArrayList<>());
-        
-        for (Instance ip : srvedIPs) {
-            ipMap.get(ip.isHealthy()).add(ip);
+        List<Instance> healthyIPs = snapshot.getHealthyInstances();
+        List<Instance> unhealthyIPs = snapshot.getUnhealthyInstances();
+        if (srvedIPs != snapshot.getInstances()) {
+            healthyIPs = new ArrayList<>();
+            unhealthyIPs = new ArrayList<>();
+            for (Instance ip : srvedIPs) {
+                (ip.isHealthy() ? healthyIPs : unhealthyIPs).add(ip);
+            }
         }
         
         if (isCheck) {
@@ -737,15 +742,15 @@ public class InstanceController {
         
         double threshold = service.getProtectThreshold();
         
-        if ((float) ipMap.get(Boolean.TRUE).size() / srvedIPs.size() <= threshold) {
+        if ((float) healthyIPs.size() / srvedIPs.size() <= threshold) {
             
             Loggers.SRV_LOG.warn("protect threshold reached, return all ips, service: {}", serviceName);
             if (isCheck) {
                 result.put("reachProtectThreshold", true);
             }
             
-            ipMap.get(Boolean.TRUE).addAll(ipMap.get(Boolean.FALSE));
-            ipMap.get(Boolean.FALSE).clear();
+            healthyIPs = srvedIPs;
+            unhealthyIPs = Collections.emptyList();
         }
         
         if (isCheck) {
@@ -757,44 +762,9 @@ public class InstanceController {
         
         ArrayNode hosts = JacksonUtils.createEmptyArrayNode();
         
-        for (Map.Entry<Boolean, List<Instance>> entry : ipMap.entrySet()) {
-            List<Instance> ips = entry.getValue();
-            
-            if (healthyOnly && !entry.getKey()) {
-                continue;
-            }
-            
-            for (Instance instance : ips) {
-                
-                // remove disabled instance:
-                if (!instance.isEnabled()) {
-                    continue;
-                }
-                
-                ObjectNode ipObj = JacksonUtils.createEmptyJsonNode();
-                
-                ipObj.put("ip", instance.getIp());
-                ipObj.put("port", instance.getPort());
-                // deprecated since nacos 1.0.0:
-                ipObj.put("valid", entry.getKey());
-                ipObj.put("healthy", entry.getKey());
-                ipObj.put("marked", instance.isMarked());
-                ipObj.put("instanceId", instance.getInstanceId());
-                ipObj.set("metadata", JacksonUtils.transferToJsonNode(instance.getMetadata()));
-                ipObj.put("enabled", instance.isEnabled());
-                ipObj.put("weight", instance.getWeight());
-                ipObj.put("clusterName", instance.getClusterName());
-                if (clientInfo.type == ClientInfo.ClientType.JAVA
-                        && clientInfo.version.compareTo(VersionUtil.parseVersion("1.0.0")) >= 0) {
-                    ipObj.put("serviceName", instance.getServiceName());
-                } else {
-                    ipObj.put("serviceName", NamingUtils.getServiceName(instance.getServiceName()));
-                }
-                
-                ipObj.put("ephemeral", instance.isEphemeral());
-                hosts.add(ipObj);
-                
-            }
+        addHosts(hosts, healthyIPs, true, clientInfo);
+        if (!healthyOnly) {
+            addHosts(hosts, unhealthyIPs, false, clientInfo);
         }
         
         result.replace("hosts", hosts);
@@ -814,4 +784,38 @@ public class InstanceController {
         result.replace("metadata", JacksonUtils.transferToJsonNode(service.getMetadata()));
         return result;
     }
+    
+    private void addHosts(ArrayNode hosts, List<Instance> ips, boolean healthy, ClientInfo clientInfo) {
+        for (Instance instance : ips) {
+            
+            // remove disabled instance:
+            if (!instance.isEnabled()) {
+                continue;
+            }
+            
+            ObjectNode ipObj = JacksonUtils.createEmptyJsonNode();
+            
+            ipObj.put("ip", instance.getIp());
+            ipObj.put("port", instance.getPort());
+            // deprecated since nacos 1.0.0:
+            ipObj.put("valid", healthy);
+            ipObj.put("healthy", healthy);
+            ipObj.put("marked", instance.isMarked());
+            ipObj.put("instanceId", instance.getInstanceId());
+            ipObj.set("metadata", JacksonUtils.transferToJsonNode(instance.getMetadata()));
+            ipObj.put("enabled", instance.isEnabled());
+            ipObj.put("weight", instance.getWeight());
+            ipObj.put("clusterName", instance.getClusterName());
+            if (clientInfo.type == ClientInfo.ClientType.JAVA
+                    && clientInfo.version.compareTo(VersionUtil.parseVersion("1.0.0")) >= 0) {
+                ipObj.put("serviceName", instance.getServiceName());
+            } else {
+                ipObj.put("serviceName", NamingUtils.getServiceName(instance.getServiceName()));
+            }
+            
+            ipObj.put("ephemeral", instance.isEphemeral());
+            hosts.add(ipObj);
+            
+        }
+    }
 }
@@ -397,7 +397,7 @@ public class ServiceController {
                 
                 service.recalculateChecksum();
                 
-                if (!checksum.equals(service.getChecksum())) {
+                if (!service.checksumEquals(checksum)) {
                     if (Loggers.SRV_LOG.isDebugEnabled()) {
                         Loggers.SRV_LOG.debug("checksum of {} is not consistent, remote: {}, checksum: {}, local: {}",
                                 serviceName, serverIp, checksum, service.getChecksum());
@@ -61,10 +61,16 @@ public class Cluster extends com.alibaba.nacos.api.naming.pojo.Cluster implement
     private HealthCheckTask checkTask;
     
     @JsonIgnore
-    private Set<Instance> persistentInstances = new HashSet<>();
+    private volatile Set<Instance> persistentInstances = new HashSet<>();
     
     @JsonIgnore
-    private Set<Instance> ephemeralInstances = new HashSet<>();
+    private volatile Set<Instance> ephemeralInstances = new HashSet<>();
+    
+    @JsonIgnore
+    private volatile InstanceSnapshot instanceSnapshot = InstanceSnapshot.EMPTY;
+    
+    @JsonIgnore
+    private volatile boolean instanceSnapshotStale = false;
     
     @JsonIgnore
     private Service service;
@@ -121,10 +127,7 @@ public class Cluster extends com.alibaba.nacos.api.naming.pojo.Cluster implement
      * @return list of instance
      */
     public List<Instance> allIPs() {
-        List<Instance> allInstances = new ArrayList<>();
-        allInstances.addAll(persistentInstances);
-        allInstances.addAll(ephemeralInstances);
-        return allInstances;
+        return new ArrayList<>(getInstanceSnapshot().getInstances());
     }
     
     /**
@@ -134,7 +137,39 @@ public class Cluster extends com.alibaba.nacos.api.naming.pojo.Cluster implement
      * @return list of special instances
      */
     public List<Instance> allIPs(boolean ephemeral) {
-        return ephemeral ? new ArrayList<>(ephemeralInstances) : new ArrayList<>(persistentInstances);
+        InstanceSnapshot snapshot = getInstanceSnapshot();
+        return new ArrayList<>(ephemeral ? snapshot.getEphemeralInstances() : snapshot.getPersistentInstances());
+    }
+    
+    /**
+     * Get the current immutable snapshot of instances, which can be read without copying.
+     *
+     * @return instance snapshot
+     */
+    @JsonIgnore
+    public InstanceSnapshot getInstanceSnapshot() {
+        if (instanceSnapshotStale) {
+            refreshInstanceSnapshot();
+        }
+        return instanceSnapshot;
+    }
+    
+    /**
+     * Mark the instance snapshot as stale, should be called after the status of instances is changed in place.
+     *
+     * <p>The snapshot will be rebuilt by the next read, so that several changes in a row only rebuild it once.
+     */
+    public void invalidateInstanceSnapshot() {
+        instanceSnapshotStale = true;
+    }
+    
+    /**
+     * Rebuild the instance snapshot from current instances.
+     */
+    public synchronized void refreshInstanceSnapshot() {
+        // clear the flag before building, so a change during building will trigger another rebuild
+        instanceSnapshotStale = false;
+        instanceSnapshot = InstanceSnapshot.of(persistentInstances, ephemeralInstances);
     }
     
     /**
@@ -220,13 +255,14 @@ public class Cluster extends com.alibaba.nacos.api.naming.pojo.Cluster implement
         Cluster cluster = new Cluster(this.getName(), service);
         cluster.setHealthChecker(getHealthChecker().clone());
         cluster.persistentInstances = new HashSet<>();
+        cluster.instanceSnapshot = InstanceSnapshot.EMPTY;
         cluster.checkTask = null;
         cluster.metadata = new HashMap<>(metadata);
         return cluster;
     }
     
     public boolean isEmpty() {
-        return ephemeralInstances.isEmpty() && persistentInstances.isEmpty();
+        return getInstanceSnapshot().isEmpty();
     }
     
     /**
@@ -294,13 +330,38 @@ public class Cluster extends com.alibaba.nacos.api.naming.pojo.Cluster implement
             }
         }
         
+        Set<Instance> oldInstances = toUpdateInstances;
         toUpdateInstances = new HashSet<>(ips);
         
         if (ephemeral) {
             ephemeralInstances = toUpdateInstances;
+            updateBeatChecks(ips, oldInstances);
         } else {
             persistentInstances = toUpdateInstances;
         }
+        refreshInstanceSnapshot();
+    }
+    
+    /**
+     * Instances are matched by datum key, so a re-sent instance keeps its pending heartbeat deadline instead of
+     * being re-armed, only new instances start heartbeat check and the check of removed ones is stopped.
+     */
+    private void updateBeatChecks(List<Instance> newInstances, Collection<Instance> oldInstances) {
+        Map<String, Instance> oldInstanceMap = new HashMap<>(oldInstances.size());
+        for (Instance instance : oldInstances) {
+            oldInstanceMap.put(instance.getDatumKey(), instance);
+        }
+        for (Instance instance : newInstances) {
+            Instance replaced = oldInstanceMap.remove(instance.getDatumKey());
+            if (replaced == null) {
+                HealthCheckReactor.scheduleBeatCheck(getService(), instance);
+            } else {
+                HealthCheckReactor.transferBeatCheck(getService(), replaced, instance);
+            }
+        }
+        for (Instance instance : oldInstanceMap.values()) {
+            HealthCheckReactor.cancelBeatCheck(instance);
+        }
     }
     
     private List<Instance> updatedIps(Collection<Instance> newInstance, Collection<Instance> oldInstance) {
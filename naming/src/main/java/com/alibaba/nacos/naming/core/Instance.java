@@ -57,6 +57,12 @@ public class Instance extends com.alibaba.nacos.api.naming.pojo.Instance impleme
     
     private volatile boolean marked = false;
     
+    /**
+     * Token of the pending heartbeat check of this instance, only used by {@code HealthCheckReactor}.
+     */
+    @JsonIgnore
+    private transient volatile Object beatCheckToken;
+    
     private String tenant;
     
     private String app;
@@ -84,6 +90,16 @@ public class Instance extends com.alibaba.nacos.api.naming.pojo.Instance impleme
         this.lastBeat = lastBeat;
     }
     
+    @JsonIgnore
+    public Object getBeatCheckToken() {
+        return beatCheckToken;
+    }
+    
+    @JsonIgnore
+    public void setBeatCheckToken(Object beatCheckToken) {
+        this.beatCheckToken = beatCheckToken;
+    }
+    
     public Instance(String ip, int port) {
         this.setIp(ip);
         this.setPort(port);
@@ -376,6 +392,46 @@ public class Instance extends com.alibaba.nacos.api.naming.pojo.Instance impleme
         return matcher.matches();
     }
     
+    /**
+     * Hash of the fields which are used by the checksum of service.
+     *
+     * <p>Hashes of instances are combined by addition, so the checksum can be calculated without sorting and does not
+     * depend on the order of instances.
+     *
+     * @return hash of ip, port, weight, health status and cluster
+     */
+    public long checksumHash() {
+        long hash = mixHash(0L, stringHash(getIp()));
+        hash = mixHash(hash, getPort());
+        hash = mixHash(hash, Double.doubleToLongBits(getWeight()));
+        hash = mixHash(hash, isHealthy() ? 1L : 0L);
+        return mixHash(hash, stringHash(getClusterName()));
+    }
+    
+    /**
+     * Hash of all the fields which are used by the checksum of instance list.
+     *
+     * @return hash of {@link #checksumHash()}, enabled and metadata
+     */
+    public long fullChecksumHash() {
+        long hash = mixHash(checksumHash(), isEnabled() ? 1L : 0L);
+        return mixHash(hash, getMetadata() == null ? 0L : getMetadata().hashCode());
+    }
+    
+    private static long stringHash(String value) {
+        return value == null ? 0L : value.hashCode();
+    }
+    
+    /**
+     * Mix value into hash with the finalizer of SplitMix64, which spreads every input bit to all output bits.
+     */
+    private static long mixHash(long hash, long value) {
+        long result = (hash ^ value) + 0x9E3779B97F4A7C15L;
+        result = (result ^ (result >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+    
     @Override
     public int compareTo(Object o) {
         if (!(o instanceof Instance)) {
@@ -0,0 +1,291 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshot of the instances of a cluster or a service.
+ *
+ * <p>Instances are split into healthy/unhealthy and ephemeral/persistent lists when the snapshot is built, so readers
+ * can use the lists directly without copying or locking. A new snapshot is published whenever the instances or their
+ * health status are changed. A snapshot merged from the snapshots of clusters only views their lists.
+ *
+ * @author nacos
+ */
+public final class InstanceSnapshot {
+    
+    private static final AtomicLong VERSION_GENERATOR = new AtomicLong();
+    
+    public static final InstanceSnapshot EMPTY = new InstanceSnapshot(Collections.<Instance>emptyList(),
+            Collections.<Instance>emptyList());
+    
+    private final long version;
+    
+    private final List<Instance> instances;
+    
+    private final List<Instance> ephemeralInstances;
+    
+    private final List<Instance> persistentInstances;
+    
+    private final List<Instance> healthyInstances;
+    
+    private final List<Instance> unhealthyInstances;
+    
+    /**
+     * Snapshots which this snapshot is merged from, empty if it is built from instances directly.
+     */
+    private final List<InstanceSnapshot> parts;
+    
+    /**
+     * Sum of {@link Instance#checksumHash()} of all instances.
+     */
+    private final long instancesHash;
+    
+    private InstanceSnapshot(Collection<Instance> persistent, Collection<Instance> ephemeral) {
+        this.version = VERSION_GENERATOR.incrementAndGet();
+        this.persistentInstances = Collections.unmodifiableList(new ArrayList<>(persistent));
+        this.ephemeralInstances = Collections.unmodifiableList(new ArrayList<>(ephemeral));
+        List<Instance> all = new ArrayList<>(persistent.size() + ephemeral.size());
+        all.addAll(persistentInstances);
+        all.addAll(ephemeralInstances);
+        List<Instance> healthy = new ArrayList<>(all.size());
+        List<Instance> unhealthy = new ArrayList<>();
+        long hash = 0L;
+        for (Instance instance : all) {
+            hash += instance.checksumHash();
+            if (instance.isHealthy()) {
+                healthy.add(instance);
+            } else {
+                unhealthy.add(instance);
+            }
+        }
+        this.instances = Collections.unmodifiableList(all);
+        this.healthyInstances = Collections.unmodifiableList(healthy);
+        this.unhealthyInstances = Collections.unmodifiableList(unhealthy);
+        this.parts = Collections.emptyList();
+        this.instancesHash = hash;
+    }
+    
+    /**
+     * Merged snapshot, whose lists are views of the lists of the parts, so no instance is copied.
+     */
+    private InstanceSnapshot(List<InstanceSnapshot> parts) {
+        this.version = VERSION_GENERATOR.incrementAndGet();
+        this.parts = Collections.unmodifiableList(new ArrayList<>(parts));
+        List<List<Instance>> persistent = new ArrayList<>(parts.size());
+        List<List<Instance>> ephemeral = new ArrayList<>(parts.size());
+        List<List<Instance>> healthy = new ArrayList<>(parts.size());
+        List<List<Instance>> unhealthy = new ArrayList<>(parts.size());
+        long hash = 0L;
+        for (InstanceSnapshot each : parts) {
+            persistent.add(each.persistentInstances);
+            ephemeral.add(each.ephemeralInstances);
+            healthy.add(each.healthyInstances);
+            unhealthy.add(each.unhealthyInstances);
+            hash += each.instancesHash;
+        }
+        List<List<Instance>> all = new ArrayList<>(persistent);
+        all.addAll(ephemeral);
+        this.persistentInstances = new ConcatList(persistent);
+        this.ephemeralInstances = new ConcatList(ephemeral);
+        this.instances = new ConcatList(all);
+        this.healthyInstances = new ConcatList(healthy);
+        this.unhealthyInstances = new ConcatList(unhealthy);
+        this.instancesHash = hash;
+    }
+    
+    /**
+     * Build snapshot from instances.
+     *
+     * @param persistent persistent instances
+     * @param ephemeral  ephemeral instances
+     * @return snapshot
+     */
+    public static InstanceSnapshot of(Collection<Instance> persistent, Collection<Instance> ephemeral) {
+        return new InstanceSnapshot(persistent, ephemeral);
+    }
+    
+    /**
+     * Merge snapshots into one snapshot, which only references the instance lists of them.
+     *
+     * @param snapshots snapshots to merge
+     * @return merged snapshot, the only snapshot if there is only one
+     */
+    public static InstanceSnapshot merge(List<InstanceSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return EMPTY;
+        }
+        if (snapshots.size() == 1) {
+            return snapshots.get(0);
+        }
+        return new InstanceSnapshot(snapshots);
+    }
+    
+    /**
+     * Get the count of snapshots this snapshot is merged from. A snapshot which is not merged is its own only part,
+     * and {@link #EMPTY} has none.
+     *
+     * @return count of parts
+     */
+    public int getPartCount() {
+        if (this == EMPTY) {
+            return 0;
+        }
+        return parts.isEmpty() ? 1 : parts.size();
+    }
+    
+    /**
+     * Get a snapshot this snapshot is merged from.
+     *
+     * @param index index of part, less than {@link #getPartCount()}
+     * @return part
+     */
+    public InstanceSnapshot getPart(int index) {
+        return parts.isEmpty() ? this : parts.get(index);
+    }
+    
+    /**
+     * Whether this snapshot is merged from exactly the given snapshots.
+     *
+     * @param snapshots current snapshots
+     * @return true if this snapshot is still up to date
+     */
+    public boolean isMergedFrom(List<InstanceSnapshot> snapshots) {
+        if (snapshots.size() != getPartCount()) {
+            return false;
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            if (getPart(i) != snapshots.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public List<Instance> getInstances() {
+        return instances;
+    }
+    
+    public List<Instance> getEphemeralInstances() {
+        return ephemeralInstances;
+    }
+    
+    public List<Instance> getPersistentInstances() {
+        return persistentInstances;
+    }
+    
+    public List<Instance> getHealthyInstances() {
+        return healthyInstances;
+    }
+    
+    public List<Instance> getUnhealthyInstances() {
+        return unhealthyInstances;
+    }
+    
+    public boolean isEmpty() {
+        return instances.isEmpty();
+    }
+    
+    public long getInstancesHash() {
+        return instancesHash;
+    }
+    
+    /**
+     * Get checksum of instances, which is calculated when the snapshot is built.
+     *
+     * @return checksum
+     */
+    public String getChecksum() {
+        return Long.toHexString(instancesHash) + "-" + Integer.toHexString(instances.size());
+    }
+    
+    /**
+     * Unmodifiable concatenation of lists.
+     */
+    private static final class ConcatList extends AbstractList<Instance> {
+        
+        private final List<List<Instance>> lists;
+        
+        private final int size;
+        
+        ConcatList(List<List<Instance>> lists) {
+            this.lists = lists;
+            int total = 0;
+            for (List<Instance> each : lists) {
+                total += each.size();
+            }
+            this.size = total;
+        }
+        
+        @Override
+        public Instance get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int offset = index;
+            for (List<Instance> each : lists) {
+                if (offset < each.size()) {
+                    return each.get(offset);
+                }
+                offset -= each.size();
+            }
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        
+        @Override
+        public Iterator<Instance> iterator() {
+            final Iterator<List<Instance>> listIterator = lists.iterator();
+            return new Iterator<Instance>() {
+                
+                private Iterator<Instance> current = Collections.emptyIterator();
+                
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && listIterator.hasNext()) {
+                        current = listIterator.next().iterator();
+                    }
+                    return current.hasNext();
+                }
+                
+                @Override
+                public Instance next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
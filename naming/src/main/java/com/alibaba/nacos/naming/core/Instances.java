@@ -19,6 +19,7 @@ package com.alibaba.nacos.naming.core;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.MD5Utils;
 import com.alibaba.nacos.api.common.Constants;
+import com.alibaba.nacos.naming.misc.NamingChecksums;
 import com.alibaba.nacos.naming.pojo.Record;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -66,9 +67,25 @@ public class Instances implements Record {
     }
     
     private String recalculateChecksum() {
-        StringBuilder sb = new StringBuilder();
-        Collections.sort(instanceList);
+        // order-independent, so the instance list needn't be sorted
+        long hash = 0L;
         for (Instance ip : instanceList) {
+            hash += ip.fullChecksumHash();
+        }
+        return NamingChecksums.HASH_PREFIX + Long.toHexString(hash) + "-" + Integer.toHexString(instanceList.size());
+    }
+    
+    /**
+     * Get the MD5 checksum of the servers before the hash checksums, only used during a rolling upgrade.
+     *
+     * @return MD5 checksum
+     */
+    @JsonIgnore
+    public String getLegacyChecksum() {
+        StringBuilder sb = new StringBuilder();
+        List<Instance> sorted = new ArrayList<>(instanceList);
+        Collections.sort(sorted);
+        for (Instance ip : sorted) {
             String string =
                     ip.getIp() + ":" + ip.getPort() + "_" + ip.getWeight() + "_" + ip.isHealthy() + "_" + ip.isEnabled()
                             + "_" + ip.getClusterName() + "_" + convertMap2String(ip.getMetadata());
@@ -79,6 +96,17 @@ public class Instances implements Record {
         return MD5Utils.md5Hex(sb.toString(), Constants.ENCODE);
     }
     
+    /**
+     * Whether the checksum of another server equals the local one of the same version.
+     *
+     * @param checksum checksum of another server
+     * @return true if equals
+     */
+    public boolean checksumEquals(String checksum) {
+        return NamingChecksums.isHashChecksum(checksum) ? checksum.equals(getChecksum())
+                : checksum.equals(getLegacyChecksum());
+    }
+    
     /**
      * Convert Map to KV string with ':'.
      *
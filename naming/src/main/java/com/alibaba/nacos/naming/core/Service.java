@@ -23,10 +23,10 @@ import com.alibaba.nacos.api.common.Constants;
 import com.alibaba.nacos.naming.consistency.KeyBuilder;
 import com.alibaba.nacos.naming.consistency.RecordListener;
 import com.alibaba.nacos.naming.healthcheck.ClientBeatCheckTask;
-import com.alibaba.nacos.naming.healthcheck.ClientBeatProcessor;
 import com.alibaba.nacos.naming.healthcheck.HealthCheckReactor;
 import com.alibaba.nacos.naming.healthcheck.RsInfo;
 import com.alibaba.nacos.naming.misc.Loggers;
+import com.alibaba.nacos.naming.misc.NamingChecksums;
 import com.alibaba.nacos.naming.misc.UtilsAndCommons;
 import com.alibaba.nacos.naming.pojo.Record;
 import com.alibaba.nacos.naming.push.PushService;
@@ -100,6 +100,9 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
     
     private Map<String, Cluster> clusterMap = new HashMap<>();
     
+    @JsonIgnore
+    private volatile InstanceSnapshot instanceSnapshot = InstanceSnapshot.EMPTY;
+    
     public Service() {
     }
     
@@ -112,6 +115,11 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
         return ApplicationUtils.getBean(PushService.class);
     }
     
+    @JsonIgnore
+    public ClientBeatCheckTask getClientBeatCheckTask() {
+        return clientBeatCheckTask;
+    }
+    
     public long getIpDeleteTimeout() {
         return ipDeleteTimeout;
     }
@@ -126,10 +134,7 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
      * @param rsInfo metrics info of server
      */
     public void processClientBeat(final RsInfo rsInfo) {
-        ClientBeatProcessor clientBeatProcessor = new ClientBeatProcessor();
-        clientBeatProcessor.setService(this);
-        clientBeatProcessor.setRsInfo(rsInfo);
-        HealthCheckReactor.scheduleNow(clientBeatProcessor);
+        HealthCheckReactor.scheduleBeat(this, rsInfo);
     }
     
     public Boolean getEnabled() {
@@ -211,18 +216,12 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
      * @return count of healthy instance
      */
     public int healthyInstanceCount() {
-        
-        int healthyCount = 0;
-        for (Instance instance : allIPs()) {
-            if (instance.isHealthy()) {
-                healthyCount++;
-            }
-        }
-        return healthyCount;
+        return getInstanceSnapshot().getHealthyInstances().size();
     }
     
     public boolean triggerFlag() {
-        return (healthyInstanceCount() * 1.0 / allIPs().size()) <= getProtectThreshold();
+        InstanceSnapshot snapshot = getInstanceSnapshot();
+        return (snapshot.getHealthyInstances().size() * 1.0 / snapshot.getInstances().size()) <= getProtectThreshold();
     }
     
     /**
@@ -292,7 +291,6 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
      * Init service.
      */
     public void init() {
-        HealthCheckReactor.scheduleCheck(clientBeatCheckTask);
         for (Map.Entry<String, Cluster> entry : clusterMap.entrySet()) {
             entry.getValue().setService(this);
             entry.getValue().init();
@@ -308,7 +306,9 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
         for (Map.Entry<String, Cluster> entry : clusterMap.entrySet()) {
             entry.getValue().destroy();
         }
-        HealthCheckReactor.cancelCheck(clientBeatCheckTask);
+        for (Instance instance : getInstanceSnapshot().getEphemeralInstances()) {
+            HealthCheckReactor.cancelBeatCheck(instance);
+        }
     }
     
     /**
@@ -332,12 +332,7 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
      * @return list of all instance
      */
     public List<Instance> allIPs() {
-        List<Instance> result = new ArrayList<>();
-        for (Map.Entry<String, Cluster> entry : clusterMap.entrySet()) {
-            result.addAll(entry.getValue().allIPs());
-        }
-        
-        return result;
+        return new ArrayList<>(getInstanceSnapshot().getInstances());
     }
     
     /**
@@ -347,12 +342,8 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
      * @return all instance of ephemeral if @param ephemeral = true, otherwise all instance of consistency
      */
     public List<Instance> allIPs(boolean ephemeral) {
-        List<Instance> result = new ArrayList<>();
-        for (Map.Entry<String, Cluster> entry : clusterMap.entrySet()) {
-            result.addAll(entry.getValue().allIPs(ephemeral));
-        }
-        
-        return result;
+        InstanceSnapshot snapshot = getInstanceSnapshot();
+        return new ArrayList<>(ephemeral ? snapshot.getEphemeralInstances() : snapshot.getPersistentInstances());
     }
     
     /**
@@ -388,6 +379,75 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
         return allIPs(clusters);
     }
     
+    /**
+     * Get the immutable snapshot of all instances, which can be read without copying.
+     *
+     * <p>The snapshot of service is merged from the snapshots of its clusters, and only re-merged when any of them
+     * changes. Checking the cached one allocates nothing.
+     *
+     * @return instance snapshot of service
+     */
+    @JsonIgnore
+    public InstanceSnapshot getInstanceSnapshot() {
+        InstanceSnapshot current = instanceSnapshot;
+        if (isMergedFromClusters(current)) {
+            return current;
+        }
+        List<InstanceSnapshot> snapshots = new ArrayList<>(clusterMap.size());
+        for (Cluster cluster : clusterMap.values()) {
+            snapshots.add(cluster.getInstanceSnapshot());
+        }
+        current = InstanceSnapshot.merge(snapshots);
+        instanceSnapshot = current;
+        return current;
+    }
+    
+    /**
+     * Get the immutable snapshot of instances in input clusters. The snapshot of several clusters views the cached
+     * snapshots of them, no instance is copied.
+     *
+     * @param clusters cluster names
+     * @return instance snapshot of input clusters, if clusters is empty, return snapshot of all clusters
+     */
+    public InstanceSnapshot getInstanceSnapshot(List<String> clusters) {
+        if (CollectionUtils.isEmpty(clusters)) {
+            return getInstanceSnapshot();
+        }
+        if (clusters.size() == 1) {
+            Cluster clusterObj = clusterMap.get(clusters.get(0));
+            return clusterObj == null ? InstanceSnapshot.EMPTY : clusterObj.getInstanceSnapshot();
+        }
+        List<InstanceSnapshot> snapshots = new ArrayList<>(clusters.size());
+        for (String cluster : clusters) {
+            Cluster clusterObj = clusterMap.get(cluster);
+            if (clusterObj != null) {
+                snapshots.add(clusterObj.getInstanceSnapshot());
+            }
+        }
+        return InstanceSnapshot.merge(snapshots);
+    }
+    
+    private boolean isMergedFromClusters(InstanceSnapshot snapshot) {
+        final int partCount = snapshot.getPartCount();
+        int index = 0;
+        for (Cluster cluster : clusterMap.values()) {
+            if (index >= partCount || snapshot.getPart(index) != cluster.getInstanceSnapshot()) {
+                return false;
+            }
+            index++;
+        }
+        return index == partCount;
+    }
+    
+    /**
+     * Mark instance snapshots of all clusters as stale, should be called after instances are changed in place.
+     */
+    public void invalidateInstanceSnapshot() {
+        for (Cluster cluster : clusterMap.values()) {
+            cluster.invalidateInstanceSnapshot();
+        }
+    }
+    
     public String toJson() {
         return JacksonUtils.toJson(this);
     }
@@ -399,19 +459,9 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
         
         serviceObject.put("name", service.getName());
         
-        List<Instance> ips = service.allIPs();
-        int invalidIpCount = 0;
-        int ipCount = 0;
-        for (Instance ip : ips) {
-            if (!ip.isHealthy()) {
-                invalidIpCount++;
-            }
-            
-            ipCount++;
-        }
-        
-        serviceObject.put("ipCount", ipCount);
-        serviceObject.put("invalidIPCount", invalidIpCount);
+        InstanceSnapshot snapshot = service.getInstanceSnapshot();
+        serviceObject.put("ipCount", snapshot.getInstances().size());
+        serviceObject.put("invalidIPCount", snapshot.getUnhealthyInstances().size());
         
         serviceObject.put("owners", service.getOwners());
         serviceObject.put("token", service.getToken());
@@ -534,29 +584,54 @@ public class Service extends com.alibaba.nacos.api.naming.pojo.Service implement
     
     /**
      * Re-calculate checksum of service.
+     *
+     * <p>Instances are represented by the order-independent hash kept in {@link InstanceSnapshot}, which is calculated
+     * only when the snapshot of a cluster changes, so instances needn't be sorted and concatenated here.
      */
     public synchronized void recalculateChecksum() {
-        List<Instance> ips = allIPs();
-        
-        StringBuilder ipsString = new StringBuilder();
-        ipsString.append(getServiceString());
+        InstanceSnapshot snapshot = getInstanceSnapshot();
+        String serviceString = getServiceString();
         
         if (Loggers.SRV_LOG.isDebugEnabled()) {
-            Loggers.SRV_LOG.debug("service to json: " + getServiceString());
+            Loggers.SRV_LOG.debug("service to json: " + serviceString);
         }
         
-        if (CollectionUtils.isNotEmpty(ips)) {
-            Collections.sort(ips);
+        if (snapshot.isEmpty()) {
+            // The same as the MD5 checksum, so it is comparable with any version.
+            checksum = MD5Utils.md5Hex(serviceString, Constants.ENCODE);
+        } else {
+            checksum = NamingChecksums.HASH_PREFIX + MD5Utils
+                    .md5Hex(serviceString + snapshot.getChecksum(), Constants.ENCODE);
         }
-        
+    }
+    
+    /**
+     * Get the MD5 checksum of the servers before the hash checksums, only used during a rolling upgrade.
+     *
+     * @return MD5 checksum
+     */
+    @JsonIgnore
+    public String getLegacyChecksum() {
+        List<Instance> ips = allIPs();
+        Collections.sort(ips);
+        StringBuilder ipsString = new StringBuilder();
+        ipsString.append(getServiceString());
         for (Instance ip : ips) {
-            String string = ip.getIp() + ":" + ip.getPort() + "_" + ip.getWeight() + "_" + ip.isHealthy() + "_" + ip
-                    .getClusterName();
-            ipsString.append(string);
-            ipsString.append(",");
+            ipsString.append(ip.getIp()).append(':').append(ip.getPort()).append('_').append(ip.getWeight())
+                    .append('_').append(ip.isHealthy()).append('_').append(ip.getClusterName()).append(',');
         }
-        
-        checksum = MD5Utils.md5Hex(ipsString.toString(), Constants.ENCODE);
+        return MD5Utils.md5Hex(ipsString.toString(), Constants.ENCODE);
+    }
+    
+    /**
+     * Whether the checksum of another server equals the local one of the same version.
+     *
+     * @param checksum checksum of another server
+     * @return true if equals
+     */
+    public boolean checksumEquals(String checksum) {
+        return NamingChecksums.isHashChecksum(checksum) ? checksum.equals(getChecksum())
+                : checksum.equals(getLegacyChecksum());
     }
     
     private void updateOrAddCluster(Collection<Cluster> clusters) {
@@ -32,6 +32,7 @@ import com.alibaba.nacos.naming.consistency.persistent.raft.RaftPeerSet;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.misc.Message;
+import com.alibaba.nacos.naming.misc.NamingChecksums;
 import com.alibaba.nacos.naming.misc.NetUtils;
 import com.alibaba.nacos.naming.misc.ServiceStatusSynchronizer;
 import com.alibaba.nacos.naming.misc.SwitchDomain;
@@ -131,6 +132,8 @@ public class ServiceManager implements RecordListener<Service> {
      */
     @PostConstruct
     public void init() {
+        NamingChecksums.declare(memberManager);
+        
         GlobalExecutor.scheduleServiceReporter(new ServiceReporter(), 60000, TimeUnit.MILLISECONDS);
         
         GlobalExecutor.submitServiceUpdateManager(new UpdatedServiceProcessor());
@@ -923,7 +926,7 @@ public class ServiceManager implements RecordListener<Service> {
         int total = 0;
         for (String namespaceId : serviceMap.keySet()) {
             for (Service service : serviceMap.get(namespaceId).values()) {
-                total += service.allIPs().size();
+                total += service.getInstanceSnapshot().getInstances().size();
             }
         }
         return total;
@@ -1099,6 +1102,7 @@ public class ServiceManager implements RecordListener<Service> {
                 for (String namespaceId : allServiceNames.keySet()) {
                     
                     ServiceChecksum checksum = new ServiceChecksum(namespaceId);
+                    final boolean hashChecksum = NamingChecksums.isHashChecksumSupported(memberManager.allMembers());
                     
                     for (String serviceName : allServiceNames.get(namespaceId)) {
                         if (!distroMapper.responsible(serviceName)) {
@@ -1113,7 +1117,8 @@ public class ServiceManager implements RecordListener<Service> {
                         
                         service.recalculateChecksum();
                         
-                        checksum.addItem(serviceName, service.getChecksum());
+                        checksum.addItem(serviceName,
+                                hashChecksum ? service.getChecksum() : service.getLegacyChecksum());
                     }
                     
                     Message msg = new Message();
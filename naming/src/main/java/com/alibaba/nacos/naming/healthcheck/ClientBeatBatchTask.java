@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.healthcheck;
+
+import com.alibaba.nacos.common.task.AbstractDelayTask;
+import com.alibaba.nacos.naming.core.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client beat batch task, all beats of one service within the batch window are merged into one task.
+ *
+ * @author nacos
+ */
+public class ClientBeatBatchTask extends AbstractDelayTask {
+    
+    private final Service service;
+    
+    private List<RsInfo> rsInfos;
+    
+    public ClientBeatBatchTask(Service service, RsInfo rsInfo, long window) {
+        this.service = service;
+        this.rsInfos = new ArrayList<>();
+        this.rsInfos.add(rsInfo);
+        setTaskInterval(window);
+        setLastProcessTime(System.currentTimeMillis());
+    }
+    
+    @Override
+    public void merge(AbstractDelayTask task) {
+        if (!(task instanceof ClientBeatBatchTask)) {
+            return;
+        }
+        // Append to the beats of the old task instead of copying them, the old task is dropped after merging.
+        ClientBeatBatchTask oldTask = (ClientBeatBatchTask) task;
+        oldTask.rsInfos.addAll(rsInfos);
+        rsInfos = oldTask.rsInfos;
+        setLastProcessTime(Math.min(getLastProcessTime(), oldTask.getLastProcessTime()));
+    }
+    
+    public Service getService() {
+        return service;
+    }
+    
+    public List<RsInfo> getRsInfos() {
+        return rsInfos;
+    }
+}
@@ -41,9 +41,12 @@ import java.util.List;
 /**
  * Check and update statues of ephemeral instances, remove them if they have been expired.
  *
+ * <p>It is not scheduled periodically any more, {@link HealthCheckReactor} calls it with the instances whose heartbeat
+ * deadline arrived.
+ *
  * @author nkorange
  */
-public class ClientBeatCheckTask implements Runnable {
+public class ClientBeatCheckTask {
     
     private Service service;
     
@@ -73,8 +76,12 @@ public class ClientBeatCheckTask implements Runnable {
         return KeyBuilder.buildServiceMetaKey(service.getNamespaceId(), service.getName());
     }
     
-    @Override
-    public void run() {
+    /**
+     * Check heartbeat of instances.
+     *
+     * @param instances ephemeral instances whose heartbeat deadline arrived
+     */
+    public void check(List<Instance> instances) {
         try {
             if (!getDistroMapper().responsible(service.getName())) {
                 return;
@@ -84,8 +91,6 @@ public class ClientBeatCheckTask implements Runnable {
                 return;
             }
             
-            List<Instance> instances = service.allIPs(true);
-            
             // first set health status of instances:
             for (Instance instance : instances) {
                 if (System.currentTimeMillis() - instance.getLastBeat() > instance.getInstanceHeartBeatTimeOut()) {
@@ -22,14 +22,20 @@ import com.alibaba.nacos.naming.core.Instance;
 import com.alibaba.nacos.naming.core.Service;
 import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.misc.UtilsAndCommons;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
 import com.alibaba.nacos.naming.push.PushService;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Thread to update ephemeral instance triggered by client beat.
+ * Thread to update ephemeral instances triggered by a batch of client beats of one service.
+ *
+ * <p>The instances of every cluster are indexed once per batch, and the service is pushed at most once no matter how
+ * many instances become healthy in the batch.
  *
  * @author nkorange
  */
@@ -37,7 +43,7 @@ public class ClientBeatProcessor implements Runnable {
     
     public static final long CLIENT_BEAT_TIMEOUT = TimeUnit.SECONDS.toMillis(15);
     
-    private RsInfo rsInfo;
+    private List<RsInfo> rsInfos;
     
     private Service service;
     
@@ -46,12 +52,12 @@ public class ClientBeatProcessor implements Runnable {
         return ApplicationUtils.getBean(PushService.class);
     }
     
-    public RsInfo getRsInfo() {
-        return rsInfo;
+    public List<RsInfo> getRsInfos() {
+        return rsInfos;
     }
     
-    public void setRsInfo(RsInfo rsInfo) {
-        this.rsInfo = rsInfo;
+    public void setRsInfos(List<RsInfo> rsInfos) {
+        this.rsInfos = rsInfos;
     }
     
     public Service getService() {
@@ -65,33 +71,47 @@ public class ClientBeatProcessor implements Runnable {
     @Override
     public void run() {
         Service service = this.service;
-        if (Loggers.EVT_LOG.isDebugEnabled()) {
-            Loggers.EVT_LOG.debug("[CLIENT-BEAT] processing beat: {}", rsInfo.toString());
+        Map<String, Map<String, Instance>> clusterInstances = new HashMap<>(4);
+        long now = System.currentTimeMillis();
+        boolean changed = false;
+        for (RsInfo rsInfo : rsInfos) {
+            if (Loggers.EVT_LOG.isDebugEnabled()) {
+                Loggers.EVT_LOG.debug("[CLIENT-BEAT] processing beat: {}", rsInfo.toString());
+            }
+            Map<String, Instance> instances = clusterInstances
+                    .computeIfAbsent(rsInfo.getCluster(), this::indexInstances);
+            Instance instance = instances.get(rsInfo.getIp() + ":" + rsInfo.getPort());
+            if (instance == null) {
+                continue;
+            }
+            if (Loggers.EVT_LOG.isDebugEnabled()) {
+                Loggers.EVT_LOG.debug("[CLIENT-BEAT] refresh beat: {}", rsInfo.toString());
+            }
+            instance.setLastBeat(now);
+            if (!instance.isMarked() && !instance.isHealthy()) {
+                instance.setHealthy(true);
+                Loggers.EVT_LOG.info("service: {} {POS} {IP-ENABLED} valid: {}:{}@{}, region: {}, msg: client beat ok",
+                        service.getName(), rsInfo.getIp(), rsInfo.getPort(), rsInfo.getCluster(),
+                        UtilsAndCommons.LOCALHOST_SITE);
+                changed = true;
+            }
         }
-        
-        String ip = rsInfo.getIp();
-        String clusterName = rsInfo.getCluster();
-        int port = rsInfo.getPort();
+        MetricsMonitor.getClientBeatCounter().increment(rsInfos.size());
+        if (changed) {
+            getPushService().serviceChanged(service);
+        }
+    }
+    
+    private Map<String, Instance> indexInstances(String clusterName) {
         Cluster cluster = service.getClusterMap().get(clusterName);
-        List<Instance> instances = cluster.allIPs(true);
-        
+        if (cluster == null) {
+            return new HashMap<>(1);
+        }
+        List<Instance> instances = cluster.getInstanceSnapshot().getEphemeralInstances();
+        Map<String, Instance> result = new HashMap<>(instances.size() * 2);
         for (Instance instance : instances) {
-            if (instance.getIp().equals(ip) && instance.getPort() == port) {
-                if (Loggers.EVT_LOG.isDebugEnabled()) {
-                    Loggers.EVT_LOG.debug("[CLIENT-BEAT] refresh beat: {}", rsInfo.toString());
-                }
-                instance.setLastBeat(System.currentTimeMillis());
-                if (!instance.isMarked()) {
-                    if (!instance.isHealthy()) {
-                        instance.setHealthy(true);
-                        Loggers.EVT_LOG
-                                .info("service: {} {POS} {IP-ENABLED} valid: {}:{}@{}, region: {}, msg: client beat ok",
-                                        cluster.getService().getName(), ip, port, cluster.getName(),
-                                        UtilsAndCommons.LOCALHOST_SITE);
-                        getPushService().serviceChanged(service);
-                    }
-                }
-            }
+            result.put(instance.toIpAddr(), instance);
         }
+        return result;
     }
 }
@@ -16,11 +16,20 @@
 
 package com.alibaba.nacos.naming.healthcheck;
 
+import com.alibaba.nacos.common.task.engine.NacosDelayTaskExecuteEngine;
+import com.alibaba.nacos.common.timer.HashedTimingWheel;
+import com.alibaba.nacos.common.timer.Timeout;
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Service;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.misc.Loggers;
+import com.alibaba.nacos.naming.misc.UtilsAndCommons;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -32,7 +41,41 @@ import java.util.concurrent.TimeUnit;
 @SuppressWarnings("PMD.ThreadPoolCreationRule")
 public class HealthCheckReactor {
     
-    private static Map<String, ScheduledFuture> futureMap = new ConcurrentHashMap<>();
+    private static final long BEAT_CHECK_TICK_MILLIS = 500L;
+    
+    private static final int BEAT_CHECK_TICKS = 512;
+    
+    /**
+     * Recheck delay for instances whose deadline has passed but are still alive, e.g. waiting to be deleted.
+     */
+    private static final long BEAT_RECHECK_DELAY_MILLIS = 5000L;
+    
+    /**
+     * Heartbeat deadlines of all ephemeral instances. Only instances which are due will be checked.
+     */
+    private static final HashedTimingWheel<BeatCheckItem> BEAT_CHECK_WHEEL = new HashedTimingWheel<>(
+            "com.alibaba.nacos.naming.beat.check", BEAT_CHECK_TICK_MILLIS, TimeUnit.MILLISECONDS, BEAT_CHECK_TICKS,
+            HealthCheckReactor::onBeatCheckExpired);
+    
+    /**
+     * Window to buffer client beats of one service before applying them in one batch.
+     */
+    private static final long BEAT_BATCH_WINDOW_MILLIS = 50L;
+    
+    private static final NacosDelayTaskExecuteEngine BEAT_BATCH_ENGINE = new NacosDelayTaskExecuteEngine(
+            "com.alibaba.nacos.naming.beat.batch", Loggers.EVT_LOG, BEAT_BATCH_WINDOW_MILLIS);
+    
+    static {
+        BEAT_BATCH_ENGINE.setDefaultTaskProcessor(task -> {
+            ClientBeatBatchTask batchTask = (ClientBeatBatchTask) task;
+            ClientBeatProcessor clientBeatProcessor = new ClientBeatProcessor();
+            clientBeatProcessor.setService(batchTask.getService());
+            clientBeatProcessor.setRsInfos(batchTask.getRsInfos());
+            MetricsMonitor.getClientBeatBatchCounter().increment();
+            scheduleNow(clientBeatProcessor);
+            return true;
+        });
+    }
     
     /**
      * Schedule health check task.
@@ -46,30 +89,115 @@ public class HealthCheckReactor {
     }
     
     /**
-     * Schedule client beat check task with a delay.
+     * Start heartbeat check of an ephemeral instance, do nothing if it has been started.
+     *
+     * @param service  service of instance
+     * @param instance ephemeral instance
+     */
+    public static void scheduleBeatCheck(Service service, Instance instance) {
+        if (instance.getBeatCheckToken() != null) {
+            return;
+        }
+        BeatCheckItem item = new BeatCheckItem(service, instance);
+        instance.setBeatCheckToken(item);
+        armBeatCheck(item, System.currentTimeMillis());
+    }
+    
+    /**
+     * Stop heartbeat check of an instance, the pending deadline is removed from the wheel in its next tick.
      *
-     * @param task client beat check task
+     * @param instance instance
      */
-    public static void scheduleCheck(ClientBeatCheckTask task) {
-        futureMap.putIfAbsent(task.taskKey(), GlobalExecutor.scheduleNamingHealth(task, 5000, 5000, TimeUnit.MILLISECONDS));
+    public static void cancelBeatCheck(Instance instance) {
+        Object token = instance.getBeatCheckToken();
+        instance.setBeatCheckToken(null);
+        if (token instanceof BeatCheckItem) {
+            ((BeatCheckItem) token).cancel();
+        }
     }
     
     /**
-     * Cancel client beat check task.
+     * Hand the heartbeat check of an instance over to the object which replaces it, the pending deadline is kept.
      *
-     * @param task client beat check task
+     * <p>Starts a new check if the replaced object has none.
+     *
+     * @param service  service of instance
+     * @param replaced instance object being replaced
+     * @param instance instance object replacing it
      */
-    public static void cancelCheck(ClientBeatCheckTask task) {
-        ScheduledFuture scheduledFuture = futureMap.get(task.taskKey());
-        if (scheduledFuture == null) {
+    public static void transferBeatCheck(Service service, Instance replaced, Instance instance) {
+        if (replaced == instance || instance.getBeatCheckToken() != null) {
             return;
         }
-        try {
-            scheduledFuture.cancel(true);
-            futureMap.remove(task.taskKey());
-        } catch (Exception e) {
-            Loggers.EVT_LOG.error("[CANCEL-CHECK] cancel failed!", e);
+        Object token = replaced.getBeatCheckToken();
+        if (!(token instanceof BeatCheckItem)) {
+            scheduleBeatCheck(service, instance);
+            return;
         }
+        BeatCheckItem item = (BeatCheckItem) token;
+        item.instance = instance;
+        instance.setBeatCheckToken(item);
+        replaced.setBeatCheckToken(null);
+    }
+    
+    public static long pendingBeatChecks() {
+        return BEAT_CHECK_WHEEL.pendingTimeouts();
+    }
+    
+    private static void armBeatCheck(BeatCheckItem item, long now) {
+        Instance instance = item.instance;
+        long timeout = instance.isHealthy() || instance.isMarked() ? instance.getInstanceHeartBeatTimeOut()
+                : instance.getIpDeleteTimeout();
+        long delay = instance.getLastBeat() + timeout - now;
+        if (delay <= 0) {
+            delay = BEAT_RECHECK_DELAY_MILLIS;
+        }
+        item.timeout = BEAT_CHECK_WHEEL.newTimeout(item, delay, TimeUnit.MILLISECONDS);
+        // cancelled while arming, the cancel may have missed the new deadline
+        if (instance.getBeatCheckToken() != item) {
+            item.cancel();
+        }
+    }
+    
+    private static void onBeatCheckExpired(List<BeatCheckItem> items) {
+        Map<Service, List<BeatCheckItem>> groupByService = new HashMap<>(items.size());
+        for (BeatCheckItem item : items) {
+            // the instance has been removed or replaced since this deadline was scheduled
+            if (item.instance.getBeatCheckToken() != item) {
+                continue;
+            }
+            groupByService.computeIfAbsent(item.service, service -> new ArrayList<>()).add(item);
+        }
+        for (Map.Entry<Service, List<BeatCheckItem>> entry : groupByService.entrySet()) {
+            final List<BeatCheckItem> dueItems = entry.getValue();
+            scheduleNow(() -> {
+                List<Instance> instances = new ArrayList<>(dueItems.size());
+                for (BeatCheckItem item : dueItems) {
+                    instances.add(item.instance);
+                }
+                try {
+                    entry.getKey().getClientBeatCheckTask().check(instances);
+                } finally {
+                    long now = System.currentTimeMillis();
+                    for (BeatCheckItem item : dueItems) {
+                        if (item.instance.getBeatCheckToken() == item) {
+                            armBeatCheck(item, now);
+                        }
+                    }
+                }
+            });
+        }
+    }
+    
+    /**
+     * Buffer a client beat, all beats of the service within the batch window are processed in one batch.
+     *
+     * @param service service of the beat
+     * @param rsInfo  beat info
+     */
+    public static void scheduleBeat(Service service, RsInfo rsInfo) {
+        String serviceKey = UtilsAndCommons.assembleFullServiceName(service.getNamespaceId(), service.getName());
+        BEAT_BATCH_ENGINE.addTask(serviceKey, new ClientBeatBatchTask(service, rsInfo, BEAT_BATCH_WINDOW_MILLIS));
     }
     
     /**
@@ -81,4 +209,25 @@ public class HealthCheckReactor {
     public static ScheduledFuture<?> scheduleNow(Runnable task) {
         return GlobalExecutor.scheduleNamingHealth(task, 0, TimeUnit.MILLISECONDS);
     }
+    
+    private static final class BeatCheckItem {
+        
+        private final Service service;
+        
+        private volatile Instance instance;
+        
+        private volatile Timeout<BeatCheckItem> timeout;
+        
+        BeatCheckItem(Service service, Instance instance) {
+            this.service = service;
+            this.instance = instance;
+        }
+        
+        void cancel() {
+            final Timeout<BeatCheckItem> current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
 }
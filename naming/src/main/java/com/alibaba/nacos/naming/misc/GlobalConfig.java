@@ -42,6 +42,9 @@ public class GlobalConfig {
     @Value("${nacos.naming.distro.syncRetryDelay:5000}")
     private long syncRetryDelay = 5000L;
     
+    @Value("${nacos.naming.distro.deltaSync:true}")
+    private boolean distroDeltaSync = true;
+    
     @Value("${nacos.naming.data.warmup:false}")
     private boolean dataWarmup = false;
     
@@ -79,6 +82,10 @@ public class GlobalConfig {
         return syncRetryDelay;
     }
     
+    public boolean isDistroDeltaSync() {
+        return distroDeltaSync;
+    }
+    
     public boolean isDataWarmup() {
         return dataWarmup;
     }
@@ -94,7 +101,8 @@ public class GlobalConfig {
     @Override
     public String toString() {
         return "GlobalConfig{" + "taskDispatchPeriod=" + taskDispatchPeriod + ", batchSyncKeyCount=" + batchSyncKeyCount
-                + ", syncRetryDelay=" + syncRetryDelay + ", dataWarmup=" + dataWarmup + ", expireInstance="
-                + expireInstance + ", loadDataRetryDelayMillis=" + loadDataRetryDelayMillis + '}';
+                + ", syncRetryDelay=" + syncRetryDelay + ", distroDeltaSync=" + distroDeltaSync + ", dataWarmup="
+                + dataWarmup + ", expireInstance=" + expireInstance + ", loadDataRetryDelayMillis="
+                + loadDataRetryDelayMillis + '}';
     }
 }
@@ -107,10 +107,6 @@ public class GlobalExecutor {
             .newSingleScheduledExecutorService(ClassUtils.getCanonicalName(NamingApp.class),
                     new NameThreadFactory("com.alibaba.nacos.naming.push.retransmitter"));
     
-    private static final ScheduledExecutorService UDP_SENDER_EXECUTOR = ExecutorFactory.Managed
-            .newSingleScheduledExecutorService(ClassUtils.getCanonicalName(NamingApp.class),
-                    new NameThreadFactory("com.alibaba.nacos.naming.push.udpSender"));
-    
     private static final ScheduledExecutorService SERVER_PERFORMANCE_EXECUTOR = ExecutorFactory.Managed
             .newSingleScheduledExecutorService(ClassUtils.getCanonicalName(NamingApp.class),
                     new NameThreadFactory("com.alibaba.nacos.naming.nacos-server-performance"));
@@ -201,14 +197,6 @@ public class GlobalExecutor {
         RETRANSMITTER_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, delay, unit);
     }
     
-    public static void scheduleRetransmitter(Runnable runnable, long delay, TimeUnit unit) {
-        RETRANSMITTER_EXECUTOR.schedule(runnable, delay, unit);
-    }
-    
-    public static ScheduledFuture<?> scheduleUdpSender(Runnable runnable, long delay, TimeUnit unit) {
-        return UDP_SENDER_EXECUTOR.schedule(runnable, delay, unit);
-    }
-    
     public static void schedulePerformanceLogger(Runnable runnable, long initialDelay, long delay, TimeUnit unit) {
         SERVER_PERFORMANCE_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, delay, unit);
     }
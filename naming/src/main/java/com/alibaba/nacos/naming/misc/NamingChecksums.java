@@ -0,0 +1,77 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.misc;
+
+import com.alibaba.nacos.core.cluster.Member;
+import com.alibaba.nacos.core.cluster.ServerMemberManager;
+
+import java.util.Collection;
+
+/**
+ * Versions of the service and instance list checksums exchanged between servers.
+ *
+ * <p>Servers before the hash checksums send MD5 checksums and compare what they receive with their own MD5 ones. So
+ * during a rolling upgrade a server keeps sending the MD5 checksums until every member declares the hash checksums in
+ * its metadata, and compares a received checksum with the local one of the same version.
+ *
+ * @author nacos
+ */
+public final class NamingChecksums {
+    
+    /**
+     * Member metadata key by which a server declares that it understands the hash checksums.
+     */
+    public static final String MEMBER_META_KEY = "namingChecksumVersion";
+    
+    /**
+     * Prefix of the hash checksums, the MD5 checksums are plain hex.
+     */
+    public static final String HASH_PREFIX = "h2-";
+    
+    private NamingChecksums() {
+    }
+    
+    public static boolean isHashChecksum(String checksum) {
+        return checksum != null && checksum.startsWith(HASH_PREFIX);
+    }
+    
+    /**
+     * Declare the hash checksums in the metadata of this server, which is reported to the other members.
+     *
+     * @param memberManager {@link ServerMemberManager}
+     */
+    public static void declare(ServerMemberManager memberManager) {
+        Member self = memberManager.getSelf();
+        self.setExtendVal(MEMBER_META_KEY, HASH_PREFIX);
+        memberManager.update(self);
+    }
+    
+    /**
+     * Whether the hash checksums can be sent to the members.
+     *
+     * @param members all members of the cluster
+     * @return true if every member declared the hash checksums
+     */
+    public static boolean isHashChecksumSupported(Collection<Member> members) {
+        for (Member member : members) {
+            if (!HASH_PREFIX.equals(member.getExtendVal(MEMBER_META_KEY))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -42,6 +42,8 @@ public class NamingProxy {
     
     private static final String DATA_ON_SYNC_URL = "/distro/datum";
     
+    private static final String DELTA_ON_SYNC_URL = "/distro/delta";
+    
     private static final String DATA_GET_URL = "/distro/datum";
     
     private static final String ALL_DATA_GET_URL = "/distro/datums";
@@ -159,6 +161,34 @@ public class NamingProxy {
      * @return true if sync successfully, otherwise false
      */
     public static boolean syncData(byte[] data, String curServer) {
+        return isSynced(doSyncData(DATA_ON_SYNC_URL, data, curServer));
+    }
+    
+    /**
+     * Synchronize deltas of datum to target server.
+     *
+     * <p>A server without delta sync answers {@link HttpURLConnection#HTTP_NOT_FOUND} or {@link
+     * HttpURLConnection#HTTP_BAD_METHOD}, the caller should sync the whole datum to it instead.
+     *
+     * @param data      deltas of datum
+     * @param curServer target server address
+     * @return response code of target server, -1 if the request failed
+     */
+    public static int syncDelta(byte[] data, String curServer) {
+        return doSyncData(DELTA_ON_SYNC_URL + "?source=" + NetUtils.localServer(), data, curServer);
+    }
+    
+    /**
+     * Whether the response code of a sync request means synced.
+     *
+     * @param code response code
+     * @return true if synced
+     */
+    public static boolean isSynced(int code) {
+        return HttpURLConnection.HTTP_OK == code || HttpURLConnection.HTTP_NOT_MODIFIED == code;
+    }
+    
+    private static int doSyncData(String path, byte[] data, String curServer) {
         Map<String, String> headers = new HashMap<>(128);
         
         headers.put(HttpHeaderConsts.CLIENT_VERSION_HEADER, VersionUtils.version);
@@ -169,21 +199,22 @@ public class NamingProxy {
         
         try {
             RestResult<String> result = HttpClient.httpPutLarge(
-                    "http://" + curServer + EnvUtil.getContextPath() + UtilsAndCommons.NACOS_NAMING_CONTEXT
-                            + DATA_ON_SYNC_URL, headers, data);
+                    "http://" + curServer + EnvUtil.getContextPath() + UtilsAndCommons.NACOS_NAMING_CONTEXT + path,
+                    headers, data);
             if (result.ok()) {
-                return true;
+                return HttpURLConnection.HTTP_OK;
             }
-            if (HttpURLConnection.HTTP_NOT_MODIFIED == result.getCode()) {
-                return true;
+            if (HttpURLConnection.HTTP_NOT_MODIFIED != result.getCode()) {
+                Loggers.SRV_LOG.warn("NamingProxy", new IOException(
+                        "failed to req API:" + "http://" + curServer + EnvUtil.getContextPath()
+                                + UtilsAndCommons.NACOS_NAMING_CONTEXT + path + ". code:" + result.getCode() + " msg: "
+                                + result.getData()));
             }
-            throw new IOException("failed to req API:" + "http://" + curServer + EnvUtil.getContextPath()
-                    + UtilsAndCommons.NACOS_NAMING_CONTEXT + DATA_ON_SYNC_URL + ". code:" + result.getCode() + " msg: "
-                    + result.getData());
+            return result.getCode();
         } catch (Exception e) {
             Loggers.SRV_LOG.warn("NamingProxy", e);
         }
-        return false;
+        return -1;
     }
     
     /**
@@ -16,10 +16,13 @@
 
 package com.alibaba.nacos.naming.monitor;
 
+import com.alibaba.nacos.common.task.engine.NacosExecuteTaskExecuteEngine;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.ImmutableTag;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -152,4 +155,42 @@ public class MetricsMonitor {
     public static Counter getLeaderSendBeatFailedException() {
         return Metrics.counter("nacos_exception", "module", "naming", "name", "leaderSendBeatFailed");
     }
+    
+    public static DistributionSummary getDistroSyncBytesSummary() {
+        return Metrics.summary("nacos_naming_distro_sync_bytes", "module", "naming");
+    }
+    
+    public static Counter getClientBeatCounter() {
+        return Metrics.counter("nacos_naming_client_beat", "module", "naming");
+    }
+    
+    public static Counter getClientBeatBatchCounter() {
+        return Metrics.counter("nacos_naming_client_beat_batch", "module", "naming");
+    }
+    
+    /**
+     * Register the pending push task count of every push shard.
+     *
+     * @param pushExecuteEngine push execute engine
+     */
+    public static void registerPushQueueSize(NacosExecuteTaskExecuteEngine pushExecuteEngine) {
+        for (int i = 0; i < pushExecuteEngine.workersCount(); i++) {
+            final int shard = i;
+            List<Tag> tags = new ArrayList<Tag>();
+            tags.add(new ImmutableTag("module", "naming"));
+            tags.add(new ImmutableTag("shard", String.valueOf(shard)));
+            Metrics.gauge("nacos_naming_push_queue_size", tags, pushExecuteEngine, engine -> engine.pendingTaskCount(shard));
+        }
+    }
+    
+    /**
+     * Get push latency timer of push shard. Meters with shard tag are not named nacos_monitor or nacos_timer, because
+     * prometheus requires all meters with the same name to have the same tag keys.
+     *
+     * @param shard push shard
+     * @return push latency timer
+     */
+    public static Timer getPushLatencyTimer(int shard) {
+        return Metrics.timer("nacos_naming_push_latency", "module", "naming", "shard", String.valueOf(shard));
+    }
 }
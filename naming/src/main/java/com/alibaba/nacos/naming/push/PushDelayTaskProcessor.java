@@ -0,0 +1,49 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.push;
+
+import com.alibaba.nacos.common.task.NacosTask;
+import com.alibaba.nacos.common.task.NacosTaskProcessor;
+import com.alibaba.nacos.common.task.engine.NacosExecuteTaskExecuteEngine;
+import com.alibaba.nacos.naming.misc.UtilsAndCommons;
+
+/**
+ * Push delay task processor, dispatches merged push tasks to the push worker which is sharded by service key.
+ *
+ * @author nacos
+ */
+public class PushDelayTaskProcessor implements NacosTaskProcessor {
+    
+    private final PushService pushService;
+    
+    private final NacosExecuteTaskExecuteEngine pushExecuteEngine;
+    
+    public PushDelayTaskProcessor(PushService pushService, NacosExecuteTaskExecuteEngine pushExecuteEngine) {
+        this.pushService = pushService;
+        this.pushExecuteEngine = pushExecuteEngine;
+    }
+    
+    @Override
+    public boolean process(NacosTask task) {
+        PushDelayTask pushDelayTask = (PushDelayTask) task;
+        String serviceKey = UtilsAndCommons.assembleFullServiceName(pushDelayTask.getService().getNamespaceId(),
+                pushDelayTask.getService().getName());
+        pushExecuteEngine.addTask(serviceKey,
+                new PushExecuteTask(pushService, pushDelayTask, pushExecuteEngine.getWorkerIndex(serviceKey)));
+        return true;
+    }
+}
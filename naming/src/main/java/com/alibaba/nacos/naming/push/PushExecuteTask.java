@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.push;
+
+import com.alibaba.nacos.common.task.AbstractExecuteTask;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push execute task, pushes the latest data of one service to all its subscribers.
+ *
+ * @author nacos
+ */
+public class PushExecuteTask extends AbstractExecuteTask {
+    
+    private final PushService pushService;
+    
+    private final PushDelayTask delayTask;
+    
+    private final int shard;
+    
+    public PushExecuteTask(PushService pushService, PushDelayTask delayTask, int shard) {
+        this.pushService = pushService;
+        this.delayTask = delayTask;
+        this.shard = shard;
+    }
+    
+    @Override
+    public void run() {
+        pushService.push(delayTask.getService());
+        MetricsMonitor.getPushLatencyTimer(shard)
+                .record(System.currentTimeMillis() - delayTask.getFirstChangeTime(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public String toString() {
+        return "PushExecuteTask{service=" + delayTask.getService().getName() + ", shard=" + shard + '}';
+    }
+}
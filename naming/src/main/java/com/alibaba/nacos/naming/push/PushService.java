@@ -17,13 +17,19 @@
 package com.alibaba.nacos.naming.push;
 
 import com.alibaba.nacos.api.naming.utils.NamingUtils;
+import com.alibaba.nacos.common.timer.HashedTimingWheel;
+import com.alibaba.nacos.common.timer.Timeout;
+import com.alibaba.nacos.common.task.engine.NacosDelayTaskExecuteEngine;
+import com.alibaba.nacos.common.task.engine.NacosExecuteTaskExecuteEngine;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.naming.core.Service;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
 import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.misc.SwitchDomain;
 import com.alibaba.nacos.naming.misc.UtilsAndCommons;
+import com.alibaba.nacos.naming.monitor.MetricsMonitor;
 import com.alibaba.nacos.naming.pojo.Subscriber;
+import com.alibaba.nacos.naming.selector.NoneSelector;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jackson.util.VersionUtil;
@@ -37,9 +43,7 @@ import org.springframework.stereotype.Component;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
-import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -48,7 +52,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPOutputStream;
@@ -71,32 +74,40 @@ public class PushService implements ApplicationContextAware, ApplicationListener
     
     private static final int MAX_RETRY_TIMES = 1;
     
+    private static final long PUSH_DELAY_MILLIS = 1000L;
+    
     private static volatile ConcurrentMap<String, Receiver.AckEntry> ackMap = new ConcurrentHashMap<>();
     
     private static ConcurrentMap<String, ConcurrentMap<String, PushClient>> clientMap = new ConcurrentHashMap<>();
     
-    private static volatile ConcurrentMap<String, Long> udpSendTimeMap = new ConcurrentHashMap<>();
-    
     public static volatile ConcurrentMap<String, Long> pushCostMap = new ConcurrentHashMap<>();
     
     private static int totalPush = 0;
     
     private static int failedPush = 0;
     
-    private static DatagramSocket udpSocket;
+    private static final int UDP_SENDER_POOL_SIZE = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    
+    private static final long ACK_WHEEL_TICK_MILLIS = 100L;
+    
+    private static final int ACK_WHEEL_TICKS = 128;
+    
+    private static UdpSenderPool udpSenderPool;
+    
+    /**
+     * Timeouts of unacked pushes, all pushes expired in one tick are retransmitted in one batch.
+     */
+    private static final HashedTimingWheel<Receiver.AckEntry> ACK_TIMING_WHEEL = new HashedTimingWheel<>(
+            "com.alibaba.nacos.naming.push.retransmitter", ACK_WHEEL_TICK_MILLIS, TimeUnit.MILLISECONDS,
+            ACK_WHEEL_TICKS, PushService::retransmit);
+    
+    private final NacosDelayTaskExecuteEngine pushDelayTaskEngine;
     
-    private static ConcurrentMap<String, Future> futureMap = new ConcurrentHashMap<>();
+    private final NacosExecuteTaskExecuteEngine pushExecuteTaskEngine;
     
     static {
         try {
-            udpSocket = new DatagramSocket();
-            
-            Receiver receiver = new Receiver();
-            
-            Thread inThread = new Thread(receiver);
-            inThread.setDaemon(true);
-            inThread.setName("com.alibaba.nacos.naming.push.receiver");
-            inThread.start();
+            udpSenderPool = new UdpSenderPool(UDP_SENDER_POOL_SIZE, Receiver::onAck);
             
             GlobalExecutor.scheduleRetransmitter(() -> {
                 try {
@@ -106,11 +117,19 @@ public class PushService implements ApplicationContextAware, ApplicationListener
                 }
             }, 0, 20, TimeUnit.SECONDS);
             
-        } catch (SocketException e) {
+        } catch (IOException e) {
             Loggers.SRV_LOG.error("[NACOS-PUSH] failed to init push service");
         }
     }
     
+    public PushService() {
+        pushExecuteTaskEngine = new NacosExecuteTaskExecuteEngine("com.alibaba.nacos.naming.push.executor",
+                Loggers.PUSH);
+        pushDelayTaskEngine = new NacosDelayTaskExecuteEngine("com.alibaba.nacos.naming.push.delay", Loggers.PUSH);
+        pushDelayTaskEngine.setDefaultTaskProcessor(new PushDelayTaskProcessor(this, pushExecuteTaskEngine));
+        MetricsMonitor.registerPushQueueSize(pushExecuteTaskEngine);
+    }
+    
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
@@ -119,67 +138,63 @@ public class PushService implements ApplicationContextAware, ApplicationListener
     @Override
     public void onApplicationEvent(ServiceChangeEvent event) {
         Service service = event.getService();
+        String serviceKey = UtilsAndCommons.assembleFullServiceName(service.getNamespaceId(), service.getName());
+        pushDelayTaskEngine.addTask(serviceKey, new PushDelayTask(service, PUSH_DELAY_MILLIS));
+    }
+    
+    /**
+     * Push the latest data of service to all its subscribers.
+     *
+     * <p>The push data only depends on clusters and agent of client unless the service has a selector, so it is
+     * generated, serialized and compressed once for all clients with the same clusters and agent.
+     *
+     * @param service service
+     */
+    void push(Service service) {
         String serviceName = service.getName();
         String namespaceId = service.getNamespaceId();
-        
-        Future future = GlobalExecutor.scheduleUdpSender(() -> {
-            try {
-                Loggers.PUSH.info(serviceName + " is changed, add it to push queue.");
-                ConcurrentMap<String, PushClient> clients = clientMap
-                        .get(UtilsAndCommons.assembleFullServiceName(namespaceId, serviceName));
-                if (MapUtils.isEmpty(clients)) {
-                    return;
+        try {
+            Loggers.PUSH.info(serviceName + " is changed, add it to push queue.");
+            ConcurrentMap<String, PushClient> clients = clientMap
+                    .get(UtilsAndCommons.assembleFullServiceName(namespaceId, serviceName));
+            if (MapUtils.isEmpty(clients)) {
+                return;
+            }
+            
+            boolean selectByClient = service.getSelector() != null && !(service.getSelector() instanceof NoneSelector);
+            Map<String, Receiver.AckEntry> cache = new HashMap<>(16);
+            long lastRefTime = System.nanoTime();
+            for (PushClient client : clients.values()) {
+                if (client.zombie()) {
+                    Loggers.PUSH.debug("client is zombie: " + client.toString());
+                    clients.remove(client.toString());
+                    continue;
                 }
                 
-                Map<String, Object> cache = new HashMap<>(16);
-                long lastRefTime = System.nanoTime();
-                for (PushClient client : clients.values()) {
-                    if (client.zombie()) {
-                        Loggers.PUSH.debug("client is zombie: " + client.toString());
-                        clients.remove(client.toString());
-                        Loggers.PUSH.debug("client is zombie: " + client.toString());
-                        continue;
-                    }
-                    
-                    Receiver.AckEntry ackEntry;
-                    Loggers.PUSH.debug("push serviceName: {} to client: {}", serviceName, client.toString());
-                    String key = getPushCacheKey(serviceName, client.getIp(), client.getAgent());
-                    byte[] compressData = null;
-                    Map<String, Object> data = null;
-                    if (switchDomain.getDefaultPushCacheMillis() >= 20000 && cache.containsKey(key)) {
-                        org.javatuples.Pair pair = (org.javatuples.Pair) cache.get(key);
-                        compressData = (byte[]) (pair.getValue0());
-                        data = (Map<String, Object>) pair.getValue1();
-                        
-                        Loggers.PUSH.debug("[PUSH-CACHE] cache hit: {}:{}", serviceName, client.getAddrStr());
+                Receiver.AckEntry ackEntry;
+                Loggers.PUSH.debug("push serviceName: {} to client: {}", serviceName, client.toString());
+                String key = getPushCacheKey(serviceName, client.getClusters(), selectByClient ? client.getIp() : null,
+                        client.getAgent());
+                Receiver.AckEntry cachedEntry = cache.get(key);
+                if (cachedEntry != null) {
+                    ackEntry = prepareAckEntry(client, cachedEntry.origin.getData(), cachedEntry.data, lastRefTime);
+                    Loggers.PUSH.debug("[PUSH-CACHE] cache hit: {}:{}", serviceName, client.getAddrStr());
+                } else {
+                    ackEntry = prepareAckEntry(client, prepareHostsData(client), lastRefTime);
+                    if (ackEntry != null) {
+                        cache.put(key, ackEntry);
                     }
-                    
-                    if (compressData != null) {
-                        ackEntry = prepareAckEntry(client, compressData, data, lastRefTime);
-                    } else {
-                        ackEntry = prepareAckEntry(client, prepareHostsData(client), lastRefTime);
-                        if (ackEntry != null) {
-                            cache.put(key, new org.javatuples.Pair<>(ackEntry.origin.getData(), ackEntry.data));
-                        }
-                    }
-                    
-                    Loggers.PUSH.info("serviceName: {} changed, schedule push for: {}, agent: {}, key: {}",
-                            client.getServiceName(), client.getAddrStr(), client.getAgent(),
-                            (ackEntry == null ? null : ackEntry.key));
-                    
-                    udpPush(ackEntry);
                 }
-            } catch (Exception e) {
-                Loggers.PUSH.error("[NACOS-PUSH] failed to push serviceName: {} to client, error: {}", serviceName, e);
                 
-            } finally {
-                futureMap.remove(UtilsAndCommons.assembleFullServiceName(namespaceId, serviceName));
+                Loggers.PUSH.info("serviceName: {} changed, schedule push for: {}, agent: {}, key: {}",
+                        client.getServiceName(), client.getAddrStr(), client.getAgent(),
+                        (ackEntry == null ? null : ackEntry.key));
+                
+                udpPush(ackEntry);
             }
-            
-        }, 1000, TimeUnit.MILLISECONDS);
-        
-        futureMap.put(UtilsAndCommons.assembleFullServiceName(namespaceId, serviceName), future);
-        
+        } catch (Exception e) {
+            Loggers.PUSH.error("[NACOS-PUSH] failed to push serviceName: {} to client, error: {}", serviceName, e);
+        }
     }
     
     public int getTotalPush() {
@@ -361,8 +376,19 @@ public class PushService implements ApplicationContextAware, ApplicationListener
         return null;
     }
     
-    public static String getPushCacheKey(String serviceName, String clientIP, String agent) {
-        return serviceName + UtilsAndCommons.CACHE_KEY_SPLITER + agent;
+    /**
+     * Get key of push data cache, clients with the same key share the same push data.
+     *
+     * @param serviceName service name
+     * @param clusters    clusters subscribed by client
+     * @param clientIP    client ip, {@code null} if push data does not depend on client
+     * @param agent       agent of client
+     * @return cache key
+     */
+    public static String getPushCacheKey(String serviceName, String clusters, String clientIP, String agent) {
+        String key = serviceName + UtilsAndCommons.CACHE_KEY_SPLITER + clusters + UtilsAndCommons.CACHE_KEY_SPLITER
+                + agent;
+        return clientIP == null ? key : key + UtilsAndCommons.CACHE_KEY_SPLITER + clientIP;
     }
     
     /**
@@ -371,12 +397,9 @@ public class PushService implements ApplicationContextAware, ApplicationListener
      * @param service service
      */
     public void serviceChanged(Service service) {
-        // merge some change events to reduce the push frequency:
-        if (futureMap
-                .containsKey(UtilsAndCommons.assembleFullServiceName(service.getNamespaceId(), service.getName()))) {
-            return;
-        }
-        
+        // status of instances may have been changed in place, make readers rebuild the instance snapshot.
+        service.invalidateInstanceSnapshot();
+        // change events of the same service are merged by push delay task engine to reduce the push frequency.
         this.applicationContext.publishEvent(new ServiceChangeEvent(this, service));
     }
     
@@ -596,7 +619,6 @@ public class PushService implements ApplicationContextAware, ApplicationListener
         if (ackEntry.getRetryTimes() > MAX_RETRY_TIMES) {
             Loggers.PUSH.warn("max re-push times reached, retry times {}, key: {}", ackEntry.retryTimes, ackEntry.key);
             ackMap.remove(ackEntry.key);
-            udpSendTimeMap.remove(ackEntry.key);
             failedPush += 1;
             return ackEntry;
         }
@@ -606,22 +628,24 @@ public class PushService implements ApplicationContextAware, ApplicationListener
                 totalPush++;
             }
             ackMap.put(ackEntry.key, ackEntry);
-            udpSendTimeMap.put(ackEntry.key, System.currentTimeMillis());
+            ackEntry.sendTime = System.currentTimeMillis();
             
             Loggers.PUSH.info("send udp packet: " + ackEntry.key);
-            udpSocket.send(ackEntry.origin);
+            DatagramPacket packet = ackEntry.origin;
+            if (!udpSenderPool.send(packet.getData(), packet.getLength(), packet.getSocketAddress())) {
+                // Counted as a lost packet, the ack timeout below sends it again.
+                Loggers.PUSH.warn("[NACOS-PUSH] udp send buffer is full, retry later, key: {}", ackEntry.key);
+            }
             
             ackEntry.increaseRetryTime();
             
-            GlobalExecutor.scheduleRetransmitter(new Retransmitter(ackEntry),
-                    TimeUnit.NANOSECONDS.toMillis(ACK_TIMEOUT_NANOS), TimeUnit.MILLISECONDS);
+            ackEntry.timeout = ACK_TIMING_WHEEL.newTimeout(ackEntry, ACK_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
             
             return ackEntry;
         } catch (Exception e) {
             Loggers.PUSH.error("[NACOS-PUSH] failed to push data: {} to client: {}, error: {}", ackEntry.data,
                     ackEntry.origin.getAddress().getHostAddress(), e);
             ackMap.remove(ackEntry.key);
-            udpSendTimeMap.remove(ackEntry.key);
             failedPush += 1;
             
             return null;
@@ -632,66 +656,42 @@ public class PushService implements ApplicationContextAware, ApplicationListener
         return StringUtils.strip(host) + "," + port + "," + lastRefTime;
     }
     
-    public static class Retransmitter implements Runnable {
-        
-        Receiver.AckEntry ackEntry;
-        
-        public Retransmitter(Receiver.AckEntry ackEntry) {
-            this.ackEntry = ackEntry;
-        }
-        
-        @Override
-        public void run() {
-            if (ackMap.containsKey(ackEntry.key)) {
+    private static void retransmit(List<Receiver.AckEntry> expiredEntries) {
+        for (Receiver.AckEntry ackEntry : expiredEntries) {
+            if (ackMap.get(ackEntry.key) == ackEntry) {
                 Loggers.PUSH.info("retry to push data, key: " + ackEntry.key);
                 udpPush(ackEntry);
             }
         }
     }
     
-    public static class Receiver implements Runnable {
+    public static class Receiver {
         
-        @Override
-        public void run() {
-            while (true) {
-                byte[] buffer = new byte[1024 * 64];
-                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-                
-                try {
-                    udpSocket.receive(packet);
-                    
-                    String json = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8).trim();
-                    AckPacket ackPacket = JacksonUtils.toObj(json, AckPacket.class);
-                    
-                    InetSocketAddress socketAddress = (InetSocketAddress) packet.getSocketAddress();
-                    String ip = socketAddress.getAddress().getHostAddress();
-                    int port = socketAddress.getPort();
-                    
-                    if (System.nanoTime() - ackPacket.lastRefTime > ACK_TIMEOUT_NANOS) {
-                        Loggers.PUSH.warn("ack takes too long from {} ack json: {}", packet.getSocketAddress(), json);
-                    }
-                    
-                    String ackKey = getAckKey(ip, port, ackPacket.lastRefTime);
-                    AckEntry ackEntry = ackMap.remove(ackKey);
-                    if (ackEntry == null) {
-                        throw new IllegalStateException(
-                                "unable to find ackEntry for key: " + ackKey + ", ack json: " + json);
-                    }
-                    
-                    long pushCost = System.currentTimeMillis() - udpSendTimeMap.get(ackKey);
-                    
-                    Loggers.PUSH
-                            .info("received ack: {} from: {}:{}, cost: {} ms, unacked: {}, total push: {}", json, ip,
-                                    port, pushCost, ackMap.size(), totalPush);
-                    
-                    pushCostMap.put(ackKey, pushCost);
-                    
-                    udpSendTimeMap.remove(ackKey);
-                    
-                } catch (Throwable e) {
-                    Loggers.PUSH.error("[NACOS-PUSH] error while receiving ack data", e);
-                }
+        static void onAck(String json, InetSocketAddress socketAddress) {
+            AckPacket ackPacket = JacksonUtils.toObj(json, AckPacket.class);
+            
+            String ip = socketAddress.getAddress().getHostAddress();
+            int port = socketAddress.getPort();
+            
+            if (System.nanoTime() - ackPacket.lastRefTime > ACK_TIMEOUT_NANOS) {
+                Loggers.PUSH.warn("ack takes too long from {} ack json: {}", socketAddress, json);
             }
+            
+            String ackKey = getAckKey(ip, port, ackPacket.lastRefTime);
+            AckEntry ackEntry = ackMap.remove(ackKey);
+            if (ackEntry == null) {
+                throw new IllegalStateException("unable to find ackEntry for key: " + ackKey + ", ack json: " + json);
+            }
+            if (ackEntry.timeout != null) {
+                ackEntry.timeout.cancel();
+            }
+            
+            long pushCost = System.currentTimeMillis() - ackEntry.sendTime;
+            
+            Loggers.PUSH.info("received ack: {} from: {}:{}, cost: {} ms, unacked: {}, total push: {}", json, ip, port,
+                    pushCost, ackMap.size(), totalPush);
+            
+            pushCostMap.put(ackKey, pushCost);
         }
         
         public static class AckEntry {
@@ -713,6 +713,10 @@ public class PushService implements ApplicationContextAware, ApplicationListener
             
             public DatagramPacket origin;
             
+            public volatile long sendTime;
+            
+            volatile Timeout<AckEntry> timeout;
+            
             private AtomicInteger retryTimes = new AtomicInteger(0);
             
             public Map<String, Object> data;
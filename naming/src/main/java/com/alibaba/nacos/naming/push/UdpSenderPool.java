@@ -0,0 +1,141 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.push;
+
+import com.alibaba.nacos.naming.misc.Loggers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * Pool of non-blocking udp channels, used to push data to clients and to receive acks from clients.
+ *
+ * <p>Every channel owns a reused direct buffer for sending. A client is always pushed by the same channel, so that
+ * its acks are received by the same channel. All channels are read by one receiver thread through a selector.
+ *
+ * @author nacos
+ */
+public class UdpSenderPool {
+    
+    private static final int MAX_PACKET_SIZE = 64 * 1024;
+    
+    private final DatagramChannel[] channels;
+    
+    private final ByteBuffer[] sendBuffers;
+    
+    private final Selector selector;
+    
+    private final BiConsumer<String, InetSocketAddress> ackHandler;
+    
+    public UdpSenderPool(int poolSize, BiConsumer<String, InetSocketAddress> ackHandler) throws IOException {
+        this.channels = new DatagramChannel[poolSize];
+        this.sendBuffers = new ByteBuffer[poolSize];
+        this.selector = Selector.open();
+        this.ackHandler = ackHandler;
+        for (int i = 0; i < poolSize; i++) {
+            DatagramChannel channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.bind(null);
+            channel.register(selector, SelectionKey.OP_READ);
+            channels[i] = channel;
+            sendBuffers[i] = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+        }
+        new Receiver().start();
+    }
+    
+    /**
+     * Send data to target without blocking.
+     *
+     * @param data   data
+     * @param length length of data
+     * @param target target address
+     * @return true if sent, false if the send buffer of the channel is full for now
+     * @throws IOException if the data can not be sent
+     */
+    public boolean send(byte[] data, int length, SocketAddress target) throws IOException {
+        if (length > MAX_PACKET_SIZE) {
+            throw new IOException("udp packet too large : " + length);
+        }
+        final int index = (target.hashCode() & Integer.MAX_VALUE) % channels.length;
+        final DatagramChannel channel = channels[index];
+        final ByteBuffer buffer = sendBuffers[index];
+        synchronized (buffer) {
+            buffer.clear();
+            buffer.put(data, 0, length);
+            buffer.flip();
+            return channel.send(buffer, target) > 0;
+        }
+    }
+    
+    private class Receiver extends Thread {
+        
+        private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+        
+        private final byte[] bytes = new byte[MAX_PACKET_SIZE];
+        
+        Receiver() {
+            setDaemon(true);
+            setName("com.alibaba.nacos.naming.push.receiver");
+        }
+        
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+                    Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                    while (iterator.hasNext()) {
+                        SelectionKey key = iterator.next();
+                        iterator.remove();
+                        if (key.isValid() && key.isReadable()) {
+                            receiveAll((DatagramChannel) key.channel());
+                        }
+                    }
+                } catch (Throwable e) {
+                    Loggers.PUSH.error("[NACOS-PUSH] error while receiving ack data", e);
+                }
+            }
+        }
+        
+        private void receiveAll(DatagramChannel channel) throws IOException {
+            for (; ; ) {
+                receiveBuffer.clear();
+                SocketAddress address = channel.receive(receiveBuffer);
+                if (address == null) {
+                    return;
+                }
+                receiveBuffer.flip();
+                final int length = receiveBuffer.remaining();
+                receiveBuffer.get(bytes, 0, length);
+                try {
+                    ackHandler.accept(new String(bytes, 0, length, StandardCharsets.UTF_8).trim(),
+                            (InetSocketAddress) address);
+                } catch (Throwable e) {
+                    Loggers.PUSH.error("[NACOS-PUSH] error while handling ack data", e);
+                }
+            }
+        }
+    }
+}
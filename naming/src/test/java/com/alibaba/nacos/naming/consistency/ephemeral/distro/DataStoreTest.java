@@ -0,0 +1,66 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro;
+
+import com.alibaba.nacos.naming.consistency.Datum;
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Instances;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataStoreTest {
+    
+    @Test
+    public void testInstanceCount() {
+        DataStore dataStore = new DataStore();
+        dataStore.put("key1", datum("key1", 3));
+        dataStore.put("key2", datum("key2", 2));
+        Assert.assertEquals(5, dataStore.getInstanceCount());
+        
+        dataStore.put("key1", datum("key1", 1));
+        Assert.assertEquals(3, dataStore.getInstanceCount());
+        
+        dataStore.remove("key2");
+        dataStore.remove("key3");
+        Assert.assertEquals(1, dataStore.getInstanceCount());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDataMapIsReadOnly() {
+        DataStore dataStore = new DataStore();
+        dataStore.put("key1", datum("key1", 3));
+        dataStore.getDataMap().remove("key1");
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testKeysIsReadOnly() {
+        DataStore dataStore = new DataStore();
+        dataStore.put("key1", datum("key1", 3));
+        dataStore.keys().clear();
+    }
+    
+    private Datum<Instances> datum(String key, int size) {
+        Instances instances = new Instances();
+        for (int i = 0; i < size; i++) {
+            instances.getInstanceList().add(new Instance("1.1.1.1", i + 1));
+        }
+        Datum<Instances> datum = new Datum<>();
+        datum.key = key;
+        datum.value = instances;
+        return datum;
+    }
+}
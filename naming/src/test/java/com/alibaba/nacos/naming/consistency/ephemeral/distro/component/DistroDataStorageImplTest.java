@@ -0,0 +1,210 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.consistency.ephemeral.distro.component;
+
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.core.cluster.Member;
+import com.alibaba.nacos.core.cluster.ServerMemberManager;
+import com.alibaba.nacos.core.distributed.distro.entity.DistroData;
+import com.alibaba.nacos.core.distributed.distro.entity.DistroKey;
+import com.alibaba.nacos.naming.cluster.transport.JacksonSerializer;
+import com.alibaba.nacos.naming.cluster.transport.Serializer;
+import com.alibaba.nacos.naming.consistency.Datum;
+import com.alibaba.nacos.naming.consistency.KeyBuilder;
+import com.alibaba.nacos.naming.consistency.ephemeral.distro.DataStore;
+import com.alibaba.nacos.naming.consistency.ephemeral.distro.InstancesDelta;
+import com.alibaba.nacos.naming.core.DistroMapper;
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Instances;
+import com.alibaba.nacos.naming.misc.GlobalConfig;
+import com.alibaba.nacos.naming.misc.NamingChecksums;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import com.alibaba.nacos.sys.utils.ApplicationUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class DistroDataStorageImplTest {
+    
+    private static final String KEY = KeyBuilder.buildInstanceListKey("public", "DEFAULT_GROUP@@test", true);
+    
+    @Mock
+    private ConfigurableApplicationContext context;
+    
+    @Mock
+    private DistroMapper distroMapper;
+    
+    @Mock
+    private GlobalConfig globalConfig;
+    
+    @Mock
+    private ServerMemberManager memberManager;
+    
+    private DataStore dataStore;
+    
+    private DistroDataStorageImpl distroDataStorage;
+    
+    @Before
+    public void init() {
+        ApplicationUtils.injectContext(context);
+        Mockito.when(context.getBean(Serializer.class)).thenReturn(new JacksonSerializer());
+        Mockito.when(globalConfig.isDistroDeltaSync()).thenReturn(true);
+        dataStore = new DataStore();
+        distroDataStorage = new DistroDataStorageImpl(dataStore, distroMapper, globalConfig, memberManager);
+    }
+    
+    @Test
+    public void testVerifyDataInVersionOfAllMembers() {
+        Mockito.when(distroMapper.responsible(Mockito.anyString())).thenReturn(true);
+        List<Instance> instances = new ArrayList<>();
+        instances.add(new Instance("1.1.1.1", 1));
+        dataStore.put(KEY, datum(1L, instances));
+        Instances value = (Instances) dataStore.get(KEY).value;
+        EnvUtil.setEnvironment(new MockEnvironment());
+        Member member = Member.builder().ip("1.1.1.1").port(8848).build();
+        Mockito.when(memberManager.allMembers()).thenReturn(Collections.singletonList(member));
+        // A member before the hash checksums.
+        Assert.assertEquals(value.getLegacyChecksum(), verifyChecksums().get(KEY));
+        member.setExtendVal(NamingChecksums.MEMBER_META_KEY, NamingChecksums.HASH_PREFIX);
+        Assert.assertEquals(value.getChecksum(), verifyChecksums().get(KEY));
+    }
+    
+    private Map<String, String> verifyChecksums() {
+        return JacksonUtils.toObj(distroDataStorage.getVerifyData().getContent(),
+                new TypeReference<Map<String, String>>() {
+                });
+    }
+    
+    @Test
+    public void testSyncDelta() {
+        List<Instance> instances = new ArrayList<>();
+        instances.add(new Instance("1.1.1.1", 1));
+        instances.add(new Instance("1.1.1.1", 2));
+        instances.add(new Instance("1.1.1.1", 3));
+        dataStore.put(KEY, datum(1L, instances));
+        DistroKey distroKey = new DistroKey(KEY, KeyBuilder.INSTANCE_LIST_KEY_PREFIX, "2.2.2.2:8848");
+        
+        InstancesDelta delta = syncDelta(distroKey);
+        Assert.assertTrue(delta.isFull());
+        Assert.assertEquals(3, delta.getUpdated().size());
+        Datum<Instances> replica = delta.applyTo(KEY, null);
+        Assert.assertEquals(1L, replica.timestamp.get());
+        
+        List<Instance> newInstances = new ArrayList<>();
+        newInstances.add(new Instance("1.1.1.1", 1));
+        Instance changed = new Instance("1.1.1.1", 2);
+        changed.setWeight(2.0D);
+        newInstances.add(changed);
+        dataStore.put(KEY, datum(2L, newInstances));
+        
+        delta = syncDelta(distroKey);
+        Assert.assertFalse(delta.isFull());
+        Assert.assertEquals(1L, delta.getBaseVersion());
+        Assert.assertEquals(1, delta.getUpdated().size());
+        Assert.assertEquals(1, delta.getRemoved().size());
+        replica = delta.applyTo(KEY, replica);
+        Assert.assertEquals(2L, replica.timestamp.get());
+        Assert.assertEquals(2, replica.value.getInstanceList().size());
+        Assert.assertEquals(2.0D, replica.value.getInstanceList().get(1).getWeight(), 0.0D);
+        
+        // Another target server has never been synced, so the whole datum is sent.
+        delta = syncDelta(new DistroKey(KEY, KeyBuilder.INSTANCE_LIST_KEY_PREFIX, "3.3.3.3:8848"));
+        Assert.assertTrue(delta.isFull());
+    }
+    
+    @Test
+    public void testFailedSyncResendsWholeDatum() {
+        List<Instance> instances = new ArrayList<>();
+        instances.add(new Instance("1.1.1.1", 1));
+        dataStore.put(KEY, datum(1L, instances));
+        DistroKey distroKey = new DistroKey(KEY, KeyBuilder.INSTANCE_LIST_KEY_PREFIX, "2.2.2.2:8848");
+        Assert.assertTrue(syncDelta(distroKey).isFull());
+        
+        instances.add(new Instance("1.1.1.1", 2));
+        dataStore.put(KEY, datum(2L, instances));
+        DistroData failed = distroDataStorage.getSyncData(distroKey);
+        distroDataStorage.finishSync(distroKey, failed, false);
+        
+        // The target server may not have applied the delta to version 2, so it gets the whole datum.
+        InstancesDelta delta = syncDelta(distroKey);
+        Assert.assertTrue(delta.isFull());
+        Assert.assertEquals(2L, delta.getVersion());
+    }
+    
+    @Test
+    public void testUnsyncedDeltaIsNotBase() {
+        List<Instance> instances = new ArrayList<>();
+        instances.add(new Instance("1.1.1.1", 1));
+        dataStore.put(KEY, datum(1L, instances));
+        DistroKey distroKey = new DistroKey(KEY, KeyBuilder.INSTANCE_LIST_KEY_PREFIX, "2.2.2.2:8848");
+        syncDelta(distroKey);
+        
+        instances.add(new Instance("1.1.1.1", 2));
+        dataStore.put(KEY, datum(2L, instances));
+        // Built but not sent yet, the next delta is still against version 1.
+        distroDataStorage.getSyncData(distroKey);
+        InstancesDelta delta = syncDelta(distroKey);
+        Assert.assertFalse(delta.isFull());
+        Assert.assertEquals(1L, delta.getBaseVersion());
+    }
+    
+    @Test
+    public void testDeltaUnsupportedServerGetsWholeDatum() {
+        List<Instance> instances = new ArrayList<>();
+        instances.add(new Instance("1.1.1.1", 1));
+        dataStore.put(KEY, datum(1L, instances));
+        DistroKey distroKey = new DistroKey(KEY, KeyBuilder.INSTANCE_LIST_KEY_PREFIX, "2.2.2.2:8848");
+        DistroData deltaData = distroDataStorage.getSyncData(distroKey);
+        Assert.assertTrue(deltaData instanceof DistroDeltaData);
+        
+        distroDataStorage.markDeltaUnsupported("2.2.2.2:8848");
+        distroDataStorage.finishSync(distroKey, deltaData, true);
+        Assert.assertFalse(distroDataStorage.getSyncData(distroKey) instanceof DistroDeltaData);
+    }
+    
+    private InstancesDelta syncDelta(DistroKey distroKey) {
+        DistroData distroData = distroDataStorage.getSyncData(distroKey);
+        distroDataStorage.finishSync(distroKey, distroData, true);
+        Map<String, InstancesDelta> deltaMap = JacksonUtils
+                .toObj(distroData.getContent(), new TypeReference<Map<String, InstancesDelta>>() {
+                });
+        return deltaMap.get(KEY);
+    }
+    
+    private Datum<Instances> datum(long version, List<Instance> instanceList) {
+        Instances instances = new Instances();
+        instances.setInstanceList(instanceList);
+        Datum<Instances> datum = new Datum<>();
+        datum.key = KEY;
+        datum.value = instances;
+        datum.timestamp.set(version);
+        return datum;
+    }
+}
@@ -30,12 +30,14 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.context.ConfigurableApplicationContext;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -115,6 +117,28 @@ public class ClusterTest {
         assertEquals(2345, ips.get(1).getPort());
     }
     
+    @Test
+    public void updateEphemeralIpsStartsBeatCheck() {
+        Instance instance1 = new Instance("1.1.1.1", 1234, "nacos-cluster-1");
+        Instance instance2 = new Instance("1.1.1.1", 2345, "nacos-cluster-1");
+        List<Instance> list = new ArrayList<>();
+        list.add(instance1);
+        list.add(instance2);
+        cluster.updateIps(list, true);
+        assertNotNull(instance1.getBeatCheckToken());
+        assertNotNull(instance2.getBeatCheckToken());
+        final Object token1 = instance1.getBeatCheckToken();
+        
+        // instance1 is replaced by a new object and instance2 is removed
+        Instance newInstance1 = new Instance("1.1.1.1", 1234, "nacos-cluster-1");
+        cluster.updateIps(Collections.singletonList(newInstance1), true);
+        assertNull(instance1.getBeatCheckToken());
+        assertNull(instance2.getBeatCheckToken());
+        assertSame(token1, newInstance1.getBeatCheckToken());
+        cluster.updateIps(Collections.emptyList(), true);
+        assertNull(newInstance1.getBeatCheckToken());
+    }
+    
     @Test
     public void testValidate() {
         Service service = new Service("nacos.service.2");
@@ -25,6 +25,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -33,6 +34,10 @@ import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.StringUtils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class InstancesTest {
     
@@ -107,6 +112,41 @@ public class InstancesTest {
         assertEquals(expected, actual.getInstanceList());
     }
     
+    @Test
+    public void testChecksumIndependentOfOrder() {
+        Instances instances = new Instances();
+        instances.getInstanceList().addAll(createInstancesCase());
+        Instances reversed = new Instances();
+        reversed.getInstanceList().addAll(createInstancesCase());
+        Collections.reverse(reversed.getInstanceList());
+        assertEquals(instances.getChecksum(), reversed.getChecksum());
+        
+        reversed.getInstanceList().get(0).setHealthy(false);
+        assertNotEquals(instances.getChecksum(), reversed.getChecksum());
+        reversed.getInstanceList().get(0).setHealthy(true);
+        reversed.getInstanceList().get(0).getMetadata().put("key", "value");
+        assertNotEquals(instances.getChecksum(), reversed.getChecksum());
+    }
+    
+    @Test
+    public void testChecksumEqualsInSameVersion() {
+        Instances instances = new Instances();
+        instances.getInstanceList().addAll(createInstancesCase());
+        Instances reversed = new Instances();
+        reversed.getInstanceList().addAll(createInstancesCase());
+        Collections.reverse(reversed.getInstanceList());
+        Instance first = reversed.getInstanceList().get(0);
+        
+        assertTrue(instances.checksumEquals(reversed.getChecksum()));
+        assertTrue(instances.checksumEquals(reversed.getLegacyChecksum()));
+        // The legacy checksum doesn't sort the shared list.
+        assertSame(first, reversed.getInstanceList().get(0));
+        
+        first.setHealthy(false);
+        assertFalse(instances.checksumEquals(reversed.getChecksum()));
+        assertFalse(instances.checksumEquals(reversed.getLegacyChecksum()));
+    }
+    
     private Collection<Instance> createInstancesCase() {
         Collection<Instance> result = new ArrayList<>();
         Instance instanceWithBasicParam = new Instance("1.1.1.1", 1111);
@@ -200,6 +200,7 @@ public class ServiceManagerTest extends BaseTest {
         Service service = serviceManager.getService(TEST_NAMESPACE, TEST_SERVICE_NAME);
         service.addCluster(cluster);
         ((Set<Instance>) ReflectionTestUtils.getField(cluster, "ephemeralInstances")).add(instance);
+        cluster.refreshInstanceSnapshot();
         assertEquals(1, serviceManager.getResponsibleInstanceCount());
     }
     
@@ -263,6 +264,7 @@ public class ServiceManagerTest extends BaseTest {
         Service service = serviceManager.getService(TEST_NAMESPACE, TEST_SERVICE_NAME);
         service.addCluster(cluster);
         ((Set<Instance>) ReflectionTestUtils.getField(cluster, "ephemeralInstances")).add(instance);
+        cluster.refreshInstanceSnapshot();
         serviceManager.updateInstance(TEST_NAMESPACE, TEST_SERVICE_NAME, instance);
         String instanceListKey = KeyBuilder.buildInstanceListKey(TEST_NAMESPACE, TEST_SERVICE_NAME, true);
         verify(consistencyService).put(eq(instanceListKey), any(Instances.class));
@@ -354,6 +356,7 @@ public class ServiceManagerTest extends BaseTest {
         Service service = serviceManager.getService(TEST_NAMESPACE, TEST_SERVICE_NAME);
         service.addCluster(cluster);
         ((Set<Instance>) ReflectionTestUtils.getField(cluster, "ephemeralInstances")).add(instance);
+        cluster.refreshInstanceSnapshot();
         assertEquals(instance,
                 serviceManager.getInstance(TEST_NAMESPACE, TEST_SERVICE_NAME, TEST_CLUSTER_NAME, "1.1.1.1", 1));
         assertNull(serviceManager.getInstance(TEST_NAMESPACE, TEST_SERVICE_NAME, TEST_CLUSTER_NAME, "2.2.2.2", 2));
@@ -410,6 +413,7 @@ public class ServiceManagerTest extends BaseTest {
         Service service = serviceManager.getService(TEST_NAMESPACE, TEST_SERVICE_NAME);
         service.addCluster(cluster);
         ((Set<Instance>) ReflectionTestUtils.getField(cluster, "ephemeralInstances")).add(instance);
+        cluster.refreshInstanceSnapshot();
         List<Service> actualServices = new ArrayList<>(8);
         int actualSize = serviceManager
                 .getPagedService(TEST_NAMESPACE, 0, 10, StringUtils.EMPTY, "1.1.1.1:1", actualServices, true);
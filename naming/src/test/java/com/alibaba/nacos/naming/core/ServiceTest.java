@@ -25,6 +25,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -66,6 +68,58 @@ public class ServiceTest extends BaseTest {
         Assert.assertEquals(instances, service.allIPs(true));
     }
     
+    @Test
+    public void testInstanceSnapshot() {
+        List<Instance> instances = new ArrayList<>();
+        Instance healthy = new Instance("1.1.1.1", 1, "c1");
+        Instance unhealthy = new Instance("2.2.2.2", 2, "c2");
+        unhealthy.setHealthy(false);
+        instances.add(healthy);
+        instances.add(unhealthy);
+        service.updateIPs(instances, true);
+        
+        InstanceSnapshot snapshot = service.getInstanceSnapshot();
+        assertEquals(2, snapshot.getInstances().size());
+        assertEquals(2, snapshot.getEphemeralInstances().size());
+        assertTrue(snapshot.getPersistentInstances().isEmpty());
+        assertEquals(healthy, snapshot.getHealthyInstances().get(0));
+        assertEquals(unhealthy, snapshot.getUnhealthyInstances().get(0));
+        // not changed, the same snapshot should be returned without merging again
+        Assert.assertSame(snapshot, service.getInstanceSnapshot());
+        Assert.assertSame(service.getClusterMap().get("c1").getInstanceSnapshot(),
+                service.getInstanceSnapshot(Collections.singletonList("c1")));
+        
+        unhealthy.setHealthy(true);
+        service.invalidateInstanceSnapshot();
+        InstanceSnapshot newSnapshot = service.getInstanceSnapshot();
+        Assert.assertNotSame(snapshot, newSnapshot);
+        assertTrue(newSnapshot.getVersion() > snapshot.getVersion());
+        assertEquals(2, newSnapshot.getHealthyInstances().size());
+        assertTrue(newSnapshot.getUnhealthyInstances().isEmpty());
+        assertFalse(snapshot.getChecksum().equals(newSnapshot.getChecksum()));
+    }
+    
+    @Test
+    public void testMultiClusterSnapshotViewsClusterSnapshots() {
+        List<Instance> instances = new ArrayList<>();
+        Instance healthy = new Instance("1.1.1.1", 1, "c1");
+        Instance unhealthy = new Instance("2.2.2.2", 2, "c2");
+        unhealthy.setHealthy(false);
+        instances.add(healthy);
+        instances.add(unhealthy);
+        instances.add(new Instance("3.3.3.3", 3, "c3"));
+        service.updateIPs(instances, true);
+        
+        InstanceSnapshot snapshot = service.getInstanceSnapshot(Arrays.asList("c1", "c2", "missing"));
+        assertEquals(2, snapshot.getPartCount());
+        Assert.assertSame(service.getClusterMap().get("c1").getInstanceSnapshot(), snapshot.getPart(0));
+        Assert.assertSame(service.getClusterMap().get("c2").getInstanceSnapshot(), snapshot.getPart(1));
+        assertEquals(Arrays.asList(healthy, unhealthy), new ArrayList<>(snapshot.getInstances()));
+        assertEquals(Collections.singletonList(healthy), new ArrayList<>(snapshot.getHealthyInstances()));
+        assertEquals(unhealthy, snapshot.getUnhealthyInstances().get(0));
+        assertEquals(3, service.getInstanceSnapshot().getInstances().size());
+    }
+    
     @Test
     public void testSerialize() throws Exception {
         String actual = new Service("test-service").toJson();
@@ -21,6 +21,7 @@ import com.alibaba.nacos.naming.core.DistroMapper;
 import com.alibaba.nacos.naming.core.Instance;
 import com.alibaba.nacos.naming.core.Service;
 import com.alibaba.nacos.naming.misc.GlobalConfig;
+import com.alibaba.nacos.naming.misc.SwitchDomain;
 import com.alibaba.nacos.naming.push.PushService;
 import org.junit.Assert;
 import org.junit.Before;
@@ -57,12 +58,17 @@ public class ClientBeatCheckTaskTest {
     @Mock
     private PushService pushService;
     
+    @Mock
+    private SwitchDomain switchDomain;
+    
     @Before
     public void init() {
         ReflectionTestUtils.setField(clientBeatCheckTask, "service", serviceSpy);
         Mockito.doReturn(distroMapperSpy).when(clientBeatCheckTask).getDistroMapper();
         Mockito.doReturn(globalConfig).when(clientBeatCheckTask).getGlobalConfig();
         Mockito.doReturn(pushService).when(clientBeatCheckTask).getPushService();
+        Mockito.doReturn(switchDomain).when(clientBeatCheckTask).getSwitchDomain();
+        Mockito.doReturn(true).when(switchDomain).isHealthCheckEnabled();
     }
     
     @Test
@@ -76,11 +82,9 @@ public class ClientBeatCheckTaskTest {
         instance.setMetadata(metadata);
         List<Instance> instances = new ArrayList<>();
         instances.add(instance);
-        Mockito.when(serviceSpy.allIPs(true)).thenReturn(instances);
-        
         Mockito.doReturn("test").when(serviceSpy).getName();
         Mockito.doReturn(true).when(distroMapperSpy).responsible(Mockito.anyString());
-        clientBeatCheckTask.run();
+        clientBeatCheckTask.check(instances);
         Assert.assertTrue(instance.isHealthy());
     }
     
@@ -98,9 +102,7 @@ public class ClientBeatCheckTaskTest {
         Mockito.doReturn("test").when(serviceSpy).getName();
         Mockito.doReturn(true).when(distroMapperSpy).responsible(Mockito.anyString());
         
-        Mockito.when(serviceSpy.allIPs(true)).thenReturn(instances);
-        
-        clientBeatCheckTask.run();
+        clientBeatCheckTask.check(instances);
         Assert.assertFalse(instance.isHealthy());
     }
     
@@ -117,9 +119,8 @@ public class ClientBeatCheckTaskTest {
         instances.add(instance);
         Mockito.doReturn(true).when(distroMapperSpy).responsible(null);
         Mockito.doReturn(true).when(globalConfig).isExpireInstance();
-        Mockito.when(serviceSpy.allIPs(true)).thenReturn(instances);
         
-        clientBeatCheckTask.run();
+        clientBeatCheckTask.check(instances);
     }
     
     @Test
@@ -136,8 +137,7 @@ public class ClientBeatCheckTaskTest {
         
         Mockito.doReturn(true).when(distroMapperSpy).responsible(null);
         Mockito.doReturn(true).when(globalConfig).isExpireInstance();
-        Mockito.when(serviceSpy.allIPs(true)).thenReturn(instances);
         
-        clientBeatCheckTask.run();
+        clientBeatCheckTask.check(instances);
     }
 }
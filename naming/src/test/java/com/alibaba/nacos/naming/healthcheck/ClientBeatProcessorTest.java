@@ -0,0 +1,114 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.healthcheck;
+
+import com.alibaba.nacos.naming.core.Cluster;
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Service;
+import com.alibaba.nacos.naming.misc.SwitchDomain;
+import com.alibaba.nacos.naming.misc.SwitchDomain.TcpHealthParams;
+import com.alibaba.nacos.naming.push.PushService;
+import com.alibaba.nacos.sys.utils.ApplicationUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ClientBeatProcessorTest {
+    
+    @Mock
+    private ConfigurableApplicationContext context;
+    
+    @Mock
+    private SwitchDomain switchDomain;
+    
+    @Mock
+    private PushService pushService;
+    
+    private Service service;
+    
+    private Instance instance1;
+    
+    private Instance instance2;
+    
+    @Before
+    public void init() {
+        ApplicationUtils.injectContext(context);
+        Mockito.when(context.getBean(SwitchDomain.class)).thenReturn(switchDomain);
+        Mockito.when(switchDomain.getTcpHealthParams()).thenReturn(new TcpHealthParams());
+        service = new Service("nacos.service.1");
+        Cluster cluster = new Cluster("nacos-cluster-1", service);
+        service.getClusterMap().put(cluster.getName(), cluster);
+        instance1 = new Instance("1.1.1.1", 1234, "nacos-cluster-1");
+        instance1.setHealthy(false);
+        instance2 = new Instance("1.1.1.1", 2345, "nacos-cluster-1");
+        instance2.setHealthy(false);
+        List<Instance> instances = new ArrayList<>();
+        instances.add(instance1);
+        instances.add(instance2);
+        cluster.updateIps(instances, true);
+    }
+    
+    @Test
+    public void testProcessBatchPushOnce() {
+        ClientBeatBatchTask task = new ClientBeatBatchTask(service, rsInfo(1234), 0L);
+        ClientBeatBatchTask newTask = new ClientBeatBatchTask(service, rsInfo(2345), 0L);
+        newTask.merge(task);
+        newTask.merge(new ClientBeatBatchTask(service, rsInfo(3456), 0L));
+        Assert.assertEquals(3, newTask.getRsInfos().size());
+        
+        ClientBeatProcessor clientBeatProcessor = Mockito.spy(new ClientBeatProcessor());
+        Mockito.doReturn(pushService).when(clientBeatProcessor).getPushService();
+        clientBeatProcessor.setService(service);
+        clientBeatProcessor.setRsInfos(newTask.getRsInfos());
+        clientBeatProcessor.run();
+        
+        Assert.assertTrue(instance1.isHealthy());
+        Assert.assertTrue(instance2.isHealthy());
+        Mockito.verify(pushService, Mockito.times(1)).serviceChanged(service);
+    }
+    
+    @Test
+    public void testProcessBatchWithoutHealthChange() {
+        instance1.setHealthy(true);
+        List<RsInfo> rsInfos = new ArrayList<>();
+        rsInfos.add(rsInfo(1234));
+        ClientBeatProcessor clientBeatProcessor = Mockito.spy(new ClientBeatProcessor());
+        Mockito.doReturn(pushService).when(clientBeatProcessor).getPushService();
+        clientBeatProcessor.setService(service);
+        clientBeatProcessor.setRsInfos(rsInfos);
+        clientBeatProcessor.run();
+        
+        Mockito.verify(pushService, Mockito.never()).serviceChanged(service);
+    }
+    
+    private RsInfo rsInfo(int port) {
+        RsInfo rsInfo = new RsInfo();
+        rsInfo.setIp("1.1.1.1");
+        rsInfo.setPort(port);
+        rsInfo.setCluster("nacos-cluster-1");
+        return rsInfo;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2021 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.healthcheck;
+
+import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.Service;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+
+public class HealthCheckReactorTest {
+    
+    @Test
+    public void testCancelBeatCheckRemovesDeadline() throws InterruptedException {
+        final long before = awaitSettledBeatChecks();
+        Instance instance = new Instance("1.1.1.1", 8848);
+        HealthCheckReactor.scheduleBeatCheck(Mockito.mock(Service.class), instance);
+        Assert.assertNotNull(instance.getBeatCheckToken());
+        Assert.assertEquals(before + 1, HealthCheckReactor.pendingBeatChecks());
+        
+        HealthCheckReactor.cancelBeatCheck(instance);
+        Assert.assertNull(instance.getBeatCheckToken());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (HealthCheckReactor.pendingBeatChecks() > before && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50L);
+        }
+        Assert.assertEquals(before, HealthCheckReactor.pendingBeatChecks());
+    }
+    
+    @Test
+    public void testTransferBeatCheckKeepsDeadline() throws InterruptedException {
+        final long before = awaitSettledBeatChecks();
+        Service service = Mockito.mock(Service.class);
+        Instance instance = new Instance("1.1.1.1", 8848);
+        HealthCheckReactor.scheduleBeatCheck(service, instance);
+        Object token = instance.getBeatCheckToken();
+        
+        Instance replacement = new Instance("1.1.1.1", 8848);
+        HealthCheckReactor.transferBeatCheck(service, instance, replacement);
+        Assert.assertNull(instance.getBeatCheckToken());
+        Assert.assertSame(token, replacement.getBeatCheckToken());
+        Assert.assertEquals(before + 1, HealthCheckReactor.pendingBeatChecks());
+        HealthCheckReactor.cancelBeatCheck(replacement);
+    }
+    
+    /**
+     * Deadlines cancelled by other tests are purged in the next tick of the shared wheel, wait until they are gone.
+     */
+    private long awaitSettledBeatChecks() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        long pending = HealthCheckReactor.pendingBeatChecks();
+        while (System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(600L);
+            long current = HealthCheckReactor.pendingBeatChecks();
+            if (current == pending) {
+                break;
+            }
+            pending = current;
+        }
+        return pending;
+    }
+}
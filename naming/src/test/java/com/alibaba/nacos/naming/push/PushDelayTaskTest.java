@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.push;
+
+import com.alibaba.nacos.common.utils.ThreadUtils;
+import com.alibaba.nacos.naming.core.Service;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PushDelayTaskTest {
+    
+    @Test
+    public void testMergeKeepsFirstChangeTime() {
+        Service service = new Service("test.1");
+        PushDelayTask first = new PushDelayTask(service, 1000L);
+        ThreadUtils.sleep(10L);
+        PushDelayTask second = new PushDelayTask(service, 1000L);
+        second.merge(first);
+        Assert.assertEquals(first.getFirstChangeTime(), second.getFirstChangeTime());
+        Assert.assertEquals(first.getLastProcessTime(), second.getLastProcessTime());
+        Assert.assertFalse(second.shouldProcess());
+    }
+    
+    @Test
+    public void testPushCacheKey() {
+        String key = PushService.getPushCacheKey("test.1", "DEFAULT", null, "Nacos-Java-Client:v1.1.4");
+        Assert.assertNotEquals(key, PushService.getPushCacheKey("test.1", "OTHER", null, "Nacos-Java-Client:v1.1.4"));
+        Assert.assertNotEquals(key, PushService.getPushCacheKey("test.1", "DEFAULT", null, "Nacos-Java-Client:v1.4.0"));
+        Assert.assertNotEquals(key,
+                PushService.getPushCacheKey("test.1", "DEFAULT", "1.1.1.1", "Nacos-Java-Client:v1.1.4"));
+    }
+}